@@ -0,0 +1,70 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import io.vlingo.common.Outcome;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.Source;
+import io.vlingo.symbio.store.Result;
+import io.vlingo.symbio.store.StorageException;
+import io.vlingo.symbio.store.journal.Journal.AppendResultInterest;
+
+/**
+ * Completes the {@code Completion} given as the {@code object} of each append,
+ * so that a benchmark thread can wait for the outcome of its own append.
+ */
+public class AwaitableAppendResultInterest implements AppendResultInterest {
+
+    @Override
+    public <S, ST> void appendResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+            final Source<S> source, final Optional<ST> snapshot, final Object object) {
+        ((Completion) object).complete(outcome);
+    }
+
+    @Override
+    public <S, ST> void appendResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+            final Source<S> source, final Metadata metadata, final Optional<ST> snapshot, final Object object) {
+        ((Completion) object).complete(outcome);
+    }
+
+    @Override
+    public <S, ST> void appendAllResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+            final List<Source<S>> sources, final Optional<ST> snapshot, final Object object) {
+        ((Completion) object).complete(outcome);
+    }
+
+    @Override
+    public <S, ST> void appendAllResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+            final List<Source<S>> sources, final Metadata metadata, final Optional<ST> snapshot, final Object object) {
+        ((Completion) object).complete(outcome);
+    }
+
+    public static final class Completion {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile StorageException failure;
+
+        public void await() throws Exception {
+            latch.await();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void complete(final Outcome<StorageException, Result> outcome) {
+            outcome.otherwise(exception -> {
+                failure = exception;
+                return exception.result;
+            });
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import io.vlingo.common.serialization.JsonSerialization;
+import io.vlingo.symbio.BaseEntry.TextEntry;
+import io.vlingo.symbio.EntryAdapter;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.Source;
+
+import java.util.Arrays;
+
+public class BenchmarkEvent extends Source<BenchmarkEvent> {
+    public final String payload;
+
+    public static String payloadOf(final int size) {
+        final char[] payload = new char[size];
+        Arrays.fill(payload, 'x');
+        return new String(payload);
+    }
+
+    public BenchmarkEvent(final String payload) {
+        this.payload = payload;
+    }
+
+    public static final class Adapter implements EntryAdapter<BenchmarkEvent,TextEntry> {
+        @Override
+        public BenchmarkEvent fromEntry(final TextEntry entry) {
+            return JsonSerialization.deserialized(entry.entryData(), BenchmarkEvent.class);
+        }
+
+        @Override
+        public TextEntry toEntry(final BenchmarkEvent source, final Metadata metadata) {
+            final String serialization = JsonSerialization.serialized(source);
+            return new TextEntry(BenchmarkEvent.class, 1, serialization, metadata);
+        }
+
+        @Override
+        public TextEntry toEntry(final BenchmarkEvent source, final String id, final Metadata metadata) {
+            final String serialization = JsonSerialization.serialized(source);
+            return new TextEntry(BenchmarkEvent.class, 1, serialization, metadata);
+        }
+
+        @Override
+        public TextEntry toEntry(final BenchmarkEvent source, final int version, final String id, final Metadata metadata) {
+            final String serialization = JsonSerialization.serialized(source);
+            return new TextEntry(BenchmarkEvent.class, 1, serialization, version, metadata);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import io.vlingo.symbio.Source;
+import io.vlingo.symbio.store.journal.jdbc.AwaitableAppendResultInterest.Completion;
+
+public class JDBCJournalAppendAllBenchmark extends JournalBenchmark {
+    @Param({"2", "10", "100"})
+    public int batchSize;
+
+    private final AwaitableAppendResultInterest interest = new AwaitableAppendResultInterest();
+    private List<Source<BenchmarkEvent>> sources;
+    private String streamName;
+    private int streamVersion;
+
+    @Override
+    protected void setUp() {
+        streamName = UUID.randomUUID().toString();
+        streamVersion = 1;
+
+        sources = new ArrayList<>(batchSize);
+        for (int index = 0; index < batchSize; ++index) {
+            sources.add(new BenchmarkEvent(payload));
+        }
+    }
+
+    @Benchmark
+    public void appendAll() throws Exception {
+        final Completion completion = new Completion();
+        journal.appendAll(streamName, streamVersion, sources, interest, completion);
+        streamVersion += batchSize;
+        completion.await();
+    }
+}
@@ -0,0 +1,33 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import io.vlingo.symbio.store.journal.jdbc.AwaitableAppendResultInterest.Completion;
+
+public class JDBCJournalAppendBenchmark extends JournalBenchmark {
+    private final AwaitableAppendResultInterest interest = new AwaitableAppendResultInterest();
+    private String streamName;
+    private int streamVersion;
+
+    @Override
+    protected void setUp() {
+        streamName = UUID.randomUUID().toString();
+        streamVersion = 1;
+    }
+
+    @Benchmark
+    public void append() throws Exception {
+        final Completion completion = new Completion();
+        journal.append(streamName, streamVersion++, new BenchmarkEvent(payload), interest, completion);
+        completion.await();
+    }
+}
@@ -0,0 +1,43 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import static io.vlingo.symbio.store.EntryReader.Beginning;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import io.vlingo.symbio.BaseEntry.TextEntry;
+import io.vlingo.symbio.store.journal.JournalReader;
+
+public class JDBCJournalReaderBenchmark extends JournalBenchmark {
+    private static final int JournalLength = 10_000;
+
+    @Param({"1", "10", "100"})
+    public int batchSize;
+
+    private JournalReader<TextEntry> journalReader;
+
+    @Override
+    protected void setUp() throws Exception {
+        seed(UUID.randomUUID().toString(), JournalLength);
+        journalReader = journal.<TextEntry>journalReader("benchmark").await();
+    }
+
+    @Benchmark
+    public List<TextEntry> readNext() {
+        final List<TextEntry> entries = journalReader.readNext(batchSize).await();
+        if (entries.size() < batchSize) {
+            journalReader.seekTo(Beginning).await();
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,36 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import io.vlingo.symbio.store.journal.Stream;
+import io.vlingo.symbio.store.journal.StreamReader;
+
+public class JDBCStreamReaderBenchmark extends JournalBenchmark {
+    @Param({"10", "100", "1000"})
+    public int streamLength;
+
+    private String streamName;
+    private StreamReader<String> streamReader;
+
+    @Override
+    protected void setUp() throws Exception {
+        streamName = UUID.randomUUID().toString();
+        seed(streamName, streamLength);
+        streamReader = journal.streamReader("benchmark").await();
+    }
+
+    @Benchmark
+    public Stream<String> streamFor() {
+        return streamReader.streamFor(streamName).await();
+    }
+}
@@ -0,0 +1,129 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vlingo.actors.World;
+import io.vlingo.common.serialization.JsonSerialization;
+import io.vlingo.symbio.EntryAdapterProvider;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.hsqldb.HSQLDBConfigurationProvider;
+import io.vlingo.symbio.store.journal.Journal;
+
+/**
+ * The journal shared by each benchmark, held by an embedded HSQLDB either
+ * in memory or in files of a temporary directory. Appends are not dispatched,
+ * so that only the journal itself is measured. Benchmarks are single threaded,
+ * since each trial appends to a single stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class JournalBenchmark {
+    private static final int SeedBatchSize = 1000;
+
+    @Param({"mem", "file"})
+    public String storage;
+
+    @Param({"64", "1024", "8192"})
+    public int payloadSize;
+
+    protected Configuration configuration;
+    protected Journal<String> journal;
+    protected String payload;
+    protected World world;
+
+    private Path directory;
+    private JDBCQueries queries;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUpJournal() throws Exception {
+        world = World.startWithDefaults("journal-benchmark");
+
+        if (storage.equals("file")) {
+            directory = Files.createTempDirectory("vlingo-symbio-jdbc-jmh");
+            configuration = HSQLDBConfigurationProvider.fileConfiguration(DataFormat.Text, directory.toString(), "journal", "BENCHMARK", false);
+        } else {
+            configuration = HSQLDBConfigurationProvider.inMemoryConfiguration(DataFormat.Text, "journal", "BENCHMARK", false);
+        }
+
+        queries = JDBCQueries.queriesFor(configuration.connection);
+        queries.dropTables();
+        queries.createTables();
+
+        EntryAdapterProvider.instance(world).registerAdapter(BenchmarkEvent.class, new BenchmarkEvent.Adapter());
+
+        journal = world.stage().actorFor(Journal.class, JDBCJournalActor.class, configuration);
+        payload = BenchmarkEvent.payloadOf(payloadSize);
+
+        setUp();
+    }
+
+    /**
+     * Prepares the benchmark once the journal exists.
+     * @throws Exception if the benchmark cannot be prepared
+     */
+    protected abstract void setUp() throws Exception;
+
+    @TearDown
+    public void tearDownJournal() throws Exception {
+        world.terminate();
+
+        configuration.connection.createStatement().execute("SHUTDOWN");
+
+        if (directory != null) {
+            Files.walk(directory)
+                    .sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    /**
+     * Inserts {@code count} entries into the stream {@code streamName} directly,
+     * bypassing the journal, in batches of {@code SeedBatchSize}.
+     * @param streamName the String name of the stream
+     * @param count the int number of entries
+     * @throws Exception if the entries cannot be inserted
+     */
+    protected void seed(final String streamName, final int count) throws Exception {
+        final String data = JsonSerialization.serialized(new BenchmarkEvent(payload));
+        final String metadata = JsonSerialization.serialized(Metadata.nullMetadata());
+
+        for (int version = 1; version <= count; ++version) {
+            queries.prepareInsertEntryBatchQuery(streamName, version, data, BenchmarkEvent.class.getName(), 1, metadata);
+            if (version % SeedBatchSize == 0 || version == count) {
+                queries.executeInsertEntryBatch();
+                configuration.connection.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * The policy by which the sources and states written by journals and state stores are
+ * adapted to their entries and raw states. They are adapted either by the writer, just
+ * before it writes them, or in parallel on a {@code ForkJoinPool} as soon as the writer
+ * receives them, in which case the writer waits only for the adaptations not yet done
+ * when it comes to write them. Either way they are written in the order received.
+ * <p>
+ * When parallel, the adapters of the {@code EntryAdapterProvider} and the
+ * {@code StateAdapterProvider} of the world are run on the threads of the pool, at once with
+ * each other and with the actors of the world, and so must be thread-safe.
+ * </p>
+ * <p>
+ * The pool of a policy of {@code parallelOf(parallelism)} is shut down by {@code close()},
+ * which is done by the journal or store that owns the configuration of the policy when it
+ * stops, after which the policy adapts in the writer.
+ * </p>
+ */
+public class AdaptationPolicy implements AutoCloseable {
+  /**
+   * Adapts in the writer, which is the default.
+   */
+  public static final AdaptationPolicy None = new AdaptationPolicy(null, false);
+
+  /**
+   * Adapts in parallel on the common {@code ForkJoinPool}.
+   */
+  public static final AdaptationPolicy Parallel = new AdaptationPolicy(ForkJoinPool.commonPool(), false);
+
+  private final boolean ownsPool;
+  private final ForkJoinPool pool;
+
+  /**
+   * Answer a new {@code AdaptationPolicy} that adapts in parallel on a {@code ForkJoinPool}
+   * of its own with the given {@code parallelism}.
+   * @param parallelism the int number of adaptations run at once, which must be positive
+   * @return AdaptationPolicy
+   */
+  public static AdaptationPolicy parallelOf(final int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("The parallelism must be positive.");
+    }
+    return new AdaptationPolicy(new ForkJoinPool(parallelism), true);
+  }
+
+  private AdaptationPolicy(final ForkJoinPool pool, final boolean ownsPool) {
+    this.pool = pool;
+    this.ownsPool = ownsPool;
+  }
+
+  /**
+   * Answer the outcome of {@code adapting} when it is got, which is started now if I
+   * am parallel. A failure of {@code adapting} is thrown when the outcome is got.
+   * @param adapting the Supplier of the outcome of an adaptation
+   * @param <R> the type of the outcome
+   * @return Supplier
+   */
+  public <R> Supplier<R> adapt(final Supplier<R> adapting) {
+    if (pool == null || pool.isShutdown()) {
+      return adapting;
+    }
+
+    final CompletableFuture<R> adapted;
+    try {
+      adapted = CompletableFuture.supplyAsync(adapting, pool);
+    } catch (RejectedExecutionException e) {
+      return adapting;
+    }
+
+    return () -> {
+      try {
+        return adapted.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    };
+  }
+
+  /**
+   * Shuts down my pool if it is my own, once the adaptations already started are done.
+   */
+  @Override
+  public void close() {
+    if (ownsPool) {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Answer whether or not I adapt in parallel, which I do not once closed.
+   * @return boolean
+   */
+  public boolean isParallel() {
+    return pool != null && !pool.isShutdown();
+  }
+}
@@ -8,7 +8,11 @@
 package io.vlingo.symbio.store.common.jdbc;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.vlingo.symbio.store.DataFormat;
@@ -41,6 +45,12 @@ public class Configuration {
   public static final long DefaultTransactionTimeout = 5 * 60 * 1000L; // 5 minutes
 
   public final String actualDatabaseName;
+  /**
+   * The connection held by the user of this configuration, such as a journal or a state
+   * store, for as long as it lives. If the connections are pooled, it holds none of them
+   * between its transactions but borrows one for each, so its user must end each of its
+   * transactions, including those that only read, by {@code commit()} or {@code rollback()}.
+   */
   public final Connection connection;
   public final ConnectionProvider connectionProvider;
   public final DatabaseType databaseType;
@@ -48,14 +58,56 @@ public class Configuration {
   public final String originatorId;
   public final boolean createTables;
   public final long transactionTimeoutMillis;
+  public final OffsetCommitPolicy offsetCommitPolicy;
+  public final DispatchConfirmationPolicy dispatchConfirmationPolicy;
+  /**
+   * Whether dispatchables reference their states rather than holding a copy of
+   * each state's data. A referenced state is read from its state store table, or
+   * a snapshot from its journal, when the dispatchable is recovered for redispatch.
+   * The dispatchable of a referenced state holds NULL state data, so a dispatchables
+   * table created before states could be referenced must allow its data to be NULL.
+   */
+  public final boolean referenceDispatchableStates;
+  /**
+   * The number of entry ids reserved by each block from which the ids of appended
+   * entries are assigned on the client side, or 0 to have each id generated by the
+   * database and read back after its insert. The entries of a state store are always
+   * assigned ids from blocks, each of {@code JDBCStorageDelegate.DEFAULT_ENTRY_ID_BLOCK_SIZE}
+   * ids if this is 0. The ids of concurrent writers do not ascend in commit order, as
+   * the readers of a journal require, and so the readers of a journal of many writers
+   * read only through their {@code CommitHorizon}, which a writer holding a block it
+   * has not used up holds back.
+   */
+  public final int entryIdBlockSize;
+  /**
+   * The policy by which reads are routed to read-only replicas, which are
+   * shared by all clones of this configuration by way of {@code readReplicas()}.
+   */
+  public final ReadReplicaPolicy readReplicaPolicy;
+  /**
+   * The policy by which blocking JDBC work is run off the threads of actors, on the
+   * threads of an {@code IOExecutor} shared by all clones of this configuration by
+   * way of {@code ioExecutor()}.
+   */
+  public final IOExecutorPolicy ioExecutorPolicy;
+  /**
+   * The policy by which the sources and states written are adapted to entries and
+   * raw states, either by their writer or in parallel before it writes them.
+   */
+  public final AdaptationPolicy adaptationPolicy;
 
   protected final ConfigurationInterest interest;
 
+  private final Set<String> createdTables;
+  private final boolean isClone;
+
+  private ConnectionProvider actualConnectionProvider;
+  private IOExecutor ioExecutor;
+  private ReadReplicas readReplicas;
+
   public static Configuration cloneOf(final Configuration other) {
     try {
-      return new Configuration(other.databaseType, other.interest, other.connectionProvider.driverClassname, other.format,
-              other.connectionProvider.url, other.actualDatabaseName, other.connectionProvider.username, other.connectionProvider.password, other.connectionProvider.useSSL,
-              other.originatorId, other.createTables, other.transactionTimeoutMillis, true);
+      return new Configuration(other.builder(), other);
     } catch (Exception e) {
       throw new IllegalArgumentException("Cannot clone the configuration for " + other.connectionProvider.url + " because: " + e.getMessage(), e);
     }
@@ -114,39 +166,141 @@ public class Configuration {
           final boolean createTables,
           final long transactionTimeoutMillis)
     throws Exception {
-    this(databaseType, interest, driverClassname, format, url, databaseName, username, password,
-            useSSL, originatorId, createTables, DefaultTransactionTimeout, false);
+    this(new Builder(databaseType, interest, format,
+            new ConnectionProvider(driverClassname, url, databaseName, username, password, useSSL), originatorId)
+            .withCreateTables(createTables)
+            .withTransactionTimeoutMillis(transactionTimeoutMillis));
   }
 
-  private Configuration(
-          final DatabaseType databaseType,
-          final ConfigurationInterest interest,
-          final String driverClassname,
-          final DataFormat format,
-          final String url,
-          final String databaseName,
-          final String username,
-          final String password,
-          final boolean useSSL,
-          final String originatorId,
-          final boolean createTables,
-          final long transactionTimeoutMillis,
-          final boolean reuseDatabaseName)
-    throws Exception {
+  /**
+   * Construct my state per the {@code builder}.
+   * @param builder the Builder of my state
+   * @throws Exception if I cannot connect
+   */
+  protected Configuration(final Builder builder) throws Exception {
+    this(builder, null);
+  }
 
-    this.databaseType = databaseType;
-    this.interest = interest;
-    this.format = format;
-    this.connectionProvider = new ConnectionProvider(driverClassname, url, databaseName, username, password, useSSL);
-    this.actualDatabaseName = reuseDatabaseName ? databaseName : actualDatabaseName(databaseName);
-    this.originatorId = originatorId;
-    this.createTables = createTables;
-    this.transactionTimeoutMillis = transactionTimeoutMillis;
+  // a configuration per the builder, or a clone of cloned that shares its connections, replicas and executor
+  private Configuration(final Builder builder, final Configuration cloned) throws Exception {
+    this.databaseType = builder.databaseType;
+    this.interest = builder.interest;
+    this.format = builder.format;
+    this.connectionProvider = cloned == null ? builder.connectionProvider : cloned.actualConnectionProvider();
+    this.actualDatabaseName = cloned == null ? actualDatabaseName(connectionProvider.databaseName) : connectionProvider.databaseName;
+    this.originatorId = builder.originatorId;
+    this.createTables = builder.createTables;
+    this.transactionTimeoutMillis = builder.transactionTimeoutMillis;
+    this.offsetCommitPolicy = builder.offsetCommitPolicy;
+    this.dispatchConfirmationPolicy = builder.dispatchConfirmationPolicy;
+    this.referenceDispatchableStates = builder.referenceDispatchableStates;
+    this.entryIdBlockSize = builder.entryIdBlockSize;
+    this.readReplicaPolicy = builder.readReplicaPolicy;
+    this.readReplicas = cloned == null ? null : cloned.readReplicas();
+    this.ioExecutorPolicy = builder.ioExecutorPolicy;
+    this.ioExecutor = cloned == null ? null : cloned.ioExecutor();
+    this.isClone = cloned != null;
+    this.adaptationPolicy = builder.adaptationPolicy;
+    this.createdTables = cloned == null ? ConcurrentHashMap.newKeySet() : cloned.createdTables;
     beforeConnect();
     this.connection = connect();
     afterConnect();
   }
 
+  /**
+   * Answer a new {@code Builder} of a {@code Configuration} like me, of which each
+   * {@code build()} connects anew and creates its own replicas and executor.
+   * @return Builder
+   */
+  public Builder builder() {
+    return new Builder(databaseType, interest, format, connectionProvider, originatorId)
+            .withCreateTables(createTables)
+            .withTransactionTimeoutMillis(transactionTimeoutMillis)
+            .withOffsetCommitPolicy(offsetCommitPolicy)
+            .withDispatchConfirmationPolicy(dispatchConfirmationPolicy)
+            .withReferencedDispatchableStates(referenceDispatchableStates)
+            .withEntryIdBlockSize(entryIdBlockSize)
+            .withReadReplicaPolicy(readReplicaPolicy)
+            .withIOExecutorPolicy(ioExecutorPolicy)
+            .withAdaptationPolicy(adaptationPolicy);
+  }
+
+  /**
+   * Answer the {@code ConnectionProvider} of my {@code actualDatabaseName}, which is my
+   * {@code connectionProvider} itself unless the names differ. Its connections, and so
+   * any of its pooled connections, are shared by all clones of me.
+   * @return ConnectionProvider
+   */
+  public synchronized ConnectionProvider actualConnectionProvider() {
+    if (actualConnectionProvider == null) {
+      actualConnectionProvider = Objects.equals(actualDatabaseName, connectionProvider.databaseName)
+              ? connectionProvider
+              : connectionProvider.copyReplacing(actualDatabaseName);
+    }
+    return actualConnectionProvider;
+  }
+
+  /**
+   * Answer the {@code ReadReplicas} of my {@code actualConnectionProvider()} per my
+   * {@code readReplicaPolicy}, which are shared by all clones of me.
+   * @return ReadReplicas
+   */
+  public synchronized ReadReplicas readReplicas() {
+    if (readReplicas == null) {
+      readReplicas = new ReadReplicas(readReplicaPolicy, actualConnectionProvider());
+    }
+    return readReplicas;
+  }
+
+  /**
+   * Answer the {@code IOExecutor} per my {@code ioExecutorPolicy}, which is shared by all clones of me.
+   * @return IOExecutor
+   */
+  public synchronized IOExecutor ioExecutor() {
+    if (ioExecutor == null) {
+      ioExecutor = ioExecutorPolicy.isEnabled() ? new IOExecutor(ioExecutorPolicy) : IOExecutor.None;
+    }
+    return ioExecutor;
+  }
+
+  /**
+   * Closes my {@code IOExecutor} once the work already submitted has been run, unless it is
+   * that of the configuration of which I am a clone, whose owner closes it. This is done by
+   * the journal or store that owns me when it stops.
+   */
+  public synchronized void closeIOExecutor() {
+    if (ioExecutor != null && !isClone) {
+      ioExecutor.close();
+    }
+  }
+
+  /**
+   * Closes my {@code AdaptationPolicy}, and so its pool if it has its own, unless I am a clone,
+   * with which it is shared by the configuration of which I am a clone. This is done by the
+   * journal or store that owns me when it stops.
+   */
+  public void closeAdaptationPolicy() {
+    if (!isClone) {
+      adaptationPolicy.close();
+    }
+  }
+
+  /**
+   * Creates the tables known by {@code key} by way of {@code creation}, unless they were
+   * already created by way of me or any clone of me.
+   * @param key the String key of the tables, such as the name of the queries and their format
+   * @param creation the TableCreation that creates the tables
+   * @throws SQLException if the tables cannot be created
+   */
+  public void createTablesOnce(final String key, final TableCreation creation) throws SQLException {
+    synchronized (createdTables) {
+      if (!createdTables.contains(key)) {
+        creation.create();
+        createdTables.add(key);
+      }
+    }
+  }
+
   protected String actualDatabaseName(final String databaseName) {
     return connectionProvider.databaseName;
   }
@@ -160,7 +314,15 @@ public class Configuration {
   }
 
   protected Connection connect() {
-    return connectionProvider.connection();
+    return connectionProvider.ownedConnection();
+  }
+
+  /**
+   * Creates tables, as by {@code createTablesOnce()}.
+   */
+  @FunctionalInterface
+  public interface TableCreation {
+    void create() throws SQLException;
   }
 
   public interface ConfigurationInterest {
@@ -170,6 +332,99 @@ public class Configuration {
     void dropDatabase(final Connection connection, final String databaseName) throws Exception;
   }
 
+  /**
+   * Builds a {@code Configuration} of which each policy not given is that of its
+   * default, that tables are not created, and that transactions time out per
+   * {@code DefaultTransactionTimeout}.
+   */
+  public static class Builder {
+    private final DatabaseType databaseType;
+    private final ConfigurationInterest interest;
+    private final DataFormat format;
+    private final ConnectionProvider connectionProvider;
+    private final String originatorId;
+
+    private boolean createTables;
+    private long transactionTimeoutMillis = DefaultTransactionTimeout;
+    private OffsetCommitPolicy offsetCommitPolicy = OffsetCommitPolicy.Default;
+    private DispatchConfirmationPolicy dispatchConfirmationPolicy = DispatchConfirmationPolicy.EachDispatch;
+    private boolean referenceDispatchableStates;
+    private int entryIdBlockSize;
+    private ReadReplicaPolicy readReplicaPolicy = ReadReplicaPolicy.None;
+    private IOExecutorPolicy ioExecutorPolicy = IOExecutorPolicy.None;
+    private AdaptationPolicy adaptationPolicy = AdaptationPolicy.None;
+
+    public Builder(
+            final DatabaseType databaseType,
+            final ConfigurationInterest interest,
+            final DataFormat format,
+            final ConnectionProvider connectionProvider,
+            final String originatorId) {
+      this.databaseType = databaseType;
+      this.interest = interest;
+      this.format = format;
+      this.connectionProvider = connectionProvider;
+      this.originatorId = originatorId;
+    }
+
+    /**
+     * Answer a new {@code Configuration} per me.
+     * @return Configuration
+     * @throws Exception if the Configuration cannot connect
+     */
+    public Configuration build() throws Exception {
+      return new Configuration(this);
+    }
+
+    public Builder withCreateTables(final boolean createTables) {
+      this.createTables = createTables;
+      return this;
+    }
+
+    public Builder withTransactionTimeoutMillis(final long transactionTimeoutMillis) {
+      this.transactionTimeoutMillis = transactionTimeoutMillis;
+      return this;
+    }
+
+    public Builder withOffsetCommitPolicy(final OffsetCommitPolicy offsetCommitPolicy) {
+      this.offsetCommitPolicy = offsetCommitPolicy == null ? OffsetCommitPolicy.Default : offsetCommitPolicy;
+      return this;
+    }
+
+    public Builder withDispatchConfirmationPolicy(final DispatchConfirmationPolicy dispatchConfirmationPolicy) {
+      this.dispatchConfirmationPolicy = dispatchConfirmationPolicy == null ? DispatchConfirmationPolicy.EachDispatch : dispatchConfirmationPolicy;
+      return this;
+    }
+
+    public Builder withReferencedDispatchableStates(final boolean referenceDispatchableStates) {
+      this.referenceDispatchableStates = referenceDispatchableStates;
+      return this;
+    }
+
+    public Builder withEntryIdBlockSize(final int entryIdBlockSize) {
+      if (entryIdBlockSize < 0) {
+        throw new IllegalArgumentException("The entry id block size must not be negative.");
+      }
+      this.entryIdBlockSize = entryIdBlockSize;
+      return this;
+    }
+
+    public Builder withReadReplicaPolicy(final ReadReplicaPolicy readReplicaPolicy) {
+      this.readReplicaPolicy = readReplicaPolicy == null ? ReadReplicaPolicy.None : readReplicaPolicy;
+      return this;
+    }
+
+    public Builder withIOExecutorPolicy(final IOExecutorPolicy ioExecutorPolicy) {
+      this.ioExecutorPolicy = ioExecutorPolicy == null ? IOExecutorPolicy.None : ioExecutorPolicy;
+      return this;
+    }
+
+    public Builder withAdaptationPolicy(final AdaptationPolicy adaptationPolicy) {
+      this.adaptationPolicy = adaptationPolicy == null ? AdaptationPolicy.None : adaptationPolicy;
+      return this;
+    }
+  }
+
   public static class TestConfiguration extends Configuration {
     static private final AtomicInteger uniqueNumber = new AtomicInteger(0);
 
@@ -189,6 +444,10 @@ public class Configuration {
       super(databaseType, interest, driverClassname, format, url, databaseName, username, password, useSSL, originatorId, createTables);
     }
 
+    public TestConfiguration(final Builder builder) throws Exception {
+      super(builder);
+    }
+
     public void cleanUp() {
       try (final Connection ownerConnection = swapConnections()) {
         try (final Statement statement = ownerConnection.createStatement()) {
@@ -214,13 +473,12 @@ public class Configuration {
 
     @Override
     protected Connection connect() {
-      final Connection connection = super.connect();
+      final Connection connection = connectionProvider.connection();
 
       try (final Statement statement = connection.createStatement()) {
         interest.createDatabase(connection, actualDatabaseName);
         connection.close();
-        final ConnectionProvider copy = connectionProvider.copyReplacing(actualDatabaseName);
-        return copy.connection();
+        return actualConnectionProvider().ownedConnection();
       }  catch (Exception e) {
         throw new IllegalStateException(getClass().getSimpleName() + ": Cannot connect because the server or database unavilable, or wrong credentials.", e);
       }
@@ -229,6 +487,9 @@ public class Configuration {
     private Connection swapConnections() {
       try {
         connection.close();
+        if (actualConnectionProvider() != connectionProvider) {
+          actualConnectionProvider().close();
+        }
         return connectionProvider.connection();
       } catch (Exception e) {
         throw new IllegalStateException(getClass().getSimpleName() + ": Cannot swap database to owner's because: " + e.getMessage(), e);
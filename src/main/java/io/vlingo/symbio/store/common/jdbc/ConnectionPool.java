@@ -0,0 +1,696 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A pool of at most {@code ConnectionPoolPolicy#maximumSize} open connections, of
+ * which each borrowed {@code Connection} is returned to the pool by its {@code close()}.
+ * A returned connection is rolled back, so that work not committed by its borrower is
+ * never seen by the next. Objects bound to a physical connection, such as its prepared
+ * statements, may be attached to it and so outlive each borrowing of it, whereas the
+ * statements created by way of a borrowed connection are closed when it is returned.
+ * <p>
+ * A connection held by its user for the user's life, such as that of a journal or a
+ * state store, is answered by {@code borrowing()}. It holds none of my connections
+ * between its transactions, but borrows one for each transaction that it returns once
+ * the transaction ends.
+ * </p>
+ * <p>
+ * If my policy detects leaks, each connection borrowed for longer than its
+ * {@code leakDetectionMillis} is reported once, as it is detected, to my leak reporter.
+ * </p>
+ */
+public class ConnectionPool {
+  public final ConnectionPoolPolicy policy;
+
+  private final Set<Lease> borrowed;
+  private final Deque<Pooled> idle;
+  private final Consumer<Throwable> leakReporter;
+  private final ScheduledExecutorService leakDetector;
+  private final Supplier<Connection> opener;
+  private final Semaphore permits;
+
+  private volatile boolean closed;
+
+  /**
+   * Answer the attachment of the physical connection of the {@code borrowed} connection
+   * under the given {@code key}, attaching it first by way of {@code attachment}.
+   * @param borrowed the Connection borrowed from a ConnectionPool
+   * @param key the Object key of the attachment
+   * @param attachment the Attachment that answers the attachment of a physical connection
+   * @param <A> the type of the attachment
+   * @return A
+   * @throws SQLException if the attachment cannot be created
+   */
+  @SuppressWarnings("unchecked")
+  public static <A> A attachmentOf(final Connection borrowed, final Object key, final Attachment<A> attachment) throws SQLException {
+    final Lease lease = leaseOf(borrowed);
+    final Map<Object, Object> attachments = lease.pooled.attachments;
+    A attached = (A) attachments.get(key);
+    if (attached == null) {
+      attached = attachment.attachTo(lease.pooled.physical);
+      attachments.put(key, attached);
+    }
+    return attached;
+  }
+
+  public ConnectionPool(final ConnectionPoolPolicy policy, final Supplier<Connection> opener) {
+    this(policy, opener, leak -> Logger.getLogger(ConnectionPool.class.getName()).log(Level.WARNING, leak.getMessage(), leak));
+  }
+
+  /**
+   * Constructs my state, of which each leak detected per the {@code policy} is reported to {@code leakReporter}.
+   * @param policy the ConnectionPoolPolicy by which I pool connections
+   * @param opener the {@code Supplier<Connection>} that opens a physical connection
+   * @param leakReporter the {@code Consumer<Throwable>} of each leak, whose stack trace is that of its borrower
+   */
+  public ConnectionPool(final ConnectionPoolPolicy policy, final Supplier<Connection> opener, final Consumer<Throwable> leakReporter) {
+    if (!policy.isEnabled()) {
+      throw new IllegalArgumentException("The policy must enable pooling.");
+    }
+    this.policy = policy;
+    this.opener = opener;
+    this.leakReporter = leakReporter;
+    this.borrowed = ConcurrentHashMap.newKeySet();
+    this.idle = new ArrayDeque<>(policy.maximumSize);
+    this.permits = new Semaphore(policy.maximumSize, true);
+
+    for (int count = 0; count < policy.minimumSize; ++count) {
+      idle.push(new Pooled(opener.get()));
+    }
+
+    if (policy.detectsLeaks()) {
+      this.leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "vlingo-symbio-jdbc-leak-detector");
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.leakDetector.scheduleAtFixedRate(this::reportLeaks, policy.leakDetectionMillis, policy.leakDetectionMillis, TimeUnit.MILLISECONDS);
+    } else {
+      this.leakDetector = null;
+    }
+  }
+
+  /**
+   * Answer a {@code Connection} of the pool, waiting at most {@code ConnectionPoolPolicy#acquireTimeoutMillis}
+   * for one to be returned when all are borrowed.
+   * @return Connection
+   * @throws IllegalStateException if the pool is closed or no connection was returned in time
+   */
+  public Connection borrow() {
+    if (closed) {
+      throw new IllegalStateException(getClass().getSimpleName() + ": Cannot borrow a connection because the pool is closed.");
+    }
+
+    try {
+      if (!permits.tryAcquire(policy.acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw timedOut();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(getClass().getSimpleName() + ": Interrupted while waiting for a connection.", e);
+    }
+
+    try {
+      final Lease lease = new Lease(idleOrOpened());
+      borrowed.add(lease);
+      return lease.connection;
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Answer a {@code Connection} that holds none of my connections of its own, but
+   * borrows one by the first use of each of its transactions, and returns it once
+   * that transaction ends by its {@code commit()} or {@code rollback()}, or, with
+   * auto-commit, once its statement is executed and any result set is closed. The
+   * statements that it prepares are prepared again on each connection borrowed,
+   * and attached to it. Its {@code close()} returns any connection it holds.
+   * @return Connection
+   */
+  public Connection borrowing() {
+    return new Borrowing().connection;
+  }
+
+  /**
+   * Closes all idle connections, and each borrowed connection once it is returned.
+   */
+  public void close() {
+    closed = true;
+
+    if (leakDetector != null) {
+      leakDetector.shutdownNow();
+    }
+
+    Pooled pooled;
+    while ((pooled = pollIdle()) != null) {
+      pooled.discard();
+    }
+  }
+
+  /**
+   * Answer the number of connections currently borrowed.
+   * @return int
+   */
+  public int borrowedCount() {
+    return borrowed.size();
+  }
+
+  /**
+   * Answer the number of open connections currently not borrowed.
+   * @return int
+   */
+  public int idleCount() {
+    synchronized (idle) {
+      return idle.size();
+    }
+  }
+
+  /**
+   * Answer an exception for each connection borrowed longer than {@code ConnectionPoolPolicy#leakDetectionMillis},
+   * whose stack trace is that of its borrower, or none if leaks are not detected.
+   * @return {@code List<Throwable>}
+   */
+  public List<Throwable> leaks() {
+    final List<Throwable> leaks = new ArrayList<>();
+    if (!policy.detectsLeaks()) {
+      return leaks;
+    }
+
+    final long now = System.currentTimeMillis();
+    for (final Lease lease : borrowed) {
+      if (now - lease.borrowedAt >= policy.leakDetectionMillis) {
+        leaks.add(leakOf(lease, now));
+      }
+    }
+    return leaks;
+  }
+
+  private Throwable leakOf(final Lease lease, final long now) {
+    final Throwable leak = new IllegalStateException("Connection borrowed " + (now - lease.borrowedAt) + " ms ago and not yet returned.");
+    leak.setStackTrace(lease.borrower.getStackTrace());
+    return leak;
+  }
+
+  // reports each connection borrowed longer than the leak detection threshold once
+  private void reportLeaks() {
+    final long now = System.currentTimeMillis();
+    for (final Lease lease : borrowed) {
+      if (!lease.reported && now - lease.borrowedAt >= policy.leakDetectionMillis) {
+        lease.reported = true;
+        try {
+          leakReporter.accept(leakOf(lease, now));
+        } catch (RuntimeException e) {
+          // ignore, so that later leaks are still reported
+        }
+      }
+    }
+  }
+
+  private static Lease leaseOf(final Connection borrowed) {
+    if (Proxy.isProxyClass(borrowed.getClass())) {
+      final InvocationHandler handler = Proxy.getInvocationHandler(borrowed);
+      if (handler instanceof Lease) {
+        return (Lease) handler;
+      }
+    }
+    throw new IllegalArgumentException("The connection was not borrowed from a ConnectionPool.");
+  }
+
+  private Pooled idleOrOpened() {
+    Pooled pooled;
+    while ((pooled = pollIdle()) != null) {
+      if (pooled.isValid()) {
+        pooled.detachClosed();
+        return pooled;
+      }
+      pooled.discard();
+    }
+    return new Pooled(opener.get());
+  }
+
+  private Pooled pollIdle() {
+    synchronized (idle) {
+      return idle.poll();
+    }
+  }
+
+  private void giveBack(final Lease lease) {
+    if (!borrowed.remove(lease)) {
+      return;
+    }
+
+    lease.closeStatements();
+
+    final Pooled pooled = lease.pooled;
+    pooled.detachClosed();
+    if (!closed && pooled.reset()) {
+      synchronized (idle) {
+        idle.push(pooled);
+      }
+    } else {
+      pooled.discard();
+    }
+
+    permits.release();
+  }
+
+  private IllegalStateException timedOut() {
+    final IllegalStateException exception =
+            new IllegalStateException(getClass().getSimpleName() + ": Cannot borrow a connection within " +
+                    policy.acquireTimeoutMillis + " ms because all " + policy.maximumSize + " are borrowed.");
+    for (final Throwable leak : leaks()) {
+      exception.addSuppressed(leak);
+    }
+    return exception;
+  }
+
+  /**
+   * Answers an object attached to a physical connection.
+   * @param <A> the type of the attachment
+   */
+  @FunctionalInterface
+  public interface Attachment<A> {
+    A attachTo(final Connection physical) throws SQLException;
+  }
+
+  // an open physical connection and its attachments
+  private class Pooled {
+    final Map<Object, Object> attachments;
+    final Connection physical;
+    long returnedAt;
+
+    Pooled(final Connection physical) {
+      this.attachments = new HashMap<>();
+      this.physical = physical;
+      this.returnedAt = System.currentTimeMillis();
+    }
+
+    // closes those attachments that are closeable, such as statements, along with the physical connection
+    void discard() {
+      for (final Object attached : attachments.values()) {
+        closeQuietly(attached);
+      }
+      attachments.clear();
+      try {
+        physical.close();
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+
+    // closes and detaches the statements prepared by way of borrowing connections since closed
+    void detachClosed() {
+      for (final Iterator<Map.Entry<Object, Object>> iterator = attachments.entrySet().iterator(); iterator.hasNext(); ) {
+        final Map.Entry<Object, Object> attachment = iterator.next();
+        if (attachment.getKey() instanceof Borrowing.Prepared && ((Borrowing.Prepared) attachment.getKey()).isDetached()) {
+          closeQuietly(attachment.getValue());
+          iterator.remove();
+        }
+      }
+    }
+
+    boolean isValid() {
+      if (System.currentTimeMillis() - returnedAt < policy.validationIntervalMillis) {
+        return true;
+      }
+      try {
+        return physical.isValid((int) Math.max(1L, policy.acquireTimeoutMillis / 1000L));
+      } catch (SQLException e) {
+        return false;
+      }
+    }
+
+    boolean reset() {
+      try {
+        if (physical.isClosed()) {
+          return false;
+        }
+        if (!physical.getAutoCommit()) {
+          physical.rollback();
+        }
+        physical.setAutoCommit(false);
+        returnedAt = System.currentTimeMillis();
+        return true;
+      } catch (SQLException e) {
+        return false;
+      }
+    }
+  }
+
+  // a single borrowing of a pooled connection, which ends with its close()
+  private class Lease implements InvocationHandler {
+    final Throwable borrower;
+    final long borrowedAt;
+    final Connection connection;
+    final Pooled pooled;
+    final List<Statement> statements;
+
+    volatile boolean reported;
+    private volatile boolean returned;
+
+    Lease(final Pooled pooled) {
+      this.pooled = pooled;
+      this.borrowedAt = System.currentTimeMillis();
+      this.borrower = policy.detectsLeaks() ? new Throwable() : null;
+      this.statements = new ArrayList<>();
+      this.connection = (Connection) Proxy.newProxyInstance(
+              Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+    }
+
+    void closeStatements() {
+      for (final Statement statement : statements) {
+        closeQuietly(statement);
+      }
+      statements.clear();
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      switch (method.getName()) {
+      case "close":
+        if (!returned) {
+          returned = true;
+          giveBack(this);
+        }
+        return null;
+      case "isClosed":
+        if (returned) {
+          return true;
+        }
+        break;
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "toString":
+        return "PooledConnection[" + pooled.physical + "]";
+      }
+
+      if (returned) {
+        throw new SQLException("The connection was returned to its pool.");
+      }
+
+      final Object result = invokeOn(pooled.physical, method, args);
+      if (result instanceof Statement) {
+        statements.add((Statement) result);
+      }
+      return result;
+    }
+  }
+
+  private static Object invokeOn(final Object target, final Method method, final Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static void closeQuietly(final Object closeable) {
+    if (closeable instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) closeable).close();
+      } catch (Exception e) {
+        // ignore
+      }
+    }
+  }
+
+  // a connection held by its user that borrows a pooled connection for each of its transactions
+  private class Borrowing implements InvocationHandler {
+    final Connection connection;
+    final Map<Method, Object[]> settings;
+
+    private boolean autoCommit;
+    private volatile boolean closed;
+    private Lease lease;
+    private int openResults;
+
+    Borrowing() {
+      this.settings = new LinkedHashMap<>();
+      this.connection = (Connection) Proxy.newProxyInstance(
+              Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+    }
+
+    @Override
+    public synchronized Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      switch (method.getName()) {
+      case "close":
+        closed = true;
+        release();
+        return null;
+      case "isClosed":
+        return closed || ConnectionPool.this.closed;
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "toString":
+        return "BorrowingConnection[" + (lease == null ? "none" : lease.pooled.physical) + "]";
+      case "getAutoCommit":
+        return autoCommit;
+      }
+
+      if (closed) {
+        throw new SQLException("The connection is closed.");
+      }
+
+      switch (method.getName()) {
+      case "commit":
+      case "rollback":
+        if (args != null) {
+          return invokeOn(held().connection, method, args);
+        }
+        try {
+          return lease == null ? null : invokeOn(lease.connection, method, null);
+        } finally {
+          release();
+        }
+      case "setAutoCommit":
+        autoCommit = (Boolean) args[0];
+        if (lease != null) {
+          lease.connection.setAutoCommit(autoCommit);
+          releaseIfAutoCommitted();
+        }
+        return null;
+      case "createStatement":
+      case "prepareStatement":
+      case "prepareCall":
+        return new Prepared(method, args).statement;
+      case "setSavepoint":
+      case "releaseSavepoint":
+      case "createBlob":
+      case "createClob":
+      case "createNClob":
+      case "createSQLXML":
+      case "createArrayOf":
+      case "createStruct":
+        return invokeOn(held().connection, method, args);
+      }
+
+      if (method.getName().startsWith("set")) {
+        settings.put(method, args);
+        return lease == null ? null : invokeOn(lease.connection, method, args);
+      }
+
+      if (lease != null) {
+        return invokeOn(lease.connection, method, args);
+      }
+      try (final Connection borrowedOnce = borrow()) {
+        return invokeOn(borrowedOnce, method, args);
+      }
+    }
+
+    // answers the lease of the current transaction, borrowed by its first use
+    Lease held() throws Throwable {
+      if (lease == null) {
+        final Lease borrowedLease = leaseOf(borrow());
+        try {
+          borrowedLease.connection.setAutoCommit(autoCommit);
+          for (final Map.Entry<Method, Object[]> setting : settings.entrySet()) {
+            invokeOn(borrowedLease.connection, setting.getKey(), setting.getValue());
+          }
+        } catch (Throwable e) {
+          borrowedLease.connection.close();
+          throw e;
+        }
+        lease = borrowedLease;
+      }
+      return lease;
+    }
+
+    void release() throws SQLException {
+      if (lease != null) {
+        final Lease releasing = lease;
+        lease = null;
+        openResults = 0;
+        releasing.connection.close();
+      }
+    }
+
+    void releaseIfAutoCommitted() throws SQLException {
+      if (autoCommit && openResults == 0) {
+        release();
+      }
+    }
+
+    // a statement of the borrowing connection, of which the physical statement is that of the current lease
+    class Prepared implements InvocationHandler {
+      final Method creation;
+      final Object[] creationArgs;
+      final Statement statement;
+
+      private volatile boolean closedStatement;
+      private Lease createdOn;
+      private Statement physical;
+      private Statement last;
+
+      Prepared(final Method creation, final Object[] creationArgs) {
+        this.creation = creation;
+        this.creationArgs = creationArgs;
+        this.statement = (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(), new Class<?>[] { creation.getReturnType() }, this);
+      }
+
+      boolean isDetached() {
+        return closedStatement || closed;
+      }
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        synchronized (Borrowing.this) {
+          switch (method.getName()) {
+          case "close":
+            closedStatement = true;
+            if (lease != null) {
+              releaseIfAutoCommitted();
+            }
+            return null;
+          case "isClosed":
+            return closedStatement || closed;
+          case "getConnection":
+            return connection;
+          case "equals":
+            return proxy == args[0];
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          case "toString":
+            return "BorrowingStatement[" + creationArgs[0] + "]";
+          case "getResultSet":
+          case "getGeneratedKeys":
+          case "getUpdateCount":
+          case "getLargeUpdateCount":
+          case "getMoreResults":
+          case "getWarnings":
+          case "clearWarnings":
+            // the results of the last execution, which may already have ended its transaction
+            return last == null ? null : resultOf(invokeOn(last, method, args));
+          }
+
+          if (closedStatement || closed) {
+            throw new SQLException("The statement is closed.");
+          }
+
+          final Statement executing = physical();
+          final Object result = resultOf(invokeOn(executing, method, args));
+          if (method.getName().startsWith("execute")) {
+            last = executing;
+            if (!(result instanceof ResultSet) && !Boolean.TRUE.equals(result)) {
+              releaseIfAutoCommitted();
+            }
+          }
+          return result;
+        }
+      }
+
+      // the physical statement on the connection of the current lease, prepared once per physical connection
+      private Statement physical() throws Throwable {
+        final Lease current = held();
+        if (createdOn != current) {
+          if (creation.getName().equals("createStatement")) {
+            physical = (Statement) invokeOn(current.connection, creation, creationArgs);
+          } else {
+            physical = attachmentOf(current.connection, this, physicalConnection -> {
+              try {
+                return (Statement) invokeOn(physicalConnection, creation, creationArgs);
+              } catch (SQLException | RuntimeException e) {
+                throw e;
+              } catch (Throwable e) {
+                throw new SQLException(e);
+              }
+            });
+          }
+          createdOn = current;
+        }
+        return physical;
+      }
+
+      private Object resultOf(final Object result) {
+        if (!(result instanceof ResultSet)) {
+          return result;
+        }
+        final Lease resultOf = lease;
+        if (resultOf != null) {
+          ++openResults;
+        }
+        final ResultSet resultSet = (ResultSet) result;
+        return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class }, (rsProxy, method, args) -> {
+          synchronized (Borrowing.this) {
+            switch (method.getName()) {
+            case "close":
+              if (!resultSet.isClosed()) {
+                resultSet.close();
+                if (resultOf != null && resultOf == lease && --openResults == 0) {
+                  releaseIfAutoCommitted();
+                }
+              }
+              return null;
+            case "getStatement":
+              return statement;
+            case "equals":
+              return rsProxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(rsProxy);
+            }
+            return invokeOn(resultSet, method, args);
+          }
+        });
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+/**
+ * The policy by which a {@code ConnectionProvider} pools its connections. Without
+ * pooling, which is the default, each connection is opened anew and closed by its
+ * user. With pooling, between {@code minimumSize} and {@code maximumSize} connections
+ * are kept open and lent out, each being returned to the pool when its user closes it.
+ * <p>
+ * A borrower waits at most {@code acquireTimeoutMillis} for a connection when all are
+ * lent out. An idle connection is validated before it is lent again, unless it was
+ * returned within {@code validationIntervalMillis}. A connection lent out for longer
+ * than {@code leakDetectionMillis} is reported once as a possible leak, as soon as it
+ * is detected, together with the stack trace of its borrower.
+ * </p>
+ * <p>
+ * A connection that is held for the life of its user, such as that of a journal or
+ * a state store, borrows a pooled connection for each of its transactions only, and
+ * so counts against the {@code maximumSize} only while a transaction is under way.
+ * </p>
+ */
+public class ConnectionPoolPolicy {
+  /**
+   * Opens a connection for each request, which is the default.
+   */
+  public static final ConnectionPoolPolicy None = new ConnectionPoolPolicy(0, 0, 0L, 0L, 0L);
+
+  public static final long DefaultAcquireTimeoutMillis = 30_000L;
+  public static final long DefaultValidationIntervalMillis = 5_000L;
+
+  public final int minimumSize;
+  public final int maximumSize;
+  public final long acquireTimeoutMillis;
+  public final long validationIntervalMillis;
+  public final long leakDetectionMillis;
+
+  /**
+   * Answer a new {@code ConnectionPoolPolicy} keeping between {@code minimumSize}
+   * and {@code maximumSize} connections, with the default timeouts and without
+   * leak detection.
+   * @param minimumSize the int number of connections opened in advance, which must not be negative
+   * @param maximumSize the int maximum number of connections, which must be at least 1 and the minimumSize
+   * @return ConnectionPoolPolicy
+   */
+  public static ConnectionPoolPolicy of(final int minimumSize, final int maximumSize) {
+    if (minimumSize < 0 || maximumSize < 1 || minimumSize > maximumSize) {
+      throw new IllegalArgumentException("The sizes must be 0 <= minimumSize <= maximumSize and maximumSize >= 1.");
+    }
+    return new ConnectionPoolPolicy(minimumSize, maximumSize, DefaultAcquireTimeoutMillis, DefaultValidationIntervalMillis, 0L);
+  }
+
+  private ConnectionPoolPolicy(
+          final int minimumSize,
+          final int maximumSize,
+          final long acquireTimeoutMillis,
+          final long validationIntervalMillis,
+          final long leakDetectionMillis) {
+    this.minimumSize = minimumSize;
+    this.maximumSize = maximumSize;
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+    this.validationIntervalMillis = validationIntervalMillis;
+    this.leakDetectionMillis = leakDetectionMillis;
+  }
+
+  /**
+   * Answer whether or not connections are pooled.
+   * @return boolean
+   */
+  public boolean isEnabled() {
+    return maximumSize > 0;
+  }
+
+  /**
+   * Answer a copy of me that waits at most {@code acquireTimeoutMillis} for a connection.
+   * @param acquireTimeoutMillis the long milliseconds to wait, which must be positive
+   * @return ConnectionPoolPolicy
+   */
+  public ConnectionPoolPolicy withAcquireTimeout(final long acquireTimeoutMillis) {
+    if (acquireTimeoutMillis < 1) {
+      throw new IllegalArgumentException("The acquire timeout must be positive.");
+    }
+    return new ConnectionPoolPolicy(minimumSize, maximumSize, acquireTimeoutMillis, validationIntervalMillis, leakDetectionMillis);
+  }
+
+  /**
+   * Answer a copy of me that validates idle connections returned more than
+   * {@code validationIntervalMillis} ago, or all of them if 0.
+   * @param validationIntervalMillis the long milliseconds, which must not be negative
+   * @return ConnectionPoolPolicy
+   */
+  public ConnectionPoolPolicy withValidationInterval(final long validationIntervalMillis) {
+    if (validationIntervalMillis < 0) {
+      throw new IllegalArgumentException("The validation interval must not be negative.");
+    }
+    return new ConnectionPoolPolicy(minimumSize, maximumSize, acquireTimeoutMillis, validationIntervalMillis, leakDetectionMillis);
+  }
+
+  /**
+   * Answer a copy of me that reports connections lent out longer than {@code leakDetectionMillis},
+   * or none if 0.
+   * @param leakDetectionMillis the long milliseconds, which must not be negative
+   * @return ConnectionPoolPolicy
+   */
+  public ConnectionPoolPolicy withLeakDetection(final long leakDetectionMillis) {
+    if (leakDetectionMillis < 0) {
+      throw new IllegalArgumentException("The leak detection threshold must not be negative.");
+    }
+    return new ConnectionPoolPolicy(minimumSize, maximumSize, acquireTimeoutMillis, validationIntervalMillis, leakDetectionMillis);
+  }
+
+  /**
+   * Answer whether or not connections lent out for too long are reported.
+   * @return boolean
+   */
+  public boolean detectsLeaks() {
+    return leakDetectionMillis > 0;
+  }
+}
@@ -12,7 +12,8 @@ import java.sql.DriverManager;
 import java.util.Properties;
 
 /**
- * Provider of {@code Connection} instances.
+ * Provider of {@code Connection} instances, each of which is opened anew or,
+ * per its {@code ConnectionPoolPolicy}, borrowed from a {@code ConnectionPool}.
  */
 public class ConnectionProvider {
   public final String databaseName;
@@ -20,9 +21,12 @@ public class ConnectionProvider {
   public final String url;
   public final String username;
   public final boolean useSSL;
+  public final ConnectionPoolPolicy poolPolicy;
 
   final String password;
 
+  private ConnectionPool pool;
+
   public ConnectionProvider(
           final String driverClassname,
           final String url,
@@ -30,19 +34,101 @@ public class ConnectionProvider {
           final String username,
           final String password,
           final boolean useSSL) {
+    this(driverClassname, url, databaseName, username, password, useSSL, ConnectionPoolPolicy.None);
+  }
+
+  public ConnectionProvider(
+          final String driverClassname,
+          final String url,
+          final String databaseName,
+          final String username,
+          final String password,
+          final boolean useSSL,
+          final ConnectionPoolPolicy poolPolicy) {
     this.driverClassname = driverClassname;
     this.url = url;
     this.databaseName = databaseName;
     this.username = username;
     this.password = password;
     this.useSSL = useSSL;
+    this.poolPolicy = poolPolicy == null ? ConnectionPoolPolicy.None : poolPolicy;
   }
 
   /**
-   * Answer a new instance of a {@code Connection}.
+   * Answer a {@code Connection}, which is borrowed from my pool if I am pooled,
+   * and otherwise a new instance. In either case its user must close it.
    * @return Connection
    */
   public Connection connection() {
+    if (poolPolicy.isEnabled()) {
+      return pool().borrow();
+    }
+    return open();
+  }
+
+  /**
+   * Answer a {@code Connection} held by its user for as long as the user lives, such as
+   * that of a journal or a state store. If I am pooled it holds none of my connections
+   * between its transactions, but borrows one for each transaction, as by
+   * {@code ConnectionPool#borrowing()}, and otherwise it is a new instance. In either
+   * case its user must close it.
+   * @return Connection
+   */
+  public Connection ownedConnection() {
+    if (poolPolicy.isEnabled()) {
+      return pool().borrowing();
+    }
+    return open();
+  }
+
+  /**
+   * Closes my pool, if any, and so all of its connections as they are returned.
+   */
+  public void close() {
+    final ConnectionPool closing;
+    synchronized (this) {
+      closing = pool;
+      pool = null;
+    }
+    if (closing != null) {
+      closing.close();
+    }
+  }
+
+  /**
+   * Answer whether or not my connections are borrowed from a pool.
+   * @return boolean
+   */
+  public boolean isPooled() {
+    return poolPolicy.isEnabled();
+  }
+
+  /**
+   * Answer a copy of me but with the given {@code databaseName}.
+   * @param databaseName the String name of the database with which to create the new ConnectionProvider
+   * @return ConnectionProvider
+   */
+  public ConnectionProvider copyReplacing(final String databaseName) {
+    return new ConnectionProvider(driverClassname, url, databaseName, username, password, useSSL, poolPolicy);
+  }
+
+  /**
+   * Answer a copy of me but with the given {@code url}, such as that of a replica.
+   * @param url the String url of the server with which to create the new ConnectionProvider
+   * @return ConnectionProvider
+   */
+  public ConnectionProvider copyReplacingUrl(final String url) {
+    return new ConnectionProvider(driverClassname, url, databaseName, username, password, useSSL, poolPolicy);
+  }
+
+  private synchronized ConnectionPool pool() {
+    if (pool == null) {
+      pool = new ConnectionPool(poolPolicy, this::open);
+    }
+    return pool;
+  }
+
+  private Connection open() {
     try {
       Class.forName(driverClassname);
       final Properties properties = new Properties();
@@ -56,13 +142,4 @@ public class ConnectionProvider {
       throw new IllegalStateException(getClass().getSimpleName() + ": Cannot connect because database unavailable or wrong credentials.");
     }
   }
-
-  /**
-   * Answer a copy of me but with the given {@code databaseName}.
-   * @param databaseName the String name of the database with which to create the new ConnectionProvider
-   * @return ConnectionProvider
-   */
-  public ConnectionProvider copyReplacing(final String databaseName) {
-    return new ConnectionProvider(driverClassname, url, databaseName, username, password, useSSL);
-  }
 }
@@ -0,0 +1,121 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The policy by which dispatcher control delegates delete the dispatchables
+ * of confirmed dispatches. Each may be deleted as soon as it is confirmed, or
+ * confirmations may be accumulated and their dispatchables deleted in a single
+ * batch once a number of them are pending or once the oldest of them has been
+ * pending for a number of milliseconds. Pending confirmations are always
+ * flushed before unconfirmed dispatchables are read and when the delegate is
+ * stopped.
+ * <p>
+ * A confirmation is reported before its dispatchable is deleted, so if the
+ * process ends before the flush, its dispatchable is dispatched again.
+ * </p>
+ */
+public class DispatchConfirmationPolicy {
+  /**
+   * Deletes the dispatchable of each confirmation immediately, which is the default.
+   */
+  public static final DispatchConfirmationPolicy EachDispatch = new DispatchConfirmationPolicy(1, 0L);
+
+  public final int confirmations;
+  public final long millis;
+
+  /**
+   * Answer a new {@code DispatchConfirmationPolicy} that deletes when either threshold is reached first.
+   * @param confirmations the int maximum number of pending confirmations, which must be at least 1
+   * @param millis the long maximum milliseconds a confirmation is pending, or 0 to disregard time
+   * @return DispatchConfirmationPolicy
+   */
+  public static DispatchConfirmationPolicy every(final int confirmations, final long millis) {
+    if (confirmations < 1) {
+      throw new IllegalArgumentException("The confirmations must be at least 1.");
+    }
+    if (millis < 0) {
+      throw new IllegalArgumentException("The millis must not be negative.");
+    }
+    return new DispatchConfirmationPolicy(confirmations, millis);
+  }
+
+  private DispatchConfirmationPolicy(final int confirmations, final long millis) {
+    this.confirmations = confirmations;
+    this.millis = millis;
+  }
+
+  /**
+   * Answer a new {@code Accumulator} of pending confirmations under this policy.
+   * @return Accumulator
+   */
+  public Accumulator accumulator() {
+    return new Accumulator(this);
+  }
+
+  /**
+   * Accumulates the dispatch ids of confirmations whose dispatchables are not yet deleted.
+   */
+  public static class Accumulator {
+    private final DispatchConfirmationPolicy policy;
+    private final List<String> pending;
+    private long firstPendingAt;
+
+    private Accumulator(final DispatchConfirmationPolicy policy) {
+      this.policy = policy;
+      this.pending = new ArrayList<>(policy.confirmations);
+    }
+
+    /**
+     * Records the confirmation of {@code dispatchId} and answer whether or not the pending
+     * confirmations should now be flushed.
+     * @param dispatchId the String id of the confirmed dispatch
+     * @return boolean
+     */
+    public boolean confirmed(final String dispatchId) {
+      if (pending.isEmpty()) {
+        firstPendingAt = System.currentTimeMillis();
+      }
+      pending.add(dispatchId);
+      return isDue();
+    }
+
+    /**
+     * Answer the dispatch ids of all pending confirmations, which are no longer pending.
+     * @return {@code List<String>}
+     */
+    public List<String> drain() {
+      final List<String> drained = new ArrayList<>(pending);
+      pending.clear();
+      return drained;
+    }
+
+    /**
+     * Answer whether or not there are pending confirmations.
+     * @return boolean
+     */
+    public boolean hasPending() {
+      return !pending.isEmpty();
+    }
+
+    /**
+     * Answer whether or not a threshold of my policy has been reached.
+     * @return boolean
+     */
+    public boolean isDue() {
+      if (pending.isEmpty()) return false;
+
+      if (pending.size() >= policy.confirmations) return true;
+
+      return policy.millis > 0 && System.currentTimeMillis() - firstPendingAt >= policy.millis;
+    }
+  }
+}
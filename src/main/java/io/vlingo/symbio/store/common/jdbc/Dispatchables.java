@@ -0,0 +1,196 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.State;
+import io.vlingo.symbio.store.dispatch.Dispatchable;
+
+/**
+ * Support shared by the JDBC dispatcher control delegates of the journal and
+ * the state store, which recover unconfirmed dispatchables a page at a time
+ * and delete confirmed dispatchables in batches.
+ */
+public final class Dispatchables {
+  /**
+   * The maximum number of entries selected by each query of entries by their ids.
+   */
+  public static final int ENTRIES_LIMIT = 100;
+
+  /**
+   * The maximum number of unconfirmed dispatchables read by each page.
+   */
+  public static final int DISPATCHABLES_LIMIT = 100;
+
+  /**
+   * Deletes the dispatchables of {@code dispatchIds} by the {@code delete} statement,
+   * whose only parameter is the dispatch id, as a single batch unless there is only one.
+   * @param delete the PreparedStatement that deletes one dispatchable
+   * @param dispatchIds the {@code List<String>} ids of the dispatchables to delete
+   * @throws SQLException if the dispatchables cannot be deleted
+   */
+  public static void delete(final PreparedStatement delete, final List<String> dispatchIds) throws SQLException {
+    if (dispatchIds.size() == 1) {
+      delete.clearParameters();
+      delete.setString(1, dispatchIds.get(0));
+      delete.executeUpdate();
+    } else {
+      delete.clearBatch();
+      for (final String dispatchId : dispatchIds) {
+        delete.clearParameters();
+        delete.setString(1, dispatchId);
+        delete.addBatch();
+      }
+      delete.executeBatch();
+    }
+  }
+
+  /**
+   * Answer the ids of the entries of the dispatchables joined by {@code delimiter}
+   * in {@code joinedIds}, which may be null or empty.
+   * @param joinedIds the String ids of the entries
+   * @param delimiter the String between the ids
+   * @return {@code List<Long>}
+   */
+  public static List<Long> entryIdsOf(final String joinedIds, final String delimiter) {
+    final List<Long> entryIds = new ArrayList<>();
+    if (joinedIds != null && !joinedIds.isEmpty()) {
+      for (final String entryId : joinedIds.split("\\" + delimiter)) {
+        entryIds.add(Long.valueOf(entryId));
+      }
+    }
+    return entryIds;
+  }
+
+  /**
+   * Answer the entries of all {@code unconfirmed} dispatchables by their ids, each
+   * distinct id read once, by {@code reader} pages of at most {@code ENTRIES_LIMIT} ids.
+   * @param unconfirmed the {@code List<Unconfirmed>} dispatchables whose entries are read
+   * @param reader the EntriesReader of each page of ids
+   * @return {@code Map<Long, Entry<?>>}
+   * @throws Exception if the entries cannot be read
+   */
+  public static Map<Long, Entry<?>> entriesOf(final List<Unconfirmed> unconfirmed, final EntriesReader reader) throws Exception {
+    final Set<Long> distinctIds = new LinkedHashSet<>();
+    for (final Unconfirmed dispatchable : unconfirmed) {
+      distinctIds.addAll(dispatchable.entryIds);
+    }
+
+    final List<Long> entryIds = new ArrayList<>(distinctIds);
+    final Map<Long, Entry<?>> entries = new HashMap<>(entryIds.size());
+
+    for (int from = 0; from < entryIds.size(); from += ENTRIES_LIMIT) {
+      reader.read(entryIds.subList(from, Math.min(from + ENTRIES_LIMIT, entryIds.size())), entries);
+    }
+
+    return entries;
+  }
+
+  /**
+   * Answer {@code values} padded to {@code count} elements by repeating the last one,
+   * so that a statement with {@code count} parameters of an {@code IN} list can be
+   * prepared once and executed for any number of values up to {@code count}.
+   * @param values the {@code List<T>} of at least one and at most {@code count} values
+   * @param count the int number of parameters
+   * @param <T> the type of the values
+   * @return {@code List<T>}
+   */
+  public static <T> List<T> padded(final List<T> values, final int count) {
+    if (values.isEmpty() || values.size() > count) {
+      throw new IllegalArgumentException("Must have between 1 and " + count + " values.");
+    }
+    final List<T> padded = new ArrayList<>(count);
+    padded.addAll(values);
+    final T last = values.get(values.size() - 1);
+    while (padded.size() < count) {
+      padded.add(last);
+    }
+    return padded;
+  }
+
+  private Dispatchables() { }
+
+  /**
+   * Reads the entries of a page of ids.
+   */
+  @FunctionalInterface
+  public interface EntriesReader {
+    /**
+     * Reads the entries of {@code entryIds} into {@code entries} by their ids.
+     * @param entryIds the {@code List<Long>} of at most {@code ENTRIES_LIMIT} ids
+     * @param entries the {@code Map<Long, Entry<?>>} of the entries read
+     * @throws Exception if the entries cannot be read
+     */
+    void read(final List<Long> entryIds, final Map<Long, Entry<?>> entries) throws Exception;
+  }
+
+  /**
+   * An unconfirmed dispatchable as read, whose entries are loaded in bulk for all
+   * dispatchables of its page, and whose state may be referenced rather than copied.
+   */
+  public static final class Unconfirmed {
+    public final String dispatchId;
+    public final LocalDateTime createdOn;
+    public final State<?> state;
+    public final String referenceKey;
+    public final List<Long> entryIds;
+
+    /**
+     * Construct my state.
+     * @param dispatchId the String id of the dispatchable
+     * @param createdOn the LocalDateTime of the dispatchable
+     * @param state the {@code State<?>} copied when dispatched, which may be null
+     * @param referenceKey the String key of the referenced state, or null if the state was copied
+     * @param entryIds the {@code List<Long>} ids of the entries of the dispatchable
+     */
+    public Unconfirmed(final String dispatchId, final LocalDateTime createdOn, final State<?> state,
+            final String referenceKey, final List<Long> entryIds) {
+      this.dispatchId = dispatchId;
+      this.createdOn = createdOn;
+      this.state = state;
+      this.referenceKey = referenceKey;
+      this.entryIds = entryIds;
+    }
+
+    /**
+     * Answer whether my state was referenced rather than copied.
+     * @return boolean
+     */
+    public boolean isReferenced() {
+      return referenceKey != null;
+    }
+
+    /**
+     * Answer my {@code Dispatchable} with those of {@code loadedEntries} that are mine,
+     * and my referenced state from {@code referencedStates} by my {@code referenceKey}.
+     * @param loadedEntries the {@code Map<Long, Entry<?>>} entries of the page by id
+     * @param referencedStates the {@code Map<String, State<?>>} referenced states of the page by key
+     * @return {@code Dispatchable<Entry<?>, State<?>>}
+     */
+    public Dispatchable<Entry<?>, State<?>> with(final Map<Long, Entry<?>> loadedEntries, final Map<String, State<?>> referencedStates) {
+      final List<Entry<?>> entries = new ArrayList<>(entryIds.size());
+      for (final Long entryId : entryIds) {
+        final Entry<?> entry = loadedEntries.get(entryId);
+        if (entry != null) {
+          entries.add(entry);
+        }
+      }
+      return new Dispatchable<>(dispatchId, createdOn, isReferenced() ? referencedStates.get(referenceKey) : state, entries);
+    }
+  }
+}
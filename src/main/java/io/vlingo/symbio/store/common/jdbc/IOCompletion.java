@@ -0,0 +1,20 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+/**
+ * The protocol by which the work of an actor run in a {@code Lane} of an {@code IOExecutor}
+ * tells the actor that it has handed over outcomes, which the actor then runs on its own
+ * thread by way of {@code Lane#runCompleted()}.
+ */
+public interface IOCompletion {
+  /**
+   * Tells me that the work of my lane has handed me outcomes to run.
+   */
+  void ioCompleted();
+}
@@ -0,0 +1,302 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The threads on which blocking JDBC work is run per an {@code IOExecutorPolicy}, so that
+ * the threads of actors are not held by the database. Each actor runs its work in its
+ * own {@code Lane}, which runs one unit of work at a time in the order of submission, and
+ * so in the order of the messages of the actor. The outcomes of the work, such as those
+ * told to interests and dispatchers, are handed back to the actor to be run on its own
+ * thread, by way of its {@code IOCompletion} protocol.
+ * <p>
+ * My threads are stopped when the journal or store that owns the configuration that created
+ * me stops, by way of {@code Configuration#closeIOExecutor()}. Work submitted after is run on
+ * the threads submitting it.
+ * </p>
+ */
+public class IOExecutor {
+  /**
+   * The number of units of work a {@code Lane} runs before yielding its thread to other lanes.
+   */
+  public static final int LaneBatchSize = 16;
+
+  /**
+   * Runs all work on the threads submitting it.
+   */
+  public static final IOExecutor None = new IOExecutor(IOExecutorPolicy.None);
+
+  public final IOExecutorPolicy policy;
+
+  private final ExecutorService executor;
+  private final Semaphore permits;
+  private final boolean virtualThreads;
+
+  public IOExecutor(final IOExecutorPolicy policy) {
+    this.policy = policy == null ? IOExecutorPolicy.None : policy;
+
+    final ExecutorService virtual = this.policy.isEnabled() && this.policy.preferVirtualThreads ? virtualThreadExecutor() : null;
+
+    if (virtual != null) {
+      this.executor = virtual;
+      this.permits = new Semaphore(this.policy.maximumConcurrency, true);
+      this.virtualThreads = true;
+    } else if (this.policy.isEnabled()) {
+      this.executor = platformThreadExecutor(this.policy.maximumConcurrency);
+      this.permits = null;
+      this.virtualThreads = false;
+    } else {
+      this.executor = null;
+      this.permits = null;
+      this.virtualThreads = false;
+    }
+  }
+
+  /**
+   * Stops my threads once the work already submitted has been run. Work submitted after
+   * is run on the threads submitting it.
+   */
+  public void close() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Answer whether or not work is run on my threads rather than on those submitting it.
+   * @return boolean
+   */
+  public boolean isEnabled() {
+    return executor != null;
+  }
+
+  /**
+   * Answer whether or not my threads are virtual threads.
+   * @return boolean
+   */
+  public boolean usesVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Answer a new {@code Lane} of mine, whose work that fails tells {@code whenFailed} of its cause,
+   * and whose outcomes are run on the threads of my work.
+   * @param whenFailed the Consumer of the cause of each failed unit of work run on my threads
+   * @return Lane
+   */
+  public Lane lane(final Consumer<Throwable> whenFailed) {
+    return new Lane(this, whenFailed, null);
+  }
+
+  /**
+   * Answer a new {@code Lane} of mine, whose work that fails tells {@code whenFailed} of its cause,
+   * and whose outcomes are handed to the actor of the lane by way of its {@code completion}.
+   * @param whenFailed the Consumer of the cause of each failed unit of work run on my threads
+   * @param completion the IOCompletion of the actor, which is answered by its {@code selfAs()}
+   * @return Lane
+   */
+  public Lane lane(final Consumer<Throwable> whenFailed, final IOCompletion completion) {
+    return new Lane(this, whenFailed, completion);
+  }
+
+  private void submit(final Runnable work) {
+    if (permits == null) {
+      executor.execute(work);
+    } else {
+      // virtual threads are not pooled, so the concurrency is bounded by permits
+      executor.execute(() -> {
+        permits.acquireUninterruptibly();
+        try {
+          work.run();
+        } finally {
+          permits.release();
+        }
+      });
+    }
+  }
+
+  private static ExecutorService platformThreadExecutor(final int threads) {
+    final AtomicInteger threadNumber = new AtomicInteger(0);
+    final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), work -> {
+              final Thread thread = new Thread(work, "vlingo-symbio-jdbc-io-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  // the virtual thread per task executor where the runtime provides one, which is looked up
+  // by name so that the same classes run on runtimes with and without virtual threads
+  private static ExecutorService virtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  /**
+   * The serial order in which the work of one actor is run on the threads of an {@code IOExecutor}.
+   * Each unit of work is run after the one submitted before it has been run, and sees its effects.
+   */
+  public static final class Lane {
+    private final IOCompletion completion;
+    private final Queue<Runnable> outcomes;
+    private final IOExecutor owner;
+    private final Queue<Runnable> work;
+    private final Consumer<Throwable> whenFailed;
+    private boolean running;
+
+    Lane(final IOExecutor owner, final Consumer<Throwable> whenFailed, final IOCompletion completion) {
+      this.owner = owner;
+      this.completion = completion;
+      this.outcomes = new ConcurrentLinkedQueue<>();
+      this.work = new ArrayDeque<>();
+      this.whenFailed = whenFailed;
+    }
+
+    /**
+     * Runs the {@code outcome} of my work on the thread of my actor, to which it is handed
+     * by way of the {@code IOCompletion} of my actor, and now if my work is run on the
+     * threads submitting it or I have no {@code IOCompletion}.
+     * @param outcome the Runnable outcome, such as that told to an interest or a dispatcher
+     */
+    public void completed(final Runnable outcome) {
+      if (isInline() || completion == null) {
+        outcome.run();
+        return;
+      }
+
+      outcomes.add(outcome);
+      completion.ioCompleted();
+    }
+
+    /**
+     * Runs the outcomes handed to my actor so far, in the order in which they were handed,
+     * on the calling thread, which must be that of my actor.
+     */
+    public void runCompleted() {
+      Runnable outcome;
+      while ((outcome = outcomes.poll()) != null) {
+        try {
+          outcome.run();
+        } catch (Throwable t) {
+          whenFailed.accept(t);
+        }
+      }
+    }
+
+    /**
+     * Waits until the work submitted before has been run, and then runs its outcomes on the
+     * calling thread, which must be that of my actor, so that my actor can be stopped without
+     * losing any of them.
+     */
+    public void close() {
+      if (!isInline()) {
+        final CountDownLatch ran = new CountDownLatch(1);
+        execute(ran::countDown);
+        boolean interrupted = false;
+        while (ran.getCount() > 0) {
+          try {
+            ran.await();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      runCompleted();
+    }
+
+    /**
+     * Runs {@code unit} after the work submitted before it, and now if work is run on the
+     * threads submitting it, in which case a failure is thrown to the submitter.
+     * @param unit the Runnable unit of work
+     */
+    public void execute(final Runnable unit) {
+      if (!owner.isEnabled()) {
+        unit.run();
+        return;
+      }
+
+      synchronized (work) {
+        work.add(unit);
+        if (running) return;
+        running = true;
+      }
+
+      resume();
+    }
+
+    /**
+     * Answer whether or not my work is run on the threads submitting it.
+     * @return boolean
+     */
+    public boolean isInline() {
+      return !owner.isEnabled();
+    }
+
+    private void drain() {
+      if (runBatch()) {
+        resume();
+      }
+    }
+
+    // runs up to a batch of work, answering whether or not work remains
+    private boolean runBatch() {
+      for (int count = 0; count < LaneBatchSize; ++count) {
+        final Runnable unit;
+        synchronized (work) {
+          unit = work.poll();
+          if (unit == null) {
+            running = false;
+            return false;
+          }
+        }
+
+        try {
+          unit.run();
+        } catch (Throwable t) {
+          whenFailed.accept(t);
+        }
+      }
+      return true;
+    }
+
+    private void resume() {
+      boolean remaining = true;
+      while (remaining) {
+        try {
+          owner.submit(this::drain);
+          return;
+        } catch (RejectedExecutionException e) {
+          // the executor is closed, so the remaining work is run here
+          remaining = runBatch();
+        }
+      }
+    }
+  }
+}
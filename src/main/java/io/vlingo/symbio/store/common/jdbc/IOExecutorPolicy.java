@@ -0,0 +1,59 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+/**
+ * The policy by which the blocking JDBC work of stores, journals and their readers is
+ * run by an {@code IOExecutor} rather than by the threads of their actors. At most
+ * {@code maximumConcurrency} units of work are run at once, on virtual threads where
+ * the runtime provides them and {@code preferVirtualThreads}, and otherwise on a pool
+ * of that many platform threads.
+ */
+public class IOExecutorPolicy {
+  /**
+   * Runs the work on the threads of the actors, which is the default.
+   */
+  public static final IOExecutorPolicy None = new IOExecutorPolicy(0, false);
+
+  public final int maximumConcurrency;
+  public final boolean preferVirtualThreads;
+
+  /**
+   * Answer a new {@code IOExecutorPolicy} running at most {@code maximumConcurrency}
+   * units of work at once, preferring virtual threads.
+   * @param maximumConcurrency the int maximum, which must be positive
+   * @return IOExecutorPolicy
+   */
+  public static IOExecutorPolicy of(final int maximumConcurrency) {
+    if (maximumConcurrency <= 0) {
+      throw new IllegalArgumentException("The maximum concurrency must be positive.");
+    }
+    return new IOExecutorPolicy(maximumConcurrency, true);
+  }
+
+  private IOExecutorPolicy(final int maximumConcurrency, final boolean preferVirtualThreads) {
+    this.maximumConcurrency = maximumConcurrency;
+    this.preferVirtualThreads = preferVirtualThreads;
+  }
+
+  /**
+   * Answer whether or not the work is run by an {@code IOExecutor}.
+   * @return boolean
+   */
+  public boolean isEnabled() {
+    return maximumConcurrency > 0;
+  }
+
+  /**
+   * Answer a copy of me that runs the work on platform threads even where virtual threads are provided.
+   * @return IOExecutorPolicy
+   */
+  public IOExecutorPolicy withPlatformThreads() {
+    return new IOExecutorPolicy(maximumConcurrency, false);
+  }
+}
@@ -0,0 +1,97 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Assigns identities on the client side from blocks reserved in the database,
+ * so that rows may be inserted with their identities rather than reading back
+ * each generated identity. A new block is reserved, in a single round trip,
+ * only when the previous block is used up. Identities of a block that is not
+ * used up, such as when the allocator is discarded, are left as gaps.
+ * <p>
+ * The identities of one allocator ascend in the order in which they are
+ * assigned, but those of two allocators interleave: a writer holding a lower
+ * block may commit its rows after a writer holding a higher block. A reader
+ * that pages by identity, reading only those greater than the last it read,
+ * would then skip the rows of the lower block. So an allocator must be the
+ * only one that assigns the identities of its table when such readers are
+ * used, as is the single writer of a journal, unless the readers read only
+ * below the {@code nextHeldId()} of each of the allocators.
+ * </p>
+ */
+public class IdentityBlockAllocator {
+  private final int blockSize;
+  private final BlockReserver reserver;
+  private long next;
+  private long limit;
+
+  /**
+   * Construct my state.
+   * @param blockSize the int number of identities reserved by each block
+   * @param reserver the BlockReserver that reserves each block in the database
+   */
+  public IdentityBlockAllocator(final int blockSize, final BlockReserver reserver) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("The block size must be at least 1.");
+    }
+    this.blockSize = blockSize;
+    this.reserver = reserver;
+    this.next = 0;
+    this.limit = 0;
+  }
+
+  /**
+   * Answer my int number of identities reserved by each block.
+   * @return int
+   */
+  public int blockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Answer the next identity, reserving a new block if mine is used up.
+   * @return long
+   * @throws SQLException if a new block cannot be reserved
+   */
+  public long nextId() throws SQLException {
+    if (next == limit) {
+      final long first = reserver.reserve(blockSize);
+      next = first;
+      limit = first + blockSize;
+    }
+    return next++;
+  }
+
+  /**
+   * Answer the next identity of my block, which is the lowest I may still assign,
+   * or {@code Long.MAX_VALUE} if my block is used up, in which case the next is of
+   * a block yet to be reserved, whose identities are higher than those of all the
+   * blocks already reserved.
+   * @return long
+   */
+  public long nextHeldId() {
+    return next == limit ? Long.MAX_VALUE : next;
+  }
+
+  /**
+   * Reserves blocks of identities in the database.
+   */
+  @FunctionalInterface
+  public interface BlockReserver {
+    /**
+     * Answer the first identity of a newly reserved block of {@code blockSize}
+     * consecutive identities, which no other block overlaps.
+     * @param blockSize the int number of identities to reserve
+     * @return long
+     * @throws SQLException if the block cannot be reserved
+     */
+    long reserve(final int blockSize) throws SQLException;
+  }
+}
@@ -0,0 +1,179 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+/**
+ * The policy by which entry readers persist their current offset. The offset
+ * may be persisted after every read, after a number of entries have been read,
+ * after a number of milliseconds have passed since it was last persisted, or
+ * only explicitly, which is when the reader seeks, rewinds, or is closed.
+ * A reader always persists a pending offset when it is closed. By default each
+ * reader persists as it always has: journal and object store entry readers
+ * after every read, and state store entry readers only explicitly.
+ * <p>
+ * A journal reader persists a pending offset once the milliseconds have passed
+ * even if it reads no more, by a flush scheduled after its read. The object store
+ * and state store entry readers instead persist it at their first read after the
+ * milliseconds have passed, or when they are closed, and so an offset read last
+ * by an idle one of these readers stays pending until then.
+ * </p>
+ * <p>
+ * Offsets are delivered at-least-once: if a reader stops without being closed,
+ * the entries read since the last persisted offset are read again by the next
+ * reader of the same name. The larger the entries count or milliseconds, the
+ * more entries may be redelivered, so readers must tolerate duplicates.
+ * </p>
+ */
+public class OffsetCommitPolicy {
+  /**
+   * Persists the offset as the reader does by default, per {@code defaultingTo()}.
+   */
+  public static final OffsetCommitPolicy Default = new OffsetCommitPolicy(1, 0L);
+
+  /**
+   * Persists the offset after every read.
+   */
+  public static final OffsetCommitPolicy EveryRead = new OffsetCommitPolicy(1, 0L);
+
+  /**
+   * Persists the offset only when seeking, rewinding, or closing.
+   */
+  public static final OffsetCommitPolicy Explicit = new OffsetCommitPolicy(0, 0L);
+
+  public final int entries;
+  public final long millis;
+
+  /**
+   * Answer a new {@code OffsetCommitPolicy} that persists after every {@code entries} entries read.
+   * @param entries the int number of entries read between persisting
+   * @return OffsetCommitPolicy
+   */
+  public static OffsetCommitPolicy everyEntries(final int entries) {
+    return every(entries, 0L);
+  }
+
+  /**
+   * Answer a new {@code OffsetCommitPolicy} that persists once {@code millis} have elapsed since it last persisted.
+   * @param millis the long milliseconds between persisting
+   * @return OffsetCommitPolicy
+   */
+  public static OffsetCommitPolicy everyMillis(final long millis) {
+    return every(0, millis);
+  }
+
+  /**
+   * Answer a new {@code OffsetCommitPolicy} that persists when either threshold is reached first.
+   * @param entries the int number of entries read between persisting, or 0 to disregard entries
+   * @param millis the long milliseconds between persisting, or 0 to disregard time
+   * @return OffsetCommitPolicy
+   */
+  public static OffsetCommitPolicy every(final int entries, final long millis) {
+    if (entries < 0 || millis < 0) {
+      throw new IllegalArgumentException("The entries and millis must not be negative.");
+    }
+    return new OffsetCommitPolicy(entries, millis);
+  }
+
+  private OffsetCommitPolicy(final int entries, final long millis) {
+    this.entries = entries;
+    this.millis = millis;
+  }
+
+  /**
+   * Answer the policy of a reader whose default policy is {@code readerDefault},
+   * which is {@code readerDefault} if I am {@code Default}, or otherwise me.
+   * @param readerDefault the OffsetCommitPolicy by which the reader persists by default
+   * @return OffsetCommitPolicy
+   */
+  public OffsetCommitPolicy defaultingTo(final OffsetCommitPolicy readerDefault) {
+    return this == Default ? readerDefault : this;
+  }
+
+  /**
+   * Answer a new {@code Tracker} of uncommitted reads under this policy.
+   * @return Tracker
+   */
+  public Tracker tracker() {
+    return new Tracker(this);
+  }
+
+  /**
+   * Tracks the reads of a single reader since its offset was last persisted.
+   */
+  public static class Tracker {
+    private final OffsetCommitPolicy policy;
+    private boolean flushScheduled;
+    private long lastCommittedAt;
+    private boolean pending;
+    private int uncommittedEntries;
+
+    private Tracker(final OffsetCommitPolicy policy) {
+      this.policy = policy;
+      this.lastCommittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Answer whether or not there are reads not yet persisted.
+     * @return boolean
+     */
+    public boolean hasPending() {
+      return pending;
+    }
+
+    /**
+     * Records that the offset was persisted.
+     */
+    public void committed() {
+      pending = false;
+      uncommittedEntries = 0;
+      lastCommittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Records that {@code count} entries were read and answer whether or not the offset should now be persisted.
+     * @param count the int number of entries read
+     * @return boolean
+     */
+    public boolean read(final int count) {
+      if (count > 0) {
+        pending = true;
+        uncommittedEntries += count;
+      }
+
+      if (!pending) return false;
+
+      if (policy.entries > 0 && uncommittedEntries >= policy.entries) return true;
+
+      return policy.millis > 0 && System.currentTimeMillis() - lastCommittedAt >= policy.millis;
+    }
+
+    /**
+     * Answer the milliseconds after which a flush of the pending reads should be scheduled,
+     * or 0 if none should be, which is when none are pending, time is disregarded, or a
+     * flush is already scheduled. A flush answered is recorded as scheduled until {@code flushDue()}.
+     * @return long
+     */
+    public long flushAfter() {
+      if (!pending || policy.millis == 0 || flushScheduled) return 0L;
+
+      flushScheduled = true;
+
+      return Math.max(1L, policy.millis - (System.currentTimeMillis() - lastCommittedAt));
+    }
+
+    /**
+     * Records that the scheduled flush is run and answer whether or not the offset should now be persisted.
+     * @return boolean
+     */
+    public boolean flushDue() {
+      flushScheduled = false;
+
+      return pending && policy.millis > 0 && System.currentTimeMillis() - lastCommittedAt >= policy.millis;
+    }
+  }
+}
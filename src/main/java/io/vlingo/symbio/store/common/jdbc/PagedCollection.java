@@ -0,0 +1,123 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.util.AbstractCollection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * A read-only {@code Collection} whose elements are queried a page at a time
+ * while it is iterated, so that at most one page is held in memory. Each
+ * iterator reads through a new {@code Pager}, which remembers the key of the
+ * last element of its previous page.
+ * <p>
+ * The {@code size()} is counted by the first iteration of all elements,
+ * whether by {@code size()} itself or by an iterator that runs out, and
+ * then remembered, so that it is queried at most once. {@code isEmpty()}
+ * answers from the remembered size if it is known, or else reads only the
+ * first page. Both may therefore be stale if the underlying rows change
+ * after they were first answered, which suits a collection that is read
+ * once, such as the unconfirmed dispatchables of a single recovery.
+ *
+ * @param <T> the type of the elements
+ */
+public class PagedCollection<T> extends AbstractCollection<T> {
+  private final int pageSize;
+  private final Supplier<Pager<T>> pagers;
+  private volatile int size = -1;
+
+  /**
+   * Construct my state.
+   * @param pageSize the int maximum number of elements of each page
+   * @param pagers the {@code Supplier<Pager<T>>} of a new Pager for each iterator
+   */
+  public PagedCollection(final int pageSize, final Supplier<Pager<T>> pagers) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("The page size must be at least 1.");
+    }
+    this.pageSize = pageSize;
+    this.pagers = pagers;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    final int knownSize = size;
+    return knownSize >= 0 ? knownSize == 0 : !iterator().hasNext();
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    final Pager<T> pager = pagers.get();
+
+    return new Iterator<T>() {
+      private Iterator<T> page = Collections.emptyIterator();
+      private boolean exhausted = false;
+      private int count = 0;
+
+      @Override
+      public boolean hasNext() {
+        while (!page.hasNext() && !exhausted) {
+          final List<T> next = nextPage();
+          exhausted = next.size() < pageSize;
+          count += next.size();
+          page = next.iterator();
+        }
+        final boolean hasNext = page.hasNext();
+        if (!hasNext && size < 0) {
+          size = count;
+        }
+        return hasNext;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return page.next();
+      }
+
+      private List<T> nextPage() {
+        try {
+          return pager.nextPage(pageSize);
+        } catch (final Exception e) {
+          throw new IllegalStateException("Cannot read the next page because: " + e.getMessage(), e);
+        }
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    if (size < 0) {
+      for (final Iterator<T> iterator = iterator(); iterator.hasNext(); iterator.next()) { }
+    }
+    return size;
+  }
+
+  /**
+   * Queries the pages of a {@code PagedCollection} in order.
+   * @param <T> the type of the elements
+   */
+  @FunctionalInterface
+  public interface Pager<T> {
+    /**
+     * Answer the elements that follow those of my previous page, or the first
+     * elements if this is my first page. Fewer than {@code limit} elements
+     * means that there are no more pages.
+     * @param limit the int maximum number of elements to answer
+     * @return {@code List<T>}
+     * @throws Exception if the page cannot be read
+     */
+    List<T> nextPage(final int limit) throws Exception;
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The policy by which reads are routed to read-only replicas of the primary database.
+ * Each replica is reached by its {@code url}, with the database name and credentials of
+ * the primary, and is selected either {@code RoundRobin} or {@code LeastLoaded}. Writes,
+ * reader offsets and dispatcher control always use the primary.
+ * <p>
+ * A replica may lag behind the primary. Therefore a stream or state written through the
+ * same {@code Configuration}, or a clone of it, within {@code readYourWritesMillis} is
+ * read from the primary, and so is each journal read that a replica answers with fewer
+ * entries than were known to be written.
+ * </p>
+ */
+public class ReadReplicaPolicy {
+  /**
+   * Reads from the primary only, which is the default.
+   */
+  public static final ReadReplicaPolicy None = new ReadReplicaPolicy(Collections.emptyList(), Selection.RoundRobin, 0L);
+
+  public static final long DefaultReadYourWritesMillis = 1_000L;
+
+  public final List<String> urls;
+  public final Selection selection;
+  public final long readYourWritesMillis;
+
+  /**
+   * Answer a new {@code ReadReplicaPolicy} selecting among the replicas at the given {@code urls}.
+   * @param selection the Selection of a replica for each read
+   * @param urls the String urls of the replicas, of which there must be at least one
+   * @return ReadReplicaPolicy
+   */
+  public static ReadReplicaPolicy of(final Selection selection, final String... urls) {
+    if (selection == null || urls.length == 0) {
+      throw new IllegalArgumentException("A selection and at least one replica url are required.");
+    }
+    return new ReadReplicaPolicy(Collections.unmodifiableList(Arrays.asList(urls)), selection, DefaultReadYourWritesMillis);
+  }
+
+  private ReadReplicaPolicy(final List<String> urls, final Selection selection, final long readYourWritesMillis) {
+    this.urls = urls;
+    this.selection = selection;
+    this.readYourWritesMillis = readYourWritesMillis;
+  }
+
+  /**
+   * Answer whether or not reads are routed to replicas.
+   * @return boolean
+   */
+  public boolean isEnabled() {
+    return !urls.isEmpty();
+  }
+
+  /**
+   * Answer a copy of me that reads from the primary what was written within {@code readYourWritesMillis}.
+   * @param readYourWritesMillis the long milliseconds, which must not be negative
+   * @return ReadReplicaPolicy
+   */
+  public ReadReplicaPolicy withReadYourWrites(final long readYourWritesMillis) {
+    if (readYourWritesMillis < 0) {
+      throw new IllegalArgumentException("The read-your-writes interval must not be negative.");
+    }
+    return new ReadReplicaPolicy(urls, selection, readYourWritesMillis);
+  }
+
+  /**
+   * The means of selecting a replica.
+   */
+  public enum Selection {
+    /**
+     * Each replica in turn.
+     */
+    RoundRobin,
+
+    /**
+     * The replica with the fewest reads and readers currently using it.
+     */
+    LeastLoaded
+  }
+}
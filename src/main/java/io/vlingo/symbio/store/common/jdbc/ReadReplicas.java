@@ -0,0 +1,242 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The primary and the read-only replicas of a {@code Configuration}, among which reads
+ * are routed per its {@code ReadReplicaPolicy}. Writers tell of what they wrote, so that
+ * reads of recent writes, and reads that a lagging replica answers short, may be routed
+ * to the primary instead.
+ */
+public class ReadReplicas {
+  /**
+   * The maximum number of recent writes remembered, of which the eldest are forgotten first.
+   */
+  public static final int RecentWritesCapacity = 10_000;
+
+  /**
+   * Without replicas, and so reading from the primary only.
+   */
+  public static final ReadReplicas None = new ReadReplicas(ReadReplicaPolicy.None, null);
+
+  public final ReadReplicaPolicy policy;
+
+  private final AtomicLong highestWrittenId;
+  private final AtomicInteger next;
+  private final Replica primary;
+  private final Map<String, Long> recentWrites;
+  private final List<Replica> replicas;
+
+  public ReadReplicas(final ReadReplicaPolicy policy, final ConnectionProvider primary) {
+    this.policy = policy == null ? ReadReplicaPolicy.None : policy;
+    this.highestWrittenId = new AtomicLong(0);
+    this.next = new AtomicInteger(0);
+    this.primary = new Replica(primary, true);
+    this.recentWrites = new LinkedHashMap<String, Long>(16, 0.75f, false) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+        return size() > RecentWritesCapacity;
+      }
+    };
+
+    final List<Replica> replicas = new ArrayList<>(this.policy.urls.size());
+    for (final String url : this.policy.urls) {
+      replicas.add(new Replica(primary.copyReplacingUrl(url), false));
+    }
+    this.replicas = Collections.unmodifiableList(replicas);
+  }
+
+  /**
+   * Closes the pools of my replicas, if any, but not that of my primary.
+   */
+  public void close() {
+    for (final Replica replica : replicas) {
+      replica.connectionProvider.close();
+    }
+  }
+
+  /**
+   * Answer whether or not reads are routed to replicas.
+   * @return boolean
+   */
+  public boolean isEnabled() {
+    return !replicas.isEmpty();
+  }
+
+  /**
+   * Answer whether or not a read through the entry with the id {@code lastIdRead}
+   * may have missed entries written since.
+   * @param lastIdRead the long id of the last entry read, or of that preceding the read if none
+   * @return boolean
+   */
+  public boolean isBehind(final long lastIdRead) {
+    return lastIdRead < highestWrittenId.get();
+  }
+
+  /**
+   * Answer the primary.
+   * @return Replica
+   */
+  public Replica primary() {
+    return primary;
+  }
+
+  /**
+   * Answer a replica per my policy, or the primary if there are no replicas.
+   * @return Replica
+   */
+  public Replica select() {
+    if (replicas.isEmpty()) {
+      return primary;
+    }
+
+    switch (policy.selection) {
+    case LeastLoaded:
+      Replica least = replicas.get(0);
+      for (final Replica replica : replicas) {
+        if (replica.load() < least.load()) {
+          least = replica;
+        }
+      }
+      return least;
+    case RoundRobin:
+    default:
+      return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+  }
+
+  /**
+   * Answer whether or not any of the {@code keys} was written within {@code ReadReplicaPolicy#readYourWritesMillis},
+   * in which case it is read from the primary.
+   * @param keys the String keys of what is to be read, such as stream names
+   * @return boolean
+   */
+  public boolean isRecentlyWritten(final Collection<String> keys) {
+    if (replicas.isEmpty()) {
+      return false;
+    }
+
+    final long recentSince = System.currentTimeMillis() - policy.readYourWritesMillis;
+    synchronized (recentWrites) {
+      for (final String key : keys) {
+        final Long writtenAt = recentWrites.get(key);
+        if (writtenAt != null && writtenAt >= recentSince) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Answer whether or not {@code key} was written within {@code ReadReplicaPolicy#readYourWritesMillis},
+   * in which case it is read from the primary.
+   * @param key the String key of what is to be read, such as a stream name
+   * @return boolean
+   */
+  public boolean isRecentlyWritten(final String key) {
+    return isRecentlyWritten(Collections.singletonList(key));
+  }
+
+  /**
+   * Tells that {@code key} was written and committed, and that the entry with
+   * {@code lastEntryId} was the last entry written, if any.
+   * @param key the String key of what was written, such as a stream name
+   * @param lastEntryId the long id of the last entry written, or 0 if none
+   */
+  public void wrote(final String key, final long lastEntryId) {
+    if (replicas.isEmpty()) {
+      return;
+    }
+
+    synchronized (recentWrites) {
+      recentWrites.remove(key);
+      recentWrites.put(key, System.currentTimeMillis());
+    }
+    highestWrittenId.accumulateAndGet(lastEntryId, Math::max);
+  }
+
+  /**
+   * A database that is read, being either the primary or one of its replicas.
+   */
+  public static class Replica {
+    public final ConnectionProvider connectionProvider;
+    public final boolean isPrimary;
+
+    private final AtomicInteger load;
+
+    Replica(final ConnectionProvider connectionProvider, final boolean isPrimary) {
+      this.connectionProvider = connectionProvider;
+      this.isPrimary = isPrimary;
+      this.load = new AtomicInteger(0);
+    }
+
+    /**
+     * Answer a {@code Connection} to me, which counts toward my load until it is {@code released}.
+     * @return Connection
+     */
+    public Connection connection() {
+      load.incrementAndGet();
+      try {
+        return connectionProvider.connection();
+      } catch (RuntimeException e) {
+        load.decrementAndGet();
+        throw e;
+      }
+    }
+
+    /**
+     * Answer a {@code Connection} to me held by its user, as by {@code ConnectionProvider#ownedConnection()},
+     * which counts toward my load until it is {@code released}.
+     * @return Connection
+     */
+    public Connection ownedConnection() {
+      load.incrementAndGet();
+      try {
+        return connectionProvider.ownedConnection();
+      } catch (RuntimeException e) {
+        load.decrementAndGet();
+        throw e;
+      }
+    }
+
+    /**
+     * Answer the number of my connections not yet released.
+     * @return int
+     */
+    public int load() {
+      return load.get();
+    }
+
+    /**
+     * Closes the {@code connection} answered by my {@code connection()}.
+     * @param connection the Connection to close
+     */
+    public void release(final Connection connection) {
+      load.decrementAndGet();
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+  }
+}
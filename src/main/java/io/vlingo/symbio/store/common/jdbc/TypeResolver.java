@@ -0,0 +1,115 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the {@code Class<?>} of the type names stored with entries, states
+ * and dispatchables, caching each resolution by class loader so that rows read
+ * concurrently do not contend for the class loader lock. A type name that cannot
+ * be resolved is remembered only for {@code FailureRetentionMillis}, so that the
+ * further rows of an unknown type read meanwhile fail fast with a
+ * {@code ClassNotFoundException}, while a type made available later, such as by
+ * a deployment, is still resolved once that time has passed.
+ */
+public final class TypeResolver {
+  /**
+   * The default number of milliseconds for which a failed resolution is remembered.
+   */
+  public static final long FailureRetentionMillis = 1000L;
+
+  private static final ClassLoader defaultClassLoader = TypeResolver.class.getClassLoader();
+  private static final Resolutions defaultResolutions = new Resolutions();
+  private static final Map<ClassLoader, Resolutions> resolutionsByClassLoader =
+          Collections.synchronizedMap(new WeakHashMap<>());
+  private static volatile long failureRetentionNanos = TimeUnit.MILLISECONDS.toNanos(FailureRetentionMillis);
+
+  /**
+   * Answer the {@code Class<?>} named {@code typeName} as loaded by my own class loader,
+   * which is the class loader used by {@code Class.forName(typeName)} in this library.
+   * @param typeName the String fully qualified name of the type
+   * @return {@code Class<?>}
+   * @throws ClassNotFoundException if the type cannot be resolved
+   */
+  public static Class<?> classFor(final String typeName) throws ClassNotFoundException {
+    return classFor(typeName, defaultClassLoader, defaultResolutions);
+  }
+
+  /**
+   * Answer the {@code Class<?>} named {@code typeName} as loaded by {@code classLoader}.
+   * @param typeName the String fully qualified name of the type
+   * @param classLoader the ClassLoader used to load the type
+   * @return {@code Class<?>}
+   * @throws ClassNotFoundException if the type cannot be resolved
+   */
+  public static Class<?> classFor(final String typeName, final ClassLoader classLoader) throws ClassNotFoundException {
+    if (classLoader == defaultClassLoader) {
+      return classFor(typeName, defaultClassLoader, defaultResolutions);
+    }
+    final Resolutions resolutions = resolutionsByClassLoader.computeIfAbsent(classLoader, loader -> new Resolutions());
+    return classFor(typeName, classLoader, resolutions);
+  }
+
+  /**
+   * Forget all resolutions, such as after new types have been made available to a class loader.
+   */
+  public static void clear() {
+    defaultResolutions.clear();
+    resolutionsByClassLoader.clear();
+  }
+
+  /**
+   * Remembers each failed resolution for {@code millis}, rather than {@code FailureRetentionMillis}.
+   * @param millis the long number of milliseconds, which may be 0 to retry each failed resolution
+   */
+  static void retainFailuresFor(final long millis) {
+    failureRetentionNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  private static Class<?> classFor(final String typeName, final ClassLoader classLoader, final Resolutions resolutions)
+          throws ClassNotFoundException {
+    final Class<?> type = resolutions.types.get(typeName);
+    if (type != null) {
+      return type;
+    }
+
+    final Long failedAt = resolutions.failures.get(typeName);
+    if (failedAt != null && System.nanoTime() - failedAt < failureRetentionNanos) {
+      throw new ClassNotFoundException(typeName);
+    }
+
+    // resolved outside of the maps so that no lock is held while loading
+    try {
+      final Class<?> resolved = Class.forName(typeName, true, classLoader);
+      resolutions.types.put(typeName, resolved);
+      resolutions.failures.remove(typeName);
+      return resolved;
+    } catch (final ClassNotFoundException e) {
+      resolutions.failures.put(typeName, System.nanoTime());
+      throw e;
+    }
+  }
+
+  private TypeResolver() { }
+
+  // the types resolved by a class loader, and the times at which its resolutions failed
+  private static final class Resolutions {
+    final Map<String, Class<?>> types = new ConcurrentHashMap<>();
+    final Map<String, Long> failures = new ConcurrentHashMap<>();
+
+    void clear() {
+      types.clear();
+      failures.clear();
+    }
+  }
+}
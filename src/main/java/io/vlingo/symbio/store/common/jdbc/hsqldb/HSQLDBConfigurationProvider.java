@@ -71,6 +71,47 @@ public class HSQLDBConfigurationProvider {
             createTables);
   }
 
+  /**
+   * Answer a {@code Configuration} of the in-process database {@code databaseName}
+   * that is held only in memory and is lost when the process ends.
+   * @param format the DataFormat of the stored data
+   * @param databaseName the String name of the database
+   * @param originatorId the String id of the originator of dispatchables
+   * @param createTables the boolean indicating whether or not to create the tables
+   * @return Configuration
+   * @throws Exception if the Configuration cannot be created
+   */
+  public static Configuration inMemoryConfiguration(
+          final DataFormat format,
+          final String databaseName,
+          final String originatorId,
+          final boolean createTables)
+  throws Exception {
+    return configuration(format, "jdbc:hsqldb:mem:", databaseName, "SA", "", originatorId, createTables);
+  }
+
+  /**
+   * Answer a {@code Configuration} of the in-process database {@code databaseName}
+   * that is persisted to files in {@code directory}.
+   * @param format the DataFormat of the stored data
+   * @param directory the String path of the directory holding the database files
+   * @param databaseName the String name of the database
+   * @param originatorId the String id of the originator of dispatchables
+   * @param createTables the boolean indicating whether or not to create the tables
+   * @return Configuration
+   * @throws Exception if the Configuration cannot be created
+   */
+  public static Configuration fileConfiguration(
+          final DataFormat format,
+          final String directory,
+          final String databaseName,
+          final String originatorId,
+          final boolean createTables)
+  throws Exception {
+    final String path = directory.endsWith("/") ? directory : directory + "/";
+    return configuration(format, "jdbc:hsqldb:file:" + path, databaseName, "SA", "", originatorId, createTables);
+  }
+
   public static TestConfiguration testConfiguration(final DataFormat format) throws Exception {
     return testConfiguration(format, "testdb");
   }
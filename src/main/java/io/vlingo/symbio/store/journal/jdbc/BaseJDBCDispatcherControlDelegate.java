@@ -0,0 +1,282 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import io.vlingo.actors.Logger;
+import io.vlingo.symbio.BaseEntry;
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.State;
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.DatabaseType;
+import io.vlingo.symbio.store.common.jdbc.DispatchConfirmationPolicy;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables.Unconfirmed;
+import io.vlingo.symbio.store.common.jdbc.PagedCollection;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
+import io.vlingo.symbio.store.dispatch.Dispatchable;
+import io.vlingo.symbio.store.dispatch.DispatcherControl;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The delegate of the {@code DispatcherControl} of the dispatchables of a journal, which
+ * reads them back as {@code Dispatchable<Entry<T>, RS>} of its concrete {@code DataFormat}.
+ *
+ * @param <T> the type of the entry and state data, String or byte[]
+ * @param <RS> the type of the dispatched states
+ */
+public abstract class BaseJDBCDispatcherControlDelegate<T, RS extends State<T>> implements DispatcherControl.DispatcherControlDelegate<Entry<T>, RS> {
+    static final String DISPATCHEABLE_ENTRIES_DELIMITER = "|";
+
+    private final DispatchConfirmationPolicy.Accumulator confirmations;
+    private final Connection connection;
+    private final DatabaseType databaseType;
+    private final Logger logger;
+    private final String originatorId;
+    private final JDBCQueries queries;
+
+    protected BaseJDBCDispatcherControlDelegate(final DataFormat format, final Configuration configuration, final Logger logger) throws SQLException {
+        if (configuration.format != format) {
+            throw new IllegalArgumentException("The dispatchables are of " + format + " data, but the configuration is of " + configuration.format + " data.");
+        }
+
+        this.confirmations = configuration.dispatchConfirmationPolicy.accumulator();
+        this.connection = configuration.connection;
+        this.databaseType = configuration.databaseType;
+        this.logger = logger;
+        this.originatorId = configuration.originatorId;
+        this.queries = JDBCQueries.queriesFor(configuration, configuration.connection);
+
+        queries.createTables();
+    }
+
+    @Override
+    public Collection<Dispatchable<Entry<T>, RS>> allUnconfirmedDispatchableStates() throws Exception {
+        flush();
+
+        return new PagedCollection<>(Dispatchables.DISPATCHABLES_LIMIT, DispatchablesPager::new);
+    }
+
+    @Override
+    public void confirmDispatched(final String dispatchId) {
+        if (confirmations.confirmed(dispatchId)) {
+            flush();
+        }
+    }
+
+    /**
+     * Deletes the dispatchables of all pending confirmations in a single batch.
+     * This happens when a threshold of the {@code DispatchConfirmationPolicy} is
+     * reached, before unconfirmed dispatchables are read, and when stopping.
+     */
+    public void flush() {
+        if (!confirmations.hasPending()) return;
+
+        final List<String> dispatchIds = confirmations.drain();
+
+        try {
+            Dispatchables.delete(queries.prepareDeleteDispatchableQuery(), dispatchIds);
+            doCommit();
+        } catch (final Exception e) {
+            logger.error("vlingo/symbio-jdbc-" + databaseType + ": Failed to confirm dispatch with ids " + dispatchIds, e);
+            fail();
+        }
+    }
+
+    @Override
+    public void stop() {
+        flush();
+
+        try {
+            queries.close();
+        } catch (final SQLException e) {
+            //ignore
+        }
+    }
+
+    private void doCommit() {
+        try {
+            connection.commit();
+        } catch (final SQLException e) {
+            logger.error("vlingo/symbio-jdbc-" + databaseType + ": Could not complete transaction", e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void fail() {
+        try {
+            connection.rollback();
+        } catch (final Exception e) {
+            logger.error(getClass().getSimpleName() + ": Rollback failed because: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<Long, Entry<?>> entriesOf(final List<Unconfirmed> unconfirmed) throws Exception {
+        return Dispatchables.entriesOf(unconfirmed, (entryIds, entries) -> {
+            try (final ResultSet result = queries.prepareSelectEntriesQuery(entryIds).executeQuery()) {
+                while (result.next()) {
+                    entries.put(result.getLong(1), entryFrom(result));
+                }
+            }
+        });
+    }
+
+    /**
+     * Answer the latest snapshot of each stream whose state is referenced by an
+     * {@code unconfirmed} dispatchable, which is at least as new as the referenced
+     * one, because snapshots are only pruned from the oldest. The snapshots of the
+     * streams are read by pages of at most {@code SELECT_STREAMS_LIMIT} streams.
+     */
+    private Map<String, State<?>> snapshotsOf(final List<Unconfirmed> unconfirmed) throws SQLException, ClassNotFoundException {
+        final Set<String> streamNames = new LinkedHashSet<>();
+        for (final Unconfirmed dispatchable : unconfirmed) {
+            if (dispatchable.referenceKey != null) {
+                streamNames.add(dispatchable.referenceKey);
+            }
+        }
+
+        final Map<String, State<?>> snapshots = new HashMap<>(streamNames.size());
+        final List<String> names = new ArrayList<>(streamNames);
+
+        for (int from = 0; from < names.size(); from += JDBCQueries.SELECT_STREAMS_LIMIT) {
+            final List<String> page = names.subList(from, Math.min(from + JDBCQueries.SELECT_STREAMS_LIMIT, names.size()));
+
+            try (final ResultSet result = queries.prepareSelectSnapshotsQuery(page).executeQuery()) {
+                while (result.next()) {
+                    final String streamName = result.getString(1);
+                    final Object data = queries.dataFrom(result, 2);
+                    final int dataVersion = result.getInt(3);
+                    final Class<?> type = TypeResolver.classFor(result.getString(4));
+                    final int typeVersion = result.getInt(5);
+                    final Metadata metadata = MetadataCodec.decoded(result.getString(6));
+
+                    snapshots.put(streamName, stateOf(streamName, type, typeVersion, data, dataVersion, metadata));
+                }
+            }
+
+            for (final String streamName : page) {
+                if (!snapshots.containsKey(streamName)) {
+                    logger.warn("vlingo/symbio-jdbc-" + databaseType + ": No snapshot of referenced state for: " + streamName);
+                    snapshots.put(streamName, null);
+                }
+            }
+        }
+
+        return snapshots;
+    }
+
+    private Unconfirmed unconfirmedFrom(final ResultSet resultSet) throws SQLException, ClassNotFoundException {
+
+        final String dispatchId = resultSet.getString(1);
+
+        LocalDateTime createdOn =
+                LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(resultSet.getLong(2)),
+                        ZoneId.systemDefault());
+
+        final State<?> state;
+        String referencedStateId = null;
+
+        final String stateId = resultSet.getString(3);
+        final Object data = queries.dataFrom(resultSet, 4);
+
+        if (stateId != null && !stateId.isEmpty() && data == null) {
+            // the state was referenced by its stream rather than copied
+            state = null;
+            referencedStateId = stateId;
+        } else if (stateId != null && !stateId.isEmpty()) {
+            final int dataVersion = resultSet.getInt(5);
+            final Class<?> type = TypeResolver.classFor(resultSet.getString(6));
+            final int typeVersion = resultSet.getInt(7);
+            final String metadataValue = resultSet.getString(8);
+            final Metadata metadata = MetadataCodec.decoded(metadataValue);
+
+            state = stateOf(stateId, type, typeVersion, data, dataVersion, metadata);
+        } else {
+            state = null;
+        }
+
+        final List<Long> entryIds = Dispatchables.entryIdsOf(resultSet.getString(9), DISPATCHEABLE_ENTRIES_DELIMITER);
+
+        return new Unconfirmed(dispatchId, createdOn, state, referencedStateId, entryIds);
+    }
+
+    private Entry<?> entryFrom(final ResultSet resultSet) throws SQLException, ClassNotFoundException {
+        final String id = resultSet.getString(1);
+        final Object entryData = queries.dataFrom(resultSet, 2);
+        final String entryType = resultSet.getString(3);
+        final int eventTypeVersion = resultSet.getInt(4);
+        final String entryMetadata = resultSet.getString(5);
+
+        final Class<?> classOfEvent = TypeResolver.classFor(entryType);
+
+        final Metadata metadata = MetadataCodec.decoded(entryMetadata);
+        if (queries.format.isBinary()) {
+            return new BaseEntry.BinaryEntry(id, classOfEvent, eventTypeVersion, (byte[]) entryData, metadata);
+        }
+        return new BaseEntry.TextEntry(id, classOfEvent, eventTypeVersion, (String) entryData, metadata);
+    }
+
+    private State<?> stateOf(final String id, final Class<?> type, final int typeVersion, final Object data, final int dataVersion, final Metadata metadata) {
+        if (queries.format.isBinary()) {
+            return new State.BinaryState(id, type, typeVersion, (byte[]) data, dataVersion, metadata);
+        }
+        return new State.TextState(id, type, typeVersion, (String) data, dataVersion, metadata);
+    }
+
+    /**
+     * Reads the unconfirmed dispatchables a page at a time, each following the
+     * created-on time and dispatch id of the last one of the previous page.
+     */
+    private final class DispatchablesPager implements PagedCollection.Pager<Dispatchable<Entry<T>, RS>> {
+        private long afterCreatedOn = Long.MIN_VALUE;
+        private String afterDispatchId = "";
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public List<Dispatchable<Entry<T>, RS>> nextPage(final int limit) throws Exception {
+            final List<Unconfirmed> unconfirmed = new ArrayList<>(limit);
+
+            try (final ResultSet result = queries.prepareSelectDispatchablesQuery(originatorId, afterCreatedOn, afterDispatchId, limit).executeQuery()) {
+                while (result.next()) {
+                    afterDispatchId = result.getString(1);
+                    afterCreatedOn = result.getLong(2);
+                    unconfirmed.add(unconfirmedFrom(result));
+                }
+            }
+
+            final Map<Long, Entry<?>> entries = entriesOf(unconfirmed);
+            final Map<String, State<?>> snapshots = snapshotsOf(unconfirmed);
+
+            // ends the read transaction, so that a pooled connection is not held between pages
+            doCommit();
+
+            final List<Dispatchable<Entry<T>, RS>> dispatchables = new ArrayList<>(unconfirmed.size());
+            for (final Unconfirmed dispatchable : unconfirmed) {
+                // the entries and states read are of my format
+                dispatchables.add((Dispatchable) dispatchable.with(entries, snapshots));
+            }
+
+            return dispatchables;
+        }
+    }
+}
@@ -0,0 +1,713 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.actors.Address;
+import io.vlingo.actors.Definition;
+import io.vlingo.common.Cancellable;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
+import io.vlingo.common.Scheduled;
+import io.vlingo.common.Scheduler;
+import io.vlingo.common.Success;
+import io.vlingo.common.Tuple2;
+import io.vlingo.common.identity.IdentityGenerator;
+import io.vlingo.symbio.BaseEntry;
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.EntryAdapterProvider;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.Source;
+import io.vlingo.symbio.State;
+import io.vlingo.symbio.StateAdapterProvider;
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.Result;
+import io.vlingo.symbio.store.StorageException;
+import io.vlingo.symbio.store.common.jdbc.AdaptationPolicy;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.DatabaseType;
+import io.vlingo.symbio.store.common.jdbc.IOCompletion;
+import io.vlingo.symbio.store.common.jdbc.IOExecutor.Lane;
+import io.vlingo.symbio.store.common.jdbc.ReadReplicas;
+import io.vlingo.symbio.store.dispatch.Dispatchable;
+import io.vlingo.symbio.store.dispatch.Dispatcher;
+import io.vlingo.symbio.store.dispatch.DispatcherControl;
+import io.vlingo.symbio.store.dispatch.control.DispatcherControlActor;
+import io.vlingo.symbio.store.journal.Journal;
+import io.vlingo.symbio.store.journal.JournalReader;
+import io.vlingo.symbio.store.journal.StreamReader;
+
+/**
+ * The {@code Journal<T>} of entries whose data is a String or a byte[], stored in the text or
+ * the binary journal tables, as per the {@code DataFormat} of its {@code Configuration}, which
+ * is that of its concrete {@code JDBCJournalActor} or {@code JDBCBinaryJournalActor}.
+ * If the configuration has an {@code IOExecutorPolicy}, appends and their commits are run
+ * in a {@code Lane} of its {@code IOExecutor}, in the order of the messages received, and
+ * their outcomes are told to the {@code AppendResultInterest}, and their dispatchables to the
+ * {@code Dispatcher}, once committed and back on the thread of the journal. Per the
+ * {@code AdaptationPolicy} of the configuration, sources and snapshots are adapted to
+ * entries and states either just before they are inserted, or in parallel on receipt.
+ *
+ * @param <T> the type of the entry and snapshot data, String or byte[]
+ * @param <RS> the type of the snapshot and dispatched states
+ */
+public abstract class BaseJDBCJournalActor<T, RS extends State<T>> extends Actor implements Journal<T>, Scheduled<Object>, IOCompletion {
+    private final EntryAdapterProvider entryAdapterProvider;
+    private final StateAdapterProvider stateAdapterProvider;
+    private final Configuration configuration;
+    private final Connection connection;
+    private final DatabaseType databaseType;
+    private final Map<String, JournalReader<Entry<T>>> journalReaders;
+    private final Map<String, StreamReader<T>> streamReaders;
+    private final IdentityGenerator dispatchablesIdentityGenerator;
+    private final Dispatcher<Dispatchable<Entry<T>, RS>> dispatcher;
+    private final DispatcherControl dispatcherControl;
+    private final GroupCommit groupCommit;
+    private final SnapshotRetention snapshotRetention;
+    private final ReadAhead readAhead;
+    private final StreamCache streamCache;
+    private final ReadReplicas readReplicas;
+    private final AdaptationPolicy adaptationPolicy;
+    private final CommitHorizon.Writer commitHorizon;
+    private final Lane lane;
+    private final Scheduler scheduler;
+    private final Scheduled<Object> scheduled;
+    private final List<PendingAppend<T, RS>> pendingAppends;
+    private Cancellable pendingCommit;
+    private long highestWrittenEntryId;
+
+    private final JDBCQueries queries;
+
+    /**
+     * Constructs a journal of {@code format} that dispatches to {@code dispatcher}. The redispatch of
+     * unconfirmed dispatchables is controlled by {@code sharedDispatcherControl} if given, which is then
+     * shared by other journals of the same {@code originatorId} and stopped by its creator,
+     * and otherwise by a {@code DispatcherControl} of my own. My transactions are told to
+     * {@code commitHorizon}, through which the readers of the journals sharing it read.
+     */
+    @SuppressWarnings("unchecked")
+    protected BaseJDBCJournalActor(final DataFormat format, final Dispatcher<Dispatchable<Entry<T>, RS>> dispatcher,
+                                   final Configuration configuration, final long checkConfirmationExpirationInterval,
+                                   final long confirmationExpiration, final DispatcherControl sharedDispatcherControl,
+                                   final GroupCommit groupCommit, final SnapshotRetention snapshotRetention,
+                                   final ReadAhead readAhead, final StreamCache streamCache,
+                                   final CommitHorizon commitHorizon) throws Exception {
+        if (configuration.format != format) {
+            throw new IllegalArgumentException("The journal stores " + format + " data, but the configuration is of " + configuration.format + " data.");
+        }
+
+        this.configuration = configuration;
+        this.connection = configuration.connection;
+        this.databaseType = configuration.databaseType;
+        this.connection.setAutoCommit(false);
+        this.queries = JDBCQueries.queriesFor(configuration, configuration.connection);
+        this.queries.createTables();
+        if (configuration.entryIdBlockSize > 0) {
+            this.queries.useEntryIdBlocks(
+                    configuration.actualConnectionProvider(),
+                    configuration.entryIdBlockSize);
+        }
+        this.entryAdapterProvider = EntryAdapterProvider.instance(stage().world());
+        this.stateAdapterProvider = StateAdapterProvider.instance(stage().world());
+        this.journalReaders = new HashMap<>();
+        this.streamReaders = new HashMap<>();
+
+        this.dispatchablesIdentityGenerator = new IdentityGenerator.RandomIdentityGenerator();
+        this.groupCommit = groupCommit == null ? GroupCommit.None : groupCommit;
+        this.pendingAppends = new ArrayList<>(this.groupCommit.maximumAppends);
+        this.snapshotRetention = snapshotRetention == null ? SnapshotRetention.All : snapshotRetention;
+        this.readAhead = readAhead == null ? ReadAhead.None : readAhead;
+        this.streamCache = streamCache == null ? StreamCache.None : streamCache;
+        this.readReplicas = configuration.readReplicas();
+        this.adaptationPolicy = configuration.adaptationPolicy;
+        this.commitHorizon = writerOf(commitHorizon == null ? CommitHorizon.None : commitHorizon);
+        this.lane = configuration.ioExecutor().lane(cause ->
+                logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": " + cause.getMessage(), cause),
+                selfAs(IOCompletion.class));
+        // the group commit is scheduled from my lane, so neither is looked up off my thread
+        this.scheduler = stage().scheduler();
+        this.scheduled = selfAs(Scheduled.class);
+
+        if (dispatcher != null && sharedDispatcherControl != null) {
+            this.dispatcher = dispatcher;
+            this.dispatcherControl = null;
+        } else if (dispatcher != null) {
+            this.dispatcher = dispatcher;
+            final DispatcherControl.DispatcherControlDelegate<Entry<T>, RS> dispatcherControlDelegate =
+                    dispatcherControlDelegateOf(Configuration.cloneOf(configuration));
+            this.dispatcherControl = stage().actorFor(DispatcherControl.class,
+                    Definition.has(DispatcherControlActor.class,
+                            Definition.parameters(dispatcher,
+                                    dispatcherControlDelegate,
+                                    checkConfirmationExpirationInterval,
+                                    confirmationExpiration)
+                    )
+            );
+        } else {
+            this.dispatcher = null;
+            this.dispatcherControl = null;
+        }
+    }
+
+    /**
+     * Stops me once my appends under way are committed and their outcomes told, and then closes
+     * my queries, my {@code DispatcherControl} if it is my own, and the {@code IOExecutor} and
+     * {@code AdaptationPolicy} of my configuration unless they are shared with me by the
+     * configuration of which mine is a clone.
+     */
+    @Override
+    public void stop() {
+        lane.execute(this::commitPendingAppends);
+        lane.close();
+
+        try {
+            queries.close();
+        } catch (SQLException e) {
+            // ignore
+        }
+
+        if (dispatcherControl != null) {
+            dispatcherControl.stop();
+        }
+
+        configuration.closeIOExecutor();
+        configuration.closeAdaptationPolicy();
+
+        super.stop();
+    }
+
+    @Override
+    public void ioCompleted() {
+        lane.runCompleted();
+    }
+
+    @Override
+    public <S, ST> void append(final String streamName, final int streamVersion, final Source<S> source, final Metadata metadata,
+                               final AppendResultInterest interest, final Object object) {
+        final Supplier<Entry<T>> adaptingEntry = adaptingEntry(source, metadata);
+        lane.execute(() -> {
+            final Consumer<Exception> whenFailed = (e) -> appendResultedInFailure(streamName, streamVersion, source, null, interest, object, e);
+            final Entry<T> entry = asEntry(adaptingEntry, whenFailed);
+            insertEntry(streamName, streamVersion, entry, whenFailed);
+            final Dispatchable<Entry<T>, RS> dispatchable = buildDispatchable(streamName, streamVersion, Collections.singletonList(entry), null);
+            insertDispatchable(dispatchable, whenFailed);
+
+            complete(streamName, streamVersion, dispatchable, whenFailed,
+                    () -> interest.appendResultedIn(Success.of(Result.Success), streamName, streamVersion, source, Optional.empty(), object));
+        });
+    }
+
+    @Override
+    public <S, ST> void appendWith(final String streamName, final int streamVersion, final Source<S> source, final Metadata metadata, final ST snapshot,
+                                   final AppendResultInterest interest, final Object object) {
+        final Supplier<Entry<T>> adaptingEntry = adaptingEntry(source, metadata);
+        final Supplier<Tuple2<Optional<ST>, Optional<RS>>> adaptingSnapshot =
+                adaptationPolicy.adapt(() -> toState(streamName, snapshot, streamVersion));
+        lane.execute(() -> {
+            final Consumer<Exception> whenFailed = (e) -> appendResultedInFailure(streamName, streamVersion, source, snapshot, interest, object, e);
+            final Entry<T> entry = asEntry(adaptingEntry, whenFailed);
+            insertEntry(streamName, streamVersion, entry, whenFailed);
+            final Tuple2<Optional<ST>, Optional<RS>> snapshotState = adaptingSnapshot.get();
+            snapshotState._2.ifPresent(state -> insertSnapshot(streamName, streamVersion, state, whenFailed));
+
+            final Dispatchable<Entry<T>, RS> dispatchable = buildDispatchable(streamName, streamVersion,
+                    Collections.singletonList(entry), snapshotState._2.orElse(null));
+            insertDispatchable(dispatchable, whenFailed);
+
+            complete(streamName, streamVersion, dispatchable, whenFailed,
+                    () -> interest.appendResultedIn(Success.of(Result.Success), streamName, streamVersion, source, snapshotState._1, object));
+        });
+    }
+
+    @Override
+    public <S, ST> void appendAll(final String streamName, final int fromStreamVersion, final List<Source<S>> sources, final Metadata metadata,
+                                  final AppendResultInterest interest, final Object object) {
+        final List<Supplier<Entry<T>>> adaptingEntries = adaptingEntries(sources, metadata);
+        lane.execute(() -> {
+            final Consumer<Exception> whenFailed = (e) -> appendAllResultedInFailure(streamName, fromStreamVersion, sources, null, interest, object, e);
+            final List<Entry<T>> entries = asEntries(adaptingEntries, whenFailed);
+            insertEntries(streamName, fromStreamVersion, entries, whenFailed);
+            final Dispatchable<Entry<T>, RS> dispatchable = buildDispatchable(streamName, fromStreamVersion, entries, null);
+            insertDispatchable(dispatchable, whenFailed);
+
+            complete(streamName, fromStreamVersion, dispatchable, whenFailed,
+                    () -> interest.appendAllResultedIn(Success.of(Result.Success), streamName, fromStreamVersion, sources, Optional.empty(), object));
+        });
+    }
+
+    @Override
+    public <S, ST> void appendAllWith(final String streamName, final int fromStreamVersion, final List<Source<S>> sources, final Metadata metadata,
+                                      final ST snapshot, final AppendResultInterest interest, final Object object) {
+        final List<Supplier<Entry<T>>> adaptingEntries = adaptingEntries(sources, metadata);
+        final Supplier<Tuple2<Optional<ST>, Optional<RS>>> adaptingSnapshot =
+                adaptationPolicy.adapt(() -> toState(streamName, snapshot, fromStreamVersion));
+        lane.execute(() -> {
+            final Consumer<Exception> whenFailed = (e) -> appendAllResultedInFailure(streamName, fromStreamVersion, sources, snapshot, interest, object, e);
+            final List<Entry<T>> entries = asEntries(adaptingEntries, whenFailed);
+            insertEntries(streamName, fromStreamVersion, entries, whenFailed);
+            final Tuple2<Optional<ST>, Optional<RS>> snapshotState = adaptingSnapshot.get();
+            snapshotState._2.ifPresent(state -> insertSnapshot(streamName, fromStreamVersion, state, whenFailed));
+
+            final Dispatchable<Entry<T>, RS> dispatchable = buildDispatchable(streamName, fromStreamVersion, entries, snapshotState._2.orElse(null));
+            insertDispatchable(dispatchable, whenFailed);
+
+            complete(streamName, fromStreamVersion, dispatchable, whenFailed,
+                    () -> interest.appendAllResultedIn(Success.of(Result.Success), streamName, fromStreamVersion, sources, snapshotState._1, object));
+        });
+    }
+
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+        lane.execute(this::commitPendingAppends);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Completes<JournalReader<? extends Entry<?>>> journalReader(final String name) {
+        final JournalReader<Entry<T>> reader = journalReaders.computeIfAbsent(name, (key) -> {
+            final Address address = stage().world().addressFactory().uniquePrefixedWith("eventJournalReader-" + name);
+            return stage().actorFor(JournalReader.class, Definition.has(JDBCJournalReaderActor.class, Definition.parameters(configuration, name, readAhead)), address);
+        });
+
+        return completes().with(reader);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Completes<StreamReader<T>> streamReader(final String name) {
+        final StreamReader<T> reader = streamReaders.computeIfAbsent(name, (key) -> {
+            final Address address = stage().world().addressFactory().uniquePrefixedWith("eventStreamReader-" + key);
+            return stage().actorFor(JDBCStreamReader.class, Definition.has(JDBCStreamReaderActor.class, Definition.parameters(configuration, streamCache)), address);
+        });
+
+        return completes().with(reader);
+    }
+
+    /**
+     * Answer a new delegate of the {@code DispatcherControl} of my dispatchables.
+     * @param configuration the Configuration of the delegate
+     * @return {@code DispatcherControlDelegate<Entry<T>, RS>}
+     * @throws SQLException if the delegate cannot prepare its statements
+     */
+    protected abstract DispatcherControl.DispatcherControlDelegate<Entry<T>, RS> dispatcherControlDelegateOf(final Configuration configuration) throws SQLException;
+
+    protected final void insertEntry(final String streamName, final int streamVersion, final Entry<T> entry, final Consumer<Exception> whenFailed) {
+        commitHorizon.writing();
+
+        try {
+            final Tuple2<PreparedStatement, Optional<String>> insertEntry =
+                    queries.prepareInsertEntryQuery(
+                            streamName,
+                            streamVersion,
+                            entry.entryData(),
+                            entry.typeName(),
+                            entry.typeVersion(),
+                            MetadataCodec.encoded(entry.metadata()));
+
+            if (insertEntry._1.executeUpdate() != 1) {
+                logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not insert event " + entry.toString());
+                throw new IllegalStateException("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not insert event");
+            }
+
+            if (insertEntry._2.isPresent()) {
+                ((BaseEntry<T>) entry).__internal__setId(String.valueOf(insertEntry._2.get()));
+                written(insertEntry._2.get());
+            } else {
+                final long id = queries.generatedKeyFrom(insertEntry._1);
+                if (id <= 0) {
+                    failMissingEntryId(whenFailed);
+                }
+                ((BaseEntry<T>) entry).__internal__setId(String.valueOf(id));
+                written(id);
+            }
+        } catch (final SQLException e) {
+            abortTransaction(e);
+            whenFailed.accept(e);
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType +": Could not insert event " + entry.toString(), e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected final void insertEntries(final String streamName, final int fromStreamVersion, final List<Entry<T>> entries, final Consumer<Exception> whenFailed) {
+        if (entries.isEmpty()) return;
+
+        commitHorizon.writing();
+
+        try {
+            final List<Optional<String>> assignedIds = new ArrayList<>(entries.size());
+            int version = fromStreamVersion;
+            for (final Entry<T> entry : entries) {
+                assignedIds.add(
+                        queries.prepareInsertEntryBatchQuery(
+                                streamName,
+                                version++,
+                                entry.entryData(),
+                                entry.typeName(),
+                                entry.typeVersion(),
+                                MetadataCodec.encoded(entry.metadata())));
+            }
+
+            final List<Long> generatedIds = queries.executeInsertEntryBatch();
+
+            for (int index = 0; index < entries.size(); ++index) {
+                final Optional<String> assignedId = assignedIds.get(index);
+                if (assignedId.isPresent()) {
+                    ((BaseEntry<T>) entries.get(index)).__internal__setId(assignedId.get());
+                    written(assignedId.get());
+                } else if (index < generatedIds.size() && generatedIds.get(index) > 0) {
+                    ((BaseEntry<T>) entries.get(index)).__internal__setId(String.valueOf(generatedIds.get(index)));
+                    written(generatedIds.get(index));
+                } else {
+                    failMissingEntryId(whenFailed);
+                }
+            }
+        } catch (final SQLException e) {
+            queries.clearInsertEntryBatch();
+            abortTransaction(e);
+            whenFailed.accept(e);
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType +": Could not insert events for stream " + streamName, e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected final void insertSnapshot(final String streamName, final int streamVersion, final RS snapshotState, final Consumer<Exception> whenFailed) {
+        try {
+            final Tuple2<PreparedStatement, Optional<String>> insertSnapshot =
+                    queries.prepareInsertSnapshotQuery(
+                            streamName,
+                            streamVersion,
+                            snapshotState.data,
+                            snapshotState.dataVersion,
+                            snapshotState.type,
+                            snapshotState.typeVersion,
+                            MetadataCodec.encoded(snapshotState.metadata));
+
+            if (insertSnapshot._1.executeUpdate() != 1) {
+                logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not insert snapshot with id " + snapshotState.id);
+                throw new IllegalStateException("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not insert snapshot");
+            }
+
+            if (snapshotRetention.isBounded()) {
+                queries.prepareDeleteSnapshotsQuery(streamName, snapshotRetention.retained).executeUpdate();
+            }
+        } catch (final SQLException e) {
+            abortTransaction(e);
+            whenFailed.accept(e);
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not insert event with id " + snapshotState.id, e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected final void insertDispatchable(final Dispatchable<Entry<T>, RS> dispatchable, final Consumer<Exception> whenFailed) {
+        String dbType = configuration.databaseType.toString();
+
+        try {
+            final String entries = dispatchable.hasEntries() ?
+                    dispatchable.entries().stream().map(Entry::id).collect(Collectors.joining(BaseJDBCDispatcherControlDelegate.DISPATCHEABLE_ENTRIES_DELIMITER)) :
+                    "";
+
+            final Tuple2<PreparedStatement, Optional<String>> insertDispatchable;
+
+            final String dispatchableId = dispatchable.id();
+
+            if (dispatchable.state().isPresent()) {
+                final RS state = dispatchable.typedState();
+
+                insertDispatchable =
+                        queries.prepareInsertDispatchableQuery(
+                                dispatchableId,
+                                configuration.originatorId,
+                                state.id,
+                                // a referenced state is the snapshot just inserted for its stream
+                                configuration.referenceDispatchableStates ? null : state.data,
+                                state.dataVersion,
+                                state.type,
+                                state.typeVersion,
+                                MetadataCodec.encoded(state.metadata),
+                                entries);
+            } else {
+                insertDispatchable =
+                        queries.prepareInsertDispatchableQuery(
+                                dispatchableId,
+                                configuration.originatorId,
+                                null,
+                                null,
+                                0,
+                                null,
+                                0,
+                                null,
+                                entries);
+            }
+
+            if (insertDispatchable._1.executeUpdate() != 1) {
+                logger().error("vlingo-symbio-jdbc:journal-" + dbType + ": Could not insert dispatchable with id " + dispatchable.id());
+                throw new IllegalStateException("vlingo-symbio-jdbc:journal-" + dbType + ": Could not insert snapshot");
+            }
+        } catch (final SQLException e) {
+            abortTransaction(e);
+            whenFailed.accept(e);
+            logger().error("vlingo-symbio-jdbc:journal-" + dbType + ": Could not insert dispatchable with id " + dispatchable.id(), e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // fails the append of an entry that was inserted but whose id is neither assigned nor generated
+    private void failMissingEntryId(final Consumer<Exception> whenFailed) {
+        final String message = "Could not retrieve entry id.";
+        logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": " + message);
+        abortTransaction(new IllegalStateException(message));
+        whenFailed.accept(new StorageException(Result.Failure, message));
+        throw new IllegalStateException(message);
+    }
+
+    private <S, ST> void appendResultedInFailure(final String streamName, final int streamVersion, final Source<S> source, final ST snapshot,
+                                                 final AppendResultInterest interest, final Object object, final Exception e) {
+
+        final StorageException failure = new StorageException(resultOf(e), e.getMessage(), e);
+        lane.completed(() -> interest.appendResultedIn(Failure.of(failure), streamName, streamVersion, source,
+                snapshot == null ? Optional.empty() : Optional.of(snapshot), object));
+    }
+
+    private <S, ST> void appendAllResultedInFailure(final String streamName, final int streamVersion, final List<Source<S>> sources, final ST snapshot,
+                                                    final AppendResultInterest interest, final Object object, final Exception e) {
+
+        final StorageException failure = new StorageException(resultOf(e), e.getMessage(), e);
+        lane.completed(() -> interest.appendAllResultedIn(Failure.of(failure), streamName, streamVersion, sources,
+                snapshot == null ? Optional.empty() : Optional.of(snapshot), object));
+    }
+
+    private Result resultOf(final Exception e) {
+        if (e instanceof SQLException && queries.isConcurrencyViolation((SQLException) e)) {
+            return Result.ConcurrencyViolation;
+        }
+        return Result.Failure;
+    }
+
+    private void complete(final String streamName, final int fromStreamVersion, final Dispatchable<Entry<T>, RS> dispatchable,
+                          final Consumer<Exception> whenFailed, final Runnable whenCommitted) {
+        if (!groupCommit.isEnabled()) {
+            doCommit(whenFailed);
+            committed(streamName, fromStreamVersion, dispatchable);
+            lane.completed(() -> dispatchCommitted(dispatchable, whenCommitted));
+            return;
+        }
+
+        pendingAppends.add(new PendingAppend<>(streamName, fromStreamVersion, dispatchable, whenFailed, whenCommitted));
+
+        if (pendingAppends.size() >= groupCommit.maximumAppends) {
+            commitPendingAppends();
+        } else if (pendingCommit == null) {
+            pendingCommit = scheduler.scheduleOnce(scheduled, null, groupCommit.maximumDelayMillis(), 0L);
+        }
+    }
+
+    private void commitPendingAppends() {
+        cancelPendingCommit();
+
+        if (pendingAppends.isEmpty()) return;
+
+        final List<PendingAppend<T, RS>> committing = new ArrayList<>(pendingAppends);
+        pendingAppends.clear();
+
+        try {
+            connection.commit();
+            commitHorizon.committed(highestWrittenEntryId, queries.nextHeldEntryId());
+        } catch (final SQLException e) {
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not complete transaction of " + committing.size() + " appends", e);
+            rollback();
+            for (final PendingAppend<T, RS> pending : committing) {
+                pending.whenFailed.accept(e);
+            }
+            return;
+        }
+
+        for (final PendingAppend<T, RS> pending : committing) {
+            committed(pending.streamName, pending.fromStreamVersion, pending.dispatchable);
+            lane.completed(() -> dispatchCommitted(pending.dispatchable, pending.whenCommitted));
+        }
+    }
+
+    private void abortTransaction(final Exception cause) {
+        cancelPendingCommit();
+        rollback();
+
+        if (pendingAppends.isEmpty()) return;
+
+        final List<PendingAppend<T, RS>> failing = new ArrayList<>(pendingAppends);
+        pendingAppends.clear();
+
+        final Exception groupFailure =
+                new IllegalStateException("vlingo-symbio-jdbc:journal-" + databaseType + ": Group transaction aborted", cause);
+
+        for (final PendingAppend<T, RS> pending : failing) {
+            pending.whenFailed.accept(groupFailure);
+        }
+    }
+
+    private void cancelPendingCommit() {
+        if (pendingCommit != null) {
+            pendingCommit.cancel();
+            pendingCommit = null;
+        }
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (final SQLException e) {
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not roll back transaction", e);
+        } finally {
+            commitHorizon.rolledBack(queries.nextHeldEntryId());
+        }
+    }
+
+    // my writer of the commitHorizon, added with the last entry committed before it
+    private CommitHorizon.Writer writerOf(final CommitHorizon commitHorizon) throws SQLException {
+        if (!commitHorizon.isEnabled()) {
+            return commitHorizon.writer(0L);
+        }
+
+        final long lastEntryId = queries.lastEntryId();
+        connection.commit();
+        return commitHorizon.writer(lastEntryId);
+    }
+
+    private void doCommit(final Consumer<Exception> whenFailed) {
+        try {
+            connection.commit();
+            commitHorizon.committed(highestWrittenEntryId, queries.nextHeldEntryId());
+        } catch (final SQLException e) {
+            abortTransaction(e);
+            whenFailed.accept(e);
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not complete transaction", e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <S> List<Supplier<Entry<T>>> adaptingEntries(final List<Source<S>> sources, final Metadata metadata) {
+        final List<Supplier<Entry<T>>> adapting = new ArrayList<>(sources.size());
+        for (final Source<S> source : sources) {
+            adapting.add(adaptingEntry(source, metadata));
+        }
+        return adapting;
+    }
+
+    // the entry of source, which is adapted when got unless my adaptation policy is parallel
+    private <S> Supplier<Entry<T>> adaptingEntry(final Source<S> source, final Metadata metadata) {
+        return adaptationPolicy.adapt(() -> entryAdapterProvider.asEntry(source, metadata));
+    }
+
+    private List<Entry<T>> asEntries(final List<Supplier<Entry<T>>> adapting, final Consumer<Exception> whenFailed) {
+        final List<Entry<T>> entries = new ArrayList<>(adapting.size());
+        for (final Supplier<Entry<T>> entry : adapting) {
+            entries.add(asEntry(entry, whenFailed));
+        }
+        return entries;
+    }
+
+    private Entry<T> asEntry(final Supplier<Entry<T>> adapting, final Consumer<Exception> whenFailed) {
+        try {
+            return adapting.get();
+        } catch (final Exception e) {
+            whenFailed.accept(e);
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Cannot adapt source to entry because: ", e);
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private <ST> Tuple2<Optional<ST>, Optional<RS>> toState(final String streamName, final ST snapshot, final int streamVersion) {
+        if (snapshot != null) {
+            return Tuple2.from(Optional.of(snapshot), Optional.of(stateAdapterProvider.asRaw(streamName, snapshot, streamVersion)));
+        } else {
+            return Tuple2.from(Optional.empty(), Optional.empty());
+        }
+    }
+
+    // tells the stream cache and the read replicas of the entries of a committed append, which
+    // must not throw as the append is already committed and other appends may await dispatch
+    private void committed(final String streamName, final int fromStreamVersion, final Dispatchable<Entry<T>, RS> dispatchable) {
+        try {
+            cacheAppended(streamName, fromStreamVersion, dispatchable);
+
+            // all entries written on my connection are committed with the append
+            readReplicas.wrote(streamName, highestWrittenEntryId);
+        } catch (final Exception e) {
+            logger().error("vlingo-symbio-jdbc:journal-" + databaseType + ": Could not tell of committed stream " + streamName, e);
+        }
+    }
+
+    // the written entry with the numeric id
+    private void written(final long entryId) {
+        highestWrittenEntryId = Math.max(highestWrittenEntryId, entryId);
+    }
+
+    // the written entry with the assigned id, which is not a position when it is a UUID
+    private void written(final String entryId) {
+        if (!entryId.isEmpty() && entryId.chars().allMatch(Character::isDigit)) {
+            written(Long.parseLong(entryId));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cacheAppended(final String streamName, final int fromStreamVersion, final Dispatchable<Entry<T>, RS> dispatchable) {
+        if (streamCache.isEnabled()) {
+            // only committed entries may extend a cached stream
+            streamCache.appended(streamName, fromStreamVersion, (List<BaseEntry<T>>) (List<?>) dispatchable.entries());
+        }
+    }
+
+    // dispatches the committed dispatchable and tells of its append, on my thread
+    private void dispatchCommitted(final Dispatchable<Entry<T>, RS> dispatchable, final Runnable whenCommitted) {
+        if (dispatcher != null) {
+            //dispatch only if insert successful
+            this.dispatcher.dispatch(dispatchable);
+        }
+        whenCommitted.run();
+    }
+
+    private Dispatchable<Entry<T>, RS> buildDispatchable(final String streamName, final int streamVersion, final List<Entry<T>> entries,
+                                                                     final RS snapshot) {
+        final String id = getDispatchId(streamName, streamVersion);
+        return new Dispatchable<>(id, LocalDateTime.now(), snapshot, entries);
+    }
+
+    private String getDispatchId(final String streamName, final int streamVersion) {
+        return streamName + ":" + streamVersion + ":" + dispatchablesIdentityGenerator.generate().toString();
+    }
+
+    private static final class PendingAppend<T, RS extends State<T>> {
+        final String streamName;
+        final int fromStreamVersion;
+        final Dispatchable<Entry<T>, RS> dispatchable;
+        final Consumer<Exception> whenFailed;
+        final Runnable whenCommitted;
+
+        PendingAppend(final String streamName, final int fromStreamVersion, final Dispatchable<Entry<T>, RS> dispatchable,
+                      final Consumer<Exception> whenFailed, final Runnable whenCommitted) {
+            this.streamName = streamName;
+            this.fromStreamVersion = fromStreamVersion;
+            this.dispatchable = dispatchable;
+            this.whenFailed = whenFailed;
+            this.whenCommitted = whenCommitted;
+        }
+    }
+}
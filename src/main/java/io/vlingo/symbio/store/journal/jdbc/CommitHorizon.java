@@ -0,0 +1,145 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The highest entry id through which the entries of a journal of many writers, such as a
+ * {@code JDBCShardedJournalActor}, are all committed, past which its journal readers must
+ * not read. A reader reads the entries past the highest id it has read, and so would skip
+ * an entry of a writer whose commit is under way were an entry of a higher id of another
+ * writer read first.
+ * <p>
+ * Each writer tells of the transactions it begins, commits and rolls back, and of the
+ * lowest id it may still assign from a block of entry ids that it holds. The horizon is
+ * then the lowest of the highest id committed before it is got and of the ids below those
+ * that each writer may yet commit: an id of a writer whose transaction is under way is
+ * higher than the highest id committed when it began, as the database generates ids in
+ * ascending order and reserves blocks of entry ids in ascending order. Entries past the
+ * horizon are read once their writers commit, and so a writer that holds a block of entry
+ * ids it has not used up holds back the entries of the higher ids of the other writers.
+ * </p>
+ */
+public class CommitHorizon {
+    /**
+     * The horizon of a journal of a single writer, which holds back no entries.
+     */
+    public static final CommitHorizon None = new CommitHorizon(false);
+
+    private final AtomicLong highestCommittedId;
+    private final boolean isEnabled;
+    private final List<Writer> writers;
+
+    /**
+     * Constructs a horizon of writers yet to be added, through no entries.
+     */
+    public CommitHorizon() {
+        this(true);
+    }
+
+    private CommitHorizon(final boolean isEnabled) {
+        this.highestCommittedId = new AtomicLong(0);
+        this.isEnabled = isEnabled;
+        this.writers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Answer whether or not I hold back entries, which I do unless I am {@code None}.
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Answer a new writer of mine, which is added before it assigns any entry id.
+     * @param lastEntryId the long id of the last entry committed before the writer is added, or 0 if none
+     * @return Writer
+     */
+    public Writer writer(final long lastEntryId) {
+        final Writer writer = new Writer();
+        if (isEnabled) {
+            highestCommittedId.accumulateAndGet(lastEntryId, Math::max);
+            writers.add(writer);
+        }
+        return writer;
+    }
+
+    /**
+     * Answer the long highest entry id through which the entries of my writers are all committed.
+     * @return long
+     */
+    public long through() {
+        if (!isEnabled) {
+            return Long.MAX_VALUE;
+        }
+
+        // got before the writers, so that a writer yet to begin assigns only higher ids
+        long through = highestCommittedId.get();
+        for (final Writer writer : writers) {
+            through = Math.min(through, writer.uncommittedFloor);
+        }
+        return through;
+    }
+
+    /**
+     * A writer of the entries of a journal, whose transactions are told on the thread of its commits.
+     */
+    public class Writer {
+        private volatile long uncommittedFloor;
+        private boolean isWriting;
+
+        Writer() {
+            this.uncommittedFloor = Long.MAX_VALUE;
+            this.isWriting = false;
+        }
+
+        /**
+         * Tells that I begin to write the entries of a transaction, if I have not already.
+         * Must be told before any id of its entries is assigned.
+         */
+        public void writing() {
+            if (isEnabled && !isWriting) {
+                isWriting = true;
+                uncommittedFloor = Math.min(uncommittedFloor, highestCommittedId.get());
+            }
+        }
+
+        /**
+         * Tells that my transaction is committed, the highest id of whose entries is at most
+         * {@code highestEntryId}, and that {@code nextHeldId} is the lowest id I may still assign.
+         * @param highestEntryId the long highest id of the entries I committed, or 0 if none
+         * @param nextHeldId the long next id of my block of entry ids, or Long.MAX_VALUE if I hold none
+         */
+        public void committed(final long highestEntryId, final long nextHeldId) {
+            if (isEnabled) {
+                highestCommittedId.accumulateAndGet(highestEntryId, Math::max);
+                ended(nextHeldId);
+            }
+        }
+
+        /**
+         * Tells that my transaction is rolled back, and that {@code nextHeldId} is the lowest id I may still assign.
+         * @param nextHeldId the long next id of my block of entry ids, or Long.MAX_VALUE if I hold none
+         */
+        public void rolledBack(final long nextHeldId) {
+            if (isEnabled) {
+                ended(nextHeldId);
+            }
+        }
+
+        // ends my transaction, after which I may commit only ids from nextHeldId onward
+        private void ended(final long nextHeldId) {
+            isWriting = false;
+            uncommittedFloor = nextHeldId == Long.MAX_VALUE ? Long.MAX_VALUE : nextHeldId - 1;
+        }
+    }
+}
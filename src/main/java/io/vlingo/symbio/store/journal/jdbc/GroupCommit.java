@@ -0,0 +1,64 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+/**
+ * The policy used by {@code JDBCJournalActor} to commit appends in groups.
+ * Appends that arrive within the window are written in a single transaction
+ * that is committed once, either when {@code maximumAppends} are pending or
+ * when {@code maximumDelayMicros} has elapsed since the first pending append.
+ * No {@code AppendResultInterest} or {@code Dispatcher} is informed of an
+ * append before the shared commit succeeds, and all are failed if it does not.
+ */
+public class GroupCommit {
+    /**
+     * Commits each append in its own transaction.
+     */
+    public static final GroupCommit None = new GroupCommit(1, 0L);
+
+    public final int maximumAppends;
+    public final long maximumDelayMicros;
+
+    /**
+     * Answer a new {@code GroupCommit} with the given window.
+     * @param maximumAppends the int maximum number of appends per commit
+     * @param maximumDelayMicros the long maximum microseconds an append waits for its commit
+     * @return GroupCommit
+     */
+    public static GroupCommit of(final int maximumAppends, final long maximumDelayMicros) {
+        return new GroupCommit(maximumAppends, maximumDelayMicros);
+    }
+
+    public GroupCommit(final int maximumAppends, final long maximumDelayMicros) {
+        if (maximumAppends < 1) {
+            throw new IllegalArgumentException("The maximumAppends must be at least 1.");
+        }
+        if (maximumDelayMicros < 0) {
+            throw new IllegalArgumentException("The maximumDelayMicros must not be negative.");
+        }
+        this.maximumAppends = maximumAppends;
+        this.maximumDelayMicros = maximumDelayMicros;
+    }
+
+    /**
+     * Answer whether or not appends are committed in groups.
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return maximumAppends > 1;
+    }
+
+    /**
+     * Answer my delay in the milliseconds granularity of the {@code Scheduler},
+     * which is never less than one.
+     * @return long
+     */
+    public long maximumDelayMillis() {
+        return Math.max(1L, (maximumDelayMicros + 999L) / 1000L);
+    }
+}
@@ -0,0 +1,25 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.sql.SQLException;
+
+import io.vlingo.actors.Logger;
+import io.vlingo.symbio.State.BinaryState;
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+
+/**
+ * The delegate of the {@code DispatcherControl} of the dispatchables of a {@code JDBCBinaryJournalActor},
+ * whose entries and states are binary.
+ */
+public class JDBCBinaryDispatcherControlDelegate extends BaseJDBCDispatcherControlDelegate<byte[], BinaryState> {
+    public JDBCBinaryDispatcherControlDelegate(final Configuration configuration, final Logger logger) throws SQLException {
+        super(DataFormat.Binary, configuration, logger);
+    }
+}
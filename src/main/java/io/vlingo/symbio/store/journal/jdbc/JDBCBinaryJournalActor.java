@@ -0,0 +1,105 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.sql.SQLException;
+
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.State.BinaryState;
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.dispatch.Dispatchable;
+import io.vlingo.symbio.store.dispatch.Dispatcher;
+import io.vlingo.symbio.store.dispatch.DispatcherControl;
+
+/**
+ * A {@code Journal<byte[]>} of entries and snapshots whose data is binary, stored in the binary
+ * journal tables by a {@code Configuration} of the {@code DataFormat.Binary}, which are apart
+ * from those of the {@code JDBCJournalActor} of the same database.
+ */
+public class JDBCBinaryJournalActor extends BaseJDBCJournalActor<byte[], BinaryState> {
+    public JDBCBinaryJournalActor(final Configuration configuration) throws Exception {
+        this(null, configuration, 0L, 0L);
+    }
+
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration) throws Exception {
+        this(dispatcher, configuration, 1000L, 1000L);
+    }
+
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final GroupCommit groupCommit) throws Exception {
+        this(dispatcher, configuration, 1000L, 1000L, groupCommit);
+    }
+
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final long checkConfirmationExpirationInterval, final long confirmationExpiration) throws Exception {
+        this(dispatcher, configuration, checkConfirmationExpirationInterval, confirmationExpiration, GroupCommit.None);
+    }
+
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final long checkConfirmationExpirationInterval, final long confirmationExpiration,
+                                  final GroupCommit groupCommit) throws Exception {
+        this(dispatcher, configuration, checkConfirmationExpirationInterval, confirmationExpiration, groupCommit, SnapshotRetention.All);
+    }
+
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final long checkConfirmationExpirationInterval, final long confirmationExpiration,
+                                  final GroupCommit groupCommit, final SnapshotRetention snapshotRetention) throws Exception {
+        this(dispatcher, configuration, checkConfirmationExpirationInterval, confirmationExpiration, groupCommit, snapshotRetention, ReadAhead.None);
+    }
+
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final long checkConfirmationExpirationInterval, final long confirmationExpiration,
+                                  final GroupCommit groupCommit, final SnapshotRetention snapshotRetention, final ReadAhead readAhead) throws Exception {
+        this(dispatcher, configuration, checkConfirmationExpirationInterval, confirmationExpiration, groupCommit, snapshotRetention, readAhead, StreamCache.None);
+    }
+
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final long checkConfirmationExpirationInterval, final long confirmationExpiration,
+                                  final GroupCommit groupCommit, final SnapshotRetention snapshotRetention, final ReadAhead readAhead,
+                                  final StreamCache streamCache) throws Exception {
+        this(dispatcher, configuration, checkConfirmationExpirationInterval, confirmationExpiration, null, groupCommit,
+                snapshotRetention, readAhead, streamCache);
+    }
+
+    /**
+     * Constructs a journal that dispatches to {@code dispatcher}. The redispatch of unconfirmed
+     * dispatchables is controlled by {@code sharedDispatcherControl} if given, which is then
+     * shared by other journals of the same {@code originatorId} and stopped by its creator,
+     * and otherwise by a {@code DispatcherControl} of my own.
+     */
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final long checkConfirmationExpirationInterval, final long confirmationExpiration,
+                                  final DispatcherControl sharedDispatcherControl, final GroupCommit groupCommit,
+                                  final SnapshotRetention snapshotRetention, final ReadAhead readAhead,
+                                  final StreamCache streamCache) throws Exception {
+        this(dispatcher, configuration, checkConfirmationExpirationInterval, confirmationExpiration, sharedDispatcherControl,
+                groupCommit, snapshotRetention, readAhead, streamCache, CommitHorizon.None);
+    }
+
+    /**
+     * Constructs a journal that dispatches to {@code dispatcher}. The redispatch of unconfirmed
+     * dispatchables is controlled by {@code sharedDispatcherControl} if given, which is then
+     * shared by other journals of the same {@code originatorId} and stopped by its creator,
+     * and otherwise by a {@code DispatcherControl} of my own. My transactions are told to
+     * {@code commitHorizon}, through which the readers of the journals sharing it read.
+     */
+    public JDBCBinaryJournalActor(final Dispatcher<Dispatchable<Entry<byte[]>, BinaryState>> dispatcher, final Configuration configuration,
+                                  final long checkConfirmationExpirationInterval, final long confirmationExpiration,
+                                  final DispatcherControl sharedDispatcherControl, final GroupCommit groupCommit,
+                                  final SnapshotRetention snapshotRetention, final ReadAhead readAhead,
+                                  final StreamCache streamCache, final CommitHorizon commitHorizon) throws Exception {
+        super(DataFormat.Binary, dispatcher, configuration, checkConfirmationExpirationInterval, confirmationExpiration,
+                sharedDispatcherControl, groupCommit, snapshotRetention, readAhead, streamCache, commitHorizon);
+    }
+
+    @Override
+    protected DispatcherControl.DispatcherControlDelegate<Entry<byte[]>, BinaryState> dispatcherControlDelegateOf(final Configuration configuration) throws SQLException {
+        return new JDBCBinaryDispatcherControlDelegate(configuration, stage().world().defaultLogger());
+    }
+}
@@ -7,52 +7,128 @@
 
 package io.vlingo.symbio.store.journal.jdbc;
 
-import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-
-import com.google.gson.Gson;
+import java.util.function.Supplier;
 
 import io.vlingo.actors.Actor;
+import io.vlingo.actors.CompletesEventually;
+import io.vlingo.common.Cancellable;
 import io.vlingo.common.Completes;
+import io.vlingo.common.Scheduled;
+import io.vlingo.common.Scheduler;
 import io.vlingo.common.Tuple2;
 import io.vlingo.symbio.BaseEntry;
-import io.vlingo.symbio.BaseEntry.TextEntry;
+import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.store.common.jdbc.Configuration;
 import io.vlingo.symbio.store.common.jdbc.DatabaseType;
+import io.vlingo.symbio.store.common.jdbc.IOExecutor.Lane;
+import io.vlingo.symbio.store.common.jdbc.OffsetCommitPolicy;
+import io.vlingo.symbio.store.common.jdbc.ReadReplicas;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
 import io.vlingo.symbio.store.journal.JournalReader;
 import io.vlingo.symbio.store.journal.jdbc.JDBCQueries;
 
-public class JDBCJournalReaderActor extends Actor implements JournalReader<TextEntry> {
-    private final Connection connection;
+/**
+ * A {@code JournalReader} of the entries of a JDBC journal. Unless the connections of its
+ * {@code Configuration} are pooled, it reads over the connection of the configuration.
+ * If they are pooled, each of its reads borrows a connection for only the duration of
+ * that read, using the {@code JDBCQueries} attached to the pooled connection.
+ * <p>
+ * If the configuration has read replicas, the entries are read from a replica, and only
+ * the offset of the reader is read from and written to the primary. A read that a replica
+ * answers with fewer entries than are known to have been written is read again from the
+ * primary.
+ * </p>
+ * <p>
+ * If the configuration has an {@code IOExecutorPolicy}, each read is run in a {@code Lane}
+ * of its {@code IOExecutor}, in the order of the messages received, and its outcome is
+ * answered once read.
+ * </p>
+ * <p>
+ * If it reads the journal of many writers through their {@code CommitHorizon}, it reads
+ * only the entries through the horizon, those past it being read once it has moved past
+ * them, so that no entry of a writer whose commit is under way is skipped.
+ * </p>
+ * <p>
+ * If its {@code OffsetCommitPolicy} persists the offset after a number of milliseconds,
+ * a flush is scheduled after a read that leaves the offset pending, so that the offset is
+ * persisted once the milliseconds have passed even if it reads no more.
+ * </p>
+ * @param <T> the type of the entries read
+ */
+public class JDBCJournalReaderActor<T extends Entry<?>> extends Actor implements JournalReader<T>, Scheduled<Object> {
+    private static final Object FlushOffset = new Object();
+
     private final DatabaseType databaseType;
-    private final Gson gson;
+    private final ReadConnection entries;
+    private final CommitHorizon commitHorizon;
+    private final Lane lane;
     private final String name;
-    private final JDBCQueries queries;
+    private final OffsetCommitPolicy.Tracker offsetCommits;
+    private final Deque<Tuple2<T,Long>> prefetched;
+    private final ReadConnection primary;
+    private final ReadAhead readAhead;
+    private final ReadReplicas readReplicas;
+    private final Scheduler scheduler;
+    private final Scheduled<Object> scheduled;
 
     private long offset;
+    private Cancellable offsetFlush;
+    private boolean prefetchScheduled;
 
     public JDBCJournalReaderActor(final Configuration configuration, final String name) throws SQLException {
-        this.connection = configuration.connection;
+        this(configuration, name, ReadAhead.None);
+    }
+
+    public JDBCJournalReaderActor(final Configuration configuration, final String name, final ReadAhead readAhead) throws SQLException {
+        this(configuration, name, readAhead, CommitHorizon.None);
+    }
+
+    @SuppressWarnings("unchecked")
+    public JDBCJournalReaderActor(final Configuration configuration, final String name, final ReadAhead readAhead,
+                                  final CommitHorizon commitHorizon) throws SQLException {
         this.databaseType = configuration.databaseType;
+        this.commitHorizon = commitHorizon == null ? CommitHorizon.None : commitHorizon;
         this.name = name;
+        this.offsetCommits = configuration.offsetCommitPolicy.defaultingTo(OffsetCommitPolicy.EveryRead).tracker();
+        this.readAhead = readAhead == null ? ReadAhead.None : readAhead;
+        this.prefetched = new ArrayDeque<>(this.readAhead.pageSize);
+        this.readReplicas = configuration.readReplicas();
+        this.lane = configuration.ioExecutor().lane(cause ->
+                logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": " + cause.getMessage(), cause));
+
+        this.primary = ReadConnection.primaryOf(configuration);
+        this.entries = ReadConnection.replicasOf(configuration, primary);
+        this.scheduler = stage().scheduler();
+        this.scheduled = selfAs(Scheduled.class);
 
-        this.queries = JDBCQueries.queriesFor(this.connection);
-
-        this.gson = new Gson();
         retrieveCurrentOffset();
     }
 
     @Override
     public void close() {
-      try {
-        queries.close();
-      } catch (SQLException e) {
-        // ignore
-      }
+        if (offsetFlush != null) {
+            offsetFlush.cancel();
+        }
+
+        lane.execute(() -> {
+            prefetched.clear();
+
+            if (offsetCommits.hasPending()) {
+                updateCurrentOffset();
+            }
+
+            if (entries != primary) {
+                entries.close();
+            }
+            primary.close();
+        });
     }
 
     @Override
@@ -61,69 +137,134 @@ public class JDBCJournalReaderActor extends Actor implements JournalReader<TextE
     }
 
     @Override
-    public Completes<TextEntry> readNext() {
-        try (final ResultSet resultSet = queries.prepareSelectEntryQuery(offset).executeQuery()) {
-            if (resultSet.next()) {
-                final Tuple2<TextEntry,Long> entry = entryFromResultSet(resultSet);
+    public Completes<T> readNext() {
+        return answer(this::next);
+    }
+
+    @Override
+    public Completes<T> readNext(final String fromId) {
+        return answer(() -> {
+            seek(fromId);
+            return next();
+        });
+    }
+
+    @Override
+    public Completes<List<T>> readNext(final int maximumEvents) {
+        return answer(() -> next(maximumEvents));
+    }
+
+    @Override
+    public Completes<List<T>> readNext(final String fromId, final int maximumEntries) {
+        return answer(() -> {
+            seek(fromId);
+            return next(maximumEntries);
+        });
+    }
+
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+        if (data == FlushOffset) {
+            lane.execute(this::flushOffset);
+            return;
+        }
+
+        lane.execute(() -> {
+            prefetchScheduled = false;
+            prefetch();
+        });
+    }
+
+    @Override
+    public void rewind() {
+        lane.execute(() -> {
+            prefetched.clear();
+            this.offset = 1;
+            updateCurrentOffset();
+        });
+    }
+
+    @Override
+    public Completes<String> seekTo(final String id) {
+        return answer(() -> seek(id));
+    }
+
+    @Override
+    public Completes<Long> size() {
+        return answer(this::count);
+    }
+
+    // answers the outcome of reading, which is read in my lane and so possibly after my answer is returned
+    private <R> Completes<R> answer(final Supplier<R> reading) {
+        if (lane.isInline()) {
+            return completes().with(reading.get());
+        }
+
+        final CompletesEventually eventually = completesEventually();
+        lane.execute(() -> {
+            R outcome = null;
+            try {
+                outcome = reading.get();
+            } finally {
+                eventually.with(outcome);
+            }
+        });
+        return completes();
+    }
+
+    private T next() {
+        if (readAhead.isEnabled()) {
+            return readNextPrefetched();
+        }
+
+        try {
+            final List<Tuple2<T,Long>> read = entriesFrom(offset, 1);
+            if (!read.isEmpty()) {
+                final Tuple2<T,Long> entry = read.get(0);
                 offset = entry._2 + 1;
-                updateCurrentOffset();
-                return completes().with(entry._1);
+                offsetRead(1);
+                return entry._1;
             }
         } catch (Exception e) {
             logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": " + e.getMessage(), e);
         }
 
-        return completes().with(null);
+        return null;
     }
 
-    @Override
-    public Completes<TextEntry> readNext(final String fromId) {
-      seekTo(fromId);
-      return readNext();
-    }
+    private List<T> next(final int maximumEvents) {
+        final List<T> events = new ArrayList<>(maximumEvents);
 
-    @Override
-    public Completes<List<TextEntry>> readNext(final int maximumEvents) {
-        final List<TextEntry> events = new ArrayList<>(maximumEvents);
+        prefetched.clear();
 
-        try (final ResultSet resultSet = queries.prepareSelectEntryBatchQuery(offset, maximumEvents).executeQuery()) {
-            while (resultSet.next()) {
-                final Tuple2<TextEntry,Long> entry = entryFromResultSet(resultSet);
+        try {
+            for (final Tuple2<T,Long> entry : entriesFrom(offset, maximumEvents)) {
                 offset = entry._2 + 1;
                 events.add(entry._1);
             }
 
-            updateCurrentOffset();
-            return completes().with(events);
+            offsetRead(events.size());
+            return events;
 
         } catch (Exception e) {
             logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": " + e.getMessage(), e);
         }
 
-        return completes().with(null);
+        return null;
     }
 
-    @Override
-    public Completes<List<TextEntry>> readNext(final String fromId, final int maximumEntries) {
-      seekTo(fromId);
-      return readNext(maximumEntries);
-    }
-
-    @Override
-    public void rewind() {
-        this.offset = 1;
-        updateCurrentOffset();
-    }
+    private String seek(final String id) {
+        if (!Query.equals(id)) {
+            prefetched.clear();
+        }
 
-    @Override
-    public Completes<String> seekTo(final String id) {
         switch (id) {
             case Beginning:
                 this.offset = 1;
                 updateCurrentOffset();
                 break;
             case End:
-                this.offset = retrieveLastOffset() + 1;
+                this.offset = Math.min(retrieveLastOffset(), commitHorizon.through()) + 1;
                 updateCurrentOffset();
                 break;
             case Query:
@@ -134,71 +275,207 @@ public class JDBCJournalReaderActor extends Actor implements JournalReader<TextE
                 break;
         }
 
-        return completes().with(String.valueOf(offset));
+        return String.valueOf(offset);
     }
 
-    @Override
-    public Completes<Long> size() {
-        try (final ResultSet resultSet = queries.prepareSelectJournalCount().executeQuery()) {
-          if (resultSet.next()) {
-              final long count = resultSet.getLong(1);
-              connection.commit();
-              return completes().with(count);
-          }
+    private Long count() {
+        try {
+            primary.borrow();
+
+            try (final ResultSet resultSet = primary.queries().prepareSelectJournalCount().executeQuery()) {
+              if (resultSet.next()) {
+                  final long count = resultSet.getLong(1);
+                  primary.connection().commit();
+                  return count;
+              }
+            }
         } catch (Exception e) {
           logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": " + e.getMessage(), e);
           logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": Rewinding the offset");
+        } finally {
+            primary.giveBack();
         }
 
-        return completes().with(-1L);
+        return -1L;
     }
 
-    private Tuple2<TextEntry,Long> entryFromResultSet(final ResultSet resultSet) throws SQLException, ClassNotFoundException {
+    // the entries from fromId onward through my commit horizon, read again from the primary if a replica may have missed some
+    private List<Tuple2<T,Long>> entriesFrom(final long fromId, final int count) throws Exception {
+        final long throughId = commitHorizon.through();
+        if (throughId < fromId) {
+            return new ArrayList<>(0);
+        }
+
+        final List<Tuple2<T,Long>> read = entriesFrom(entries, fromId, count, throughId);
+
+        if (entries != primary && read.size() < count) {
+            final long lastIdRead = read.isEmpty() ? fromId - 1 : read.get(read.size() - 1)._2;
+            if (lastIdRead < throughId && readReplicas.isBehind(lastIdRead)) {
+                return entriesFrom(primary, fromId, count, throughId);
+            }
+        }
+
+        return read;
+    }
+
+    private List<Tuple2<T,Long>> entriesFrom(final ReadConnection reading, final long fromId, final int count, final long throughId) throws Exception {
+        final List<Tuple2<T,Long>> read = new ArrayList<>();
+
+        try {
+            reading.borrow();
+
+            try (final ResultSet resultSet = reading.queries().prepareSelectEntryBatchQuery(fromId, count).executeQuery()) {
+                while (resultSet.next() && resultSet.getLong(1) <= throughId) {
+                    read.add(entryFromResultSet(reading.queries(), resultSet));
+                }
+            }
+        } finally {
+            reading.giveBack();
+        }
+
+        return read;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Tuple2<T,Long> entryFromResultSet(final JDBCQueries queries, final ResultSet resultSet) throws SQLException, ClassNotFoundException {
         final long id = resultSet.getLong(1);
-        final String entryData = resultSet.getString(2);
+        final Object entryData = queries.dataFrom(resultSet, 2);
         final String entryType = resultSet.getString(3);
         final int eventTypeVersion = resultSet.getInt(4);
         final String entryMetadata = resultSet.getString(5);
 
-        final Class<?> classOfEvent = Class.forName(entryType);
+        final Class<?> classOfEvent = TypeResolver.classFor(entryType);
 
-        final Metadata eventMetadataDeserialized = gson.fromJson(entryMetadata, Metadata.class);
-        return Tuple2.from(new BaseEntry.TextEntry(String.valueOf(id), classOfEvent, eventTypeVersion, entryData, eventMetadataDeserialized), id);
+        final Metadata eventMetadataDeserialized = MetadataCodec.decoded(entryMetadata);
+        if (queries.format.isBinary()) {
+            return Tuple2.from((T) new BaseEntry.BinaryEntry(String.valueOf(id), classOfEvent, eventTypeVersion, (byte[]) entryData, eventMetadataDeserialized), id);
+        }
+        return Tuple2.from((T) new BaseEntry.TextEntry(String.valueOf(id), classOfEvent, eventTypeVersion, (String) entryData, eventMetadataDeserialized), id);
+    }
+
+    private T readNextPrefetched() {
+        if (prefetched.isEmpty()) {
+            prefetch();
+        }
+
+        final Tuple2<T,Long> entry = prefetched.poll();
+        if (entry == null) {
+            return null;
+        }
+
+        offset = entry._2 + 1;
+        offsetRead(1);
+
+        if (prefetched.size() < readAhead.lowWaterMark) {
+            schedulePrefetch();
+        }
+
+        return entry._1;
+    }
+
+    private void prefetch() {
+        final int count = readAhead.pageSize - prefetched.size();
+        if (count <= 0) return;
+
+        final long fetchFrom = prefetched.isEmpty() ? offset : prefetched.peekLast()._2 + 1;
+
+        try {
+            prefetched.addAll(entriesFrom(fetchFrom, count));
+        } catch (Exception e) {
+            logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": Could not prefetch because: " + e.getMessage(), e);
+        }
+    }
+
+    // prefetches after the read under way is answered, which is next in my lane unless my reads
+    // are run inline, on my thread, when it is by a signal scheduled to me
+    private void schedulePrefetch() {
+        if (!prefetchScheduled) {
+            prefetchScheduled = true;
+            if (lane.isInline()) {
+                scheduler.scheduleOnce(scheduled, null, 0L, 0L);
+            } else {
+                lane.execute(() -> {
+                    prefetchScheduled = false;
+                    prefetch();
+                });
+            }
+        }
     }
 
     private void retrieveCurrentOffset() {
         this.offset = 1;
 
-        try (final ResultSet resultSet = queries.prepareSelectCurrentOffsetQuery(name).executeQuery()) {
-            if (resultSet.next()) {
-                this.offset = resultSet.getLong(1);
-                connection.commit();
+        try {
+            primary.borrow();
+
+            try (final ResultSet resultSet = primary.queries().prepareSelectCurrentOffsetQuery(name).executeQuery()) {
+                if (resultSet.next()) {
+                    this.offset = resultSet.getLong(1);
+                    primary.connection().commit();
+                }
             }
         } catch (Exception e) {
             logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": " + e.getMessage(), e);
             logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": Rewinding the offset");
+        } finally {
+            primary.giveBack();
+        }
+    }
+
+    private void offsetRead(final int count) {
+        if (offsetCommits.read(count)) {
+            updateCurrentOffset();
+        } else {
+            scheduleOffsetFlush();
+        }
+    }
+
+    // persists the offset left pending by my last reads once the milliseconds of my policy have
+    // passed, or otherwise schedules the flush again for when they will have
+    private void flushOffset() {
+        if (offsetCommits.flushDue()) {
+            updateCurrentOffset();
+        } else {
+            scheduleOffsetFlush();
+        }
+    }
+
+    private void scheduleOffsetFlush() {
+        final long flushAfter = offsetCommits.flushAfter();
+        if (flushAfter > 0) {
+            offsetFlush = scheduler.scheduleOnce(scheduled, FlushOffset, flushAfter, 0L);
         }
     }
 
     private void updateCurrentOffset() {
         try {
-            queries.prepareUpsertOffsetQuery(name, offset).executeUpdate();
-            connection.commit();
+            primary.borrow();
+            primary.queries().prepareUpsertOffsetQuery(name, offset).executeUpdate();
+            primary.connection().commit();
+            offsetCommits.committed();
         } catch (Exception e) {
             logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": Could not persist the offset. Will retry on next read.");
             logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": " + e.getMessage(), e);
+        } finally {
+            primary.giveBack();
         }
     }
 
     private long retrieveLastOffset() {
-        try (final ResultSet resultSet = queries.prepareSelectLastOffsetQuery().executeQuery()) {
-            if (resultSet.next()) {
-                final long lastOffset = resultSet.getLong(1);
-                connection.commit();
-                return lastOffset;
+        try {
+            primary.borrow();
+
+            try (final ResultSet resultSet = primary.queries().prepareSelectLastOffsetQuery().executeQuery()) {
+                if (resultSet.next()) {
+                    final long lastOffset = resultSet.getLong(1);
+                    primary.connection().commit();
+                    return lastOffset;
+                }
             }
         } catch (Exception e) {
             logger().error("vlingo-symbio-jdbc:journal-reader-" + databaseType + ": Could not retrieve latest offset, using current.");
+        } finally {
+            primary.giveBack();
         }
 
         return offset;
@@ -8,7 +8,13 @@
 package io.vlingo.symbio.store.journal.jdbc;
 
 import io.vlingo.common.Tuple2;
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.ConnectionProvider;
 import io.vlingo.symbio.store.common.jdbc.DatabaseType;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables;
+import io.vlingo.symbio.store.common.jdbc.IdentityBlockAllocator;
+import io.vlingo.symbio.store.journal.jdbc.hsqldb.HSQLDBQueries;
 import io.vlingo.symbio.store.journal.jdbc.mysql.MySQLQueries;
 import io.vlingo.symbio.store.journal.jdbc.postgres.PostgresQueries;
 import io.vlingo.symbio.store.journal.jdbc.postgres.yugabyte.YugaByteQueries;
@@ -17,12 +23,31 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public abstract class JDBCQueries {
+public abstract class JDBCQueries implements AutoCloseable {
+    /**
+     * The number of stream entries fetched by each round trip of {@code prepareSelectStreamQuery()}.
+     */
+    public static final int SELECT_STREAM_FETCH_SIZE = 100;
+
+    /**
+     * The maximum number of streams selected by {@code prepareSelectSnapshotsQuery()} and {@code prepareSelectStreamsQuery()}.
+     */
+    public static final int SELECT_STREAMS_LIMIT = 50;
+
+    private static final String TEXT_TABLES_PREFIX = "VLINGO_SYMBIO_JOURNAL";
+    private static final String BINARY_TABLES_PREFIX = "VLINGO_SYMBIO_BINARY_JOURNAL";
+
     protected final Connection connection;
+    protected final DataFormat format;
 
     protected final PreparedStatement deleteDispatchable;
+    protected final PreparedStatement deleteSnapshots;
 
     protected final PreparedStatement insertEntry;
     protected final PreparedStatement insertOffset;
@@ -35,33 +60,56 @@ public abstract class JDBCQueries {
     protected final PreparedStatement selectJournalCount;
     protected final PreparedStatement selectEntry;
     protected final PreparedStatement selectEntryBatch;
+    protected final PreparedStatement selectEntries;
     protected final PreparedStatement selectSnapshot;
+    protected final PreparedStatement selectSnapshots;
     protected final PreparedStatement selectStream;
+    protected final PreparedStatement selectStreams;
 
     protected final PreparedStatement updateOffset;
     protected final PreparedStatement upsertOffset;
 
-    public JDBCQueries(final Connection connection) throws SQLException {
-        this.connection = connection;
-
-        this.deleteDispatchable = connection.prepareStatement(deleteDispatchableQuery());
+    private Connection entryIdConnection;
+    private IdentityBlockAllocator entryIds;
+    private PreparedStatement insertEntryWithId;
 
-        this.insertEntry = connection.prepareStatement(insertEntryQuery(), generatedKeysIndicator());
-        this.insertOffset = connection.prepareStatement(insertOffsetQuery());
-        this.insertSnapshot = connection.prepareStatement(insertSnapshotQuery());
-        this.insertDispatchable = connection.prepareStatement(insertDispatchableQuery());
-
-        this.selectCurrentOffset = connection.prepareStatement(selectCurrentOffset());
-        this.selectDispatchables = connection.prepareStatement(selectDispatchablesQuery());
-        this.selectEntry = connection.prepareStatement(selectEntryQuery());
-        this.selectEntryBatch = connection.prepareStatement(selectEntryBatchQuery());
-        this.selectLastOffset = connection.prepareStatement(selectLastOffsetQuery());
-        this.selectJournalCount = connection.prepareStatement(selectJournalCountQuery());
-        this.selectSnapshot = connection.prepareStatement(selectSnapshotQuery());
-        this.selectStream = connection.prepareStatement(selectStreamQuery());
+    public JDBCQueries(final Connection connection) throws SQLException {
+        this(connection, DataFormat.Text);
+    }
 
-        this.updateOffset = connection.prepareStatement(updateOffsetQuery());
-        this.upsertOffset = connection.prepareStatement(upsertOffsetQuery());
+    /**
+     * Construct my statements for entry, snapshot and dispatchable state data of {@code format},
+     * which is stored as text or as bytes by the text or the binary journal tables, respectively.
+     * @param connection the Connection to use
+     * @param format the DataFormat of the stored data
+     * @throws SQLException if the statements cannot be prepared
+     */
+    public JDBCQueries(final Connection connection, final DataFormat format) throws SQLException {
+        this.connection = connection;
+        this.format = format;
+
+        this.deleteDispatchable = connection.prepareStatement(tablesOf(deleteDispatchableQuery()));
+        this.deleteSnapshots = connection.prepareStatement(tablesOf(deleteSnapshotsQuery()));
+
+        this.insertEntry = connection.prepareStatement(tablesOf(insertEntryQuery()), generatedKeysIndicator());
+        this.insertOffset = connection.prepareStatement(tablesOf(insertOffsetQuery()));
+        this.insertSnapshot = connection.prepareStatement(tablesOf(insertSnapshotQuery()));
+        this.insertDispatchable = connection.prepareStatement(tablesOf(insertDispatchableQuery()));
+
+        this.selectCurrentOffset = connection.prepareStatement(tablesOf(selectCurrentOffset()));
+        this.selectDispatchables = connection.prepareStatement(tablesOf(selectDispatchablesQuery()));
+        this.selectEntry = connection.prepareStatement(tablesOf(selectEntryQuery()));
+        this.selectEntryBatch = connection.prepareStatement(tablesOf(selectEntryBatchQuery()));
+        this.selectEntries = connection.prepareStatement(tablesOf(selectEntriesQuery(Dispatchables.ENTRIES_LIMIT)));
+        this.selectLastOffset = connection.prepareStatement(tablesOf(selectLastOffsetQuery()));
+        this.selectJournalCount = connection.prepareStatement(tablesOf(selectJournalCountQuery()));
+        this.selectSnapshot = connection.prepareStatement(tablesOf(selectSnapshotQuery()));
+        this.selectSnapshots = connection.prepareStatement(tablesOf(selectSnapshotsQuery(SELECT_STREAMS_LIMIT)));
+        this.selectStream = connection.prepareStatement(tablesOf(selectStreamQuery()));
+        this.selectStreams = connection.prepareStatement(tablesOf(selectStreamsQuery(SELECT_STREAMS_LIMIT)));
+
+        this.updateOffset = connection.prepareStatement(tablesOf(updateOffsetQuery()));
+        this.upsertOffset = connection.prepareStatement(tablesOf(upsertOffsetQuery()));
     }
 
     /**
@@ -71,22 +119,58 @@ public abstract class JDBCQueries {
      * @throws SQLException if the specific PostgresQueries cannot be created
      */
     public static JDBCQueries queriesFor(final Connection connection) throws SQLException {
+        return queriesFor(connection, DataFormat.Text);
+    }
+
+    /**
+     * Answer a new {@code JDBCQueries} per the {@code DatabaseType} of the {@code connection}
+     * whose data is of the given {@code format}.
+     * @param connection the Connection to use
+     * @param format the DataFormat of the stored entry, snapshot and dispatchable state data
+     * @return JDBCQueries
+     * @throws SQLException if the specific JDBCQueries cannot be created
+     */
+    public static JDBCQueries queriesFor(final Connection connection, final DataFormat format) throws SQLException {
         final DatabaseType databaseType = DatabaseType.databaseType(connection);
 
         switch (databaseType) {
             case Postgres:
-                return new PostgresQueries(connection);
+                return new PostgresQueries(connection, format);
             case YugaByte:
-                return new YugaByteQueries(connection);
+                return new YugaByteQueries(connection, format);
             case MySQL:
-                return new MySQLQueries(connection);
+                return new MySQLQueries(connection, format);
+            case HSQLDB:
+                return HSQLDBQueries.withTables(connection, format);
             default:
                 throw new IllegalArgumentException("Database type not supported: " + databaseType);
         }
     }
 
+    /**
+     * Answer a new {@code JDBCQueries} over the {@code connection} to the database of the
+     * {@code configuration}, whose data is of the format of the {@code configuration}. Any
+     * tables that must precede the queries are created once for the {@code configuration}
+     * and its clones, rather than for each of its connections.
+     * @param configuration the Configuration of the database
+     * @param connection the Connection to use
+     * @return JDBCQueries
+     * @throws SQLException if the specific JDBCQueries cannot be created
+     */
+    public static JDBCQueries queriesFor(final Configuration configuration, final Connection connection) throws SQLException {
+        final DataFormat format = configuration.format;
+
+        if (DatabaseType.databaseType(connection) == DatabaseType.HSQLDB) {
+            configuration.createTablesOnce(HSQLDBQueries.class.getName() + format, () -> HSQLDBQueries.createTablesOn(connection, format));
+            return new HSQLDBQueries(connection, format);
+        }
+
+        return queriesFor(connection, format);
+    }
+
     public void close() throws SQLException {
         close(deleteDispatchable);
+        close(deleteSnapshots);
         close(insertEntry);
         close(insertOffset);
         close(insertSnapshot);
@@ -95,38 +179,131 @@ public abstract class JDBCQueries {
         close(selectDispatchables);
         close(selectEntry);
         close(selectEntryBatch);
+        close(selectEntries);
         close(selectLastOffset);
         close(selectJournalCount);
         close(selectSnapshot);
+        close(selectSnapshots);
         close(selectStream);
+        close(selectStreams);
         close(updateOffset);
         close(upsertOffset);
 
+        if (entryIds != null) {
+            close(insertEntryWithId);
+        }
+        if (entryIdConnection != null) {
+            entryIdConnection.close();
+        }
+
         connection.close();
     }
 
     public void createTables() throws SQLException {
-        connection.createStatement().execute(createJournalTableQuery());
+        connection.createStatement().execute(tablesOf(createJournalTableQuery()));
         connection.commit();
-        connection.createStatement().execute(createOffsetsTable());
+        createJournalStreamIndex();
+        connection.createStatement().execute(tablesOf(createOffsetsTable()));
         connection.commit();
-        connection.createStatement().execute(createSnapshotsTableQuery());
+        connection.createStatement().execute(tablesOf(createSnapshotsTableQuery()));
         connection.commit();
-        connection.createStatement().execute(createDispatchableTable());
+        connection.createStatement().execute(tablesOf(createDispatchableTable()));
         connection.commit();
     }
 
     public void dropTables() throws SQLException {
-        connection.prepareStatement(dropDispatchablesTableQuery()).execute();
+        connection.prepareStatement(tablesOf(dropDispatchablesTableQuery())).execute();
         connection.commit();
-        connection.prepareStatement(dropSnapshotsTableQuery()).execute();
+        connection.prepareStatement(tablesOf(dropSnapshotsTableQuery())).execute();
         connection.commit();
-        connection.prepareStatement(dropOffsetsTable()).execute();
+        connection.prepareStatement(tablesOf(dropOffsetsTable())).execute();
         connection.commit();
-        connection.prepareStatement(dropJournalTable()).execute();
+        connection.prepareStatement(tablesOf(dropJournalTable())).execute();
         connection.commit();
     }
 
+    /**
+     * Assigns the ids of inserted entries on the client side from blocks of {@code blockSize}
+     * ids, rather than reading back each id generated by the database. Each block is reserved
+     * on a separate connection of the {@code connectionProvider} and committed immediately,
+     * so that a rolled back append cannot cause a block to be reserved twice. When the
+     * {@code connectionProvider} is pooled, that connection is borrowed for each reservation
+     * and returned once it commits, rather than held for as long as these queries.
+     * <p>
+     * These queries must be those of the only writer of the journal, because the entry ids of
+     * concurrent writers would not ascend in commit order, and so the journal readers, which
+     * read the entries following the id of the last entry read, could skip entries, unless
+     * the readers read only through the {@code CommitHorizon} of the writers, which tell it of
+     * their {@code nextHeldEntryId()}. See {@code IdentityBlockAllocator}.
+     * </p>
+     * @param connectionProvider the ConnectionProvider of the connection that reserves blocks
+     * @param blockSize the int number of ids reserved by each block
+     * @throws SQLException if the blocks cannot be created
+     */
+    public void useEntryIdBlocks(final ConnectionProvider connectionProvider, final int blockSize) throws SQLException {
+        final Connection blockConnection = connectionProvider.connection();
+
+        try {
+            createEntryIdBlocks(blockConnection, lastEntryId(blockConnection) + 1, blockSize);
+            blockConnection.commit();
+            this.insertEntryWithId = connection.prepareStatement(tablesOf(insertEntryWithIdQuery()));
+        } catch (final SQLException e) {
+            blockConnection.close();
+            throw e;
+        }
+
+        if (connectionProvider.isPooled()) {
+            blockConnection.close();
+            this.entryIds = new IdentityBlockAllocator(blockSize, size -> {
+                try (final Connection borrowed = connectionProvider.connection()) {
+                    final long first = reserveEntryIdBlock(borrowed, size);
+                    borrowed.commit();
+                    return first;
+                }
+            });
+        } else {
+            this.entryIdConnection = blockConnection;
+            this.entryIds = new IdentityBlockAllocator(blockSize, size -> {
+                final long first = reserveEntryIdBlock(blockConnection, size);
+                blockConnection.commit();
+                return first;
+            });
+        }
+    }
+
+    /**
+     * Answer the lowest entry id that I may still assign from my block of entry ids,
+     * or {@code Long.MAX_VALUE} if I hold none, as when the database generates the ids.
+     * @return long
+     */
+    public long nextHeldEntryId() {
+        return entryIds == null ? Long.MAX_VALUE : entryIds.nextHeldId();
+    }
+
+    /**
+     * Answer the id of the last entry of the journal, or 0 if it has none.
+     * @return long
+     * @throws SQLException if the id cannot be read
+     */
+    public long lastEntryId() throws SQLException {
+        return lastEntryId(connection);
+    }
+
+    /**
+     * Answer whether or not the {@code exception}, or any exception chained to it,
+     * was caused by a duplicate stream name and version or another unique key.
+     * @param exception the SQLException to inspect
+     * @return boolean
+     */
+    public boolean isConcurrencyViolation(final SQLException exception) {
+        for (SQLException current = exception; current != null; current = current.getNextException()) {
+            if (isUniqueViolation(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public PreparedStatement prepareDeleteDispatchableQuery(
             final String dispatchableId)
             throws SQLException {
@@ -138,6 +315,48 @@ public abstract class JDBCQueries {
         return deleteDispatchable;
     }
 
+    /**
+     * Answer the statement that deletes a dispatchable, whose only parameter is
+     * the dispatch id, to be executed by {@code Dispatchables.delete()}.
+     * @return PreparedStatement
+     */
+    public PreparedStatement prepareDeleteDispatchableQuery() {
+        return deleteDispatchable;
+    }
+
+    /**
+     * Answer the statement that deletes all but the newest {@code retained} snapshots of {@code streamName}.
+     * @param streamName the String name of the stream whose snapshots are pruned
+     * @param retained the int number of newest snapshots to keep, which must be at least 1
+     * @return PreparedStatement
+     * @throws SQLException if the parameters cannot be set
+     */
+    public PreparedStatement prepareDeleteSnapshotsQuery(
+            final String streamName,
+            final int retained)
+            throws SQLException {
+
+        deleteSnapshots.clearParameters();
+
+        deleteSnapshots.setString(1, streamName);
+        deleteSnapshots.setString(2, streamName);
+        deleteSnapshots.setInt(3, retained - 1);
+
+        return deleteSnapshots;
+    }
+
+    /**
+     * Answer the entry, snapshot or dispatchable state data at {@code columnIndex}
+     * of the current row of {@code result}, a String or a byte[] per my format.
+     * @param result the ResultSet positioned at the row
+     * @param columnIndex the int index of the data column
+     * @return Object
+     * @throws SQLException if the data cannot be read
+     */
+    public Object dataFrom(final ResultSet result, final int columnIndex) throws SQLException {
+        return format.isBinary() ? result.getBytes(columnIndex) : result.getString(columnIndex);
+    }
+
     public long generatedKeyFrom(PreparedStatement insertStatement) throws SQLException {
         try (final ResultSet result = insertStatement.getGeneratedKeys()) {
             if (result.next()) {
@@ -147,11 +366,64 @@ public abstract class JDBCQueries {
         }
     }
 
+    /**
+     * Answer the identities generated for the rows inserted by the last batch execution
+     * of {@code insertStatement}, in insertion order.
+     * @param insertStatement the PreparedStatement that executed the batch
+     * @param expectedCount the int number of rows inserted by the batch
+     * @return {@code List<Long>}
+     * @throws SQLException if the generated keys cannot be read
+     */
+    public List<Long> generatedKeysFrom(final PreparedStatement insertStatement, final int expectedCount) throws SQLException {
+        final List<Long> keys = new ArrayList<>(expectedCount);
+        try (final ResultSet result = insertStatement.getGeneratedKeys()) {
+            while (result.next()) {
+                keys.add(result.getLong(1));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Clears any entries added to the insert batch but not yet executed.
+     */
+    public void clearInsertEntryBatch() {
+        try {
+            entryInsert().clearBatch();
+        } catch (Exception e) {
+            // ignore
+        }
+    }
+
+    /**
+     * Executes all entries added by {@code prepareInsertEntryBatchQuery()} in a single
+     * round trip and answers their generated identities in insertion order. The identities
+     * are empty when they are assigned on the client side, as with YugaByte or entry id blocks.
+     * @return {@code List<Long>}
+     * @throws SQLException if any of the entries could not be inserted
+     */
+    public List<Long> executeInsertEntryBatch() throws SQLException {
+        try {
+            final int[] counts = entryInsert().executeBatch();
+            for (final int count : counts) {
+                if (count != 1 && count != Statement.SUCCESS_NO_INFO) {
+                    throw new SQLException("Batch insert of entries failed with update count: " + count);
+                }
+            }
+            if (entryIds == null && generatedKeysIndicator() == Statement.RETURN_GENERATED_KEYS) {
+                return generatedKeysFrom(insertEntry, counts.length);
+            }
+            return new ArrayList<>(0);
+        } finally {
+            clearInsertEntryBatch();
+        }
+    }
+
     public Tuple2<PreparedStatement,Optional<String>> prepareInsertDispatchableQuery(
             final String d_dispatch_id,
             final String d_originator_id,
             final String d_state_id,
-            final String d_state_data,
+            final Object d_state_data,
             final int d_state_data_version,
             final String d_state_type,
             final int d_state_type_version,
@@ -166,7 +438,7 @@ public abstract class JDBCQueries {
         insertDispatchable.setLong(3, System.nanoTime());
 
         insertDispatchable.setString(4, d_state_id);
-        insertDispatchable.setString(5, d_state_data);
+        setData(insertDispatchable, 5, d_state_data);
         insertDispatchable.setInt(6, d_state_data_version);
         insertDispatchable.setString(7, d_state_type);
         insertDispatchable.setInt(8, d_state_type_version);
@@ -179,24 +451,62 @@ public abstract class JDBCQueries {
     public Tuple2<PreparedStatement,Optional<String>> prepareInsertEntryQuery(
             final String stream_name,
             final int stream_version,
-            final String entry_data,
+            final Object entry_data,
             final String entry_type,
             final int entry_type_version,
             final String entry_metadata)
             throws SQLException {
 
-        insertEntry.clearParameters();
+        final PreparedStatement insert = entryInsert();
+
+        insert.clearParameters();
 
-        insertEntry.setString(1, stream_name);
-        insertEntry.setInt(2, stream_version);
+        insert.setString(1, stream_name);
+        insert.setInt(2, stream_version);
 
-        insertEntry.setString(3, entry_data);
-        insertEntry.setString(4, entry_type);
-        insertEntry.setInt(5, entry_type_version);
+        setData(insert, 3, entry_data);
+        insert.setString(4, entry_type);
+        insert.setInt(5, entry_type_version);
 
-        insertEntry.setString(6, entry_metadata);
+        insert.setString(6, entry_metadata);
 
-        return Tuple2.from(insertEntry, Optional.empty());
+        if (entryIds == null) {
+            return Tuple2.from(insert, Optional.empty());
+        }
+
+        final long e_id = entryIds.nextId();
+        insert.setLong(7, e_id);
+
+        return Tuple2.from(insert, Optional.of(String.valueOf(e_id)));
+    }
+
+    /**
+     * Adds an entry to the insert batch, which is later executed by {@code executeInsertEntryBatch()}.
+     * Answers the client-assigned identity of the entry, if any.
+     * @param stream_name the String name of the stream
+     * @param stream_version the int version of the stream
+     * @param entry_data the Object data of the entry, a String or a byte[] per my format
+     * @param entry_type the String type of the entry
+     * @param entry_type_version the int version of the entry type
+     * @param entry_metadata the String serialized metadata of the entry
+     * @return {@code Optional<String>}
+     * @throws SQLException if the entry cannot be added to the batch
+     */
+    public Optional<String> prepareInsertEntryBatchQuery(
+            final String stream_name,
+            final int stream_version,
+            final Object entry_data,
+            final String entry_type,
+            final int entry_type_version,
+            final String entry_metadata)
+            throws SQLException {
+
+        final Tuple2<PreparedStatement,Optional<String>> insert =
+                prepareInsertEntryQuery(stream_name, stream_version, entry_data, entry_type, entry_type_version, entry_metadata);
+
+        insert._1.addBatch();
+
+        return insert._2;
     }
 
     public PreparedStatement prepareInsertOffsetQuery(
@@ -215,7 +525,7 @@ public abstract class JDBCQueries {
     public Tuple2<PreparedStatement,Optional<String>> prepareInsertSnapshotQuery(
             final String stream_name,
             final int stream_version,
-            final String e_snapshot_data,
+            final Object e_snapshot_data,
             final int e_snapshot_data_version,
             final String e_snapshot_type,
             final int e_snapshot_type_version,
@@ -227,7 +537,7 @@ public abstract class JDBCQueries {
         insertSnapshot.setString(1, stream_name);
         insertSnapshot.setInt(2, stream_version);
 
-        insertSnapshot.setString(3, e_snapshot_data);
+        setData(insertSnapshot, 3, e_snapshot_data);
         insertSnapshot.setInt(4, e_snapshot_data_version);
 
         insertSnapshot.setString(5, e_snapshot_type);
@@ -249,13 +559,31 @@ public abstract class JDBCQueries {
         return selectCurrentOffset;
     }
 
+    /**
+     * Answer the statement that selects the next page of the dispatchables of {@code originatorId},
+     * which are ordered by their created-on time and then by their dispatch id.
+     * @param originatorId the String id of the originator of the dispatchables
+     * @param afterCreatedOn the long created-on time of the last dispatchable of the previous page, or {@code Long.MIN_VALUE}
+     * @param afterDispatchId the String dispatch id of the last dispatchable of the previous page, or an empty String
+     * @param limit the int maximum number of dispatchables to select
+     * @return PreparedStatement
+     * @throws SQLException if the parameters cannot be set
+     */
     public PreparedStatement prepareSelectDispatchablesQuery(
-            final String oringinatorId)
+            final String originatorId,
+            final long afterCreatedOn,
+            final String afterDispatchId,
+            final int limit)
             throws SQLException {
 
         selectDispatchables.clearParameters();
 
-        selectDispatchables.setString(1, oringinatorId);
+        selectDispatchables.setString(1, originatorId);
+        selectDispatchables.setLong(2, afterCreatedOn);
+        selectDispatchables.setLong(3, afterCreatedOn);
+        selectDispatchables.setString(4, afterDispatchId);
+        selectDispatchables.setInt(5, limit);
+        selectDispatchables.setFetchSize(limit);
 
         return selectDispatchables;
     }
@@ -271,6 +599,14 @@ public abstract class JDBCQueries {
         return selectEntry;
     }
 
+    /**
+     * Answer the statement that selects up to {@code count} entries with ids from
+     * {@code entryId} onward, in id order, regardless of any gaps in the ids.
+     * @param entryId the long id of the first entry that may be selected
+     * @param count the int maximum number of entries to select
+     * @return PreparedStatement
+     * @throws SQLException if the parameters cannot be set
+     */
     public PreparedStatement prepareSelectEntryBatchQuery(
             final long entryId,
             final int count)
@@ -279,11 +615,33 @@ public abstract class JDBCQueries {
         selectEntryBatch.clearParameters();
 
         selectEntryBatch.setLong(1, entryId);
-        selectEntryBatch.setLong(2, entryId + count - 1);
+        selectEntryBatch.setInt(2, count);
 
         return selectEntryBatch;
     }
 
+    /**
+     * Answer the statement that selects the entries of the given {@code entryIds}, in no
+     * particular order, which are at most {@code Dispatchables.ENTRIES_LIMIT}. Any unused parameters
+     * repeat the last of the {@code entryIds}.
+     * @param entryIds the {@code List<Long>} ids of the entries to select
+     * @return PreparedStatement
+     * @throws SQLException if the parameters cannot be set
+     */
+    public PreparedStatement prepareSelectEntriesQuery(
+            final List<Long> entryIds)
+            throws SQLException {
+
+        selectEntries.clearParameters();
+
+        int index = 0;
+        for (final Long entryId : Dispatchables.padded(entryIds, Dispatchables.ENTRIES_LIMIT)) {
+            selectEntries.setLong(++index, entryId);
+        }
+
+        return selectEntries;
+    }
+
     public PreparedStatement prepareSelectLastOffsetQuery() {
         return selectLastOffset;
     }
@@ -303,19 +661,87 @@ public abstract class JDBCQueries {
         return selectSnapshot;
     }
 
+    /**
+     * Answer the statement that selects the latest snapshot of each of the given {@code streamNames},
+     * which are at most {@code SELECT_STREAMS_LIMIT}, with the stream name as the first column.
+     * Any unused parameters repeat the last of the {@code streamNames}.
+     * @param streamNames the {@code List<String>} names of the streams
+     * @return PreparedStatement
+     * @throws SQLException if the parameters cannot be set
+     */
+    public PreparedStatement prepareSelectSnapshotsQuery(
+            final List<String> streamNames)
+            throws SQLException {
+
+        selectSnapshots.clearParameters();
+
+        int index = 0;
+        for (final String streamName : Dispatchables.padded(streamNames, SELECT_STREAMS_LIMIT)) {
+            selectSnapshots.setString(++index, streamName);
+        }
+
+        return selectSnapshots;
+    }
+
     public PreparedStatement prepareSelectStreamQuery(
             final String streamName,
             final int streamVersion)
             throws SQLException {
 
+        return prepareSelectStreamQuery(streamName, streamVersion, 0);
+    }
+
+    /**
+     * Answer the statement that selects at most {@code maxEntries} entries of {@code streamName}
+     * from {@code streamVersion} onward, in version order. The entries are fetched by the driver
+     * {@code SELECT_STREAM_FETCH_SIZE} at a time rather than all at once.
+     * @param streamName the String name of the stream
+     * @param streamVersion the int version of the first entry to select
+     * @param maxEntries the int maximum number of entries to select, or 0 for all entries
+     * @return PreparedStatement
+     * @throws SQLException if the parameters cannot be set
+     */
+    public PreparedStatement prepareSelectStreamQuery(
+            final String streamName,
+            final int streamVersion,
+            final int maxEntries)
+            throws SQLException {
+
         selectStream.clearParameters();
 
         selectStream.setString(1, streamName);
         selectStream.setInt(2, streamVersion);
+        selectStream.setMaxRows(maxEntries);
+        selectStream.setFetchSize(maxEntries > 0 ? Math.min(maxEntries, SELECT_STREAM_FETCH_SIZE) : SELECT_STREAM_FETCH_SIZE);
 
         return selectStream;
     }
 
+    /**
+     * Answer the statement that selects the entries of each of the streams of {@code fromStreamVersions},
+     * which are at most {@code SELECT_STREAMS_LIMIT}, from the version of each stream onward, ordered by
+     * stream name and then version, with the stream name as the first column. Any unused parameters
+     * repeat the last of the streams.
+     * @param fromStreamVersions the {@code Map<String, Integer>} version of the first entry of each stream name
+     * @return PreparedStatement
+     * @throws SQLException if the parameters cannot be set
+     */
+    public PreparedStatement prepareSelectStreamsQuery(
+            final Map<String, Integer> fromStreamVersions)
+            throws SQLException {
+
+        selectStreams.clearParameters();
+
+        int index = 0;
+        for (final Map.Entry<String, Integer> fromStreamVersion : Dispatchables.padded(new ArrayList<>(fromStreamVersions.entrySet()), SELECT_STREAMS_LIMIT)) {
+            selectStreams.setString(++index, fromStreamVersion.getKey());
+            selectStreams.setInt(++index, fromStreamVersion.getValue());
+        }
+        selectStreams.setFetchSize(SELECT_STREAM_FETCH_SIZE);
+
+        return selectStreams;
+    }
+
     public PreparedStatement prepareUpdateOffsetQuery(
             final String readerName,
             final long readerOffset)
@@ -343,6 +769,17 @@ public abstract class JDBCQueries {
         return upsertOffset;
     }
 
+    private PreparedStatement entryInsert() {
+        return entryIds == null ? insertEntry : insertEntryWithId;
+    }
+
+    private long lastEntryId(final Connection blockConnection) throws SQLException {
+        try (final PreparedStatement selectLastId = blockConnection.prepareStatement(tablesOf(selectLastOffsetQuery()));
+             final ResultSet result = selectLastId.executeQuery()) {
+            return result.next() ? result.getLong(1) : 0L;
+        }
+    }
+
     private void close(final PreparedStatement statement) {
         try {
             statement.close();
@@ -351,16 +788,103 @@ public abstract class JDBCQueries {
         }
     }
 
+    /**
+     * Creates the unique index on the journal's stream name and version, which
+     * serves both stream reads and optimistic concurrency detection. Overridden
+     * where the database cannot create an index conditionally, or where the index
+     * of a journal of entries is built by a separate migration.
+     * @throws SQLException if the index cannot be created
+     */
+    protected void createJournalStreamIndex() throws SQLException {
+        connection.createStatement().execute(tablesOf(createJournalStreamIndexQuery()));
+        connection.commit();
+    }
+
+    /**
+     * Answer {@code query} over the tables of {@code format}. The tables of a binary journal
+     * are named {@code VLINGO_SYMBIO_BINARY_JOURNAL...} rather than {@code VLINGO_SYMBIO_JOURNAL...},
+     * in either case, so that text and binary journals of the same database never share
+     * tables, whose data columns are of either text or bytes.
+     * @param query the String query over the tables of the text journal
+     * @param format the DataFormat of the journal
+     * @return String
+     */
+    public static String tablesOf(final String query, final DataFormat format) {
+        if (!format.isBinary()) {
+            return query;
+        }
+        return query
+                .replace(TEXT_TABLES_PREFIX, BINARY_TABLES_PREFIX)
+                .replace(TEXT_TABLES_PREFIX.toLowerCase(), BINARY_TABLES_PREFIX.toLowerCase());
+    }
+
+    /**
+     * Answer {@code query} over the tables of my format.
+     * @param query the String query over the tables of the text journal
+     * @return String
+     */
+    protected String tablesOf(final String query) {
+        return tablesOf(query, format);
+    }
+
+    /**
+     * Sets the entry, snapshot or dispatchable state {@code data} of the {@code parameterIndex},
+     * a String or a byte[] per my format, which may be null.
+     * @param statement the PreparedStatement whose parameter is set
+     * @param parameterIndex the int index of the data parameter
+     * @param data the Object data to set
+     * @throws SQLException if the parameter cannot be set
+     */
+    protected void setData(final PreparedStatement statement, final int parameterIndex, final Object data) throws SQLException {
+        if (format.isBinary()) {
+            statement.setBytes(parameterIndex, (byte[]) data);
+        } else {
+            statement.setString(parameterIndex, (String) data);
+        }
+    }
+
+    /**
+     * Answer whether or not the single {@code exception} is a unique key violation.
+     * @param exception the SQLException to inspect
+     * @return boolean
+     */
+    protected boolean isUniqueViolation(final SQLException exception) {
+        return "23505".equals(exception.getSQLState());
+    }
+
+    /**
+     * Creates, if it does not exist, the database object from which blocks of entry ids are
+     * reserved by {@code reserveEntryIdBlock()}, with its first block starting at {@code startWith}.
+     * @param blockConnection the Connection on which the blocks are reserved
+     * @param startWith the long id of the first entry of the first block
+     * @param blockSize the int number of ids reserved by each block
+     * @throws SQLException if the database object cannot be created
+     */
+    protected abstract void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException;
+
+    /**
+     * Answer the first id of a newly reserved block of {@code blockSize} entry ids.
+     * @param blockConnection the Connection on which the block is reserved
+     * @param blockSize the int number of ids reserved by the block
+     * @return long
+     * @throws SQLException if the block cannot be reserved
+     */
+    protected abstract long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException;
+
     protected abstract String createDispatchableTable();
 
     protected abstract String createJournalTableQuery();
 
+    protected abstract String createJournalStreamIndexQuery();
+
     protected abstract String createOffsetsTable();
 
     protected abstract String createSnapshotsTableQuery();
 
     protected abstract String deleteDispatchableQuery();
 
+    protected abstract String deleteSnapshotsQuery();
+
     protected abstract String dropDispatchablesTableQuery();
 
     protected abstract String dropJournalTable();
@@ -375,6 +899,13 @@ public abstract class JDBCQueries {
 
     protected abstract String insertEntryQuery();
 
+    /**
+     * Answer the insert of an entry with the same parameters as {@code insertEntryQuery()},
+     * followed by the entry id as the seventh parameter.
+     * @return String
+     */
+    protected abstract String insertEntryWithIdQuery();
+
     protected abstract String insertOffsetQuery();
 
     protected abstract String insertSnapshotQuery();
@@ -387,14 +918,20 @@ public abstract class JDBCQueries {
 
     protected abstract String selectEntryBatchQuery();
 
+    protected abstract String selectEntriesQuery(final int count);
+
     protected abstract String selectLastOffsetQuery();
 
     protected abstract String selectJournalCountQuery();
 
     protected abstract String selectSnapshotQuery();
 
+    protected abstract String selectSnapshotsQuery(final int count);
+
     protected abstract String selectStreamQuery();
 
+    protected abstract String selectStreamsQuery(final int count);
+
     protected abstract String updateOffsetQuery();
 
     protected abstract String upsertOffsetQuery();
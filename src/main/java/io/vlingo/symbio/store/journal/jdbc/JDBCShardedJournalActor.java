@@ -0,0 +1,206 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.actors.Address;
+import io.vlingo.actors.CompletesEventually;
+import io.vlingo.actors.Definition;
+import io.vlingo.common.Completes;
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.Source;
+import io.vlingo.symbio.State;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.dispatch.Dispatchable;
+import io.vlingo.symbio.store.dispatch.Dispatcher;
+import io.vlingo.symbio.store.dispatch.DispatcherControl;
+import io.vlingo.symbio.store.dispatch.control.DispatcherControlActor;
+import io.vlingo.symbio.store.journal.Journal;
+import io.vlingo.symbio.store.journal.JournalReader;
+import io.vlingo.symbio.store.journal.StreamReader;
+
+/**
+ * A {@code Journal<T>} that routes its appends to a number of {@code JDBCJournalActor}
+ * writers, or of {@code JDBCBinaryJournalActor} writers of the {@code DataFormat.Binary},
+ * each over its own connection of a clone of the {@code Configuration}. The appends to a
+ * stream are always routed to the writer chosen by the hash of its name, and so are
+ * appended in the order received, while the appends to different streams are appended
+ * concurrently.
+ * <p>
+ * Its stream readers are those of its first writer, and the redispatch of unconfirmed
+ * dispatchables is controlled by a single {@code DispatcherControl} shared by its writers.
+ * </p>
+ * <p>
+ * A {@code JDBCJournalReaderActor} reads the entries past the highest id it has read, and so
+ * would skip the entries of a writer whose commit is under way while that of another writer
+ * of a higher id is read. Its journal readers therefore read only through the {@code CommitHorizon}
+ * of its writers, below the lowest entry id that any of them may still commit.
+ * </p>
+ *
+ * @param <T> the type of the entry and snapshot data, String or byte[]
+ * @param <RS> the type of the snapshot and dispatched states
+ */
+public class JDBCShardedJournalActor<T, RS extends State<T>> extends Actor implements Journal<T> {
+    private final CommitHorizon commitHorizon;
+    private final Configuration configuration;
+    private final DispatcherControl dispatcherControl;
+    private final Map<String, JournalReader<Entry<T>>> journalReaders;
+    private final ReadAhead readAhead;
+    private final List<Journal<T>> writers;
+
+    public JDBCShardedJournalActor(final Configuration configuration, final int writerCount) throws Exception {
+        this(null, configuration, writerCount, 0L, 0L);
+    }
+
+    public JDBCShardedJournalActor(final Dispatcher<Dispatchable<Entry<T>, RS>> dispatcher, final Configuration configuration,
+                                   final int writerCount) throws Exception {
+        this(dispatcher, configuration, writerCount, 1000L, 1000L);
+    }
+
+    public JDBCShardedJournalActor(final Dispatcher<Dispatchable<Entry<T>, RS>> dispatcher, final Configuration configuration,
+                                   final int writerCount, final long checkConfirmationExpirationInterval,
+                                   final long confirmationExpiration) throws Exception {
+        this(dispatcher, configuration, writerCount, checkConfirmationExpirationInterval, confirmationExpiration,
+                GroupCommit.None, SnapshotRetention.All, ReadAhead.None, StreamCache.None);
+    }
+
+    @SuppressWarnings("unchecked")
+    public JDBCShardedJournalActor(final Dispatcher<Dispatchable<Entry<T>, RS>> dispatcher, final Configuration configuration,
+                                   final int writerCount, final long checkConfirmationExpirationInterval,
+                                   final long confirmationExpiration, final GroupCommit groupCommit,
+                                   final SnapshotRetention snapshotRetention, final ReadAhead readAhead,
+                                   final StreamCache streamCache) throws Exception {
+        checkWriters(writerCount);
+
+        this.commitHorizon = new CommitHorizon();
+        this.configuration = configuration;
+        this.journalReaders = new HashMap<>();
+        this.readAhead = readAhead == null ? ReadAhead.None : readAhead;
+
+        if (dispatcher != null) {
+            final DispatcherControl.DispatcherControlDelegate<?, ?> dispatcherControlDelegate = configuration.format.isBinary() ?
+                    new JDBCBinaryDispatcherControlDelegate(Configuration.cloneOf(configuration), stage().world().defaultLogger()) :
+                    new JDBCDispatcherControlDelegate(Configuration.cloneOf(configuration), stage().world().defaultLogger());
+            this.dispatcherControl = stage().actorFor(DispatcherControl.class,
+                    Definition.has(DispatcherControlActor.class,
+                            Definition.parameters(dispatcher,
+                                    dispatcherControlDelegate,
+                                    checkConfirmationExpirationInterval,
+                                    confirmationExpiration)
+                    )
+            );
+        } else {
+            this.dispatcherControl = null;
+        }
+
+        final Class<? extends Actor> writerType = configuration.format.isBinary() ? JDBCBinaryJournalActor.class : JDBCJournalActor.class;
+        final List<Journal<T>> writers = new ArrayList<>(writerCount);
+        for (int writer = 0; writer < writerCount; ++writer) {
+            writers.add(childActorFor(Journal.class,
+                    Definition.has(writerType,
+                            Definition.parameters(dispatcher,
+                                    Configuration.cloneOf(configuration),
+                                    checkConfirmationExpirationInterval,
+                                    confirmationExpiration,
+                                    dispatcherControl,
+                                    groupCommit,
+                                    snapshotRetention,
+                                    readAhead,
+                                    streamCache,
+                                    commitHorizon))));
+        }
+        this.writers = Collections.unmodifiableList(writers);
+    }
+
+    /**
+     * Stops me and my writers, which are my children, and closes the shared {@code DispatcherControl}
+     * and the {@code IOExecutor} and {@code AdaptationPolicy} of my configuration, of which those of
+     * my writers are clones. Work that my writers submit to them after they are closed is run on
+     * their own threads.
+     */
+    @Override
+    public void stop() {
+        if (dispatcherControl != null) {
+            dispatcherControl.stop();
+        }
+
+        configuration.closeIOExecutor();
+        configuration.closeAdaptationPolicy();
+
+        super.stop();
+    }
+
+    @Override
+    public <S, ST> void append(final String streamName, final int streamVersion, final Source<S> source, final Metadata metadata,
+                               final AppendResultInterest interest, final Object object) {
+        writerOf(streamName).append(streamName, streamVersion, source, metadata, interest, object);
+    }
+
+    @Override
+    public <S, ST> void appendWith(final String streamName, final int streamVersion, final Source<S> source, final Metadata metadata, final ST snapshot,
+                                   final AppendResultInterest interest, final Object object) {
+        writerOf(streamName).appendWith(streamName, streamVersion, source, metadata, snapshot, interest, object);
+    }
+
+    @Override
+    public <S, ST> void appendAll(final String streamName, final int fromStreamVersion, final List<Source<S>> sources, final Metadata metadata,
+                                  final AppendResultInterest interest, final Object object) {
+        writerOf(streamName).appendAll(streamName, fromStreamVersion, sources, metadata, interest, object);
+    }
+
+    @Override
+    public <S, ST> void appendAllWith(final String streamName, final int fromStreamVersion, final List<Source<S>> sources, final Metadata metadata,
+                                      final ST snapshot, final AppendResultInterest interest, final Object object) {
+        writerOf(streamName).appendAllWith(streamName, fromStreamVersion, sources, metadata, snapshot, interest, object);
+    }
+
+    /**
+     * Answer my journal reader of {@code name}, which reads only through the commit horizon of my writers.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Completes<JournalReader<? extends Entry<?>>> journalReader(final String name) {
+        final JournalReader<Entry<T>> reader = journalReaders.computeIfAbsent(name, (key) -> {
+            final Address address = stage().world().addressFactory().uniquePrefixedWith("eventJournalReader-" + name);
+            return stage().actorFor(JournalReader.class, Definition.has(JDBCJournalReaderActor.class,
+                    Definition.parameters(configuration, name, readAhead, commitHorizon)), address);
+        });
+
+        return completes().with(reader);
+    }
+
+    @Override
+    public Completes<StreamReader<T>> streamReader(final String name) {
+        final CompletesEventually eventually = completesEventually();
+        writers.get(0).streamReader(name).andThenConsume(eventually::with);
+        return completes();
+    }
+
+    /**
+     * Checks that there are {@code writerCount} writers of at least one.
+     * @param writerCount the int number of writers
+     * @throws IllegalArgumentException if there are none
+     */
+    static void checkWriters(final int writerCount) {
+        if (writerCount <= 0) {
+            throw new IllegalArgumentException("The number of writers must be positive.");
+        }
+    }
+
+    // the writer of all appends to the stream named streamName
+    private Journal<T> writerOf(final String streamName) {
+        return writers.get(Math.floorMod(streamName.hashCode(), writers.size()));
+    }
+}
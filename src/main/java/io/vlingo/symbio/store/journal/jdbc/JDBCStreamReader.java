@@ -0,0 +1,46 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.Collection;
+import java.util.Map;
+
+import io.vlingo.common.Completes;
+import io.vlingo.symbio.store.journal.Stream;
+import io.vlingo.symbio.store.journal.StreamReader;
+
+/**
+ * A {@code StreamReader<T>} of a JDBC journal that may also read a long
+ * stream in bounded parts, so that no part holds more than a given number of
+ * entries in memory, and read many streams at once.
+ *
+ * @param <T> the type of the entry and snapshot data, String or byte[]
+ */
+public interface JDBCStreamReader<T> extends StreamReader<T> {
+    /**
+     * Answer the {@code Stream<T>} of at most {@code maxEntries} entries of
+     * {@code streamName}, starting with {@code fromStreamVersion} or with its
+     * latest snapshot if that is newer. A long stream is read in parts by
+     * continuing from the {@code streamVersion + 1} of each part answered, until
+     * a part holds fewer than {@code maxEntries} entries.
+     * @param streamName the String name of the stream to read
+     * @param fromStreamVersion the int version of the first entry to read
+     * @param maxEntries the int maximum number of entries to answer
+     * @return {@code Completes<Stream<T>>}
+     */
+    Completes<Stream<T>> streamFor(final String streamName, final int fromStreamVersion, final int maxEntries);
+
+    /**
+     * Answer the {@code Stream<T>} of each of the {@code streamNames}, by stream
+     * name in the order given, each starting with its latest snapshot if any. The
+     * streams are read together, so that many of them need only a few queries.
+     * @param streamNames the {@code Collection<String>} names of the streams to read
+     * @return {@code Completes<Map<String, Stream<T>>>}
+     */
+    Completes<Map<String, Stream<T>>> streamsFor(final Collection<String> streamNames);
+}
@@ -13,67 +13,180 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import com.google.gson.Gson;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import io.vlingo.actors.Actor;
+import io.vlingo.actors.CompletesEventually;
 import io.vlingo.common.Completes;
 import io.vlingo.symbio.BaseEntry;
 import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.State;
+import io.vlingo.symbio.State.BinaryState;
 import io.vlingo.symbio.State.TextState;
 import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.IOExecutor.Lane;
+import io.vlingo.symbio.store.common.jdbc.ReadReplicas;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
 import io.vlingo.symbio.store.journal.Stream;
-import io.vlingo.symbio.store.journal.StreamReader;
 import io.vlingo.symbio.store.journal.jdbc.JDBCQueries;
 
-public class JDBCStreamReaderActor extends Actor implements StreamReader<String> {
-    private final Connection connection;
-    private final Gson gson;
-    private final JDBCQueries queries;
+/**
+ * A {@code JDBCStreamReader} of the streams of a JDBC journal. As with the
+ * {@code JDBCJournalReaderActor}, each read borrows a connection for only its
+ * duration when the connections of the {@code Configuration} are pooled.
+ * If the configuration has read replicas, the streams are read from a replica
+ * unless any of them was written within {@code ReadReplicaPolicy#readYourWritesMillis}.
+ * If the configuration has an {@code IOExecutorPolicy}, the reads are run in a
+ * {@code Lane} of its {@code IOExecutor}, in the order of the messages received.
+ * @param <T> the type of the entry and snapshot data read
+ */
+public class JDBCStreamReaderActor<T> extends Actor implements JDBCStreamReader<T> {
+    private final Lane lane;
+    private final State<T> nullState;
+    private final ReadConnection primary;
+    private final ReadReplicas readReplicas;
+    private final ReadConnection replicas;
+    private final StreamCache streamCache;
+
+    private Connection connection;
+    private JDBCQueries queries;
+    private ReadConnection reading;
 
     public JDBCStreamReaderActor(final Configuration configuration) throws SQLException {
-        this.connection = configuration.connection;
-        this.queries = JDBCQueries.queriesFor(this.connection);
-        this.gson = new Gson();
+        this(configuration, StreamCache.None);
+    }
+
+    public JDBCStreamReaderActor(final Configuration configuration, final StreamCache streamCache) throws SQLException {
+        this.readReplicas = configuration.readReplicas();
+        this.primary = ReadConnection.primaryOf(configuration);
+        this.replicas = ReadConnection.replicasOf(configuration, primary);
+        this.streamCache = streamCache == null ? StreamCache.None : streamCache;
+        this.nullState = nullStateOf(configuration);
+        this.lane = configuration.ioExecutor().lane(cause ->
+                logger().error("vlingo-symbio-jdbc:journal-stream-reader: " + cause.getMessage(), cause));
     }
 
     @Override
-    public Completes<Stream<String>> streamFor(final String streamName) {
+    public Completes<Stream<T>> streamFor(final String streamName) {
         return streamFor(streamName, 1);
     }
 
     @Override
-    public Completes<Stream<String>> streamFor(final String streamName, final int fromStreamVersion) {
+    public Completes<Stream<T>> streamFor(final String streamName, final int fromStreamVersion) {
+        return streamFor(streamName, fromStreamVersion, 0);
+    }
+
+    @Override
+    public Completes<Stream<T>> streamFor(final String streamName, final int fromStreamVersion, final int maxEntries) {
+        return answer(() -> stream(streamName, fromStreamVersion, maxEntries));
+    }
+
+    @Override
+    public Completes<Map<String, Stream<T>>> streamsFor(final Collection<String> streamNames) {
+        return answer(() -> streams(streamNames));
+    }
+
+    @Override
+    public void stop() {
+      lane.execute(() -> {
+        if (replicas != primary) {
+          replicas.close();
+        }
+        primary.close();
+      });
+      super.stop();
+    }
+
+    // answers the outcome of reading, which is read in my lane and so possibly after my answer is returned
+    private <R> Completes<R> answer(final Supplier<R> reading) {
+        if (lane.isInline()) {
+            return completes().with(reading.get());
+        }
+
+        final CompletesEventually eventually = completesEventually();
+        lane.execute(() -> {
+            R outcome = null;
+            try {
+                outcome = reading.get();
+            } finally {
+                eventually.with(outcome);
+            }
+        });
+        return completes();
+    }
+
+    private Stream<T> stream(final String streamName, final int fromStreamVersion, final int maxEntries) {
         try {
-            final Stream<String> steamStream = eventsFromOffset(streamName, fromStreamVersion);
+            borrow(readReplicas.isRecentlyWritten(streamName) ? primary : replicas);
+            final Stream<T> steamStream = fromStreamVersion == 1 && maxEntries == 0 && streamCache.isEnabled()
+                    ? cachedEventsOf(streamName)
+                    : eventsFromOffset(streamName, fromStreamVersion, maxEntries);
             connection.commit();
-            return completes().with(steamStream);
+            return steamStream;
         } catch (Exception e) {
             logger().error("vlingo-symbio-jdbc:journal-stream-reader-postrgres: " + e.getMessage(), e);
-            return completes().with(new Stream<>(streamName, 1, emptyList(), TextState.Null));
+            return new Stream<>(streamName, 1, emptyList(), nullState);
+        } finally {
+            giveBack();
         }
     }
 
-    @Override
-    public void stop() {
-      try {
-        queries.close();
-      } catch (SQLException e) {
-        // ignore
-      }
-      super.stop();
+    private Map<String, Stream<T>> streams(final Collection<String> streamNames) {
+        final List<String> names = new ArrayList<>(new LinkedHashSet<>(streamNames));
+        final Map<String, Stream<T>> streams = new LinkedHashMap<>(names.size());
+
+        try {
+            borrow(readReplicas.isRecentlyWritten(names) ? primary : replicas);
+            for (int from = 0; from < names.size(); from += JDBCQueries.SELECT_STREAMS_LIMIT) {
+                streamsOf(names.subList(from, Math.min(from + JDBCQueries.SELECT_STREAMS_LIMIT, names.size())), streams);
+            }
+            connection.commit();
+            return streams;
+        } catch (Exception e) {
+            logger().error("vlingo-symbio-jdbc:journal-stream-reader-postrgres: " + e.getMessage(), e);
+            streams.clear();
+            for (final String streamName : names) {
+                streams.put(streamName, new Stream<>(streamName, 1, emptyList(), nullState));
+            }
+            return streams;
+        } finally {
+            giveBack();
+        }
+    }
+
+    // borrows the connection of the read that follows
+    private void borrow(final ReadConnection readConnection) {
+        reading = readConnection;
+        reading.borrow();
+        connection = reading.connection();
+        queries = reading.queries();
+    }
+
+    // returns the connection borrowed by borrow()
+    private void giveBack() {
+        if (reading != null) {
+            reading.giveBack();
+            reading = null;
+            connection = null;
+            queries = null;
+        }
     }
 
-    private Stream<String> eventsFromOffset(final String streamName, final int offset) throws Exception {
-        final State<String> snapshot = latestSnapshotOf(streamName);
-        final List<BaseEntry<String>> events = new ArrayList<>();
+    private Stream<T> eventsFromOffset(final String streamName, final int offset, final int maxEntries) throws Exception {
+        final State<T> snapshot = latestSnapshotOf(streamName);
+        final List<BaseEntry<T>> events = new ArrayList<>();
 
         int dataVersion = offset;
-        State<String> referenceSnapshot = TextState.Null;
+        State<T> referenceSnapshot = nullState;
 
-        if (snapshot != TextState.Null) {
+        if (snapshot != nullState) {
             if (snapshot.dataVersion > offset) {
                 dataVersion = snapshot.dataVersion;
                 referenceSnapshot = snapshot;
@@ -82,41 +195,135 @@ public class JDBCStreamReaderActor extends Actor implements StreamReader<String>
 
         int fullStreamVersion = 0;
 
-        try (final ResultSet resultSet = queries.prepareSelectStreamQuery(streamName, dataVersion).executeQuery()) {
+        try (final ResultSet resultSet = queries.prepareSelectStreamQuery(streamName, dataVersion, maxEntries).executeQuery()) {
           while (resultSet.next()) {
-              final String id = resultSet.getString(1);
-              final int streamVersion = resultSet.getInt(2);
-              fullStreamVersion = streamVersion;
-              final String entryData = resultSet.getString(3);
-              final String entryType = resultSet.getString(4);
-              final int eventTypeVersion = resultSet.getInt(5);
-              final String entryMetadata = resultSet.getString(6);
-
-              final Class<?> classOfEvent = Class.forName(entryType);
-              final Metadata eventMetadataDeserialized = gson.fromJson(entryMetadata, Metadata.class);
-
-              events.add(new BaseEntry.TextEntry(id, classOfEvent, eventTypeVersion, entryData, eventMetadataDeserialized));
+              fullStreamVersion = resultSet.getInt(2);
+              events.add(entryFrom(resultSet, 1));
           }
         }
 
         return new Stream<>(streamName, fullStreamVersion, events, referenceSnapshot);
     }
 
-    private State<String> latestSnapshotOf(final String streamName) throws Exception {
+    // the whole stream, of which only the entries following a cached stream are read
+    private Stream<T> cachedEventsOf(final String streamName) throws Exception {
+        final Stream<T> cached = streamCache.streamOf(streamName);
+
+        if (cached == null) {
+            final Stream<T> stream = eventsFromOffset(streamName, 1, 0);
+            final Stream<T> unmodifiable =
+                    new Stream<>(streamName, stream.streamVersion, Collections.unmodifiableList(stream.entries), stream.snapshot);
+            streamCache.cache(unmodifiable);
+            return unmodifiable;
+        }
+
+        final List<BaseEntry<T>> appended = new ArrayList<>();
+
+        try (final ResultSet resultSet = queries.prepareSelectStreamQuery(streamName, cached.streamVersion + 1).executeQuery()) {
+          while (resultSet.next()) {
+              appended.add(entryFrom(resultSet, 1));
+          }
+        }
+
+        if (appended.isEmpty()) {
+            return cached;
+        }
+
+        final Stream<T> extended = StreamCache.extended(cached, appended);
+        streamCache.cache(extended);
+        return extended;
+    }
+
+    private void streamsOf(final List<String> streamNames, final Map<String, Stream<T>> streams) throws Exception {
+        final Map<String, State<T>> snapshots = latestSnapshotsOf(streamNames);
+        final Map<String, Integer> fromStreamVersions = new LinkedHashMap<>(streamNames.size());
+        final Map<String, List<BaseEntry<T>>> events = new HashMap<>(streamNames.size());
+        final Map<String, Integer> fullStreamVersions = new HashMap<>(streamNames.size());
+
+        // as with a single stream read from version 1, a snapshot is used only when newer
+        final Map<String, State<T>> referenceSnapshots = new HashMap<>(streamNames.size());
+        for (final String streamName : streamNames) {
+            final State<T> snapshot = snapshots.getOrDefault(streamName, nullState);
+            final boolean newer = snapshot != nullState && snapshot.dataVersion > 1;
+            referenceSnapshots.put(streamName, newer ? snapshot : nullState);
+            fromStreamVersions.put(streamName, newer ? snapshot.dataVersion : 1);
+            events.put(streamName, new ArrayList<>());
+            fullStreamVersions.put(streamName, 0);
+        }
+
+        try (final ResultSet resultSet = queries.prepareSelectStreamsQuery(fromStreamVersions).executeQuery()) {
+          while (resultSet.next()) {
+              final String streamName = resultSet.getString(1);
+              fullStreamVersions.put(streamName, resultSet.getInt(3));
+              events.get(streamName).add(entryFrom(resultSet, 2));
+          }
+        }
+
+        for (final String streamName : streamNames) {
+            streams.put(streamName, new Stream<>(streamName, fullStreamVersions.get(streamName), events.get(streamName), referenceSnapshots.get(streamName)));
+        }
+    }
+
+    // the entry whose id is in the first column, followed by its stream version, data, type, type version and metadata
+    @SuppressWarnings("unchecked")
+    private BaseEntry<T> entryFrom(final ResultSet resultSet, final int first) throws Exception {
+        final String id = resultSet.getString(first);
+        final Object entryData = queries.dataFrom(resultSet, first + 2);
+        final String entryType = resultSet.getString(first + 3);
+        final int eventTypeVersion = resultSet.getInt(first + 4);
+        final String entryMetadata = resultSet.getString(first + 5);
+
+        final Class<?> classOfEvent = TypeResolver.classFor(entryType);
+        final Metadata eventMetadataDeserialized = MetadataCodec.decoded(entryMetadata);
+
+        if (queries.format.isBinary()) {
+            return (BaseEntry<T>) new BaseEntry.BinaryEntry(id, classOfEvent, eventTypeVersion, (byte[]) entryData, eventMetadataDeserialized);
+        }
+        return (BaseEntry<T>) new BaseEntry.TextEntry(id, classOfEvent, eventTypeVersion, (String) entryData, eventMetadataDeserialized);
+    }
+
+    private State<T> latestSnapshotOf(final String streamName) throws Exception {
         try (final ResultSet resultSet = queries.prepareSelectSnapshotQuery(streamName).executeQuery()) {
           if (resultSet.next()) {
-              final String snapshotData = resultSet.getString(1);
-              final int snapshotDataVersion = resultSet.getInt(2);
-              final String snapshotDataType = resultSet.getString(3);
-              final int snapshotDataTypeVersion = resultSet.getInt(4);
-              final String metadataJson = resultSet.getString(5);
+              return snapshotFrom(streamName, resultSet, 1);
+          }
+          return nullState;
+        }
+    }
 
-              final Class<?> snapshotDataTypeClass = Class.forName(snapshotDataType);
-              final Metadata eventMetadataDeserialized = gson.fromJson(metadataJson, Metadata.class);
+    private Map<String, State<T>> latestSnapshotsOf(final List<String> streamNames) throws Exception {
+        final Map<String, State<T>> snapshots = new HashMap<>(streamNames.size());
 
-              return new State.TextState(streamName, snapshotDataTypeClass, snapshotDataTypeVersion, snapshotData, snapshotDataVersion, eventMetadataDeserialized);
+        try (final ResultSet resultSet = queries.prepareSelectSnapshotsQuery(streamNames).executeQuery()) {
+          while (resultSet.next()) {
+              final String streamName = resultSet.getString(1);
+              snapshots.put(streamName, snapshotFrom(streamName, resultSet, 2));
           }
-          return TextState.Null;
         }
+
+        return snapshots;
+    }
+
+    // the snapshot whose data is in the first column, followed by its data version, type, type version and metadata
+    @SuppressWarnings("unchecked")
+    private State<T> snapshotFrom(final String streamName, final ResultSet resultSet, final int first) throws Exception {
+        final Object snapshotData = queries.dataFrom(resultSet, first);
+        final int snapshotDataVersion = resultSet.getInt(first + 1);
+        final String snapshotDataType = resultSet.getString(first + 2);
+        final int snapshotDataTypeVersion = resultSet.getInt(first + 3);
+        final String metadataJson = resultSet.getString(first + 4);
+
+        final Class<?> snapshotDataTypeClass = TypeResolver.classFor(snapshotDataType);
+        final Metadata eventMetadataDeserialized = MetadataCodec.decoded(metadataJson);
+
+        if (queries.format.isBinary()) {
+            return (State<T>) new State.BinaryState(streamName, snapshotDataTypeClass, snapshotDataTypeVersion, (byte[]) snapshotData, snapshotDataVersion, eventMetadataDeserialized);
+        }
+        return (State<T>) new State.TextState(streamName, snapshotDataTypeClass, snapshotDataTypeVersion, (String) snapshotData, snapshotDataVersion, eventMetadataDeserialized);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> State<T> nullStateOf(final Configuration configuration) {
+        return (State<T>) (configuration.format.isBinary() ? BinaryState.Null : TextState.Null);
     }
 }
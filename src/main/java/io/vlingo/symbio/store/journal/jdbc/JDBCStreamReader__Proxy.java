@@ -0,0 +1,81 @@
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.Map;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.actors.DeadLetter;
+import io.vlingo.actors.LocalMessage;
+import io.vlingo.actors.Mailbox;
+import io.vlingo.actors.Returns;
+import io.vlingo.common.BasicCompletes;
+import io.vlingo.common.Completes;
+import io.vlingo.symbio.store.journal.Stream;
+
+public class JDBCStreamReader__Proxy<T> implements io.vlingo.symbio.store.journal.jdbc.JDBCStreamReader<T> {
+
+  private static final String streamForRepresentation1 = "streamFor(java.lang.String)";
+  private static final String streamForRepresentation2 = "streamFor(java.lang.String, int)";
+  private static final String streamForRepresentation3 = "streamFor(java.lang.String, int, int)";
+  private static final String streamsForRepresentation4 = "streamsFor(java.util.Collection<java.lang.String>)";
+
+  private final Actor actor;
+  private final Mailbox mailbox;
+
+  public JDBCStreamReader__Proxy(final Actor actor, final Mailbox mailbox){
+    this.actor = actor;
+    this.mailbox = mailbox;
+  }
+
+  @Override
+  public Completes<Stream<T>> streamFor(final java.lang.String arg0) {
+    if (!actor.isStopped()) {
+      final java.util.function.Consumer<JDBCStreamReader> consumer = (actor) -> actor.streamFor(arg0);
+      final Completes<Stream<T>> completes = new BasicCompletes<>(actor.scheduler());
+      if (mailbox.isPreallocated()) { mailbox.send(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamForRepresentation1); }
+      else { mailbox.send(new LocalMessage<JDBCStreamReader>(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamForRepresentation1)); }
+      return completes;
+    } else {
+      actor.deadLetters().failedDelivery(new DeadLetter(actor, streamForRepresentation1));
+    }
+    return null;
+  }
+  @Override
+  public Completes<Stream<T>> streamFor(final java.lang.String arg0, final int arg1) {
+    if (!actor.isStopped()) {
+      final java.util.function.Consumer<JDBCStreamReader> consumer = (actor) -> actor.streamFor(arg0, arg1);
+      final Completes<Stream<T>> completes = new BasicCompletes<>(actor.scheduler());
+      if (mailbox.isPreallocated()) { mailbox.send(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamForRepresentation2); }
+      else { mailbox.send(new LocalMessage<JDBCStreamReader>(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamForRepresentation2)); }
+      return completes;
+    } else {
+      actor.deadLetters().failedDelivery(new DeadLetter(actor, streamForRepresentation2));
+    }
+    return null;
+  }
+  @Override
+  public Completes<Stream<T>> streamFor(final java.lang.String arg0, final int arg1, final int arg2) {
+    if (!actor.isStopped()) {
+      final java.util.function.Consumer<JDBCStreamReader> consumer = (actor) -> actor.streamFor(arg0, arg1, arg2);
+      final Completes<Stream<T>> completes = new BasicCompletes<>(actor.scheduler());
+      if (mailbox.isPreallocated()) { mailbox.send(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamForRepresentation3); }
+      else { mailbox.send(new LocalMessage<JDBCStreamReader>(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamForRepresentation3)); }
+      return completes;
+    } else {
+      actor.deadLetters().failedDelivery(new DeadLetter(actor, streamForRepresentation3));
+    }
+    return null;
+  }
+  @Override
+  public Completes<Map<String, Stream<T>>> streamsFor(final java.util.Collection<java.lang.String> arg0) {
+    if (!actor.isStopped()) {
+      final java.util.function.Consumer<JDBCStreamReader> consumer = (actor) -> actor.streamsFor(arg0);
+      final Completes<Map<String, Stream<T>>> completes = new BasicCompletes<>(actor.scheduler());
+      if (mailbox.isPreallocated()) { mailbox.send(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamsForRepresentation4); }
+      else { mailbox.send(new LocalMessage<JDBCStreamReader>(actor, JDBCStreamReader.class, consumer, Returns.value(completes), streamsForRepresentation4)); }
+      return completes;
+    } else {
+      actor.deadLetters().failedDelivery(new DeadLetter(actor, streamsForRepresentation4));
+    }
+    return null;
+  }
+}
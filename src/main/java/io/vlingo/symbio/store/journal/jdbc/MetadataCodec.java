@@ -0,0 +1,123 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import io.vlingo.symbio.Metadata;
+
+/**
+ * Encodes and decodes the {@code Metadata} of journal entries, snapshots and
+ * dispatchables as the same JSON that {@code Gson} reflection produces, but by
+ * streaming its fields. Empty metadata, by far the most common, is encoded as a
+ * constant and decoded as a shared instance without being parsed at all.
+ */
+public final class MetadataCodec {
+    static final String EmptyMetadata = "{\"operation\":\"\",\"value\":\"\"}";
+
+    private static final Gson gson = new Gson();
+    private static final TypeAdapter<Object> objectAdapter = gson.getAdapter(Object.class);
+    private static final Metadata NullMetadata = Metadata.nullMetadata();
+    private static final Object EmptyObject = NullMetadata.object;
+
+    /**
+     * Answer the JSON of {@code metadata}.
+     * @param metadata the Metadata to encode, which may be null
+     * @return String
+     */
+    public static String encoded(final Metadata metadata) {
+        if (metadata == null || isEmpty(metadata)) {
+            return EmptyMetadata;
+        }
+
+        final StringWriter json = new StringWriter(64);
+        try (final JsonWriter writer = new JsonWriter(json)) {
+            writer.beginObject();
+            if (hasObject(metadata)) {
+                writer.name("object");
+                gson.toJson(metadata.object, metadata.object.getClass(), writer);
+            }
+            writer.name("operation").value(metadata.operation == null ? "" : metadata.operation);
+            writer.name("value").value(metadata.value == null ? "" : metadata.value);
+            writer.endObject();
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Cannot encode metadata: " + e.getMessage(), e);
+        }
+        return json.toString();
+    }
+
+    /**
+     * Answer the {@code Metadata} of {@code json}, as encoded by me or by {@code Gson}.
+     * @param json the String JSON to decode, which may be null
+     * @return Metadata
+     */
+    public static Metadata decoded(final String json) {
+        if (json == null || json.isEmpty() || EmptyMetadata.equals(json) || "{}".equals(json) || "null".equals(json)) {
+            return NullMetadata;
+        }
+
+        try (final JsonReader reader = new JsonReader(new StringReader(json))) {
+            Object object = null;
+            String operation = "";
+            String value = "";
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                case "object":
+                    object = objectAdapter.read(reader);
+                    break;
+                case "operation":
+                    operation = stringFrom(reader);
+                    break;
+                case "value":
+                    value = stringFrom(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (object == null && operation.isEmpty() && value.isEmpty()) {
+                return NullMetadata;
+            }
+            return Metadata.with(object, value, operation);
+        } catch (final IOException | IllegalStateException e) {
+            throw new IllegalArgumentException("Cannot decode metadata: " + json, e);
+        }
+    }
+
+    private static boolean hasObject(final Metadata metadata) {
+        return metadata.object != null && metadata.object != EmptyObject;
+    }
+
+    private static boolean isEmpty(final Metadata metadata) {
+        return !hasObject(metadata)
+                && (metadata.operation == null || metadata.operation.isEmpty())
+                && (metadata.value == null || metadata.value.isEmpty());
+    }
+
+    private static String stringFrom(final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return "";
+        }
+        return reader.nextString();
+    }
+
+    private MetadataCodec() { }
+}
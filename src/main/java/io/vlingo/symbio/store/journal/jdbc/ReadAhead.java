@@ -0,0 +1,53 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+/**
+ * The prefetching used by {@code JDBCJournalReaderActor}. When enabled, the
+ * reader fetches up to {@code pageSize} entries per round trip and serves
+ * single-entry reads from memory, fetching the next page as a separate
+ * message once fewer than {@code lowWaterMark} entries remain buffered.
+ */
+public class ReadAhead {
+    /**
+     * Reads each entry with its own round trip.
+     */
+    public static final ReadAhead None = new ReadAhead(1, 0);
+
+    public final int pageSize;
+    public final int lowWaterMark;
+
+    /**
+     * Answer a new {@code ReadAhead} with the given page size and low-water mark.
+     * @param pageSize the int maximum number of entries to buffer, which must be greater than 1
+     * @param lowWaterMark the int number of buffered entries below which the next page is fetched
+     * @return ReadAhead
+     */
+    public static ReadAhead of(final int pageSize, final int lowWaterMark) {
+        if (pageSize < 2) {
+            throw new IllegalArgumentException("The pageSize must be greater than 1.");
+        }
+        if (lowWaterMark < 0 || lowWaterMark >= pageSize) {
+            throw new IllegalArgumentException("The lowWaterMark must be at least 0 and less than the pageSize.");
+        }
+        return new ReadAhead(pageSize, lowWaterMark);
+    }
+
+    private ReadAhead(final int pageSize, final int lowWaterMark) {
+        this.pageSize = pageSize;
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    /**
+     * Answer whether or not entries are prefetched.
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return pageSize > 1;
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.ConnectionPool;
+import io.vlingo.symbio.store.common.jdbc.ReadReplicas;
+import io.vlingo.symbio.store.common.jdbc.ReadReplicas.Replica;
+
+/**
+ * The connection, and its {@code JDBCQueries}, over which a reader reads from the primary
+ * or from a replica. A connection that is pooled is borrowed by each {@code borrow()} and
+ * returned by the matching {@code giveBack()}, of which the calls may be nested. Otherwise
+ * a single connection is held from creation until {@code close()}.
+ */
+final class ReadConnection {
+    private final Supplier<Replica> chooser;
+    private final Configuration configuration;
+    private final boolean pooled;
+    private final Replica replica;
+
+    private int borrowings;
+    private Connection connection;
+    private JDBCQueries queries;
+    private Replica borrowedFrom;
+
+    /**
+     * Answer the {@code ReadConnection} to the primary of the {@code configuration}, which
+     * is the connection of the {@code configuration} itself unless its connections are pooled.
+     * @param configuration the Configuration of the primary
+     * @return ReadConnection
+     * @throws SQLException if the queries cannot be created
+     */
+    static ReadConnection primaryOf(final Configuration configuration) throws SQLException {
+        final ReadReplicas readReplicas = configuration.readReplicas();
+        if (configuration.actualConnectionProvider().isPooled()) {
+            return new ReadConnection(readReplicas::primary, configuration);
+        }
+        return new ReadConnection(configuration.connection, null, configuration);
+    }
+
+    /**
+     * Answer the {@code ReadConnection} to the replicas of the {@code configuration}, or to
+     * its primary if it has no replicas. A connection to a replica that is not pooled is
+     * held to the replica selected now, and otherwise a replica is selected by each borrowing.
+     * @param configuration the Configuration of the replicas
+     * @param primary the ReadConnection to the primary, answered when there are no replicas
+     * @return ReadConnection
+     * @throws SQLException if the queries cannot be created
+     */
+    static ReadConnection replicasOf(final Configuration configuration, final ReadConnection primary) throws SQLException {
+        final ReadReplicas readReplicas = configuration.readReplicas();
+        if (!readReplicas.isEnabled()) {
+            return primary;
+        }
+        if (configuration.actualConnectionProvider().isPooled()) {
+            return new ReadConnection(readReplicas::select, configuration);
+        }
+        final Replica replica = readReplicas.select();
+        return new ReadConnection(replica.connection(), replica, configuration);
+    }
+
+    private ReadConnection(final Connection connection, final Replica replica, final Configuration configuration) throws SQLException {
+        this.chooser = null;
+        this.configuration = configuration;
+        this.pooled = false;
+        this.replica = replica;
+        this.connection = connection;
+        this.queries = JDBCQueries.queriesFor(configuration, connection);
+    }
+
+    private ReadConnection(final Supplier<Replica> chooser, final Configuration configuration) {
+        this.chooser = chooser;
+        this.configuration = configuration;
+        this.pooled = true;
+        this.replica = null;
+    }
+
+    void borrow() {
+        if (pooled && borrowings++ == 0) {
+            final Replica chosen = chooser.get();
+            connection = chosen.connection();
+            borrowedFrom = chosen;
+            try {
+                queries = ConnectionPool.attachmentOf(connection, JDBCQueries.class.getName() + configuration.format,
+                        physical -> JDBCQueries.queriesFor(configuration, physical));
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot prepare the queries of a pooled connection because: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    void giveBack() {
+        if (pooled) {
+            if (--borrowings == 0 && borrowedFrom != null) {
+                borrowedFrom.release(connection);
+                borrowedFrom = null;
+                connection = null;
+                queries = null;
+            }
+        } else if (replica != null) {
+            // a replica is only read, but its transaction is ended so that the next read is not stale
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    void close() {
+        if (!pooled) {
+            try {
+                queries.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+            if (replica != null) {
+                replica.release(connection);
+            }
+        }
+    }
+
+    Connection connection() {
+        return connection;
+    }
+
+    JDBCQueries queries() {
+        return queries;
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+/**
+ * The policy used by {@code JDBCJournalActor} to bound the number of snapshots
+ * kept per stream. Each time a snapshot is appended to a stream, all but the
+ * newest {@code retained} snapshots of that stream are deleted in the same
+ * transaction.
+ */
+public class SnapshotRetention {
+    /**
+     * Keeps every snapshot of every stream.
+     */
+    public static final SnapshotRetention All = new SnapshotRetention(0);
+
+    public final int retained;
+
+    /**
+     * Answer a new {@code SnapshotRetention} that keeps the newest {@code retained} snapshots per stream.
+     * @param retained the int number of snapshots to keep, which must be at least 1
+     * @return SnapshotRetention
+     */
+    public static SnapshotRetention newest(final int retained) {
+        if (retained < 1) {
+            throw new IllegalArgumentException("At least one snapshot must be retained.");
+        }
+        return new SnapshotRetention(retained);
+    }
+
+    private SnapshotRetention(final int retained) {
+        this.retained = retained;
+    }
+
+    /**
+     * Answer whether or not older snapshots are deleted.
+     * @return boolean
+     */
+    public boolean isBounded() {
+        return retained > 0;
+    }
+}
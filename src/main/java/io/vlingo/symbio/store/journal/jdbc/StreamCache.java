@@ -0,0 +1,163 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.vlingo.symbio.BaseEntry;
+import io.vlingo.symbio.store.journal.Stream;
+
+/**
+ * The last materialized {@code Stream<T>} of recently read streams, shared
+ * by a {@code JDBCJournalActor} and its {@code JDBCStreamReaderActor} instances.
+ * A reader holding a cached stream queries only the entries appended after it,
+ * and the journal extends a cached stream in place with the entries it commits.
+ * The cache holds at most {@code maxEntries} entries over all of its streams,
+ * evicting the least recently used streams first. The cached streams are never
+ * modified, so that a {@code Stream<T>} once answered stays as it was. A cache
+ * is shared only by a journal and readers of the same {@code DataFormat}.
+ */
+public class StreamCache {
+    /**
+     * Caches no streams.
+     */
+    public static final StreamCache None = new StreamCache(0);
+
+    public final int maxEntries;
+
+    private final Map<String, Stream<?>> streams;
+    private int entryCount;
+
+    /**
+     * Answer a new {@code StreamCache} holding at most {@code maxEntries} entries.
+     * @param maxEntries the int maximum number of entries over all cached streams, which must be greater than 0
+     * @return StreamCache
+     */
+    public static StreamCache of(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maxEntries must be greater than 0.");
+        }
+        return new StreamCache(maxEntries);
+    }
+
+    private StreamCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.streams = new LinkedHashMap<>(16, 0.75f, true);
+        this.entryCount = 0;
+    }
+
+    /**
+     * Answer whether or not streams are cached.
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Answer the cached {@code Stream<T>} of {@code streamName}, or null if it is not cached.
+     * @param streamName the String name of the stream
+     * @param <T> the type of the entry and snapshot data
+     * @return {@code Stream<T>}
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Stream<T> streamOf(final String streamName) {
+        return (Stream<T>) streams.get(streamName);
+    }
+
+    /**
+     * Cache {@code stream} unless a stream of the same name and at least its version is cached.
+     * An empty stream, or one holding more than {@code maxEntries} entries, is not cached. The
+     * entries of {@code stream} must not be modified once it is cached.
+     * @param stream the {@code Stream<?>} read from its first version, or its latest snapshot
+     */
+    public synchronized void cache(final Stream<?> stream) {
+        if (!isEnabled() || stream.entries.isEmpty() || stream.entries.size() > maxEntries) return;
+
+        final Stream<?> cached = streams.get(stream.streamName);
+        if (cached != null && cached.streamVersion >= stream.streamVersion) return;
+
+        put(stream.streamName, cached, stream);
+    }
+
+    /**
+     * Extend the cached stream of {@code streamName} with {@code entries} appended from
+     * {@code fromStreamVersion}. If the cached stream does not end just before them, and
+     * does not already hold them, it is evicted to be read anew.
+     * @param streamName the String name of the stream
+     * @param fromStreamVersion the int version of the first of the entries
+     * @param entries the {@code List<BaseEntry<T>>} appended entries
+     * @param <T> the type of the entry and snapshot data
+     */
+    public synchronized <T> void appended(final String streamName, final int fromStreamVersion, final List<BaseEntry<T>> entries) {
+        final Stream<T> cached = streamOf(streamName);
+        if (cached == null || entries.isEmpty()) return;
+
+        if (cached.streamVersion == fromStreamVersion - 1) {
+            final Stream<T> extended = extended(cached, entries);
+            if (extended.entries.size() > maxEntries) {
+                evict(streamName);
+            } else {
+                put(streamName, cached, extended);
+            }
+        } else if (cached.streamVersion < fromStreamVersion + entries.size() - 1) {
+            evict(streamName);
+        }
+    }
+
+    /**
+     * Evict the cached stream of {@code streamName}, if any.
+     * @param streamName the String name of the stream
+     */
+    public synchronized void evict(final String streamName) {
+        final Stream<?> cached = streams.remove(streamName);
+        if (cached != null) {
+            entryCount -= cached.entries.size();
+        }
+    }
+
+    /**
+     * Answer the int number of entries held over all cached streams.
+     * @return int
+     */
+    public synchronized int entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Answer a new {@code Stream<T>} of {@code stream} followed by {@code entries}.
+     * @param stream the {@code Stream<T>} to extend
+     * @param entries the {@code List<BaseEntry<T>>} entries of the versions following {@code stream}
+     * @param <T> the type of the entry and snapshot data
+     * @return {@code Stream<T>}
+     */
+    static <T> Stream<T> extended(final Stream<T> stream, final List<BaseEntry<T>> entries) {
+        final List<BaseEntry<T>> all = new ArrayList<>(stream.entries.size() + entries.size());
+        all.addAll(stream.entries);
+        all.addAll(entries);
+        return new Stream<>(stream.streamName, stream.streamVersion + entries.size(), Collections.unmodifiableList(all), stream.snapshot);
+    }
+
+    private void put(final String streamName, final Stream<?> replaced, final Stream<?> stream) {
+        streams.put(streamName, stream);
+        entryCount += stream.entries.size() - (replaced == null ? 0 : replaced.entries.size());
+
+        final Iterator<Stream<?>> leastRecentlyUsed = streams.values().iterator();
+        while (entryCount > maxEntries && leastRecentlyUsed.hasNext()) {
+            final Stream<?> eldest = leastRecentlyUsed.next();
+            if (eldest.streamName.equals(streamName)) continue;
+            entryCount -= eldest.entries.size();
+            leastRecentlyUsed.remove();
+        }
+    }
+}
@@ -0,0 +1,458 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc.hsqldb;
+
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.journal.jdbc.JDBCQueries;
+
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.Collections;
+
+public class HSQLDBQueries extends JDBCQueries {
+    public static final String TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES = "VLINGO_SYMBIO_JOURNAL_DISPATCHABLES";
+    public static final String TABLE_VLINGO_SYMBIO_JOURNAL = "VLINGO_SYMBIO_JOURNAL";
+    public static final String TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS = "VLINGO_SYMBIO_JOURNAL_OFFSETS";
+    public static final String TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS = "VLINGO_SYMBIO_JOURNAL_SNAPSHOTS";
+
+    private static final String CREATE_DISPATCHABLE_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + " (\n" +
+                    "   D_DISPATCH_ID VARCHAR(512) PRIMARY KEY,\n" +
+                    "   D_ORIGINATOR_ID VARCHAR(512) NOT NULL,\n" +
+                    "   D_CREATED_ON BIGINT NOT NULL,\n" +
+                    "   D_STATE_ID VARCHAR(512) NULL, \n" +
+                    "   D_STATE_DATA {0} NULL,\n" +
+                    "   D_STATE_DATA_VERSION INT NULL,\n" +
+                    "   D_STATE_TYPE VARCHAR(512) NULL,\n" +
+                    "   D_STATE_TYPE_VERSION INTEGER NULL,\n" +
+                    "   D_STATE_METADATA LONGVARCHAR NULL,\n" +
+                    "   D_ENTRIES LONGVARCHAR NOT NULL\n" +
+                    ")";
+
+    private static final String CREATE_JOURNAL_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL + " (\n" +
+                    "E_ID BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH 1) PRIMARY KEY, \n" +
+                    "E_STREAM_NAME VARCHAR(512) NOT NULL, \n" +
+                    "E_STREAM_VERSION INTEGER NOT NULL, \n" +
+                    "E_ENTRY_DATA {0} NOT NULL, \n" +
+                    "E_ENTRY_TYPE VARCHAR(512) NOT NULL, \n" +
+                    "E_ENTRY_TYPE_VERSION INTEGER NOT NULL, \n" +
+                    "E_ENTRY_METADATA LONGVARCHAR NOT NULL \n" +
+                    ")";
+
+    private static final String CREATE_JOURNAL_STREAM_INDEX =
+            "CREATE UNIQUE INDEX IF NOT EXISTS IDX_VLINGO_SYMBIO_JOURNAL_STREAM \n" +
+                    "ON " + TABLE_VLINGO_SYMBIO_JOURNAL + " (E_STREAM_NAME, E_STREAM_VERSION)";
+
+    private static final String CREATE_OFFSETS_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + "(" +
+                    "O_READER_NAME VARCHAR(128) PRIMARY KEY," +
+                    "O_READER_OFFSET BIGINT NOT NULL" +
+                    ")";
+
+    private static final String CREATE_SNAPSHOTS_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " (\n" +
+                    "S_STREAM_NAME VARCHAR(512) NOT NULL, \n" +
+                    "S_STREAM_VERSION INTEGER NOT NULL, \n" +
+                    "S_SNAPSHOT_DATA {0} NOT NULL, \n" +
+                    "S_SNAPSHOT_DATA_VERSION INTEGER NOT NULL, \n" +
+                    "S_SNAPSHOT_TYPE VARCHAR(512) NOT NULL, \n" +
+                    "S_SNAPSHOT_TYPE_VERSION INTEGER NOT NULL, \n" +
+                    "S_SNAPSHOT_METADATA LONGVARCHAR NOT NULL, \n\n" +
+
+                    "PRIMARY KEY (S_STREAM_NAME, S_STREAM_VERSION) \n" +
+                    ")";
+
+    private final static String DELETE_DISPATCHABLE =
+            "DELETE FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + " " +
+                    "WHERE D_DISPATCH_ID = ?";
+
+    private static final String DELETE_SNAPSHOTS =
+            "DELETE FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " \n" +
+                    "WHERE S_STREAM_NAME = ? AND S_STREAM_VERSION < (\n" +
+                    "  SELECT S_STREAM_VERSION FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + "\n" +
+                    "  WHERE S_STREAM_NAME = ? ORDER BY S_STREAM_VERSION DESC LIMIT 1 OFFSET ?)";
+
+    private static final String DROP_DISPATCHABLES_TABLE =
+            "DROP TABLE IF EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES;
+
+    private static final String DROP_JOURNAL_TABLE =
+            "DROP TABLE IF EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL;
+
+    private static final String DROP_OFFSETS_TABLE =
+            "DROP TABLE IF EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS;
+
+    private static final String DROP_SNAPSHOTS_TABLE =
+            "DROP TABLE IF EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS;
+
+    private final static String INSERT_DISPATCHABLE =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + " \n" +
+                    "(D_DISPATCH_ID, D_ORIGINATOR_ID, D_CREATED_ON, \n" +
+                    " D_STATE_ID, D_STATE_DATA, D_STATE_DATA_VERSION, \n" +
+                    " D_STATE_TYPE, D_STATE_TYPE_VERSION, \n" +
+                    " D_STATE_METADATA, D_ENTRIES) \n" +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL + " \n" +
+                    "(E_STREAM_NAME, E_STREAM_VERSION, E_ENTRY_DATA, \n" +
+                    " E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA) \n" +
+                    "VALUES(?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ENTRY_WITH_ID =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL + " \n" +
+                    "(E_STREAM_NAME, E_STREAM_VERSION, E_ENTRY_DATA, \n" +
+                    " E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA, E_ID) \n" +
+                    "VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS = TABLE_VLINGO_SYMBIO_JOURNAL + "_E_ID_BLOCKS";
+
+    private static final String CREATE_ENTRY_ID_BLOCKS =
+            "CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + " AS BIGINT START WITH {0,number,#}";
+
+    private static final String ALTER_ENTRY_ID_BLOCKS =
+            "ALTER SEQUENCE " + SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + " INCREMENT BY {0,number,#}";
+
+    private static final String RESERVE_ENTRY_ID_BLOCK =
+            "CALL NEXT VALUE FOR " + SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS;
+
+    private static final String INSERT_OFFSET =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + " (O_READER_NAME, O_READER_OFFSET) VALUES(?, ?)";
+
+    private static final String UPDATE_OFFSET =
+            "UPDATE " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + " SET O_READER_OFFSET = ? WHERE O_READER_NAME = ?";
+
+    private static final String UPSERT_OFFSET =
+            "MERGE INTO " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + " \n" +
+                    "USING (VALUES ?, ?) \n" +
+                    "O (O_READER_NAME, O_READER_OFFSET) \n" +
+                    "ON (" + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + ".O_READER_NAME = O.O_READER_NAME) \n" +
+                    "WHEN MATCHED THEN UPDATE \n" +
+                    "        SET " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + ".O_READER_OFFSET = ? \n" +
+                    "WHEN NOT MATCHED THEN INSERT \n" +
+                    "        (O_READER_NAME, O_READER_OFFSET) \n" +
+                    "        VALUES (O.O_READER_NAME, O.O_READER_OFFSET)";
+
+    private static final String INSERT_SNAPSHOT =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + "\n" +
+                    "(S_STREAM_NAME, S_STREAM_VERSION, \n" +
+                    " S_SNAPSHOT_DATA, S_SNAPSHOT_DATA_VERSION, \n" +
+                    " S_SNAPSHOT_TYPE, S_SNAPSHOT_TYPE_VERSION, \n" +
+                    " S_SNAPSHOT_METADATA) \n" +
+                    "VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_CURRENT_OFFSET =
+            "SELECT O_READER_OFFSET FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + " WHERE O_READER_NAME=?";
+
+    private final static String SELECT_DISPATCHABLES =
+            "SELECT D_DISPATCH_ID, D_CREATED_ON, \n" +
+                    " D_STATE_ID, D_STATE_DATA, D_STATE_DATA_VERSION, \n" +
+                    " D_STATE_TYPE, D_STATE_TYPE_VERSION, \n" +
+                    " D_STATE_METADATA, D_ENTRIES \n" +
+                    " FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + "\n" +
+                    " WHERE D_ORIGINATOR_ID = ? \n" +
+                    " AND (D_CREATED_ON > ? OR (D_CREATED_ON = ? AND D_DISPATCH_ID > ?)) \n" +
+                    " ORDER BY D_CREATED_ON, D_DISPATCH_ID LIMIT ?";
+
+    private static final String SELECT_ENTRY =
+            "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE E_ID = ?";
+
+    private static final String SELECT_ENTRY_BATCH =
+            "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE E_ID >= ? ORDER BY E_ID LIMIT ?";
+
+    private static final String SELECT_ENTRIES =
+            "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE E_ID IN ";
+
+    private static final String SELECT_LAST_OFFSET =
+            "SELECT MAX(E_ID) FROM " + TABLE_VLINGO_SYMBIO_JOURNAL;
+
+    private static final String SELECT_JOURNAL_COUNT =
+            "SELECT COUNT(*) FROM " + TABLE_VLINGO_SYMBIO_JOURNAL;
+
+    private static final String SELECT_SNAPSHOT =
+            "SELECT S_SNAPSHOT_DATA, S_SNAPSHOT_DATA_VERSION, S_SNAPSHOT_TYPE, S_SNAPSHOT_TYPE_VERSION, S_SNAPSHOT_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " WHERE S_STREAM_NAME = ? " +
+                    "ORDER BY S_STREAM_VERSION DESC LIMIT 1";
+
+    private static final String SELECT_SNAPSHOTS =
+            "SELECT S_STREAM_NAME, S_SNAPSHOT_DATA, S_SNAPSHOT_DATA_VERSION, S_SNAPSHOT_TYPE, S_SNAPSHOT_TYPE_VERSION, S_SNAPSHOT_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " LATEST " +
+                    "WHERE S_STREAM_VERSION = (SELECT MAX(S_STREAM_VERSION) FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " " +
+                    "WHERE S_STREAM_NAME = LATEST.S_STREAM_NAME) AND LATEST.S_STREAM_NAME IN ";
+
+    private static final String SELECT_STREAM =
+            "SELECT E_ID, E_STREAM_VERSION, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE E_STREAM_NAME = ? AND E_STREAM_VERSION >= ? ORDER BY E_STREAM_VERSION";
+
+    private static final String SELECT_STREAMS =
+            "SELECT E_STREAM_NAME, E_ID, E_STREAM_VERSION, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE {0} ORDER BY E_STREAM_NAME, E_STREAM_VERSION";
+
+    private static final String SELECT_STREAMS_CONDITION = "(E_STREAM_NAME = ? AND E_STREAM_VERSION >= ?)";
+
+    // unbounded, where a LONGVARCHAR holds at most 16M characters
+    private static final String TEXT_DATA_TYPE = "CLOB";
+
+    private static final String BINARY_DATA_TYPE = "BLOB";
+
+    /**
+     * Answer a new {@code HSQLDBQueries} after creating any of my tables that do not yet
+     * exist, because HSQLDB resolves the tables of a statement when it is prepared.
+     * @param connection the Connection to use
+     * @return HSQLDBQueries
+     * @throws SQLException if the tables cannot be created or the statements prepared
+     */
+    public static HSQLDBQueries withTables(final Connection connection) throws SQLException {
+        return withTables(connection, DataFormat.Text);
+    }
+
+    /**
+     * Answer a new {@code HSQLDBQueries} whose data is of the given {@code format} after
+     * creating any of my tables that do not yet exist.
+     * @param connection the Connection to use
+     * @param format the DataFormat of the stored entry, snapshot and dispatchable state data
+     * @return HSQLDBQueries
+     * @throws SQLException if the tables cannot be created or the statements prepared
+     */
+    public static HSQLDBQueries withTables(final Connection connection, final DataFormat format) throws SQLException {
+        createTablesOn(connection, format);
+
+        return new HSQLDBQueries(connection, format);
+    }
+
+    /**
+     * Creates any of my tables whose data is of the given {@code format} that do not yet exist,
+     * which must precede the creation of my queries.
+     * @param connection the Connection to use
+     * @param format the DataFormat of the stored entry, snapshot and dispatchable state data
+     * @throws SQLException if the tables cannot be created
+     */
+    public static void createTablesOn(final Connection connection, final DataFormat format) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute(tablesOf(MessageFormat.format(CREATE_DISPATCHABLE_TABLE, dataType(format)), format));
+            statement.execute(tablesOf(MessageFormat.format(CREATE_JOURNAL_TABLE, dataType(format)), format));
+            statement.execute(tablesOf(CREATE_JOURNAL_STREAM_INDEX, format));
+            statement.execute(tablesOf(CREATE_OFFSETS_TABLE, format));
+            statement.execute(tablesOf(MessageFormat.format(CREATE_SNAPSHOTS_TABLE, dataType(format)), format));
+        }
+        connection.commit();
+    }
+
+    @Override
+    public Object dataFrom(final ResultSet result, final int columnIndex) throws SQLException {
+        if (!format.isBinary()) {
+            return super.dataFrom(result, columnIndex);
+        }
+        final Blob blob = result.getBlob(columnIndex);
+        return blob == null ? null : blob.getBytes(1, (int) blob.length());
+    }
+
+    public HSQLDBQueries(Connection connection) throws SQLException {
+        super(connection);
+    }
+
+    public HSQLDBQueries(final Connection connection, final DataFormat format) throws SQLException {
+        super(connection, format);
+    }
+
+    @Override
+    protected String createDispatchableTable() {
+        return MessageFormat.format(CREATE_DISPATCHABLE_TABLE, dataType(format));
+    }
+
+    @Override
+    protected void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException {
+        // each value of the sequence is the first id of a block
+        try (final Statement statement = blockConnection.createStatement()) {
+            statement.execute(tablesOf(MessageFormat.format(CREATE_ENTRY_ID_BLOCKS, startWith)));
+            statement.execute(tablesOf(MessageFormat.format(ALTER_ENTRY_ID_BLOCKS, blockSize)));
+        }
+    }
+
+    @Override
+    protected String createJournalTableQuery() {
+        return MessageFormat.format(CREATE_JOURNAL_TABLE, dataType(format));
+    }
+
+    @Override
+    protected String createJournalStreamIndexQuery() {
+        return CREATE_JOURNAL_STREAM_INDEX;
+    }
+
+    @Override
+    protected String createOffsetsTable() {
+        return CREATE_OFFSETS_TABLE;
+    }
+
+    @Override
+    protected String createSnapshotsTableQuery() {
+        return MessageFormat.format(CREATE_SNAPSHOTS_TABLE, dataType(format));
+    }
+
+    @Override
+    protected String deleteDispatchableQuery() {
+        return DELETE_DISPATCHABLE;
+    }
+
+    @Override
+    protected String deleteSnapshotsQuery() {
+        return DELETE_SNAPSHOTS;
+    }
+
+    @Override
+    protected String dropDispatchablesTableQuery() {
+        return DROP_DISPATCHABLES_TABLE;
+    }
+
+    @Override
+    protected String dropJournalTable() {
+        return DROP_JOURNAL_TABLE;
+    }
+
+    @Override
+    protected String dropOffsetsTable() {
+        return DROP_OFFSETS_TABLE;
+    }
+
+    @Override
+    protected String dropSnapshotsTableQuery() {
+        return DROP_SNAPSHOTS_TABLE;
+    }
+
+    @Override
+    protected int generatedKeysIndicator() {
+        return Statement.RETURN_GENERATED_KEYS;
+    }
+
+    @Override
+    protected String insertDispatchableQuery() {
+        return INSERT_DISPATCHABLE;
+    }
+
+    @Override
+    protected String insertEntryQuery() {
+        return INSERT_ENTRY;
+    }
+
+    @Override
+    protected String insertEntryWithIdQuery() {
+        return INSERT_ENTRY_WITH_ID;
+    }
+
+    @Override
+    protected String insertOffsetQuery() {
+        return INSERT_OFFSET;
+    }
+
+    @Override
+    protected String insertSnapshotQuery() {
+        return INSERT_SNAPSHOT;
+    }
+
+    @Override
+    protected long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException {
+        try (final Statement statement = blockConnection.createStatement();
+             final ResultSet result = statement.executeQuery(tablesOf(RESERVE_ENTRY_ID_BLOCK))) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    @Override
+    protected String selectCurrentOffset() {
+        return SELECT_CURRENT_OFFSET;
+    }
+
+    @Override
+    protected String selectDispatchablesQuery() {
+        return SELECT_DISPATCHABLES;
+    }
+
+    @Override
+    protected String selectEntryQuery() {
+        return SELECT_ENTRY;
+    }
+
+    @Override
+    protected String selectEntryBatchQuery() {
+        return SELECT_ENTRY_BATCH;
+    }
+
+    @Override
+    protected String selectEntriesQuery(final int count) {
+        return SELECT_ENTRIES + "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    @Override
+    protected String selectLastOffsetQuery() {
+        return SELECT_LAST_OFFSET;
+    }
+
+    @Override
+    protected String selectJournalCountQuery() {
+        return SELECT_JOURNAL_COUNT;
+    }
+
+    @Override
+    protected String selectSnapshotQuery() {
+        return SELECT_SNAPSHOT;
+    }
+
+    @Override
+    protected String selectSnapshotsQuery(final int count) {
+        return SELECT_SNAPSHOTS + "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    @Override
+    protected String selectStreamQuery() {
+        return SELECT_STREAM;
+    }
+
+    @Override
+    protected String selectStreamsQuery(final int count) {
+        return MessageFormat.format(SELECT_STREAMS, String.join(" OR ", Collections.nCopies(count, SELECT_STREAMS_CONDITION)));
+    }
+
+    @Override
+    protected String updateOffsetQuery() {
+        return UPDATE_OFFSET;
+    }
+
+    @Override
+    protected String upsertOffsetQuery() {
+        return UPSERT_OFFSET;
+    }
+
+    @Override
+    protected void setData(final PreparedStatement statement, final int parameterIndex, final Object data) throws SQLException {
+        if (!format.isBinary() || data == null) {
+            super.setData(statement, parameterIndex, data);
+            return;
+        }
+        final Blob blob = connection.createBlob();
+        blob.setBytes(1, (byte[]) data);
+        statement.setBlob(parameterIndex, blob);
+    }
+
+    private static String dataType(final DataFormat format) {
+        return format.isBinary() ? BINARY_DATA_TYPE : TEXT_DATA_TYPE;
+    }
+}
@@ -7,11 +7,16 @@
 
 package io.vlingo.symbio.store.journal.jdbc.mysql;
 
+import io.vlingo.symbio.store.DataFormat;
 import io.vlingo.symbio.store.journal.jdbc.JDBCQueries;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.Collections;
 
 public class MySQLQueries extends JDBCQueries {
     public static final String TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES = "vlingo_symbio_journal_dispatchables";
@@ -25,7 +30,7 @@ public class MySQLQueries extends JDBCQueries {
                     "   D_ORIGINATOR_ID VARCHAR(512) NOT NULL," +
                     "   D_CREATED_ON BIGINT NOT NULL," +
                     "   D_STATE_ID VARCHAR(512) NULL, \n" +
-                    "   D_STATE_DATA TEXT NULL,\n" +
+                    "   D_STATE_DATA {0} NULL,\n" +
                     "   D_STATE_DATA_VERSION INT NULL,\n" +
                     "   D_STATE_TYPE VARCHAR(512) NULL,\n" +
                     "   D_STATE_TYPE_VERSION INTEGER NULL,\n" +
@@ -39,12 +44,24 @@ public class MySQLQueries extends JDBCQueries {
                     "E_ID SERIAL PRIMARY KEY, \n" +
                     "E_STREAM_NAME VARCHAR(512) NOT NULL, \n" +
                     "E_STREAM_VERSION INTEGER NOT NULL, \n" +
-                    "E_ENTRY_DATA TEXT NOT NULL, \n" +
+                    "E_ENTRY_DATA {0} NOT NULL, \n" +
                     "E_ENTRY_TYPE VARCHAR(512) NOT NULL, \n" +
                     "E_ENTRY_TYPE_VERSION INTEGER NOT NULL, \n" +
                     "E_ENTRY_METADATA TEXT NOT NULL \n" +
                     ")";
 
+    private static final String INDEX_VLINGO_SYMBIO_JOURNAL_STREAM = "idx_vlingo_symbio_journal_stream";
+
+    private static final String CREATE_JOURNAL_STREAM_INDEX =
+            "CREATE UNIQUE INDEX " + INDEX_VLINGO_SYMBIO_JOURNAL_STREAM + " \n" +
+                    "ON " + TABLE_VLINGO_SYMBIO_JOURNAL + " (E_STREAM_NAME, E_STREAM_VERSION)";
+
+    private static final String SELECT_JOURNAL_STREAM_INDEX =
+            "SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+
+    private static final int ER_DUP_ENTRY = 1062;
+
     private static final String CREATE_OFFSETS_TABLE =
             "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + "(" +
                     "O_READER_NAME VARCHAR(128) PRIMARY KEY," +
@@ -55,7 +72,7 @@ public class MySQLQueries extends JDBCQueries {
             "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " (\n" +
                     "S_STREAM_NAME VARCHAR(512) NOT NULL, \n" +
                     "S_STREAM_VERSION INTEGER NOT NULL, \n" +
-                    "S_SNAPSHOT_DATA TEXT NOT NULL, \n" +
+                    "S_SNAPSHOT_DATA {0} NOT NULL, \n" +
                     "S_SNAPSHOT_DATA_VERSION INTEGER NOT NULL, \n" +
                     "S_SNAPSHOT_TYPE VARCHAR(512) NOT NULL, \n" +
                     "S_SNAPSHOT_TYPE_VERSION INTEGER NOT NULL, \n" +
@@ -68,6 +85,13 @@ public class MySQLQueries extends JDBCQueries {
             "DELETE FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + " " +
                     "WHERE D_DISPATCH_ID = ?";
 
+    private static final String DELETE_SNAPSHOTS =
+            "DELETE FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " \n" +
+                    "WHERE S_STREAM_NAME = ? AND S_STREAM_VERSION < (\n" +
+                    "  SELECT RETAINED.S_STREAM_VERSION FROM (\n" +
+                    "    SELECT S_STREAM_VERSION FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + "\n" +
+                    "    WHERE S_STREAM_NAME = ? ORDER BY S_STREAM_VERSION DESC LIMIT 1 OFFSET ?) AS RETAINED)";
+
     private static final String DROP_DISPATCHABLES_TABLE =
             "DROP TABLE IF EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES;
 
@@ -94,6 +118,27 @@ public class MySQLQueries extends JDBCQueries {
                     " E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA) \n" +
                     "VALUES(?, ?, ?, ?, ?, ?)";
 
+    private static final String INSERT_ENTRY_WITH_ID =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL + " \n" +
+                    "(E_STREAM_NAME, E_STREAM_VERSION, E_ENTRY_DATA, \n" +
+                    " E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA, E_ID) \n" +
+                    "VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String TABLE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS = TABLE_VLINGO_SYMBIO_JOURNAL + "_e_id_blocks";
+
+    private static final String CREATE_ENTRY_ID_BLOCKS_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + " (NEXT_ID BIGINT NOT NULL)";
+
+    private static final String INSERT_ENTRY_ID_BLOCKS =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + " (NEXT_ID) " +
+                    "SELECT ? FROM DUAL WHERE NOT EXISTS (SELECT * FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + ")";
+
+    private static final String UPDATE_ENTRY_ID_BLOCKS =
+            "UPDATE " + TABLE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + " SET NEXT_ID = LAST_INSERT_ID(NEXT_ID + ?)";
+
+    private static final String SELECT_RESERVED_ENTRY_ID_BLOCK =
+            "SELECT LAST_INSERT_ID() - ?";
+
     private static final String INSERT_OFFSET =
             "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + " (O_READER_NAME, O_READER_OFFSET) VALUES(?, ?)";
 
@@ -121,7 +166,9 @@ public class MySQLQueries extends JDBCQueries {
                     " D_STATE_TYPE, D_STATE_TYPE_VERSION, \n" +
                     " D_STATE_METADATA, D_ENTRIES \n" +
                     " FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + "\n" +
-                    " WHERE D_ORIGINATOR_ID = ? ORDER BY D_CREATED_ON";
+                    " WHERE D_ORIGINATOR_ID = ? \n" +
+                    " AND (D_CREATED_ON > ? OR (D_CREATED_ON = ? AND D_DISPATCH_ID > ?)) \n" +
+                    " ORDER BY D_CREATED_ON, D_DISPATCH_ID LIMIT ?";
 
     private static final String SELECT_ENTRY =
             "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
@@ -131,7 +178,12 @@ public class MySQLQueries extends JDBCQueries {
     private static final String SELECT_ENTRY_BATCH =
             "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
                     "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
-                    "WHERE E_ID BETWEEN ? AND ? ORDER BY E_ID";
+                    "WHERE E_ID >= ? ORDER BY E_ID LIMIT ?";
+
+    private static final String SELECT_ENTRIES =
+            "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE E_ID IN ";
 
     private static final String SELECT_LAST_OFFSET =
             "SELECT MAX(E_ID) FROM " + TABLE_VLINGO_SYMBIO_JOURNAL;
@@ -141,25 +193,85 @@ public class MySQLQueries extends JDBCQueries {
 
     private static final String SELECT_SNAPSHOT =
             "SELECT S_SNAPSHOT_DATA, S_SNAPSHOT_DATA_VERSION, S_SNAPSHOT_TYPE, S_SNAPSHOT_TYPE_VERSION, S_SNAPSHOT_METADATA " +
-                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " WHERE S_STREAM_NAME = ?";
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " WHERE S_STREAM_NAME = ? " +
+                    "ORDER BY S_STREAM_VERSION DESC LIMIT 1";
+
+    private static final String SELECT_SNAPSHOTS =
+            "SELECT S_STREAM_NAME, S_SNAPSHOT_DATA, S_SNAPSHOT_DATA_VERSION, S_SNAPSHOT_TYPE, S_SNAPSHOT_TYPE_VERSION, S_SNAPSHOT_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " LATEST " +
+                    "WHERE S_STREAM_VERSION = (SELECT MAX(S_STREAM_VERSION) FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " " +
+                    "WHERE S_STREAM_NAME = LATEST.S_STREAM_NAME) AND LATEST.S_STREAM_NAME IN ";
 
     private static final String SELECT_STREAM =
             "SELECT E_ID, E_STREAM_VERSION, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
                     "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
                     "WHERE E_STREAM_NAME = ? AND E_STREAM_VERSION >= ? ORDER BY E_STREAM_VERSION";
 
+    private static final String SELECT_STREAMS =
+            "SELECT E_STREAM_NAME, E_ID, E_STREAM_VERSION, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE {0} ORDER BY E_STREAM_NAME, E_STREAM_VERSION";
+
+    private static final String SELECT_STREAMS_CONDITION = "(E_STREAM_NAME = ? AND E_STREAM_VERSION >= ?)";
+
+    private static final String TEXT_DATA_TYPE = "TEXT";
+
+    private static final String BINARY_DATA_TYPE = "LONGBLOB";
+
     public MySQLQueries(Connection connection) throws SQLException {
         super(connection);
     }
 
+    public MySQLQueries(final Connection connection, final DataFormat format) throws SQLException {
+        super(connection, format);
+    }
+
     @Override
     protected String createDispatchableTable() {
-        return CREATE_DISPATCHABLE_TABLE;
+        return MessageFormat.format(CREATE_DISPATCHABLE_TABLE, dataType(format));
+    }
+
+    @Override
+    protected void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException {
+        // MySQL has no sequences, so the next id of the next block is held in a single row
+        try (final Statement statement = blockConnection.createStatement()) {
+            statement.execute(tablesOf(CREATE_ENTRY_ID_BLOCKS_TABLE));
+        }
+        try (final PreparedStatement insert = blockConnection.prepareStatement(tablesOf(INSERT_ENTRY_ID_BLOCKS))) {
+            insert.setLong(1, startWith);
+            insert.executeUpdate();
+        }
     }
 
     @Override
     protected String createJournalTableQuery() {
-        return CREATE_JOURNAL_TABLE;
+        return MessageFormat.format(CREATE_JOURNAL_TABLE, dataType(format));
+    }
+
+    @Override
+    protected String createJournalStreamIndexQuery() {
+        return CREATE_JOURNAL_STREAM_INDEX;
+    }
+
+    @Override
+    protected void createJournalStreamIndex() throws SQLException {
+        // MySQL has no CREATE INDEX IF NOT EXISTS
+        try (final PreparedStatement selectIndex = connection.prepareStatement(SELECT_JOURNAL_STREAM_INDEX)) {
+            selectIndex.setString(1, tablesOf(TABLE_VLINGO_SYMBIO_JOURNAL));
+            selectIndex.setString(2, tablesOf(INDEX_VLINGO_SYMBIO_JOURNAL_STREAM));
+            try (final ResultSet result = selectIndex.executeQuery()) {
+                if (result.next() && result.getInt(1) > 0) {
+                    connection.commit();
+                    return;
+                }
+            }
+        }
+        super.createJournalStreamIndex();
+    }
+
+    @Override
+    protected boolean isUniqueViolation(final SQLException exception) {
+        return exception.getErrorCode() == ER_DUP_ENTRY;
     }
 
     @Override
@@ -169,7 +281,7 @@ public class MySQLQueries extends JDBCQueries {
 
     @Override
     protected String createSnapshotsTableQuery() {
-        return CREATE_SNAPSHOTS_TABLE;
+        return MessageFormat.format(CREATE_SNAPSHOTS_TABLE, dataType(format));
     }
 
     @Override
@@ -177,6 +289,11 @@ public class MySQLQueries extends JDBCQueries {
         return DELETE_DISPATCHABLE;
     }
 
+    @Override
+    protected String deleteSnapshotsQuery() {
+        return DELETE_SNAPSHOTS;
+    }
+
     @Override
     protected String dropDispatchablesTableQuery() {
         return DROP_DISPATCHABLES_TABLE;
@@ -212,6 +329,11 @@ public class MySQLQueries extends JDBCQueries {
         return INSERT_ENTRY;
     }
 
+    @Override
+    protected String insertEntryWithIdQuery() {
+        return INSERT_ENTRY_WITH_ID;
+    }
+
     @Override
     protected String insertOffsetQuery() {
         return INSERT_OFFSET;
@@ -222,6 +344,21 @@ public class MySQLQueries extends JDBCQueries {
         return INSERT_SNAPSHOT;
     }
 
+    @Override
+    protected long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException {
+        try (final PreparedStatement update = blockConnection.prepareStatement(tablesOf(UPDATE_ENTRY_ID_BLOCKS))) {
+            update.setInt(1, blockSize);
+            update.executeUpdate();
+        }
+        try (final PreparedStatement select = blockConnection.prepareStatement(tablesOf(SELECT_RESERVED_ENTRY_ID_BLOCK))) {
+            select.setInt(1, blockSize);
+            try (final ResultSet result = select.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
     @Override
     protected String selectCurrentOffset() {
         return SELECT_CURRENT_OFFSET;
@@ -242,6 +379,11 @@ public class MySQLQueries extends JDBCQueries {
         return SELECT_ENTRY_BATCH;
     }
 
+    @Override
+    protected String selectEntriesQuery(final int count) {
+        return SELECT_ENTRIES + "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
     @Override
     protected String selectLastOffsetQuery() {
         return SELECT_LAST_OFFSET;
@@ -257,11 +399,21 @@ public class MySQLQueries extends JDBCQueries {
         return SELECT_SNAPSHOT;
     }
 
+    @Override
+    protected String selectSnapshotsQuery(final int count) {
+        return SELECT_SNAPSHOTS + "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
     @Override
     protected String selectStreamQuery() {
         return SELECT_STREAM;
     }
 
+    @Override
+    protected String selectStreamsQuery(final int count) {
+        return MessageFormat.format(SELECT_STREAMS, String.join(" OR ", Collections.nCopies(count, SELECT_STREAMS_CONDITION)));
+    }
+
     @Override
     protected String updateOffsetQuery() {
         return UPDATE_OFFSET;
@@ -271,4 +423,8 @@ public class MySQLQueries extends JDBCQueries {
     protected String upsertOffsetQuery() {
         return UPSERT_OFFSET;
     }
+
+    private static String dataType(final DataFormat format) {
+        return format.isBinary() ? BINARY_DATA_TYPE : TEXT_DATA_TYPE;
+    }
 }
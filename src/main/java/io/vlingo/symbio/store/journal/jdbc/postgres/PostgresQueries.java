@@ -8,9 +8,15 @@
 package io.vlingo.symbio.store.journal.jdbc.postgres;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Optional;
 
+import io.vlingo.symbio.store.DataFormat;
 import io.vlingo.symbio.store.journal.jdbc.JDBCQueries;
 
 /**
@@ -29,7 +35,7 @@ public class PostgresQueries extends JDBCQueries {
                     "   D_ORIGINATOR_ID VARCHAR(512) NOT NULL," +
                     "   D_CREATED_ON BIGINT NOT NULL," +
                     "   D_STATE_ID VARCHAR(512) NULL, \n" +
-                    "   D_STATE_DATA TEXT NULL,\n" +
+                    "   D_STATE_DATA {0} NULL,\n" +
                     "   D_STATE_DATA_VERSION INT NULL,\n" +
                     "   D_STATE_TYPE VARCHAR(512) NULL,\n" +
                     "   D_STATE_TYPE_VERSION INTEGER NULL,\n" +
@@ -43,12 +49,35 @@ public class PostgresQueries extends JDBCQueries {
                     "E_ID BIGSERIAL PRIMARY KEY, \n" +
                     "E_STREAM_NAME VARCHAR(512) NOT NULL, \n" +
                     "E_STREAM_VERSION INTEGER NOT NULL, \n" +
-                    "E_ENTRY_DATA TEXT NOT NULL, \n" +
+                    "E_ENTRY_DATA {0} NOT NULL, \n" +
                     "E_ENTRY_TYPE VARCHAR(512) NOT NULL, \n" +
                     "E_ENTRY_TYPE_VERSION INTEGER NOT NULL, \n" +
                     "E_ENTRY_METADATA TEXT NOT NULL \n" +
                     ")";
 
+    private static final String INDEX_VLINGO_SYMBIO_JOURNAL_STREAM = "IDX_" + TABLE_VLINGO_SYMBIO_JOURNAL + "_STREAM";
+
+    // built in the transaction of a journal that has no entries, and so blocks its appends only briefly
+    private static final String CREATE_JOURNAL_STREAM_INDEX =
+            "CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_VLINGO_SYMBIO_JOURNAL_STREAM + " \n" +
+                    "ON " + TABLE_VLINGO_SYMBIO_JOURNAL + " (E_STREAM_NAME, E_STREAM_VERSION)";
+
+    // built concurrently by the migration of a journal of entries, so that its appends are not blocked while it is built
+    private static final String CREATE_JOURNAL_STREAM_INDEX_CONCURRENTLY =
+            "CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX_VLINGO_SYMBIO_JOURNAL_STREAM + " \n" +
+                    "ON " + TABLE_VLINGO_SYMBIO_JOURNAL + " (E_STREAM_NAME, E_STREAM_VERSION)";
+
+    private static final String DROP_JOURNAL_STREAM_INDEX_CONCURRENTLY =
+            "DROP INDEX CONCURRENTLY IF EXISTS " + INDEX_VLINGO_SYMBIO_JOURNAL_STREAM;
+
+    // an index whose concurrent build failed is left behind but is not valid
+    private static final String SELECT_JOURNAL_STREAM_INDEX_VALID =
+            "SELECT I.INDISVALID FROM PG_INDEX I JOIN PG_CLASS C ON C.OID = I.INDEXRELID " +
+                    "WHERE C.RELNAME = ? AND PG_TABLE_IS_VISIBLE(C.OID)";
+
+    private static final String SELECT_ANY_ENTRY =
+            "SELECT 1 FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " LIMIT 1";
+
     private static final String CREATE_OFFSETS_TABLE =
             "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + "(" +
                     "O_READER_NAME VARCHAR(128) PRIMARY KEY," +
@@ -59,7 +88,7 @@ public class PostgresQueries extends JDBCQueries {
             "CREATE TABLE IF NOT EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " (\n" +
                     "S_STREAM_NAME VARCHAR(512) NOT NULL, \n" +
                     "S_STREAM_VERSION INTEGER NOT NULL, \n" +
-                    "S_SNAPSHOT_DATA TEXT NOT NULL, \n" +
+                    "S_SNAPSHOT_DATA {0} NOT NULL, \n" +
                     "S_SNAPSHOT_DATA_VERSION INTEGER NOT NULL, \n" +
                     "S_SNAPSHOT_TYPE VARCHAR(512) NOT NULL, \n" +
                     "S_SNAPSHOT_TYPE_VERSION INTEGER NOT NULL, \n" +
@@ -72,6 +101,12 @@ public class PostgresQueries extends JDBCQueries {
             "DELETE FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + " " +
                     "WHERE D_DISPATCH_ID = ?";
 
+    private static final String DELETE_SNAPSHOTS =
+            "DELETE FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " \n" +
+                    "WHERE S_STREAM_NAME = ? AND S_STREAM_VERSION < (\n" +
+                    "  SELECT S_STREAM_VERSION FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + "\n" +
+                    "  WHERE S_STREAM_NAME = ? ORDER BY S_STREAM_VERSION DESC LIMIT 1 OFFSET ?)";
+
     private static final String DROP_DISPATCHABLES_TABLE =
             "DROP TABLE IF EXISTS " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES;
 
@@ -98,6 +133,23 @@ public class PostgresQueries extends JDBCQueries {
                     " E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA) \n" +
                     "VALUES(?, ?, ?, ?, ?, ?)";
 
+    private static final String INSERT_ENTRY_WITH_ID =
+            "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL + " \n" +
+                    "(E_STREAM_NAME, E_STREAM_VERSION, E_ENTRY_DATA, \n" +
+                    " E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA, E_ID) \n" +
+                    "VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS = TABLE_VLINGO_SYMBIO_JOURNAL + "_e_id_blocks";
+
+    private static final String CREATE_ENTRY_ID_BLOCKS =
+            "CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + " START WITH {0,number,#}";
+
+    private static final String ALTER_ENTRY_ID_BLOCKS =
+            "ALTER SEQUENCE " + SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + " INCREMENT BY {0,number,#}";
+
+    private static final String RESERVE_ENTRY_ID_BLOCK =
+            "SELECT nextval('" + SEQUENCE_VLINGO_SYMBIO_JOURNAL_E_ID_BLOCKS + "')";
+
     private static final String INSERT_OFFSET =
             "INSERT INTO " + TABLE_VLINGO_SYMBIO_JOURNAL_OFFSETS + " (O_READER_NAME, O_READER_OFFSET) VALUES(?, ?)";
 
@@ -125,7 +177,9 @@ public class PostgresQueries extends JDBCQueries {
                     " D_STATE_TYPE, D_STATE_TYPE_VERSION, \n" +
                     " D_STATE_METADATA, D_ENTRIES \n" +
                     " FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_DISPATCHABLES + "\n" +
-                    " WHERE D_ORIGINATOR_ID = ? ORDER BY D_CREATED_ON";
+                    " WHERE D_ORIGINATOR_ID = ? \n" +
+                    " AND (D_CREATED_ON > ? OR (D_CREATED_ON = ? AND D_DISPATCH_ID > ?)) \n" +
+                    " ORDER BY D_CREATED_ON, D_DISPATCH_ID LIMIT ?";
 
     private static final String SELECT_ENTRY =
             "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
@@ -135,7 +189,12 @@ public class PostgresQueries extends JDBCQueries {
     private static final String SELECT_ENTRY_BATCH =
             "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
                     "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
-                    "WHERE E_ID BETWEEN ? AND ? ORDER BY E_ID";
+                    "WHERE E_ID >= ? ORDER BY E_ID LIMIT ?";
+
+    private static final String SELECT_ENTRIES =
+            "SELECT E_ID, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE E_ID IN ";
 
     private static final String SELECT_LAST_OFFSET =
             "SELECT MAX(E_ID) FROM " + TABLE_VLINGO_SYMBIO_JOURNAL;
@@ -145,25 +204,146 @@ public class PostgresQueries extends JDBCQueries {
 
     private static final String SELECT_SNAPSHOT =
             "SELECT S_SNAPSHOT_DATA, S_SNAPSHOT_DATA_VERSION, S_SNAPSHOT_TYPE, S_SNAPSHOT_TYPE_VERSION, S_SNAPSHOT_METADATA " +
-                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " WHERE S_STREAM_NAME = ?";
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " WHERE S_STREAM_NAME = ? " +
+                    "ORDER BY S_STREAM_VERSION DESC LIMIT 1";
+
+    private static final String SELECT_SNAPSHOTS =
+            "SELECT S_STREAM_NAME, S_SNAPSHOT_DATA, S_SNAPSHOT_DATA_VERSION, S_SNAPSHOT_TYPE, S_SNAPSHOT_TYPE_VERSION, S_SNAPSHOT_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " LATEST " +
+                    "WHERE S_STREAM_VERSION = (SELECT MAX(S_STREAM_VERSION) FROM " + TABLE_VLINGO_SYMBIO_JOURNAL_SNAPSHOTS + " " +
+                    "WHERE S_STREAM_NAME = LATEST.S_STREAM_NAME) AND LATEST.S_STREAM_NAME IN ";
 
     private static final String SELECT_STREAM =
             "SELECT E_ID, E_STREAM_VERSION, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
                     "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
                     "WHERE E_STREAM_NAME = ? AND E_STREAM_VERSION >= ? ORDER BY E_STREAM_VERSION";
 
+    private static final String SELECT_STREAMS =
+            "SELECT E_STREAM_NAME, E_ID, E_STREAM_VERSION, E_ENTRY_DATA, E_ENTRY_TYPE, E_ENTRY_TYPE_VERSION, E_ENTRY_METADATA " +
+                    "FROM " + TABLE_VLINGO_SYMBIO_JOURNAL + " " +
+                    "WHERE {0} ORDER BY E_STREAM_NAME, E_STREAM_VERSION";
+
+    private static final String SELECT_STREAMS_CONDITION = "(E_STREAM_NAME = ? AND E_STREAM_VERSION >= ?)";
+
+    private static final String TEXT_DATA_TYPE = "TEXT";
+
+    private static final String BINARY_DATA_TYPE = "BYTEA";
+
     public PostgresQueries(Connection connection) throws SQLException {
         super(connection);
     }
 
+    public PostgresQueries(final Connection connection, final DataFormat format) throws SQLException {
+        super(connection, format);
+    }
+
     @Override
     protected String createDispatchableTable() {
-        return CREATE_DISPATCHABLE_TABLE;
+        return MessageFormat.format(CREATE_DISPATCHABLE_TABLE, dataType(format));
+    }
+
+    @Override
+    protected void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException {
+        // each value of the sequence is the first id of a block
+        try (final Statement statement = blockConnection.createStatement()) {
+            statement.execute(tablesOf(MessageFormat.format(CREATE_ENTRY_ID_BLOCKS, startWith)));
+            statement.execute(tablesOf(MessageFormat.format(ALTER_ENTRY_ID_BLOCKS, blockSize)));
+        }
     }
 
     @Override
     protected String createJournalTableQuery() {
-        return CREATE_JOURNAL_TABLE;
+        return MessageFormat.format(CREATE_JOURNAL_TABLE, dataType(format));
+    }
+
+    @Override
+    protected String createJournalStreamIndexQuery() {
+        return CREATE_JOURNAL_STREAM_INDEX;
+    }
+
+    /**
+     * Ensures the unique stream index of a journal, which is built only if the journal has no
+     * entries yet, as is a journal whose tables were just created. The index of a journal of
+     * entries is built by {@code migrateJournalStreamIndex(Connection, DataFormat)} instead, so
+     * that no journal blocks the appends to the table or waits for the build while it is created.
+     * @throws SQLException if the index cannot be created
+     * @throws IllegalStateException if the journal has entries but no index, or its index is not valid
+     */
+    @Override
+    protected void createJournalStreamIndex() throws SQLException {
+        try {
+            if (!journalStreamIndexValidity(connection, format).isPresent()) {
+                if (hasEntries()) {
+                    throw new IllegalStateException("The journal " + tablesOf(TABLE_VLINGO_SYMBIO_JOURNAL) +
+                            " has entries but no stream index, which must be built by PostgresQueries.migrateJournalStreamIndex().");
+                }
+                try (final Statement statement = connection.createStatement()) {
+                    statement.execute(tablesOf(createJournalStreamIndexQuery()));
+                }
+            }
+            requireValidJournalStreamIndex(connection, format);
+            connection.commit();
+        } catch (final SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Builds the unique stream index of the journal of {@code format} concurrently, so that the
+     * appends to its entries are not blocked while it is built, which is how the index is added
+     * to a journal whose entries were appended before the index was introduced. The index must
+     * be built so before a journal of entries is created, and may be built again, such as by a
+     * deployment script. An index that a failed build left behind is dropped and built anew.
+     * Its build cannot run inside a transaction block, and so runs with auto-commit.
+     * @param connection the Connection of the journal's database
+     * @param format the DataFormat of the journal's entries
+     * @throws SQLException if the index cannot be built, such as by duplicate stream versions
+     * @throws IllegalStateException if the index is not valid once built
+     */
+    public static void migrateJournalStreamIndex(final Connection connection, final DataFormat format) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        try (final Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            if (!journalStreamIndexValidity(connection, format).orElse(true)) {
+                statement.execute(tablesOf(DROP_JOURNAL_STREAM_INDEX_CONCURRENTLY, format));
+            }
+            statement.execute(tablesOf(CREATE_JOURNAL_STREAM_INDEX_CONCURRENTLY, format));
+            requireValidJournalStreamIndex(connection, format);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // whether or not the journal has any entry, read in the transaction of the index built if not
+    private boolean hasEntries() throws SQLException {
+        try (final Statement statement = connection.createStatement();
+             final ResultSet result = statement.executeQuery(tablesOf(SELECT_ANY_ENTRY))) {
+            return result.next();
+        }
+    }
+
+    // the validity of the stream index of the journal of format, if it exists
+    private static Optional<Boolean> journalStreamIndexValidity(final Connection connection, final DataFormat format) throws SQLException {
+        try (final PreparedStatement select = connection.prepareStatement(SELECT_JOURNAL_STREAM_INDEX_VALID)) {
+            // Postgres folds unquoted names to lower case
+            select.setString(1, tablesOf(INDEX_VLINGO_SYMBIO_JOURNAL_STREAM, format).toLowerCase());
+            try (final ResultSet result = select.executeQuery()) {
+                return result.next() ? Optional.of(result.getBoolean(1)) : Optional.empty();
+            }
+        }
+    }
+
+    private static void requireValidJournalStreamIndex(final Connection connection, final DataFormat format) throws SQLException {
+        final Optional<Boolean> validity = journalStreamIndexValidity(connection, format);
+        if (!validity.isPresent()) {
+            throw new IllegalStateException("The stream index " + tablesOf(INDEX_VLINGO_SYMBIO_JOURNAL_STREAM, format) + " was not built.");
+        }
+        if (!validity.get()) {
+            throw new IllegalStateException("The stream index " + tablesOf(INDEX_VLINGO_SYMBIO_JOURNAL_STREAM, format) +
+                    " is not valid, as its build failed, such as by duplicate stream versions; once these are resolved," +
+                    " it must be built again by PostgresQueries.migrateJournalStreamIndex().");
+        }
     }
 
     @Override
@@ -173,7 +353,7 @@ public class PostgresQueries extends JDBCQueries {
 
     @Override
     protected String createSnapshotsTableQuery() {
-        return CREATE_SNAPSHOTS_TABLE;
+        return MessageFormat.format(CREATE_SNAPSHOTS_TABLE, dataType(format));
     }
 
     @Override
@@ -181,6 +361,11 @@ public class PostgresQueries extends JDBCQueries {
         return DELETE_DISPATCHABLE;
     }
 
+    @Override
+    protected String deleteSnapshotsQuery() {
+        return DELETE_SNAPSHOTS;
+    }
+
     @Override
     protected String dropDispatchablesTableQuery() {
         return DROP_DISPATCHABLES_TABLE;
@@ -216,6 +401,11 @@ public class PostgresQueries extends JDBCQueries {
         return INSERT_ENTRY;
     }
 
+    @Override
+    protected String insertEntryWithIdQuery() {
+        return INSERT_ENTRY_WITH_ID;
+    }
+
     @Override
     protected String insertOffsetQuery() {
         return INSERT_OFFSET;
@@ -226,6 +416,15 @@ public class PostgresQueries extends JDBCQueries {
         return INSERT_SNAPSHOT;
     }
 
+    @Override
+    protected long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException {
+        try (final Statement statement = blockConnection.createStatement();
+             final ResultSet result = statement.executeQuery(tablesOf(RESERVE_ENTRY_ID_BLOCK))) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
     @Override
     protected String selectCurrentOffset() {
         return SELECT_CURRENT_OFFSET;
@@ -246,6 +445,11 @@ public class PostgresQueries extends JDBCQueries {
         return SELECT_ENTRY_BATCH;
     }
 
+    @Override
+    protected String selectEntriesQuery(final int count) {
+        return SELECT_ENTRIES + "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
     @Override
     protected String selectLastOffsetQuery() {
         return SELECT_LAST_OFFSET;
@@ -261,11 +465,21 @@ public class PostgresQueries extends JDBCQueries {
         return SELECT_SNAPSHOT;
     }
 
+    @Override
+    protected String selectSnapshotsQuery(final int count) {
+        return SELECT_SNAPSHOTS + "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
     @Override
     protected String selectStreamQuery() {
         return SELECT_STREAM;
     }
 
+    @Override
+    protected String selectStreamsQuery(final int count) {
+        return MessageFormat.format(SELECT_STREAMS, String.join(" OR ", Collections.nCopies(count, SELECT_STREAMS_CONDITION)));
+    }
+
     @Override
     protected String updateOffsetQuery() {
         return UPDATE_OFFSET;
@@ -275,4 +489,8 @@ public class PostgresQueries extends JDBCQueries {
     protected String upsertOffsetQuery() {
         return UPSERT_OFFSET;
     }
+
+    private static String dataType(final DataFormat format) {
+        return format.isBinary() ? BINARY_DATA_TYPE : TEXT_DATA_TYPE;
+    }
 }
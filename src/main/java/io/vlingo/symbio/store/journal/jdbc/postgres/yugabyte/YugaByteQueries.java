@@ -16,6 +16,8 @@ import java.util.UUID;
 
 import io.vlingo.common.Tuple2;
 import io.vlingo.common.identity.IdentityGenerator;
+import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.common.jdbc.ConnectionProvider;
 import io.vlingo.symbio.store.journal.jdbc.postgres.PostgresQueries;
 
 public class YugaByteQueries extends PostgresQueries {
@@ -28,7 +30,11 @@ public class YugaByteQueries extends PostgresQueries {
   private final IdentityGenerator identityGenerator;
 
   public YugaByteQueries(final Connection connection) throws SQLException {
-    super(connection);
+    this(connection, DataFormat.Text);
+  }
+
+  public YugaByteQueries(final Connection connection, final DataFormat format) throws SQLException {
+    super(connection, format);
 
     this.identityGenerator = new IdentityGenerator.TimeBasedIdentityGenerator();
   }
@@ -37,7 +43,7 @@ public class YugaByteQueries extends PostgresQueries {
   public Tuple2<PreparedStatement,Optional<String>> prepareInsertEntryQuery(
           final String stream_name,
           final int stream_version,
-          final String entry_data,
+          final Object entry_data,
           final String entry_type,
           final int entry_type_version,
           final String entry_metadata)
@@ -54,7 +60,7 @@ public class YugaByteQueries extends PostgresQueries {
     insertEntry.setString(3, stream_name);
     insertEntry.setInt(4, stream_version);
 
-    insertEntry.setString(5, entry_data);
+    setData(insertEntry, 5, entry_data);
     insertEntry.setString(6, entry_type);
     insertEntry.setInt(7, entry_type_version);
 
@@ -63,6 +69,11 @@ public class YugaByteQueries extends PostgresQueries {
     return Tuple2.from(insertEntry, Optional.of(e_id.toString()));
   }
 
+  @Override
+  public void useEntryIdBlocks(final ConnectionProvider connectionProvider, final int blockSize) {
+    // entry ids are already assigned on the client side by time-based UUIDs
+  }
+
   @Override
   protected int generatedKeysIndicator() {
     return Statement.NO_GENERATED_KEYS;
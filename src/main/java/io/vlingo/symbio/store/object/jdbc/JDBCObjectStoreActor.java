@@ -120,7 +120,8 @@ public class JDBCObjectStoreActor extends Actor implements ObjectStore, Schedule
       case JDBC:
       case JPA:
         actorType = JDBCObjectStoreEntryReaderActor.class;
-        parameters = Definition.parameters(DatabaseType.databaseType(clonedConfiguration.connection), clonedConfiguration.connection, name);
+        parameters = Definition.parameters(DatabaseType.databaseType(clonedConfiguration.connection), clonedConfiguration.connection, name,
+                clonedConfiguration.offsetCommitPolicy);
         break;
       default:
         throw new IllegalStateException(getClass().getSimpleName() + ": Cannot create entry reader '" + name + "' due to unknown type: " + delegate.type());
@@ -104,18 +104,19 @@ public abstract class JDBCObjectStoreEntryJournalQueries {
             "SELECT E_ID,E_TYPE,E_TYPE_VERSION,E_DATA,E_METADATA_VALUE,E_METADATA_OP " +
             "FROM {0} WHERE E_ID >= {1} ORDER BY E_ID LIMIT 1",
             EntryJournalTableName,
-            id);
+            Long.toString(id));
   }
 
   /**
-   * Answer the parameterized query for retrieving multiple {@code Entry} instances.
+   * Answer the parameterized query for retrieving multiple {@code Entry} instances,
+   * where the placeholders are for the first identity and the maximum count.
    * @param placeholders the String[] of parameter placeholders
    * @return String
    */
   public String entriesQuery(final String[] placeholders) {
     return MessageFormat.format(
             "SELECT E_ID,E_TYPE,E_TYPE_VERSION,E_DATA,E_METADATA_VALUE,E_METADATA_OP " +
-            "FROM {0} WHERE E_ID BETWEEN {1} AND {2} ORDER BY E_ID",
+            "FROM {0} WHERE E_ID >= {1} ORDER BY E_ID LIMIT {2}",
             EntryJournalTableName,
             placeholders[0],
             placeholders[1]);
@@ -130,10 +131,10 @@ public abstract class JDBCObjectStoreEntryJournalQueries {
   public String entriesQuery(final long id, final int count) {
     return MessageFormat.format(
             "SELECT E_ID,E_TYPE,E_TYPE_VERSION,E_DATA,E_METADATA_VALUE,E_METADATA_OP " +
-            "FROM {0} WHERE E_ID BETWEEN {1} AND {2} ORDER BY E_ID",
+            "FROM {0} WHERE E_ID >= {1} ORDER BY E_ID LIMIT {2}",
             EntryJournalTableName,
-            id,
-            id + count - 1);
+            Long.toString(id),
+            Integer.toString(count));
   }
 
   /**
@@ -193,6 +194,23 @@ public abstract class JDBCObjectStoreEntryJournalQueries {
     return QuerySize + EntryJournalTableName;
   }
 
+  /**
+   * Answer the query for retrieving the next page of unconfirmed dispatchables, which are
+   * ordered by their {@code D_ID}.
+   * @param originatorId the String indicating the identity of the original writer of the dispatchables to query
+   * @param afterIdPlaceholder the String placeholder for the {@code D_ID} of the last dispatchable of the previous page
+   * @param limitPlaceholder the String placeholder for the maximum number of dispatchables of the page
+   * @return String
+   */
+  public String unconfirmedDispatchablesPageQuery(final String originatorId, final String afterIdPlaceholder, final String limitPlaceholder) {
+    return MessageFormat.format(
+            "SELECT * FROM {0} WHERE D_ORIGINATOR_ID = ''{1}'' AND D_ID > {2} ORDER BY D_ID ASC LIMIT {3}",
+            DispatchablesTableName,
+            originatorId,
+            afterIdPlaceholder,
+            limitPlaceholder);
+  }
+
   /**
    * Answer the query for retrieving all unconfirmed dispatchables.
    * @param originatorId the String indicating the identity of the original writer of the dispatchables to query
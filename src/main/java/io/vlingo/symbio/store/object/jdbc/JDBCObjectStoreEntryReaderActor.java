@@ -20,6 +20,7 @@ import io.vlingo.symbio.BaseEntry.TextEntry;
 import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.store.common.jdbc.DatabaseType;
+import io.vlingo.symbio.store.common.jdbc.OffsetCommitPolicy;
 import io.vlingo.symbio.store.object.ObjectStoreEntryReader;
 
 /**
@@ -30,6 +31,7 @@ public class JDBCObjectStoreEntryReaderActor extends Actor implements ObjectStor
   private final Connection connection;
   private final JDBCObjectStoreEntryJournalQueries queries;
   private final String name;
+  private final OffsetCommitPolicy.Tracker offsetCommits;
 
   private final PreparedStatement entryQuery;
   private final PreparedStatement entriesQuery;
@@ -41,8 +43,14 @@ public class JDBCObjectStoreEntryReaderActor extends Actor implements ObjectStor
   private long offset;
 
   public JDBCObjectStoreEntryReaderActor(final DatabaseType databaseType, final Connection connection, final String name) throws SQLException {
+    this(databaseType, connection, name, OffsetCommitPolicy.Default);
+  }
+
+  public JDBCObjectStoreEntryReaderActor(final DatabaseType databaseType, final Connection connection, final String name,
+          final OffsetCommitPolicy offsetCommitPolicy) throws SQLException {
     this.queries = JDBCObjectStoreEntryJournalQueries.using(databaseType, connection);
     this.name = name;
+    this.offsetCommits = offsetCommitPolicy.defaultingTo(OffsetCommitPolicy.EveryRead).tracker();
     this.connection = connection;
     this.offset = 1L;
 
@@ -62,6 +70,10 @@ public class JDBCObjectStoreEntryReaderActor extends Actor implements ObjectStor
 
   @Override
   public void close() {
+    if (offsetCommits.hasPending()) {
+      updateCurrentOffset();
+    }
+
     try {
       if (!connection.isClosed()) {
         connection.close();
@@ -83,8 +95,10 @@ public class JDBCObjectStoreEntryReaderActor extends Actor implements ObjectStor
       entryQuery.setLong(1, offset);
       try (final ResultSet result = entryQuery.executeQuery()) {
         final Entry<String> entry = mapQueriedEntryFrom(result);
-        ++offset;
-        updateCurrentOffset();
+        if (entry != null) {
+          offset = Long.parseLong(entry.id()) + 1L;
+          offsetRead(1);
+        }
         return completes().with(entry);
       }
     } catch (Exception e) {
@@ -104,11 +118,13 @@ public class JDBCObjectStoreEntryReaderActor extends Actor implements ObjectStor
     try {
       entriesQuery.clearParameters();
       entriesQuery.setLong(1, offset);
-      entriesQuery.setLong(2, offset + maximumEntries - 1L);
+      entriesQuery.setInt(2, maximumEntries);
       try (final ResultSet result = entriesQuery.executeQuery()) {
         final List<Entry<String>> entries = mapQueriedEntriesFrom(result);
-        offset += entries.size();
-        updateCurrentOffset();
+        if (!entries.isEmpty()) {
+          offset = Long.parseLong(entries.get(entries.size() - 1).id()) + 1L;
+        }
+        offsetRead(entries.size());
         return completes().with(entries);
       }
     } catch (Exception e) {
@@ -214,6 +230,12 @@ public class JDBCObjectStoreEntryReaderActor extends Actor implements ObjectStor
     return offset;
   }
 
+  private void offsetRead(final int count) {
+    if (offsetCommits.read(count)) {
+      updateCurrentOffset();
+    }
+  }
+
   private void updateCurrentOffset() {
     try {
       upsertCurrentEntryOffset.clearParameters();
@@ -221,6 +243,7 @@ public class JDBCObjectStoreEntryReaderActor extends Actor implements ObjectStor
       upsertCurrentEntryOffset.setLong(2, offset);
       upsertCurrentEntryOffset.setLong(3, offset);
       upsertCurrentEntryOffset.executeUpdate();
+      offsetCommits.committed();
     } catch (SQLException e) {
       logger().info("vlingo/symbio-jdbc: " + getClass().getSimpleName() + " Could not upsert current offset because: " + e.getMessage(), e);
     }
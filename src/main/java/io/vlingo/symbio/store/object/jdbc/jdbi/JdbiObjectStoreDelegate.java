@@ -24,6 +24,7 @@ import org.jdbi.v3.core.result.ResultBearing;
 import org.jdbi.v3.core.statement.Update;
 
 import io.vlingo.actors.Logger;
+import io.vlingo.common.Tuple2;
 import io.vlingo.symbio.BaseEntry;
 import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
@@ -31,6 +32,8 @@ import io.vlingo.symbio.State;
 import io.vlingo.symbio.StateAdapterProvider;
 import io.vlingo.symbio.store.StorageException;
 import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables;
+import io.vlingo.symbio.store.common.jdbc.PagedCollection;
 import io.vlingo.symbio.store.dispatch.Dispatchable;
 import io.vlingo.symbio.store.object.ObjectStoreReader;
 import io.vlingo.symbio.store.object.ObjectStoreReader.QueryMode;
@@ -49,6 +52,7 @@ import io.vlingo.symbio.store.object.jdbc.jdbi.UnitOfWork.AlwaysModifiedUnitOfWo
 public class JdbiObjectStoreDelegate extends JDBCObjectStoreDelegate {
   private static final String BindListKey = "listArgValues";
   private static final UnitOfWork AlwaysModified = new AlwaysModifiedUnitOfWork();
+  private static final GenericType<Dispatchable<Entry<?>, State<?>>> DispatchableType = new GenericType<Dispatchable<Entry<?>, State<?>>>() {};
 
   private final StateAdapterProvider stateAdapterProvider;
   private final Handle handle;
@@ -63,7 +67,7 @@ public class JdbiObjectStoreDelegate extends JDBCObjectStoreDelegate {
    *
    * @param configuration                      the Configuration used to configure my concrete subclasses
    * @param stateAdapterProvider               {@code StateAdapterProvider} used get raw {@code State<?>} from {@code PersistentObject}
-   * @param unconfirmedDispatchablesExpression the query expression to use for getting unconfirmed dispatchables
+   * @param unconfirmedDispatchablesExpression the query expression to use for getting a page of unconfirmed dispatchables after {@code :afterId}, limited to {@code :limit}
    * @param mappers                            collection of {@code PersistentObjectMapper} to be registered
    * @param logger                             the instance of {@link Logger} to be used
    */
@@ -250,9 +254,34 @@ public class JdbiObjectStoreDelegate extends JDBCObjectStoreDelegate {
 
   @Override
   public Collection<Dispatchable<Entry<?>, State<?>>> allUnconfirmedDispatchableStates() {
-    return handle.createQuery(unconfirmedDispatchablesExpression.query)
-            .mapTo(new GenericType<Dispatchable<Entry<?>, State<?>>>() {})
-            .list();
+    return new PagedCollection<>(Dispatchables.DISPATCHABLES_LIMIT, () -> new PagedCollection.Pager<Dispatchable<Entry<?>, State<?>>>() {
+      private long afterId = 0;
+
+      @Override
+      public List<Dispatchable<Entry<?>, State<?>>> nextPage(final int limit) {
+        final List<Tuple2<Long, Dispatchable<Entry<?>, State<?>>>> rows =
+                handle.createQuery(unconfirmedDispatchablesExpression.query)
+                        .bind("afterId", afterId)
+                        .bind("limit", limit)
+                        .setFetchSize(limit)
+                        .map((resultSet, context) -> Tuple2.from(
+                                resultSet.getLong("D_ID"),
+                                context.findRowMapperFor(DispatchableType)
+                                        .orElseThrow(() -> new IllegalStateException("No mapper registered for Dispatchable."))
+                                        .map(resultSet, context)))
+                        .list();
+
+        // the keyset advances only once the whole page has been mapped
+        final List<Dispatchable<Entry<?>, State<?>>> dispatchables = new ArrayList<>(rows.size());
+        for (final Tuple2<Long, Dispatchable<Entry<?>, State<?>>> row : rows) {
+          dispatchables.add(row._2);
+        }
+        if (!rows.isEmpty()) {
+          afterId = rows.get(rows.size() - 1)._1;
+        }
+        return dispatchables;
+      }
+    });
   }
 
   @Override
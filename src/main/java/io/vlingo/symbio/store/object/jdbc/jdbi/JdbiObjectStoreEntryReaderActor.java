@@ -16,6 +16,7 @@ import org.jdbi.v3.core.mapper.RowMapper;
 import io.vlingo.actors.Actor;
 import io.vlingo.common.Completes;
 import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.store.common.jdbc.OffsetCommitPolicy;
 import io.vlingo.symbio.store.object.ObjectStoreEntryReader;
 import io.vlingo.symbio.store.object.QueryExpression;
 import io.vlingo.symbio.store.object.StateObjectMapper;
@@ -27,6 +28,7 @@ public class JdbiObjectStoreEntryReaderActor extends Actor implements ObjectStor
   private final JdbiPersistMapper currentEntryOffsetMapper;
   private final JdbiOnDatabase jdbi;
   private final String name;
+  private final OffsetCommitPolicy.Tracker offsetCommits;
   private final QueryExpression queryLastEntryId;
   private final QueryExpression querySize;
 
@@ -35,6 +37,7 @@ public class JdbiObjectStoreEntryReaderActor extends Actor implements ObjectStor
   public JdbiObjectStoreEntryReaderActor(final JdbiOnDatabase jdbi, final Collection<StateObjectMapper> mappers, final String name) {
     this.jdbi = jdbi;
     this.name = name;
+    this.offsetCommits = jdbi.configuration().offsetCommitPolicy.defaultingTo(OffsetCommitPolicy.EveryRead).tracker();
     this.offset = 1L;
     this.queryLastEntryId = jdbi.queryLastEntryId();
     this.currentEntryOffsetMapper = jdbi.currentEntryOffsetMapper(new String[] {":name", ":offset"});
@@ -47,6 +50,10 @@ public class JdbiObjectStoreEntryReaderActor extends Actor implements ObjectStor
 
   @Override
   public void close() {
+    if (offsetCommits.hasPending()) {
+      updateCurrentOffset();
+    }
+
     try {
       if (!jdbi.configuration().connection.isClosed()) {
         jdbi.configuration().connection.close();
@@ -67,8 +74,8 @@ public class JdbiObjectStoreEntryReaderActor extends Actor implements ObjectStor
     try {
       final QueryExpression expression = jdbi.queryEntry(offset);
       final Entry entry = jdbi.handle().createQuery(expression.query).mapTo(Entry.class).one();
-      ++offset;
-      updateCurrentOffset();
+      offset = Long.parseLong(entry.id()) + 1L;
+      offsetRead(1);
       return completes().with(entry);
     } catch (Exception e) {
       logger().info("vlingo/symbio-jdbc: " + getClass().getSimpleName() + " Could not read next entry because: " + e.getMessage(), e);
@@ -88,8 +95,10 @@ public class JdbiObjectStoreEntryReaderActor extends Actor implements ObjectStor
     try {
       final QueryExpression expression = jdbi.queryEntries(offset, maximumEntries);
       final List<Entry<String>> entries = (List) jdbi.handle().createQuery(expression.query).mapTo(expression.type).list();
-      offset += entries.size();
-      updateCurrentOffset();
+      if (!entries.isEmpty()) {
+        offset = Long.parseLong(entries.get(entries.size() - 1).id()) + 1L;
+      }
+      offsetRead(entries.size());
       return completes().with(entries);
     } catch (Exception e) {
       logger().info("vlingo/symbio-jdbc: " + getClass().getSimpleName() + " Could not read next entry because: " + e.getMessage(), e);
@@ -154,7 +163,14 @@ public class JdbiObjectStoreEntryReaderActor extends Actor implements ObjectStor
     }
   }
 
+  private void offsetRead(final int count) {
+    if (offsetCommits.read(count)) {
+      updateCurrentOffset();
+    }
+  }
+
   private void updateCurrentOffset() {
     jdbi.handle().createUpdate(currentEntryOffsetMapper.insertStatement).bind("name", name).bind("offset", offset).execute();
+    offsetCommits.committed();
   }
 }
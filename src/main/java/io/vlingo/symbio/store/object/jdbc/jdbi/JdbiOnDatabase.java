@@ -258,7 +258,7 @@ public abstract class JdbiOnDatabase {
     private QueryExpression unconfirmedDispatchablesQueryExpression(){
         return new QueryExpression(
                 Dispatchable.class,
-                queries.unconfirmedDispatchablesQuery(configuration.originatorId)
+                queries.unconfirmedDispatchablesPageQuery(configuration.originatorId, ":afterId", ":limit")
         );
     }
 }
@@ -23,6 +23,7 @@ import io.vlingo.symbio.BaseEntry.TextEntry;
 import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.State;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
 import io.vlingo.symbio.store.dispatch.Dispatchable;
 
 /**
@@ -35,7 +36,7 @@ public class TextDispatchablesMapper implements RowMapper<Dispatchable<Entry<?>,
     final LocalDateTime createdAt = rs.getTimestamp("D_CREATED_AT").toLocalDateTime();
     final Class<?> stateType;
     try {
-      stateType = Class.forName(rs.getString("D_STATE_TYPE"));
+      stateType = TypeResolver.classFor(rs.getString("D_STATE_TYPE"));
     } catch (final ClassNotFoundException e) {
       throw new IllegalStateException(e);
     }
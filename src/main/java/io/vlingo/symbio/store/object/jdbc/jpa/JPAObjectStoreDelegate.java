@@ -11,7 +11,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -28,6 +27,8 @@ import io.vlingo.symbio.State;
 import io.vlingo.symbio.StateAdapterProvider;
 import io.vlingo.symbio.store.Result;
 import io.vlingo.symbio.store.StorageException;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables;
+import io.vlingo.symbio.store.common.jdbc.PagedCollection;
 import io.vlingo.symbio.store.dispatch.Dispatchable;
 import io.vlingo.symbio.store.object.MapQueryExpression;
 import io.vlingo.symbio.store.object.ObjectStoreDelegate;
@@ -212,14 +213,33 @@ public class JPAObjectStoreDelegate implements ObjectStoreDelegate<Entry<String>
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The dispatchables are answered in the order of their sequence ids, by which
+     * they are paged, rather than in the order of their {@code createdOn} times.
      */
     @Override
     public Collection<Dispatchable<Entry<String>, State<?>>> allUnconfirmedDispatchableStates() {
-        return em.createNamedQuery("Dispatchables.getUnconfirmed", JPADispatchable.class)
-                .setParameter("orignatorId", originatorId)
-                .getResultStream()
-                .map(JPADispatchable::toDispatchable)
-                .collect(Collectors.toList());
+        return new PagedCollection<>(Dispatchables.DISPATCHABLES_LIMIT, () -> new PagedCollection.Pager<Dispatchable<Entry<String>, State<?>>>() {
+            private long afterId = 0;
+
+            @Override
+            public List<Dispatchable<Entry<String>, State<?>>> nextPage(final int limit) {
+                final List<JPADispatchable> page = em.createNamedQuery("Dispatchables.getUnconfirmed", JPADispatchable.class)
+                        .setParameter("orignatorId", originatorId)
+                        .setParameter("afterId", afterId)
+                        .setMaxResults(limit)
+                        .getResultList();
+
+                final List<Dispatchable<Entry<String>, State<?>>> dispatchables = new ArrayList<>(page.size());
+                for (final JPADispatchable dispatchable : page) {
+                    afterId = dispatchable.getId();
+                    dispatchables.add(JPADispatchable.toDispatchable(dispatchable));
+                    // the page is held by this list, so the persistence context need not hold it too
+                    em.detach(dispatchable);
+                }
+                return dispatchables;
+            }
+        });
     }
 
     /**
@@ -30,6 +30,7 @@ import io.vlingo.symbio.BaseEntry;
 import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.State;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
 import io.vlingo.symbio.store.dispatch.Dispatchable;
 import io.vlingo.symbio.store.object.jdbc.jpa.model.converters.LocalDateTimeConverter;
 
@@ -45,10 +46,13 @@ import io.vlingo.symbio.store.object.jdbc.jpa.model.converters.LocalDateTimeConv
                 query  = "DELETE FROM tbl_vlingo_objectstore_dispatchables WHERE dispatch_id = ?"
         ),
 })
+// Unconfirmed dispatchables are paged by their sequence id, which follows the order in
+// which they were persisted, rather than by createdOn as before paging; the two differ
+// only for dispatchables whose createdOn times are not in the order of their persists.
 @NamedQueries({
         @NamedQuery(
                 name = "Dispatchables.getUnconfirmed",
-                query  = "SELECT d FROM Dispatchables AS d where d.originatorId = :orignatorId ORDER BY d.createdOn ASC"
+                query  = "SELECT d FROM Dispatchables AS d where d.originatorId = :orignatorId AND d.id > :afterId ORDER BY d.id ASC"
         )
 })
 public class JPADispatchable {
@@ -188,7 +192,7 @@ public class JPADispatchable {
     if (jpaDispatchable.stateId != null && jpaDispatchable.stateData !=null ){
       final Class<?> stateType;
       try {
-        stateType = Class.forName(jpaDispatchable.stateType);
+        stateType = TypeResolver.classFor(jpaDispatchable.stateType);
       } catch (final ClassNotFoundException e) {
         throw new IllegalStateException(e);
       }
@@ -22,6 +22,8 @@ import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.store.EntryReader;
 import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.OffsetCommitPolicy;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
 import io.vlingo.symbio.store.state.StateStoreEntryReader;
 
 public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor implements StateStoreEntryReader<T> {
@@ -29,6 +31,7 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
   private final Configuration configuration;
   private long currentId;
   private final String name;
+  private final OffsetCommitPolicy.Tracker offsetCommits;
   private final PreparedStatement queryBatch;
   private final PreparedStatement queryCount;
   private final PreparedStatement queryLatestOffset;
@@ -39,6 +42,7 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
     this.advice = advice;
     this.name = name;
     this.configuration = advice.specificConfiguration();
+    this.offsetCommits = configuration.offsetCommitPolicy.defaultingTo(OffsetCommitPolicy.Explicit).tracker();
     this.currentId = 0;
 
     this.queryBatch = configuration.connection.prepareStatement(this.advice.queryEntryBatchExpression);
@@ -50,6 +54,10 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
 
   @Override
   public void close() {
+    if (offsetCommits.hasPending()) {
+      updateCurrentOffset();
+    }
+
     try {
       queryBatch.close();
       queryOne.close();
@@ -67,7 +75,11 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
   @Override
   @SuppressWarnings("unchecked")
   public Completes<T> readNext() {
-    return completes().with((T) queryNext());
+    final Entry<?> entry = queryNext();
+    if (entry != null) {
+      offsetRead(1);
+    }
+    return completes().with((T) entry);
   }
 
   @Override
@@ -79,7 +91,9 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
   @Override
   @SuppressWarnings("unchecked")
   public Completes<List<T>> readNext(final int maximumEntries) {
-    return completes().with((List<T>) queryNext(maximumEntries));
+    final List<Entry<?>> entries = queryNext(maximumEntries);
+    offsetRead(entries.size());
+    return completes().with((List<T>) entries);
   }
 
   @Override
@@ -91,6 +105,7 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
   @Override
   public void rewind() {
     currentId = 0;
+    updateCurrentOffset();
   }
 
   @Override
@@ -125,6 +140,8 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
       } catch (Exception e) {
         logger().error("vlingo/symbio-postgres: " + e.getMessage(), e);
         logger().error("vlingo/symbio-postgres: Rewinding the offset");
+      } finally {
+        endRead();
       }
 
       return completes().with(-1L);
@@ -144,6 +161,8 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
       }
     } catch (Exception e) {
       logger().error("Unable to read next entry for " + name + " because: " + e.getMessage(), e);
+    } finally {
+      endRead();
     }
     return null;
   }
@@ -166,6 +185,8 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
     } catch (Exception e) {
       logger().error("Unable to read next " + maximumEntries + " entries for " + name + " because: " + e.getMessage(),
               e);
+    } finally {
+      endRead();
     }
     return new ArrayList<>(0);
   }
@@ -197,7 +218,7 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
   }
 
   private Class<?> typed(final String typeName) throws Exception {
-    return Class.forName(typeName);
+    return TypeResolver.classFor(typeName);
   }
 
   private long retrieveLatestOffset() {
@@ -211,11 +232,28 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
           }
       } catch (Exception e) {
           logger().error("vlingo/symbio-postgres: Could not retrieve latest offset, using current.");
+      } finally {
+          endRead();
       }
 
       return 0;
   }
 
+  // ends the transaction of a read, so that a pooled connection is not held between reads
+  private void endRead() {
+    try {
+      configuration.connection.commit();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private void offsetRead(final int count) {
+    if (offsetCommits.read(count)) {
+      updateCurrentOffset();
+    }
+  }
+
   private void updateCurrentOffset() {
       try {
           updateCurrentOffset.clearParameters();
@@ -225,6 +263,7 @@ public class DbStateStoreEntryReaderActor<T extends Entry<?>> extends Actor impl
 
           updateCurrentOffset.executeUpdate();
           configuration.connection.commit();
+          offsetCommits.committed();
       } catch (Exception e) {
           logger().error("vlingo/symbio-postgres: Could not persist the offset. Will retry on next read.");
           logger().error("vlingo/symbio-postgres: " + e.getMessage(), e);
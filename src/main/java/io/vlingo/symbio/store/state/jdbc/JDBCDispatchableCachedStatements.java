@@ -9,16 +9,18 @@ package io.vlingo.symbio.store.state.jdbc;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 import io.vlingo.actors.Logger;
 import io.vlingo.symbio.store.DataFormat;
 import io.vlingo.symbio.store.common.jdbc.CachedStatement;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables;
 
 public abstract class JDBCDispatchableCachedStatements<T> {
   private final CachedStatement<T> appendDispatchable;
   private final CachedStatement<T> queryEntry;
+  private final CachedStatement<T> queryEntries;
   private final CachedStatement<T> appendEntry;
-  private final CachedStatement<T> appendEntryIdentity;
   private final CachedStatement<T> deleteDispatchable;
   private final CachedStatement<T> queryAllDispatchables;
 
@@ -29,8 +31,8 @@ public abstract class JDBCDispatchableCachedStatements<T> {
           final T appendDataObject,
           final Logger logger) {
     this.queryEntry = createStatement(queryEntryExpression(), appendDataObject, connection, logger);
+    this.queryEntries = createStatement(queryEntriesExpression(Dispatchables.ENTRIES_LIMIT), appendDataObject, connection, logger);
     this.appendEntry = createStatement(appendEntryExpression(), appendDataObject, connection, logger);
-    this.appendEntryIdentity = createStatement(appendEntryIdentityExpression(), null, connection, logger);
     this.appendDispatchable = createStatement(appendDispatchableExpression(), appendDataObject, connection, logger);
     this.deleteDispatchable = createStatement(deleteDispatchableExpression(), null, connection, logger);
     this.queryAllDispatchables = prepareQuery(createStatement(selectDispatchableExpression(), null, connection, logger), originatorId, logger);
@@ -44,10 +46,6 @@ public abstract class JDBCDispatchableCachedStatements<T> {
     return appendEntry;
   }
 
-  public final CachedStatement<T> appendEntryIdentityStatement() {
-    return appendEntryIdentity;
-  }
-
   public final CachedStatement<T> deleteStatement() {
     return deleteDispatchable;
   }
@@ -55,16 +53,32 @@ public abstract class JDBCDispatchableCachedStatements<T> {
   public final CachedStatement<T> queryAllStatement() {
     return queryAllDispatchables;
   }
+
+  /**
+   * Answer the {@code queryAllStatement()} prepared to query the next page of dispatchables.
+   * @param afterId the long id of the last dispatchable of the previous page, or 0 for the first page
+   * @return {@code CachedStatement<T>}
+   * @throws SQLException if the parameters cannot be set
+   */
+  public final CachedStatement<T> queryAllStatement(final long afterId) throws SQLException {
+    queryAllDispatchables.preparedStatement.setLong(2, afterId);
+    queryAllDispatchables.preparedStatement.setInt(3, Dispatchables.DISPATCHABLES_LIMIT);
+    return queryAllDispatchables;
+  }
   
   public CachedStatement<T> getQueryEntry() {
     return queryEntry;
   }
 
+  public CachedStatement<T> queryEntriesStatement() {
+    return queryEntries;
+  }
+
   protected abstract String appendEntryExpression();
   protected abstract String queryEntryExpression();
+  protected abstract String queryEntriesExpression(final int count);
 
   protected abstract String appendDispatchableExpression();
-  protected abstract String appendEntryIdentityExpression();
   protected abstract String deleteDispatchableExpression();
   protected abstract String selectDispatchableExpression();
 
@@ -90,6 +104,7 @@ public abstract class JDBCDispatchableCachedStatements<T> {
   private CachedStatement<T> prepareQuery(final CachedStatement<T> cached, String originatorId, final Logger logger) {
     try {
       cached.preparedStatement.setString(1, originatorId);
+      cached.preparedStatement.setFetchSize(Dispatchables.DISPATCHABLES_LIMIT);
       return cached;
     } catch (Exception e) {
       final String message =
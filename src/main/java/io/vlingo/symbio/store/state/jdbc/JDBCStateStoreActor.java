@@ -9,11 +9,13 @@ package io.vlingo.symbio.store.state.jdbc;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import io.vlingo.actors.Actor;
 import io.vlingo.actors.Definition;
@@ -31,6 +33,8 @@ import io.vlingo.symbio.StateAdapterProvider;
 import io.vlingo.symbio.store.EntryReader;
 import io.vlingo.symbio.store.Result;
 import io.vlingo.symbio.store.StorageException;
+import io.vlingo.symbio.store.common.jdbc.IOCompletion;
+import io.vlingo.symbio.store.common.jdbc.IOExecutor.Lane;
 import io.vlingo.symbio.store.dispatch.Dispatchable;
 import io.vlingo.symbio.store.dispatch.Dispatcher;
 import io.vlingo.symbio.store.dispatch.DispatcherControl;
@@ -39,13 +43,14 @@ import io.vlingo.symbio.store.state.StateStore;
 import io.vlingo.symbio.store.state.StateStoreEntryReader;
 import io.vlingo.symbio.store.state.StateTypeStateStoreMap;
 
-public class JDBCStateStoreActor extends Actor implements StateStore {
+public class JDBCStateStoreActor extends Actor implements StateStore, IOCompletion {
   private final JDBCStorageDelegate<TextState> delegate;
   private final Dispatcher<Dispatchable<Entry<?>, State<String>>> dispatcher;
   private final DispatcherControl dispatcherControl;
   private final Map<String,StateStoreEntryReader<?>> entryReaders;
   private final EntryAdapterProvider entryAdapterProvider;
   private final StateAdapterProvider stateAdapterProvider;
+  private final Lane lane;
 
   public JDBCStateStoreActor(final JDBCStorageDelegate<TextState> delegate) {
     this(null, delegate, 0L, 0L);
@@ -63,6 +68,9 @@ public class JDBCStateStoreActor extends Actor implements StateStore {
 
     this.entryAdapterProvider = EntryAdapterProvider.instance(stage().world());
     this.stateAdapterProvider = StateAdapterProvider.instance(stage().world());
+    this.lane = delegate.ioExecutor().lane(cause ->
+            logger().error(getClass().getSimpleName() + " error because: " + cause.getMessage(), cause),
+            selfAs(IOCompletion.class));
 
     if (dispatcher!=null){
       this.dispatcher = dispatcher;
@@ -78,8 +86,15 @@ public class JDBCStateStoreActor extends Actor implements StateStore {
     }
   }
 
+  /**
+   * Stops me once my reads and writes under way are done and their outcomes told, and then
+   * closes my entry readers, my delegate, my {@code DispatcherControl}, and the {@code IOExecutor}
+   * and {@code AdaptationPolicy} of my delegate unless they are shared with it by the delegate
+   * of which it is a copy.
+   */
   @Override
   public void stop() {
+    lane.close();
     for (final StateStoreEntryReader<?> reader : entryReaders.values()) {
       reader.close();
     }
@@ -87,9 +102,16 @@ public class JDBCStateStoreActor extends Actor implements StateStore {
     if (dispatcherControl != null) {
       dispatcherControl.stop();
     }
+    delegate.closeIOExecutor();
+    delegate.closeAdaptationPolicy();
     super.stop();
   }
 
+  @Override
+  public void ioCompleted() {
+    lane.runCompleted();
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public <ET extends Entry<?>> Completes<StateStoreEntryReader<ET>> entryReader(final String name) {
@@ -104,119 +126,140 @@ public class JDBCStateStoreActor extends Actor implements StateStore {
 
   @Override
   public void read(final String id, final Class<?> type, final ReadResultInterest interest, final Object object) {
-    if (interest != null) {
-      if (id == null || type == null) {
-        interest.readResultedIn(Failure.of(new StorageException(Result.Error, id == null ? "The id is null." : "The type is null.")), id, null, -1, null, object);
-        return;
-      }
+    lane.execute(() -> {
+      if (interest != null) {
+        if (id == null || type == null) {
+          lane.completed(() -> interest.readResultedIn(Failure.of(new StorageException(Result.Error, id == null ? "The id is null." : "The type is null.")), id, null, -1, null, object));
+          return;
+        }
 
-      final String storeName = StateTypeStateStoreMap.storeNameFrom(type);
+        final String storeName = StateTypeStateStoreMap.storeNameFrom(type);
 
-      if (storeName == null) {
-        interest.readResultedIn(Failure.of(new StorageException(Result.NoTypeStore, "No type store.")), id, null, -1, null, object);
-        return;
-      }
+        if (storeName == null) {
+          lane.completed(() -> interest.readResultedIn(Failure.of(new StorageException(Result.NoTypeStore, "No type store.")), id, null, -1, null, object));
+          return;
+        }
 
-      try {
-        delegate.beginRead();
-        final PreparedStatement readStatement = delegate.readExpressionFor(storeName, id);
-        try (final ResultSet result = readStatement.executeQuery()) {
-          if (result.first()) {
-            final TextState raw = delegate.stateFrom(result, id);
-            final Object state = stateAdapterProvider.fromRaw(raw);
-            interest.readResultedIn(Success.of(Result.Success), id, state, raw.dataVersion, raw.metadata, object);
-          } else {
-            interest.readResultedIn(Failure.of(new StorageException(Result.NotFound, "Not found for: " + id)), id, null, -1, null, object);
+        try {
+          delegate.beginRead();
+          final PreparedStatement readStatement = delegate.readExpressionFor(storeName, id);
+          try (final ResultSet result = readStatement.executeQuery()) {
+            if (result.first()) {
+              final TextState raw = delegate.stateFrom(result, id);
+              final Object state = stateAdapterProvider.fromRaw(raw);
+              lane.completed(() -> interest.readResultedIn(Success.of(Result.Success), id, state, raw.dataVersion, raw.metadata, object));
+            } else {
+              lane.completed(() -> interest.readResultedIn(Failure.of(new StorageException(Result.NotFound, "Not found for: " + id)), id, null, -1, null, object));
+            }
           }
+          delegate.complete();
+        } catch (final Exception e) {
+          delegate.fail();
+          lane.completed(() -> interest.readResultedIn(Failure.of(new StorageException(Result.Failure, e.getMessage(), e)), id, null, -1, null, object));
+          logger().error(
+                  getClass().getSimpleName() +
+                  " readText() failed because: " + e.getMessage() +
+                  " for: " + (id == null ? "unknown id" : id),
+                  e);
         }
-        delegate.complete();
-      } catch (final Exception e) {
-        delegate.fail();
-        interest.readResultedIn(Failure.of(new StorageException(Result.Failure, e.getMessage(), e)), id, null, -1, null, object);
-        logger().error(
+      } else {
+        logger().warn(
                 getClass().getSimpleName() +
-                " readText() failed because: " + e.getMessage() +
-                " for: " + (id == null ? "unknown id" : id),
-                e);
+                " readText() missing ResultInterest for: " +
+                (id == null ? "unknown id" : id));
       }
-    } else {
-      logger().warn(
-              getClass().getSimpleName() +
-              " readText() missing ResultInterest for: " +
-              (id == null ? "unknown id" : id));
-    }
+    });
   }
 
   @Override
   public <S,C> void write(final String id, final S state, final int stateVersion, final List<Source<C>> sources, final Metadata metadata,
           final WriteResultInterest interest, final Object object) {
-    if (interest != null) {
-      if (state == null) {
-        interest.writeResultedIn(Failure.of(new StorageException(Result.Error, "The state is null.")), id,null, stateVersion, sources, object);
-      } else {
-        try {
-          final String storeName = StateTypeStateStoreMap.storeNameFrom(state.getClass());
+    final boolean adapting = interest != null && state != null;
+    final Supplier<TextState> adaptingRaw = adapting ? adaptingRaw(id, state, stateVersion, metadata) : null;
+    final Supplier<List<Entry<?>>> adaptingEntries = adapting ? adaptingEntries(sources, stateVersion, metadata) : null;
+    lane.execute(() -> {
+      if (interest != null) {
+        if (state == null) {
+          lane.completed(() -> interest.writeResultedIn(Failure.of(new StorageException(Result.Error, "The state is null.")), id,null, stateVersion, sources, object));
+        } else {
+          try {
+            final String storeName = StateTypeStateStoreMap.storeNameFrom(state.getClass());
 
-          if (storeName == null) {
-            interest.writeResultedIn(Failure.of(new StorageException(Result.NoTypeStore, "No type store.")), id, state, stateVersion, sources, object);
-            return;
-          }
-
-          final TextState raw = metadata == null ?
-                  stateAdapterProvider.asRaw(id, state, stateVersion) :
-                  stateAdapterProvider.asRaw(id, state, stateVersion, metadata);
+            if (storeName == null) {
+              lane.completed(() -> interest.writeResultedIn(Failure.of(new StorageException(Result.NoTypeStore, "No type store.")), id, state, stateVersion, sources, object));
+              return;
+            }
 
-          delegate.beginWrite();
-          final PreparedStatement writeStatement = delegate.writeExpressionFor(storeName, raw);
-          writeStatement.execute();
-          final String dispatchId = storeName + ":" + id;
-          final List<Entry<?>> entries = appendEntries(sources, stateVersion, metadata);
+            final TextState raw = adaptingRaw.get();
 
-          final Dispatchable<Entry<?>, State<String>> dispatchable = buildDispatchable(dispatchId, raw, entries);
-          final PreparedStatement dispatchableStatement = delegate.dispatchableWriteExpressionFor(dispatchable);
-          dispatchableStatement.execute();
+            delegate.beginWrite();
+            final PreparedStatement writeStatement = delegate.writeExpressionFor(storeName, raw);
+            writeStatement.execute();
+            final String dispatchId = storeName + ":" + id;
+            final List<Entry<?>> entries = appendEntries(adaptingEntries);
 
-          delegate.complete();
+            final Dispatchable<Entry<?>, State<String>> dispatchable = buildDispatchable(dispatchId, raw, entries);
+            final PreparedStatement dispatchableStatement = delegate.dispatchableWriteExpressionFor(dispatchable);
+            dispatchableStatement.execute();
 
-          dispatch(dispatchable);
+            delegate.complete();
 
-          interest.writeResultedIn(Success.of(Result.Success), id, state, stateVersion, sources, object);
-        } catch (final Exception e) {
-          logger().error(getClass().getSimpleName() + " writeText() error because: " + e.getMessage(), e);
-          delegate.fail();
-          interest.writeResultedIn(Failure.of(new StorageException(Result.Error, e.getMessage(), e)), id, state, stateVersion, sources, object);
+            lane.completed(() -> {
+              dispatch(dispatchable);
+              interest.writeResultedIn(Success.of(Result.Success), id, state, stateVersion, sources, object);
+            });
+          } catch (final Exception e) {
+            logger().error(getClass().getSimpleName() + " writeText() error because: " + e.getMessage(), e);
+            delegate.fail();
+            lane.completed(() -> interest.writeResultedIn(Failure.of(new StorageException(Result.Error, e.getMessage(), e)), id, state, stateVersion, sources, object));
+          }
         }
+      } else {
+        logger().warn(
+                getClass().getSimpleName() +
+                " writeText() missing ResultInterest for: " +
+                (state == null ? "unknown id" : id));
       }
-    } else {
-      logger().warn(
-              getClass().getSimpleName() +
-              " writeText() missing ResultInterest for: " +
-              (state == null ? "unknown id" : id));
-    }
+    });
+  }
+
+  // the raw state of state, which is adapted when got unless the adaptation policy is parallel
+  private <S> Supplier<TextState> adaptingRaw(final String id, final S state, final int stateVersion, final Metadata metadata) {
+    return delegate.adaptationPolicy().adapt(() -> metadata == null ?
+            stateAdapterProvider.asRaw(id, state, stateVersion) :
+            stateAdapterProvider.asRaw(id, state, stateVersion, metadata));
+  }
+
+  // the entries of sources, which are adapted when got unless the adaptation policy is parallel
+  private <C> Supplier<List<Entry<?>>> adaptingEntries(final List<Source<C>> sources, final int stateVersion, final Metadata metadata) {
+    if (sources.isEmpty()) return Collections::emptyList;
+    return delegate.adaptationPolicy().adapt(() -> entryAdapterProvider.asEntries(sources, stateVersion, metadata));
   }
 
+  // appends the entries in a single batch, each with an id assigned from the entry id blocks of my delegate
   @SuppressWarnings("rawtypes")
-  private <C> List<Entry<?>> appendEntries(final List<Source<C>> sources, final int stateVersion, final Metadata metadata) {
-    if (sources.isEmpty()) return Collections.emptyList();
+  private List<Entry<?>> appendEntries(final Supplier<List<Entry<?>>> adaptingEntries) {
     try {
-      final List<Entry<?>> adapted = entryAdapterProvider.asEntries(sources, stateVersion, metadata);
-      for (final Entry<?> entry : adapted) {
-        long id = -1L;
-        final PreparedStatement appendStatement = delegate.appendExpressionFor(entry);
-        final int count = appendStatement.executeUpdate();
-        if (count == 1) {
-          final PreparedStatement queryLastIdentityStatement = delegate.appendIdentityExpression();
-          try (final ResultSet result = queryLastIdentityStatement.executeQuery()) {
-            if (result.next()) {
-              id = result.getLong(1);
-              ((BaseEntry) entry).__internal__setId(Long.toString(id));
-            }
+      final List<Entry<?>> adapted = adaptingEntries.get();
+      if (adapted.isEmpty()) {
+        return adapted;
+      }
+      PreparedStatement appendStatement = null;
+      try {
+        for (final Entry<?> entry : adapted) {
+          final long id = delegate.nextEntryId();
+          appendStatement = delegate.appendExpressionFor(entry, id);
+          appendStatement.addBatch();
+          ((BaseEntry) entry).__internal__setId(Long.toString(id));
+        }
+        for (final int count : appendStatement.executeBatch()) {
+          if (count != 1 && count != Statement.SUCCESS_NO_INFO) {
+            throw new IllegalStateException("Could not append entry, with update count: " + count);
           }
         }
-        if (id == -1L) {
-          final String message = "Could not retrieve entry id.";
-          logger().error(message);
-          throw new IllegalStateException(message);
+      } finally {
+        if (appendStatement != null) {
+          appendStatement.clearBatch();
         }
       }
       return adapted;
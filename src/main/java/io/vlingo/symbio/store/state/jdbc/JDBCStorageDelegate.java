@@ -16,6 +16,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,7 +35,17 @@ import io.vlingo.symbio.State;
 import io.vlingo.symbio.State.BinaryState;
 import io.vlingo.symbio.State.TextState;
 import io.vlingo.symbio.store.DataFormat;
+import io.vlingo.symbio.store.common.jdbc.AdaptationPolicy;
 import io.vlingo.symbio.store.common.jdbc.CachedStatement;
+import io.vlingo.symbio.store.common.jdbc.ConnectionProvider;
+import io.vlingo.symbio.store.common.jdbc.DispatchConfirmationPolicy;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables.Unconfirmed;
+import io.vlingo.symbio.store.common.jdbc.IOExecutor;
+import io.vlingo.symbio.store.common.jdbc.IdentityBlockAllocator;
+import io.vlingo.symbio.store.common.jdbc.PagedCollection;
+import io.vlingo.symbio.store.common.jdbc.ReadReplicas;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
 import io.vlingo.symbio.store.dispatch.Dispatchable;
 import io.vlingo.symbio.store.dispatch.DispatcherControl;
 import io.vlingo.symbio.store.state.StateStore.StorageDelegate;
@@ -42,7 +53,14 @@ import io.vlingo.symbio.store.state.StateTypeStateStoreMap;
 
 public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
         DispatcherControl.DispatcherControlDelegate<Entry<?>, State<?>> {
+  /**
+   * The number of entry ids reserved by each block when none is configured.
+   */
+  public static final int DEFAULT_ENTRY_ID_BLOCK_SIZE = 100;
+
   private static final String DISPATCHEABLE_ENTRIES_DELIMITER = "|";
+  private final DispatchConfirmationPolicy.Accumulator confirmations;
+  private final boolean referenceDispatchableStates;
   protected final Connection connection;
   protected final JDBCDispatchableCachedStatements<T> dispatchableCachedStatements;
   protected final DataFormat format;
@@ -51,14 +69,86 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
   protected final String originatorId;
   protected final Map<String, CachedStatement<T>> readStatements;
   protected final Map<String, CachedStatement<T>> writeStatements;
+  protected final ReadReplicas readReplicas;
+  protected final IOExecutor ioExecutor;
+  protected final AdaptationPolicy adaptationPolicy;
+  private final Map<String, PreparedStatement> replicaReadStatements;
+  // the statements that read the referenced states of a page of dispatchables from each store
+  private final Map<String, PreparedStatement> referencedReadStatements;
+  // the keys of the states written by the current transaction, told to the read replicas once committed
+  private final List<String> writtenKeys;
+  // states are read from a replica over a connection held from its first read, which borrows per read if pooled
+  private ReadReplicas.Replica replica;
+  private Connection replicaConnection;
+  private boolean readingReplica;
+  // the ids of appended entries are assigned from blocks, which are created on the first append
+  private ConnectionProvider entryIdConnectionProvider;
+  private int entryIdBlockSize;
+  private Connection entryIdConnection;
+  private IdentityBlockAllocator entryIds;
+
+  protected JDBCStorageDelegate(
+          final Connection connection,
+          final DataFormat format,
+          final String originatorId,
+          final boolean createTables,
+          final Logger logger) {
+    this(connection, format, originatorId, createTables, DispatchConfirmationPolicy.EachDispatch, false, logger);
+  }
+
+  protected JDBCStorageDelegate(
+          final Connection connection,
+          final DataFormat format,
+          final String originatorId,
+          final boolean createTables,
+          final DispatchConfirmationPolicy dispatchConfirmationPolicy,
+          final boolean referenceDispatchableStates,
+          final Logger logger) {
+    this(connection, format, originatorId, createTables, dispatchConfirmationPolicy, referenceDispatchableStates,
+            ReadReplicas.None, logger);
+  }
+
+  protected JDBCStorageDelegate(
+          final Connection connection,
+          final DataFormat format,
+          final String originatorId,
+          final boolean createTables,
+          final DispatchConfirmationPolicy dispatchConfirmationPolicy,
+          final boolean referenceDispatchableStates,
+          final ReadReplicas readReplicas,
+          final Logger logger) {
+    this(connection, format, originatorId, createTables, dispatchConfirmationPolicy, referenceDispatchableStates,
+            readReplicas, IOExecutor.None, logger);
+  }
+
+  protected JDBCStorageDelegate(
+          final Connection connection,
+          final DataFormat format,
+          final String originatorId,
+          final boolean createTables,
+          final DispatchConfirmationPolicy dispatchConfirmationPolicy,
+          final boolean referenceDispatchableStates,
+          final ReadReplicas readReplicas,
+          final IOExecutor ioExecutor,
+          final Logger logger) {
+    this(connection, format, originatorId, createTables, dispatchConfirmationPolicy, referenceDispatchableStates,
+            readReplicas, ioExecutor, AdaptationPolicy.None, logger);
+  }
 
   protected JDBCStorageDelegate(
           final Connection connection,
           final DataFormat format,
           final String originatorId,
           final boolean createTables,
+          final DispatchConfirmationPolicy dispatchConfirmationPolicy,
+          final boolean referenceDispatchableStates,
+          final ReadReplicas readReplicas,
+          final IOExecutor ioExecutor,
+          final AdaptationPolicy adaptationPolicy,
           final Logger logger) {
 
+    this.confirmations = dispatchConfirmationPolicy.accumulator();
+    this.referenceDispatchableStates = referenceDispatchableStates;
     this.connection = connection;
     this.format = format;
     this.originatorId = originatorId;
@@ -68,33 +158,80 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     this.dispatchableCachedStatements = dispatchableCachedStatements();
     this.readStatements = new HashMap<>();
     this.writeStatements = new HashMap<>();
+    this.readReplicas = readReplicas;
+    this.ioExecutor = ioExecutor;
+    this.adaptationPolicy = adaptationPolicy;
+    this.replicaReadStatements = new HashMap<>();
+    this.referencedReadStatements = new HashMap<>();
+    this.writtenKeys = new ArrayList<>();
   }
 
+  /**
+   * Answer the statement that appends the {@code entry} with the {@code id}, which is
+   * the same statement for all entries, so that they may be appended as a batch.
+   * @param entry the {@code Entry<E>} to append
+   * @param id the long id of the entry, as answered by {@code nextEntryId()}
+   * @param <A> the type of the statement
+   * @param <E> the type of the entry data
+   * @return A
+   * @throws Exception if the statement cannot be prepared
+   */
   @SuppressWarnings("unchecked")
-  public <A, E> A appendExpressionFor(final Entry<E> entry) throws Exception {
+  public <A, E> A appendExpressionFor(final Entry<E> entry, final long id) throws Exception {
     final CachedStatement<T> cachedStatement = dispatchableCachedStatements.appendEntryStatement();
-    prepareForAppend(cachedStatement, entry);
+    prepareForAppend(cachedStatement, entry, id);
     return (A) cachedStatement.preparedStatement;
   }
 
-  @SuppressWarnings("unchecked")
-  public <A> A appendIdentityExpression() {
-    final CachedStatement<T> cachedStatement = dispatchableCachedStatements.appendEntryIdentityStatement();
-    return (A) cachedStatement.preparedStatement;
+  /**
+   * Answer the id of the next entry I append, which is assigned from a block of ids
+   * reserved in the database, so that no id generated by an insert is read back.
+   * A new block is reserved only when the previous block is used up, and the blocks
+   * are created with the id following the last entry on my first append.
+   * @return long
+   * @throws SQLException if the blocks cannot be created or a new block cannot be reserved
+   */
+  public long nextEntryId() throws SQLException {
+    if (entryIds == null) {
+      entryIds = entryIdBlocks();
+    }
+    return entryIds.nextId();
   }
 
   @Override
   public Collection<Dispatchable<Entry<?>, State<?>>> allUnconfirmedDispatchableStates() throws Exception {
-    final List<Dispatchable<Entry<?>, State<?>>> dispatchables = new ArrayList<>();
+    flush();
 
-    try (final ResultSet result = dispatchableCachedStatements.queryAllStatement().preparedStatement.executeQuery()) {
-      while (result.next()) {
-        final Dispatchable<Entry<?>, State<?>> dispatchable = dispatchableFrom(result);
-        dispatchables.add(dispatchable);
-      }
-    }
+    return new PagedCollection<>(Dispatchables.DISPATCHABLES_LIMIT, () -> new PagedCollection.Pager<Dispatchable<Entry<?>, State<?>>>() {
+      private long afterId = 0;
 
-    return dispatchables;
+      @Override
+      public List<Dispatchable<Entry<?>, State<?>>> nextPage(final int limit) throws Exception {
+        final List<Unconfirmed> unconfirmed = new ArrayList<>(limit);
+        final Map<String, Tuple2<String, String>> references = new HashMap<>();
+
+        try (final ResultSet result = dispatchableCachedStatements.queryAllStatement(afterId).preparedStatement.executeQuery()) {
+          while (result.next()) {
+            unconfirmed.add(unconfirmedFrom(result, references));
+            afterId = result.getLong(13);
+          }
+        }
+
+        final Map<Long, Entry<?>> entries = entriesOf(unconfirmed);
+        final Map<String, State<?>> states = referencedStatesOf(references);
+
+        // ends the read transactions, so that no pooled connection is held between pages
+        connection.commit();
+        endReplicaRead(true);
+
+        final List<Dispatchable<Entry<?>, State<?>>> dispatchables = new ArrayList<>(unconfirmed.size());
+        for (final Unconfirmed dispatchable : unconfirmed) {
+          dispatchables.add(dispatchable.with(entries, states));
+        }
+
+        return dispatchables;
+      }
+    });
   }
 
   public void beginRead() {
@@ -119,6 +256,7 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
 
   @Override
   public void stop() {
+    flush();
     close();
   }
 
@@ -130,6 +268,14 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
       if (connection != null) {
         connection.close();
       }
+      if (entryIdConnection != null) {
+        entryIdConnection.close();
+        entryIdConnection = null;
+      }
+      if (replicaConnection != null) {
+        replica.release(replicaConnection);
+        replicaConnection = null;
+      }
     } catch (final Exception e) {
       logger.error(getClass().getSimpleName() + ": Could not close because: " + e.getMessage(), e);
     }
@@ -148,6 +294,19 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
   public void complete() throws Exception {
     mode = Mode.None;
     connection.commit();
+    for (final String key : writtenKeys) {
+      readReplicas.wrote(key, 0);
+    }
+    writtenKeys.clear();
+    endReplicaRead(true);
+  }
+
+  /**
+   * Answer the {@code AdaptationPolicy} by which the states and sources I write are adapted.
+   * @return AdaptationPolicy
+   */
+  public AdaptationPolicy adaptationPolicy() {
+    return adaptationPolicy;
   }
 
   @SuppressWarnings("unchecked")
@@ -155,18 +314,57 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     return (C) connection;
   }
 
+  /**
+   * Answer the {@code IOExecutor} on whose threads my reads and writes are run.
+   * @return IOExecutor
+   */
+  public IOExecutor ioExecutor() {
+    return ioExecutor;
+  }
+
+  /**
+   * Closes my {@code IOExecutor} once the work already submitted has been run, which
+   * is done by the store that owns me when it stops. A delegate whose executor is shared
+   * with it by the delegate of which it is a copy leaves it to that delegate.
+   */
+  public void closeIOExecutor() {
+    ioExecutor.close();
+  }
+
+  /**
+   * Closes my {@code AdaptationPolicy}, which is done by the store that owns me when it stops.
+   * A delegate whose policy is shared with it by the delegate of which it is a copy leaves it
+   * to that delegate.
+   */
+  public void closeAdaptationPolicy() {
+    adaptationPolicy.close();
+  }
+
   @Override
   public void confirmDispatched(final String dispatchId) {
+    if (confirmations.confirmed(dispatchId)) {
+      flush();
+    }
+  }
+
+  /**
+   * Deletes the dispatchables of all pending confirmations in a single batch.
+   * This happens when a threshold of the {@code DispatchConfirmationPolicy} is
+   * reached, before unconfirmed dispatchables are read, and when stopping.
+   */
+  public void flush() {
+    if (!confirmations.hasPending()) return;
+
+    final List<String> dispatchIds = confirmations.drain();
+
     try {
       beginWrite();
-      dispatchableCachedStatements.deleteStatement().preparedStatement.clearParameters();
-      dispatchableCachedStatements.deleteStatement().preparedStatement.setString(1, dispatchId);
-      dispatchableCachedStatements.deleteStatement().preparedStatement.executeUpdate();
+      Dispatchables.delete(dispatchableCachedStatements.deleteStatement().preparedStatement, dispatchIds);
       complete();
     } catch (final Exception e) {
       fail();
       logger.error(getClass().getSimpleName() +
-              ": Confirm dispatched for: " + dispatchId +
+              ": Confirm dispatched for: " + dispatchIds +
               " failed because: " + e.getMessage(), e);
     }
   }
@@ -184,7 +382,10 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     preparedStatement.setString(4, state.id);
     preparedStatement.setString(5, state.type);
     preparedStatement.setInt(6, state.typeVersion);
-    if (format.isBinary()) {
+    if (referenceDispatchableStates) {
+      // no data, so the state is read from its store when the dispatchable is recovered
+      preparedStatement.setNull(7, nullDataSqlType());
+    } else if (format.isBinary()) {
       setBinaryObject(dispatchableCachedStatements.appendDispatchableStatement(), 7, state);
     } else if (state.isText()) {
       setTextObject(dispatchableCachedStatements.appendDispatchableStatement(), 7, state);
@@ -208,12 +409,96 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     return (W) preparedStatement;
   }
 
-  @SuppressWarnings({ "unchecked" })
-  private <S extends State<?>> Dispatchable<Entry<?>, S> dispatchableFrom(final ResultSet resultSet) throws Exception {
+  private Map<Long, Entry<?>> entriesOf(final List<Unconfirmed> unconfirmed) throws Exception {
+    final PreparedStatement queryEntries = dispatchableCachedStatements.queryEntriesStatement().preparedStatement;
+
+    return Dispatchables.entriesOf(unconfirmed, (entryIds, entries) -> {
+      queryEntries.clearParameters();
+      int index = 0;
+      for (final Long entryId : Dispatchables.padded(entryIds, Dispatchables.ENTRIES_LIMIT)) {
+        queryEntries.setLong(++index, entryId);
+      }
+      try (final ResultSet result = queryEntries.executeQuery()) {
+        while (result.next()) {
+          final long entryId = result.getLong(1);
+          entries.put(entryId, entryFrom(result, String.valueOf(entryId)));
+        }
+      }
+    });
+  }
+
+  // answers the current state of each of the references, by dispatch id, which may be newer than when dispatched,
+  // read by a single query of each store whose states are referenced by the page of dispatchables
+  private Map<String, State<?>> referencedStatesOf(final Map<String, Tuple2<String, String>> references) throws Exception {
+    final Map<String, Map<String, List<String>>> dispatchIdsByStore = new HashMap<>();
+
+    for (final Map.Entry<String, Tuple2<String, String>> reference : references.entrySet()) {
+      final String dispatchId = reference.getKey();
+      final String id = reference.getValue()._1;
+      final String type = reference.getValue()._2;
+      final String storeName = StateTypeStateStoreMap.storeNameFrom(TypeResolver.classFor(type));
+      if (storeName == null) {
+        logger.warn(getClass().getSimpleName() + ": No store of referenced state type: " + type);
+        continue;
+      }
+
+      dispatchIdsByStore
+              .computeIfAbsent(storeName, name -> new HashMap<>())
+              .computeIfAbsent(id, key -> new ArrayList<>())
+              .add(dispatchId);
+    }
+
+    final Map<String, State<?>> states = new HashMap<>();
+
+    for (final Map.Entry<String, Map<String, List<String>>> store : dispatchIdsByStore.entrySet()) {
+      final Map<String, List<String>> dispatchIdsById = store.getValue();
+
+      try (final ResultSet result = referencedReadExpressionFor(store.getKey(), new ArrayList<>(dispatchIdsById.keySet())).executeQuery()) {
+        while (result.next()) {
+          final String id = result.getString(1);
+          final List<String> dispatchIds = dispatchIdsById.remove(id);
+          if (dispatchIds != null) {
+            final State<?> state = stateAt(result, id, 2);
+            for (final String dispatchId : dispatchIds) {
+              states.put(dispatchId, state);
+            }
+          }
+        }
+      }
+
+      for (final List<String> dispatchIds : dispatchIdsById.values()) {
+        for (final String dispatchId : dispatchIds) {
+          logger.warn(getClass().getSimpleName() + ": No referenced state for: " + dispatchId);
+        }
+      }
+    }
+
+    return states;
+  }
+
+  // the statement that reads the states of the ids, which are at most a page of dispatchables, from the store
+  private PreparedStatement referencedReadExpressionFor(final String storeName, final List<String> ids) throws Exception {
+    PreparedStatement preparedStatement = referencedReadStatements.get(storeName);
+    if (preparedStatement == null) {
+      preparedStatement = connection.prepareStatement(readAllExpression(storeName, Dispatchables.DISPATCHABLES_LIMIT));
+      referencedReadStatements.put(storeName, preparedStatement);
+    }
+
+    preparedStatement.clearParameters();
+    int index = 0;
+    for (final String id : Dispatchables.padded(ids, Dispatchables.DISPATCHABLES_LIMIT)) {
+      preparedStatement.setString(++index, id);
+    }
+
+    return preparedStatement;
+  }
+
+  // answers the dispatchable of the row, and adds the id and type of its state to references if it is referenced
+  private Unconfirmed unconfirmedFrom(final ResultSet resultSet, final Map<String, Tuple2<String, String>> references) throws Exception {
     final LocalDateTime createdAt = resultSet.getTimestamp(1).toLocalDateTime();
     final String dispatchId = resultSet.getString(2);
     final String id = resultSet.getString(3);
-    final Class<?> type = Class.forName(resultSet.getString(4));
+    final String typeName = resultSet.getString(4);
     final int typeVersion = resultSet.getInt(5);
     // 6 below
     final int dataVersion = resultSet.getInt(7);
@@ -223,37 +508,27 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     final String metadataObjectType = resultSet.getString(11);
 
     final Object object = metadataObject != null ?
-            JsonSerialization.deserialized(metadataObject, Class.forName(metadataObjectType)) : null;
+            JsonSerialization.deserialized(metadataObject, TypeResolver.classFor(metadataObjectType)) : null;
 
     final Metadata metadata = Metadata.with(object, metadataValue, metadataOperation);
 
-    final S state;
+    final List<Long> entryIds = Dispatchables.entryIdsOf(resultSet.getString(12), DISPATCHEABLE_ENTRIES_DELIMITER);
+
+    if (referenceDispatchableStates && resultSet.getObject(6) == null) {
+      // a referenced state is keyed by the dispatch id, and read from its store as of now
+      references.put(dispatchId, Tuple2.from(id, typeName));
+      return new Unconfirmed(dispatchId, createdAt, null, dispatchId, entryIds);
+    }
+
+    final Class<?> type = TypeResolver.classFor(typeName);
+    final State<?> state;
     if (format.isBinary()) {
-      final byte[] data = binaryDataFrom(resultSet, 6);
-      state = ((S) new BinaryState(id, type, typeVersion, data, dataVersion, metadata));
+      state = new BinaryState(id, type, typeVersion, binaryDataFrom(resultSet, 6), dataVersion, metadata);
     } else {
-      final String data = textDataFrom(resultSet, 6);
-      state = ((S) new TextState(id, type, typeVersion, data, dataVersion, metadata));
-    }
-
-    final String entriesIds = resultSet.getString(12);
-    final List<Entry<?>> entries = new ArrayList<>();
-    if (entriesIds != null && !entriesIds.isEmpty()) {
-      final String[] ids = entriesIds.split("\\"+ DISPATCHEABLE_ENTRIES_DELIMITER);
-      for (final String entryId : ids) {
-          final PreparedStatement queryEntryStatement = dispatchableCachedStatements.getQueryEntry().preparedStatement;
-          queryEntryStatement.clearParameters();
-          queryEntryStatement.setObject(1, Long.valueOf(entryId));
-          queryEntryStatement.executeQuery();
-          try (final ResultSet result = queryEntryStatement.executeQuery()) {
-             if (result.next()) {
-               entries.add(entryFrom(result, entryId));
-             }
-          }
-          dispatchableCachedStatements.getQueryEntry().preparedStatement.clearParameters();
-      }
+      state = new TextState(id, type, typeVersion, textDataFrom(resultSet, 6), dataVersion, metadata);
     }
-    return new Dispatchable<>(dispatchId, createdAt, state, entries);
+
+    return new Unconfirmed(dispatchId, createdAt, state, null, entryIds);
   }
 
   private Entry<?> entryFrom(final ResultSet result, final String id) throws Exception {
@@ -274,7 +549,9 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
   public void fail() {
     try {
       mode = Mode.None;
+      writtenKeys.clear();
       connection.rollback();
+      endReplicaRead(false);
     } catch (final Exception e) {
       logger.error(getClass().getSimpleName() + ": Rollback failed because: " + e.getMessage(), e);
     }
@@ -287,6 +564,10 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
 
   @SuppressWarnings("unchecked")
   public <R> R readExpressionFor(final String storeName, final String id) throws Exception {
+    if (readReplicas.isEnabled() && !readReplicas.isRecentlyWritten(keyOf(storeName, id))) {
+      return (R) replicaReadExpressionFor(storeName, id);
+    }
+
     final CachedStatement<T> maybeCached = readStatements.get(storeName);
 
     if (maybeCached == null) {
@@ -314,29 +595,15 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     if (!resultSet.next()) {
       return (S) (format.isBinary() ? new BinaryState() : new TextState());
     }
-    final Class<?> type = Class.forName(resultSet.getString(1));
-    final int typeVersion = resultSet.getInt(2);
-    // 3 below
-    final int dataVersion = resultSet.getInt(4);
-    final String metadataValue = resultSet.getString(5);
-    final String metadataOperation = resultSet.getString(6);
-
-    final Metadata metadata = Metadata.with(metadataValue, metadataOperation);
-
-    // note possible truncation with long cast to in, but
-    // hopefully no objects are larger than int max value
-
-    if (format.isBinary()) {
-      final byte[] data = binaryDataFrom(resultSet, 3);
-      return (S) new BinaryState(id, type, typeVersion, data, dataVersion, metadata);
-    } else {
-      final String data = textDataFrom(resultSet, 3);
-      return (S) new TextState(id, type, typeVersion, data, dataVersion, metadata);
-    }
+    return (S) stateAt(resultSet, id, 1);
   }
 
   @SuppressWarnings("unchecked")
   public <W, S> W writeExpressionFor(final String storeName, final State<S> state) throws Exception {
+    if (readReplicas.isEnabled()) {
+      writtenKeys.add(keyOf(storeName, state.id));
+    }
+
     final CachedStatement<T> maybeCached = writeStatements.get(storeName);
 
     if (maybeCached == null) {
@@ -353,7 +620,51 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     return (W) maybeCached.preparedStatement;
   }
 
+  /**
+   * Assigns the ids of the entries I append from blocks of ids reserved over connections of the
+   * {@code connectionProvider}, which are borrowed for each reservation if it is pooled, and otherwise
+   * a single connection held until I am closed. Each block is committed at once, so that no two
+   * delegates are assigned the same ids. The ids of two delegates that append to the same entry table
+   * interleave, so that a reader of the entries past the last it read may skip the entries of a lower
+   * block committed after those of a higher block, and so a single store should append the entries
+   * of a table that is read by entry readers.
+   * @param connectionProvider the ConnectionProvider of the connections that reserve blocks
+   * @param blockSize the int number of ids reserved by each block, or 0 for {@code DEFAULT_ENTRY_ID_BLOCK_SIZE}
+   */
+  protected void useEntryIdBlocks(final ConnectionProvider connectionProvider, final int blockSize) {
+    this.entryIdConnectionProvider = connectionProvider;
+    this.entryIdBlockSize = blockSize > 0 ? blockSize : DEFAULT_ENTRY_ID_BLOCK_SIZE;
+  }
+
+  /**
+   * Creates the blocks of entry ids, if not already created, such that the first id of the
+   * first block reserved is at least {@code startWith}, each block holding {@code blockSize} ids.
+   * @param blockConnection the Connection on which the blocks are created, and committed by my caller
+   * @param startWith the long lowest id of the first block
+   * @param blockSize the int number of ids reserved by each block
+   * @throws SQLException if the blocks cannot be created
+   */
+  protected abstract void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException;
+
+  /**
+   * Answer the first id of a newly reserved block of {@code blockSize} consecutive entry ids.
+   * @param blockConnection the Connection on which the block is reserved, and committed by my caller
+   * @param blockSize the int number of ids to reserve
+   * @return long
+   * @throws SQLException if the block cannot be reserved
+   */
+  protected abstract long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException;
+
   protected abstract byte[] binaryDataFrom(final ResultSet resultSet, final int columnIndex) throws Exception;
+
+  /**
+   * Answer the {@code java.sql.Types} with which the state data of a dispatchable
+   * is set to NULL when its state is referenced rather than copied.
+   * @return int
+   */
+  protected int nullDataSqlType() {
+    return format.isBinary() ? Types.BLOB : Types.VARCHAR;
+  }
   protected abstract <D> D binaryDataTypeObject() throws Exception;
   protected abstract JDBCDispatchableCachedStatements<T> dispatchableCachedStatements();
   protected abstract String dispatchableIdIndexCreateExpression();
@@ -365,6 +676,7 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
   protected abstract String entryOffsetsTableName();
   protected abstract String entryOffsetsTableCreateExpression();
   protected abstract String readExpression(final String storeName, final String id);
+  protected abstract String readAllExpression(final String storeName, final int count);
   protected abstract <S> void setBinaryObject(final CachedStatement<T> cached, int columnIndex, final State<S> state) throws Exception;
   protected abstract <E> void setBinaryObject(final CachedStatement<T> cached, int columnIndex, final Entry<E> entry) throws Exception;
   protected abstract <S> void setTextObject(final CachedStatement<T> cached, int columnIndex, final State<S> state) throws Exception;
@@ -455,22 +767,124 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
     }
   }
 
+  // the allocator of the ids of my entries, whose blocks are created past the last entry
+  private IdentityBlockAllocator entryIdBlocks() throws SQLException {
+    if (entryIdConnectionProvider == null) {
+      throw new IllegalStateException(getClass().getSimpleName() + ": No entry id blocks are used.");
+    }
+
+    final Connection blockConnection = entryIdConnectionProvider.connection();
+
+    try {
+      createEntryIdBlocks(blockConnection, lastEntryId(blockConnection) + 1, entryIdBlockSize);
+      blockConnection.commit();
+    } catch (final SQLException e) {
+      blockConnection.close();
+      throw e;
+    }
+
+    if (entryIdConnectionProvider.isPooled()) {
+      blockConnection.close();
+      return new IdentityBlockAllocator(entryIdBlockSize, size -> {
+        try (final Connection borrowed = entryIdConnectionProvider.connection()) {
+          final long first = reserveEntryIdBlock(borrowed, size);
+          borrowed.commit();
+          return first;
+        }
+      });
+    }
+
+    this.entryIdConnection = blockConnection;
+    return new IdentityBlockAllocator(entryIdBlockSize, size -> {
+      final long first = reserveEntryIdBlock(blockConnection, size);
+      blockConnection.commit();
+      return first;
+    });
+  }
+
+  private void endReplicaRead(final boolean completed) throws SQLException {
+    if (readingReplica) {
+      readingReplica = false;
+      if (completed) {
+        replicaConnection.commit();
+      } else {
+        replicaConnection.rollback();
+      }
+    }
+  }
+
+  private String keyOf(final String storeName, final String id) {
+    return storeName + ":" + id;
+  }
+
+  // the id of the last entry, or 0 if there is none
+  private long lastEntryId(final Connection connection) throws SQLException {
+    try (final Statement statement = connection.createStatement();
+         final ResultSet result = statement.executeQuery("SELECT MAX(E_ID) FROM " + entryTableName())) {
+      return result.next() ? result.getLong(1) : 0L;
+    }
+  }
+
+  private PreparedStatement replicaReadExpressionFor(final String storeName, final String id) throws Exception {
+    if (replicaConnection == null) {
+      replica = readReplicas.select();
+      replicaConnection = replica.ownedConnection();
+    }
+
+    PreparedStatement preparedStatement = replicaReadStatements.get(storeName);
+    if (preparedStatement == null) {
+      preparedStatement = replicaConnection.prepareStatement(readExpression(storeName, id));
+      replicaReadStatements.put(storeName, preparedStatement);
+    }
+
+    preparedStatement.clearParameters();
+    preparedStatement.setString(1, id);
+    readingReplica = true;
+
+    return preparedStatement;
+  }
+
+  // the state of the current row, whose type is in the first column, followed by its type version, data,
+  // data version, metadata value and metadata operation
+  private State<?> stateAt(final ResultSet resultSet, final String id, final int first) throws Exception {
+    final Class<?> type = TypeResolver.classFor(resultSet.getString(first));
+    final int typeVersion = resultSet.getInt(first + 1);
+    // first + 2 below
+    final int dataVersion = resultSet.getInt(first + 3);
+    final String metadataValue = resultSet.getString(first + 4);
+    final String metadataOperation = resultSet.getString(first + 5);
+
+    final Metadata metadata = Metadata.with(metadataValue, metadataOperation);
+
+    // note possible truncation with long cast to in, but
+    // hopefully no objects are larger than int max value
+
+    if (format.isBinary()) {
+      final byte[] data = binaryDataFrom(resultSet, first + 2);
+      return new BinaryState(id, type, typeVersion, data, dataVersion, metadata);
+    } else {
+      final String data = textDataFrom(resultSet, first + 2);
+      return new TextState(id, type, typeVersion, data, dataVersion, metadata);
+    }
+  }
+
   private void prepareForRead(final CachedStatement<T> cached, final String id) throws Exception {
     cached.preparedStatement.clearParameters();
     cached.preparedStatement.setString(1, id);
   }
 
-  private <E> void prepareForAppend(final CachedStatement<T> cached, final Entry<E> entry) throws Exception {
+  private <E> void prepareForAppend(final CachedStatement<T> cached, final Entry<E> entry, final long id) throws Exception {
     cached.preparedStatement.clearParameters();
-    cached.preparedStatement.setString(1, entry.typeName());
-    cached.preparedStatement.setInt(2, entry.typeVersion());
+    cached.preparedStatement.setLong(1, id);
+    cached.preparedStatement.setString(2, entry.typeName());
+    cached.preparedStatement.setInt(3, entry.typeVersion());
     if (format.isBinary()) {
-      this.setBinaryObject(cached, 3, entry);
+      this.setBinaryObject(cached, 4, entry);
     } else if (format.isText()) {
-      this.setTextObject(cached, 3, entry);
+      this.setTextObject(cached, 4, entry);
     }
-    cached.preparedStatement.setString(4, entry.metadata().value);
-    cached.preparedStatement.setString(5, entry.metadata().operation);
+    cached.preparedStatement.setString(5, entry.metadata().value);
+    cached.preparedStatement.setString(6, entry.metadata().operation);
   }
 
   private <S> void prepareForWrite(final CachedStatement<T> cached, final State<S> state) throws Exception {
@@ -502,5 +916,4 @@ public abstract class JDBCStorageDelegate<T> implements StorageDelegate,
       return resultSet.next();
     }
   }
-
 }
@@ -13,6 +13,11 @@ public interface HSQLDBQueries {
           "FROM TBL_{0} " +
           "WHERE TBL_{0}.S_ID = ?";
 
+  final static String SQL_STATE_READ_ALL =
+          "SELECT TBL_{0}.S_ID, TBL_{0}.S_TYPE, TBL_{0}.S_TYPE_VERSION, TBL_{0}.S_DATA, TBL_{0}.S_DATA_VERSION, TBL_{0}.S_METADATA_VALUE, TBL_{0}.S_METADATA_OP " +
+          "FROM TBL_{0} " +
+          "WHERE TBL_{0}.S_ID IN ({1})";
+
   final static String SQL_STATE_WRITE =
           "MERGE INTO TBL_{0} \n" +
           "USING (VALUES ?, ?, ?, {1}, ?, ?, ?) \n" +
@@ -43,7 +48,7 @@ public interface HSQLDBQueries {
           "   D_STATE_ID VARCHAR(128) NOT NULL, \n" +
           "   D_STATE_TYPE VARCHAR(256) NOT NULL,\n" +
           "   D_STATE_TYPE_VERSION INT NOT NULL,\n" +
-          "   D_STATE_DATA {1} NOT NULL,\n" +
+          "   D_STATE_DATA {1},\n" +
           "   D_STATE_DATA_VERSION INT NOT NULL,\n" +
           "   D_STATE_METADATA_VALUE VARCHAR(4000) NOT NULL,\n" +
           "   D_STATE_METADATA_OP VARCHAR(128) NOT NULL,\n" +
@@ -88,9 +93,9 @@ public interface HSQLDBQueries {
 
   final static String SQL_DISPATCHABLE_SELECT =
           "SELECT D_CREATED_AT, D_DISPATCH_ID, D_STATE_ID, D_STATE_TYPE, D_STATE_TYPE_VERSION, D_STATE_DATA, D_STATE_DATA_VERSION, \n" +
-          "       D_STATE_METADATA_VALUE, D_STATE_METADATA_OP, D_STATE_METADATA_OBJECT, D_STATE_METADATA_OBJECT_TYPE, D_ENTRIES\n" +
+          "       D_STATE_METADATA_VALUE, D_STATE_METADATA_OP, D_STATE_METADATA_OBJECT, D_STATE_METADATA_OBJECT_TYPE, D_ENTRIES, D_ID\n" +
           "FROM {0} \n" +
-          "WHERE D_ORIGINATOR_ID = ? ORDER BY D_CREATED_AT ASC";
+          "WHERE D_ORIGINATOR_ID = ? AND D_ID > ? ORDER BY D_ID ASC LIMIT ?";
 
   final static String SQL_CREATE_ENTRY_STORE =
           "CREATE TABLE {0} (\n" +
@@ -114,10 +119,17 @@ public interface HSQLDBQueries {
 
   final static String SQL_APPEND_ENTRY =
           "INSERT INTO {0} \n" +
-               "(E_TYPE, E_TYPE_VERSION, E_DATA, E_METADATA_VALUE, E_METADATA_OP) \n" +
-               "VALUES (?, ?, ?, ?, ?)";
+               "(E_ID, E_TYPE, E_TYPE_VERSION, E_DATA, E_METADATA_VALUE, E_METADATA_OP) \n" +
+               "VALUES (?, ?, ?, ?, ?, ?)";
+
+  final static String SQL_CREATE_ENTRY_ID_BLOCKS =
+          "CREATE SEQUENCE IF NOT EXISTS {0}_E_ID_BLOCKS AS BIGINT START WITH {1,number,#}";
 
-  final static String SQL_APPEND_ENTRY_IDENTITY = "CALL IDENTITY()";
+  final static String SQL_ALTER_ENTRY_ID_BLOCKS =
+          "ALTER SEQUENCE {0}_E_ID_BLOCKS INCREMENT BY {1,number,#}";
+
+  final static String SQL_RESERVE_ENTRY_ID_BLOCK =
+          "CALL NEXT VALUE FOR {0}_E_ID_BLOCKS";
 
   final static String SQL_QUERY_ENTRY_BATCH =
           "SELECT E_ID, E_TYPE, E_TYPE_VERSION, E_DATA, E_METADATA_VALUE, E_METADATA_OP FROM " +
@@ -128,6 +140,10 @@ public interface HSQLDBQueries {
           "SELECT E_ID, E_TYPE, E_TYPE_VERSION, E_DATA, E_METADATA_VALUE, E_METADATA_OP FROM " +
                   " {0} WHERE E_ID = ?";
 
+  final static String SQL_QUERY_ENTRIES =
+          "SELECT E_ID, E_TYPE, E_TYPE_VERSION, E_DATA, E_METADATA_VALUE, E_METADATA_OP FROM " +
+                  " {0} WHERE E_ID IN ({1})";
+
   final static String QUERY_LATEST_OFFSET =
           "SELECT O_READER_OFFSET FROM {0} " +
                   "WHERE O_READER_NAME = ?";
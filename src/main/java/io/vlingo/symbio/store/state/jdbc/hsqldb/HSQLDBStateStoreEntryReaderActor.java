@@ -21,6 +21,8 @@ import io.vlingo.symbio.BaseEntry.TextEntry;
 import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.OffsetCommitPolicy;
+import io.vlingo.symbio.store.common.jdbc.TypeResolver;
 import io.vlingo.symbio.store.state.StateStoreEntryReader;
 
 public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor implements StateStoreEntryReader<T> {
@@ -28,6 +30,7 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
   private final Configuration configuration;
   private long currentId;
   private final String name;
+  private final OffsetCommitPolicy.Tracker offsetCommits;
   private final PreparedStatement queryBatch;
   private final PreparedStatement queryCount;
   private final PreparedStatement queryOne;
@@ -38,6 +41,7 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
     this.advice = advice;
     this.name = name;
     this.configuration = advice.specificConfiguration();
+    this.offsetCommits = configuration.offsetCommitPolicy.defaultingTo(OffsetCommitPolicy.Explicit).tracker();
     this.currentId = 0;
 
     try {
@@ -55,6 +59,10 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
 
   @Override
   public void close() {
+    if (offsetCommits.hasPending()) {
+      updateCurrentOffset();
+    }
+
     try {
       queryBatch.close();
       queryOne.close();
@@ -72,7 +80,11 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
   @Override
   @SuppressWarnings("unchecked")
   public Completes<T> readNext() {
-    return completes().with((T) queryNext());
+    final Entry<?> entry = queryNext();
+    if (entry != null) {
+      offsetRead(1);
+    }
+    return completes().with((T) entry);
   }
 
   @Override
@@ -84,7 +96,9 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
   @Override
   @SuppressWarnings("unchecked")
   public Completes<List<T>> readNext(final int maximumEntries) {
-    return completes().with((List<T>) queryNext(maximumEntries));
+    final List<Entry<?>> entries = queryNext(maximumEntries);
+    offsetRead(entries.size());
+    return completes().with((List<T>) entries);
   }
 
   @Override
@@ -96,6 +110,7 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
   @Override
   public void rewind() {
     currentId = 0;
+    updateCurrentOffset();
   }
 
   @Override
@@ -130,6 +145,8 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
     } catch (Exception e) {
       logger().error("vlingo/symbio-postgres: " + e.getMessage(), e);
       logger().error("vlingo/symbio-postgres: Rewinding the offset");
+    } finally {
+      endRead();
     }
 
     return completes().with(-1L);
@@ -149,6 +166,8 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
       }
     } catch (Exception e) {
       logger().error("Unable to read next entry for " + name + " because: " + e.getMessage(), e);
+    } finally {
+      endRead();
     }
     return null;
   }
@@ -170,6 +189,8 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
       }
     } catch (Exception e) {
       logger().error("Unable to read next " + maximumEntries + " entries for " + name + " because: " + e.getMessage(), e);
+    } finally {
+      endRead();
     }
     return new ArrayList<>(0);
   }
@@ -201,7 +222,7 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
   }
 
   private Class<?> typed(final String typeName) throws Exception {
-    return Class.forName(typeName);
+    return TypeResolver.classFor(typeName);
   }
 
   private long retrieveLatestOffset() {
@@ -215,11 +236,28 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
           }
       } catch (Exception e) {
           logger().error("vlingo/symbio-hsqldb: Could not retrieve latest offset, using current.");
+      } finally {
+          endRead();
       }
 
       return 0;
   }
 
+  // ends the transaction of a read, so that a pooled connection is not held between reads
+  private void endRead() {
+    try {
+      configuration.connection.commit();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private void offsetRead(final int count) {
+    if (offsetCommits.read(count)) {
+      updateCurrentOffset();
+    }
+  }
+
   private void updateCurrentOffset() {
       try {
           updateCurrentOffset.clearParameters();
@@ -229,6 +267,7 @@ public class HSQLDBStateStoreEntryReaderActor<T extends Entry<?>> extends Actor
 
           updateCurrentOffset.executeUpdate();
           configuration.connection.commit();
+          offsetCommits.committed();
       } catch (Exception e) {
           logger().error("vlingo/symbio-hsqldb: Could not persist the offset. Will retry on next read.");
           logger().error("vlingo/symbio-hsqldb: " + e.getMessage(), e);
@@ -11,7 +11,9 @@ import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.Collections;
 
 import io.vlingo.actors.Logger;
 import io.vlingo.symbio.Entry;
@@ -33,9 +35,25 @@ public class HSQLDBStorageDelegate extends JDBCStorageDelegate<Blob> implements
           configuration.format,
           configuration.originatorId,
           configuration.createTables,
+          configuration.dispatchConfirmationPolicy,
+          configuration.referenceDispatchableStates,
+          configuration.readReplicas(),
+          configuration.ioExecutor(),
+          configuration.adaptationPolicy,
           logger);
 
     this.configuration = configuration;
+    useEntryIdBlocks(configuration.actualConnectionProvider(), configuration.entryIdBlockSize);
+  }
+
+  @Override
+  public void closeIOExecutor() {
+    configuration.closeIOExecutor();
+  }
+
+  @Override
+  public void closeAdaptationPolicy() {
+    configuration.closeAdaptationPolicy();
   }
 
   @Override
@@ -126,11 +144,34 @@ public class HSQLDBStorageDelegate extends JDBCStorageDelegate<Blob> implements
     return TBL_VLINGO_SYMBIO_STATE_ENTRY_OFFSETS;
   }
 
+  @Override
+  protected void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException {
+    // each value of the sequence is the first id of a block
+    try (final Statement statement = blockConnection.createStatement()) {
+      statement.execute(MessageFormat.format(SQL_CREATE_ENTRY_ID_BLOCKS, entryTableName(), startWith));
+      statement.execute(MessageFormat.format(SQL_ALTER_ENTRY_ID_BLOCKS, entryTableName(), blockSize));
+    }
+  }
+
+  @Override
+  protected long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException {
+    try (final Statement statement = blockConnection.createStatement();
+         final ResultSet result = statement.executeQuery(namedEntry(SQL_RESERVE_ENTRY_ID_BLOCK))) {
+      result.next();
+      return result.getLong(1);
+    }
+  }
+
   @Override
   protected String readExpression(final String storeName, final String id) {
     return MessageFormat.format(SQL_STATE_READ, storeName.toUpperCase());
   }
 
+  @Override
+  protected String readAllExpression(final String storeName, final int count) {
+    return MessageFormat.format(SQL_STATE_READ_ALL, storeName.toUpperCase(), String.join(", ", Collections.nCopies(count, "?")));
+  }
+
   @Override
   protected <S> void setBinaryObject(final CachedStatement<Blob> cached, int columnIndex, State<S> state) throws Exception {
     final byte[] data = (byte[]) state.data;
@@ -140,9 +181,8 @@ public class HSQLDBStorageDelegate extends JDBCStorageDelegate<Blob> implements
 
   @Override
   protected <E> void setBinaryObject(final CachedStatement<Blob> cached, int columnIndex, Entry<E> entry) throws Exception {
-    final byte[] data = (byte[]) entry.entryData();
-    cached.data.setBytes(1, data);
-    cached.preparedStatement.setBlob(columnIndex, cached.data);
+    // not the cached blob, which each entry of an append batch would overwrite
+    cached.preparedStatement.setBytes(columnIndex, (byte[]) entry.entryData());
   }
 
   @Override
@@ -228,8 +268,8 @@ public class HSQLDBStorageDelegate extends JDBCStorageDelegate<Blob> implements
     }
 
     @Override
-    protected String appendEntryIdentityExpression() {
-      return SQL_APPEND_ENTRY_IDENTITY;
+    protected String queryEntriesExpression(final int count) {
+      return MessageFormat.format(SQL_QUERY_ENTRIES, entryTableName(), String.join(", ", Collections.nCopies(count, "?")));
     }
 
     @Override
@@ -13,6 +13,11 @@ public interface MySQLQueries {
                     "FROM tbl_{0} " +
                     "WHERE tbl_{0}.S_ID = ?";
 
+    final static String SQL_STATE_READ_ALL =
+            "SELECT tbl_{0}.S_ID, tbl_{0}.S_TYPE, tbl_{0}.S_TYPE_VERSION, tbl_{0}.S_DATA, tbl_{0}.S_DATA_VERSION, tbl_{0}.S_METADATA_VALUE, tbl_{0}.S_METADATA_OP " +
+                    "FROM tbl_{0} " +
+                    "WHERE tbl_{0}.S_ID IN ({1})";
+
     final static String SQL_STATE_WRITE =
             "INSERT INTO tbl_{0} \n" +
                     "(s_id, s_type, s_type_version, s_data, s_data_version, s_metadata_value, s_metadata_op) \n" +
@@ -55,7 +60,7 @@ public interface MySQLQueries {
                     "   d_state_id VARCHAR(128) NOT NULL, \n" +
                     "   d_state_type VARCHAR(256) NOT NULL,\n" +
                     "   d_state_type_version INT NOT NULL,\n" +
-                    "   d_state_data {1} NOT NULL,\n" +
+                    "   d_state_data {1},\n" +
                     "   d_state_data_version INT NOT NULL,\n" +
                     "   d_state_metadata_value TEXT NOT NULL,\n" +
                     "   d_state_metadata_op VARCHAR(128) NOT NULL,\n" +
@@ -85,9 +90,9 @@ public interface MySQLQueries {
 
     final static String SQL_DISPATCHABLE_SELECT =
             "SELECT d_created_at, d_dispatch_id, d_state_id, d_state_type, d_state_type_version, d_state_data, d_state_data_version, \n" +
-                    "       d_state_metadata_value, d_state_metadata_op, d_state_metadata_object, d_state_metadata_object_type, d_entries \n" +
+                    "       d_state_metadata_value, d_state_metadata_op, d_state_metadata_object, d_state_metadata_object_type, d_entries, d_id \n" +
                     "FROM {0} \n" +
-                    "WHERE d_originator_id = ? ORDER BY d_created_at ASC";
+                    "WHERE d_originator_id = ? AND d_id > ? ORDER BY d_id ASC LIMIT ?";
 
 
     final static String SQL_CREATE_ENTRY_STORE =
@@ -113,9 +118,20 @@ public interface MySQLQueries {
     final static String SQL_APPEND_ENTRY =
             "INSERT INTO {0} \n" +
                     "(e_id, e_type, e_type_version, e_data, e_metadata_value, e_metadata_op) \n" +
-                    "VALUES (DEFAULT, ?, ?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    final static String SQL_CREATE_ENTRY_ID_BLOCKS =
+            "CREATE TABLE IF NOT EXISTS {0}_e_id_blocks (next_id BIGINT NOT NULL)";
+
+    final static String SQL_INSERT_ENTRY_ID_BLOCKS =
+            "INSERT INTO {0}_e_id_blocks (next_id) " +
+                    "SELECT ? FROM DUAL WHERE NOT EXISTS (SELECT * FROM {0}_e_id_blocks)";
 
-    final static String SQL_APPEND_ENTRY_IDENTITY = "SELECT LAST_INSERT_ID()";
+    final static String SQL_UPDATE_ENTRY_ID_BLOCKS =
+            "UPDATE {0}_e_id_blocks SET next_id = LAST_INSERT_ID(next_id + ?)";
+
+    final static String SQL_SELECT_RESERVED_ENTRY_ID_BLOCK =
+            "SELECT LAST_INSERT_ID() - ?";
 
     final static String SQL_QUERY_ENTRY_BATCH =
             "SELECT e_id, e_type, e_type_version, e_data, e_metadata_value, e_metadata_op FROM " +
@@ -126,6 +142,10 @@ public interface MySQLQueries {
             "SELECT e_id, e_type, e_type_version, e_data, e_metadata_value, e_metadata_op FROM " +
                     " {0} WHERE e_id = ? ";
 
+    final static String SQL_QUERY_ENTRIES =
+            "SELECT e_id, e_type, e_type_version, e_data, e_metadata_value, e_metadata_op FROM " +
+                    " {0} WHERE e_id IN ({1})";
+
     final static String QUERY_LATEST_OFFSET =
             "SELECT reader_offset FROM {0} " +
                     "WHERE reader_name = ?";
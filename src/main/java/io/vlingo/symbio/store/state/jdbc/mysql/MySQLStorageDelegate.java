@@ -20,8 +20,12 @@ import io.vlingo.symbio.store.state.jdbc.JDBCStorageDelegate;
 import io.vlingo.symbio.store.state.jdbc.DbStateStoreEntryReaderActor;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.Collections;
 
 public class MySQLStorageDelegate extends JDBCStorageDelegate<Object> implements StateStore.StorageDelegate, MySQLQueries{
     private final Configuration configuration;
@@ -32,9 +36,25 @@ public class MySQLStorageDelegate extends JDBCStorageDelegate<Object> implements
                 configuration.format,
                 configuration.originatorId,
                 configuration.createTables,
+                configuration.dispatchConfirmationPolicy,
+                configuration.referenceDispatchableStates,
+                configuration.readReplicas(),
+                configuration.ioExecutor(),
+                configuration.adaptationPolicy,
                 logger);
 
         this.configuration = configuration;
+        useEntryIdBlocks(configuration.actualConnectionProvider(), configuration.entryIdBlockSize);
+    }
+
+    @Override
+    public void closeIOExecutor() {
+        configuration.closeIOExecutor();
+    }
+
+    @Override
+    public void closeAdaptationPolicy() {
+        configuration.closeAdaptationPolicy();
     }
 
     @Override
@@ -122,11 +142,43 @@ public class MySQLStorageDelegate extends JDBCStorageDelegate<Object> implements
         return TBL_VLINGO_SYMBIO_STATE_ENTRY_OFFSETS;
     }
 
+    @Override
+    protected void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException {
+        // MySQL has no sequences, so the next id of the next block is held in a single row
+        try (final Statement statement = blockConnection.createStatement()) {
+            statement.execute(namedEntry(SQL_CREATE_ENTRY_ID_BLOCKS));
+        }
+        try (final PreparedStatement insert = blockConnection.prepareStatement(namedEntry(SQL_INSERT_ENTRY_ID_BLOCKS))) {
+            insert.setLong(1, startWith);
+            insert.executeUpdate();
+        }
+    }
+
+    @Override
+    protected long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException {
+        try (final PreparedStatement update = blockConnection.prepareStatement(namedEntry(SQL_UPDATE_ENTRY_ID_BLOCKS))) {
+            update.setInt(1, blockSize);
+            update.executeUpdate();
+        }
+        try (final PreparedStatement select = blockConnection.prepareStatement(SQL_SELECT_RESERVED_ENTRY_ID_BLOCK)) {
+            select.setInt(1, blockSize);
+            try (final ResultSet result = select.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
     @Override
     protected String readExpression(final String storeName, final String id) {
         return MessageFormat.format(SQL_STATE_READ, storeName.toLowerCase());
     }
 
+    @Override
+    protected String readAllExpression(final String storeName, final int count) {
+        return MessageFormat.format(SQL_STATE_READ_ALL, storeName.toLowerCase(), String.join(", ", Collections.nCopies(count, "?")));
+    }
+
     @Override
     protected <E> void setBinaryObject(final CachedStatement<Object> cached, final int columnIndex, final Entry<E> entry) throws Exception {
         cached.preparedStatement.setBytes(columnIndex, (byte[]) entry.entryData());
@@ -218,8 +270,8 @@ public class MySQLStorageDelegate extends JDBCStorageDelegate<Object> implements
         }
 
         @Override
-        protected String appendEntryIdentityExpression() {
-            return SQL_APPEND_ENTRY_IDENTITY;
+        protected String queryEntriesExpression(final int count) {
+            return MessageFormat.format(SQL_QUERY_ENTRIES, entryTableName(), String.join(", ", Collections.nCopies(count, "?")));
         }
     }
 }
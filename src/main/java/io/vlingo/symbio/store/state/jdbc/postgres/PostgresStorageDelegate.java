@@ -9,7 +9,11 @@ package io.vlingo.symbio.store.state.jdbc.postgres;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.text.MessageFormat;
+import java.util.Collections;
 
 import io.vlingo.symbio.store.state.jdbc.DbStateStoreEntryReaderActor;
 import org.postgresql.util.PGobject;
@@ -34,9 +38,25 @@ public class PostgresStorageDelegate extends JDBCStorageDelegate<Object> impleme
                 configuration.format,
                 configuration.originatorId,
                 configuration.createTables,
+                configuration.dispatchConfirmationPolicy,
+                configuration.referenceDispatchableStates,
+                configuration.readReplicas(),
+                configuration.ioExecutor(),
+                configuration.adaptationPolicy,
                 logger);
 
         this.configuration = configuration;
+        useEntryIdBlocks(configuration.actualConnectionProvider(), configuration.entryIdBlockSize);
+    }
+
+    @Override
+    public void closeIOExecutor() {
+        configuration.closeIOExecutor();
+    }
+
+    @Override
+    public void closeAdaptationPolicy() {
+        configuration.closeAdaptationPolicy();
     }
 
     @Override
@@ -77,6 +97,12 @@ public class PostgresStorageDelegate extends JDBCStorageDelegate<Object> impleme
         return null;
     }
 
+    @Override
+    protected int nullDataSqlType() {
+        // unspecified, so that the NULL is accepted by both BYTEA and JSON columns
+        return Types.OTHER;
+    }
+
     @Override
     protected JDBCDispatchableCachedStatements<Object> dispatchableCachedStatements() {
         return new PostgresDispatchableCachedStatements<Object>(originatorId, connection, format, logger);
@@ -124,11 +150,34 @@ public class PostgresStorageDelegate extends JDBCStorageDelegate<Object> impleme
         return TBL_VLINGO_SYMBIO_STATE_ENTRY_OFFSETS;
     }
 
+    @Override
+    protected void createEntryIdBlocks(final Connection blockConnection, final long startWith, final int blockSize) throws SQLException {
+        // each value of the sequence is the first id of a block
+        try (final Statement statement = blockConnection.createStatement()) {
+            statement.execute(MessageFormat.format(SQL_CREATE_ENTRY_ID_BLOCKS, entryTableName(), startWith));
+            statement.execute(MessageFormat.format(SQL_ALTER_ENTRY_ID_BLOCKS, entryTableName(), blockSize));
+        }
+    }
+
+    @Override
+    protected long reserveEntryIdBlock(final Connection blockConnection, final int blockSize) throws SQLException {
+        try (final Statement statement = blockConnection.createStatement();
+             final ResultSet result = statement.executeQuery(namedEntry(SQL_RESERVE_ENTRY_ID_BLOCK))) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
     @Override
     protected String readExpression(final String storeName, final String id) {
         return MessageFormat.format(SQL_STATE_READ, storeName.toLowerCase());
     }
 
+    @Override
+    protected String readAllExpression(final String storeName, final int count) {
+        return MessageFormat.format(SQL_STATE_READ_ALL, storeName.toLowerCase(), String.join(", ", Collections.nCopies(count, "?")));
+    }
+
     @Override
     protected <E> void setBinaryObject(final CachedStatement<Object> cached, final int columnIndex, final Entry<E> entry) throws Exception {
         cached.preparedStatement.setBytes(columnIndex, (byte[]) entry.entryData());
@@ -226,8 +275,8 @@ public class PostgresStorageDelegate extends JDBCStorageDelegate<Object> impleme
         }
 
         @Override
-        protected String appendEntryIdentityExpression() {
-            return SQL_APPEND_ENTRY_IDENTITY;
+        protected String queryEntriesExpression(final int count) {
+            return MessageFormat.format(SQL_QUERY_ENTRIES, entryTableName(), String.join(", ", Collections.nCopies(count, "?")));
         }
     }
 }
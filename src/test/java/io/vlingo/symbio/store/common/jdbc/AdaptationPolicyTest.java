@@ -0,0 +1,101 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class AdaptationPolicyTest {
+
+  @Test
+  public void testThatNoneAdaptsWhenGot() {
+    final AtomicInteger adaptations = new AtomicInteger(0);
+    final AtomicReference<Thread> adaptedOn = new AtomicReference<>();
+
+    final Supplier<Integer> adapting = AdaptationPolicy.None.adapt(() -> {
+      adaptedOn.set(Thread.currentThread());
+      return adaptations.incrementAndGet();
+    });
+
+    assertFalse(AdaptationPolicy.None.isParallel());
+    assertEquals(0, adaptations.get());
+    assertEquals(1, (int) adapting.get());
+    assertSame(Thread.currentThread(), adaptedOn.get());
+  }
+
+  @Test
+  public void testThatParallelAdaptsOnReceipt() throws Exception {
+    final AdaptationPolicy policy = AdaptationPolicy.parallelOf(2);
+    final CountDownLatch adapted = new CountDownLatch(1);
+    final AtomicReference<Thread> adaptedOn = new AtomicReference<>();
+
+    final Supplier<String> adapting = policy.adapt(() -> {
+      adaptedOn.set(Thread.currentThread());
+      adapted.countDown();
+      return "entry";
+    });
+
+    assertTrue(policy.isParallel());
+    assertTrue(adapted.await(5, TimeUnit.SECONDS));
+    assertEquals("entry", adapting.get());
+    assertNotSame(Thread.currentThread(), adaptedOn.get());
+    policy.close();
+  }
+
+  @Test
+  public void testThatClosedParallelAdaptsWhenGot() {
+    final AdaptationPolicy policy = AdaptationPolicy.parallelOf(2);
+    policy.close();
+
+    final AtomicReference<Thread> adaptedOn = new AtomicReference<>();
+    final Supplier<String> adapting = policy.adapt(() -> {
+      adaptedOn.set(Thread.currentThread());
+      return "entry";
+    });
+
+    assertFalse(policy.isParallel());
+    assertEquals("entry", adapting.get());
+    assertSame(Thread.currentThread(), adaptedOn.get());
+  }
+
+  @Test
+  public void testThatClosingSharedParallelLeavesCommonPool() {
+    AdaptationPolicy.Parallel.close();
+
+    assertTrue(AdaptationPolicy.Parallel.isParallel());
+  }
+
+  @Test
+  public void testThatParallelFailureIsThrownWhenGot() {
+    final Supplier<String> adapting = AdaptationPolicy.Parallel.adapt(() -> { throw new IllegalArgumentException("unadaptable"); });
+
+    try {
+      adapting.get();
+      fail("Should throw the failure of the adaptation.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("unadaptable", e.getMessage());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatParallelismIsValidated() {
+    AdaptationPolicy.parallelOf(0);
+  }
+}
@@ -0,0 +1,239 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ConnectionPoolTest {
+  private ConnectionPool pool;
+  private ConnectionProvider provider;
+
+  @Test
+  public void testThatConnectionsAreReturnedAndReused() throws Exception {
+    poolOf(ConnectionPoolPolicy.of(1, 2));
+    assertEquals(1, pool.idleCount());
+
+    final Connection connection1 = pool.borrow();
+    final Object physical1 = ConnectionPool.attachmentOf(connection1, "physical", physical -> physical);
+    assertEquals(0, pool.idleCount());
+    assertEquals(1, pool.borrowedCount());
+
+    connection1.close();
+    assertTrue(connection1.isClosed());
+    assertEquals(1, pool.idleCount());
+    assertEquals(0, pool.borrowedCount());
+
+    final Connection connection2 = pool.borrow();
+    assertSame(physical1, ConnectionPool.attachmentOf(connection2, "physical", physical -> physical));
+    connection2.close();
+  }
+
+  @Test
+  public void testThatAttachmentsOutliveBorrowing() throws Exception {
+    poolOf(ConnectionPoolPolicy.of(0, 1));
+    final AtomicInteger attached = new AtomicInteger(0);
+
+    try (final Connection connection = pool.borrow()) {
+      assertEquals(1, (int) ConnectionPool.attachmentOf(connection, "key", physical -> attached.incrementAndGet()));
+    }
+    try (final Connection connection = pool.borrow()) {
+      assertEquals(1, (int) ConnectionPool.attachmentOf(connection, "key", physical -> attached.incrementAndGet()));
+    }
+    assertEquals(1, attached.get());
+  }
+
+  @Test
+  public void testThatReturnedConnectionIsRolledBack() throws Exception {
+    poolOf(ConnectionPoolPolicy.of(0, 1));
+
+    try (final Connection connection = pool.borrow()) {
+      connection.createStatement().execute("DROP TABLE tbl_pooled IF EXISTS");
+      connection.createStatement().execute("CREATE TABLE tbl_pooled (id INT)");
+      connection.commit();
+      connection.createStatement().execute("INSERT INTO tbl_pooled VALUES (1)");
+    }
+
+    try (final Connection connection = pool.borrow();
+         final ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM tbl_pooled")) {
+      assertTrue(resultSet.next());
+      assertEquals(0, resultSet.getInt(1));
+    }
+  }
+
+  @Test
+  public void testThatReturnedConnectionCannotBeUsed() throws Exception {
+    poolOf(ConnectionPoolPolicy.of(0, 1));
+    final Connection connection = pool.borrow();
+    connection.close();
+    connection.close();
+
+    assertEquals(1, pool.idleCount());
+
+    try {
+      connection.createStatement();
+      fail("Should not use a returned connection.");
+    } catch (SQLException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testThatBorrowTimesOutAndReportsLeaks() throws Exception {
+    poolOf(ConnectionPoolPolicy.of(0, 1).withAcquireTimeout(50).withLeakDetection(1));
+    final Connection connection = pool.borrow();
+    Thread.sleep(5);
+
+    assertEquals(1, pool.leaks().size());
+
+    try {
+      pool.borrow();
+      fail("Should time out when all connections are borrowed.");
+    } catch (IllegalStateException e) {
+      assertEquals(1, e.getSuppressed().length);
+    }
+
+    connection.close();
+    assertTrue(pool.leaks().isEmpty());
+    pool.borrow().close();
+  }
+
+  @Test
+  public void testThatStatementsAreClosedOnReturn() throws Exception {
+    poolOf(ConnectionPoolPolicy.of(0, 1));
+    final Connection connection = pool.borrow();
+    final Statement statement = connection.createStatement();
+    final PreparedStatement prepared = connection.prepareStatement("VALUES (1)");
+    connection.close();
+
+    assertTrue(statement.isClosed());
+    assertTrue(prepared.isClosed());
+  }
+
+  @Test
+  public void testThatBorrowingConnectionBorrowsPerTransaction() throws Exception {
+    poolOf(ConnectionPoolPolicy.of(0, 1));
+    final Connection owned = pool.borrowing();
+    final PreparedStatement insert = owned.prepareStatement("INSERT INTO tbl_borrowing VALUES (?)");
+    assertEquals(0, pool.borrowedCount());
+
+    owned.createStatement().execute("DROP TABLE tbl_borrowing IF EXISTS");
+    owned.createStatement().execute("CREATE TABLE tbl_borrowing (id INT)");
+    assertEquals(1, pool.borrowedCount());
+    owned.commit();
+    assertEquals(0, pool.borrowedCount());
+
+    for (int id = 1; id <= 2; ++id) {
+      insert.setInt(1, id);
+      insert.executeUpdate();
+      assertEquals(1, pool.borrowedCount());
+      owned.commit();
+      assertEquals(0, pool.borrowedCount());
+    }
+
+    insert.setInt(1, 3);
+    insert.executeUpdate();
+    owned.rollback();
+    assertEquals(0, pool.borrowedCount());
+
+    // the only pooled connection is free to be borrowed between the transactions
+    try (final Connection connection = pool.borrow();
+         final ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM tbl_borrowing")) {
+      assertTrue(resultSet.next());
+      assertEquals(2, resultSet.getInt(1));
+    }
+
+    owned.setAutoCommit(true);
+    final PreparedStatement count = owned.prepareStatement("SELECT COUNT(*) FROM tbl_borrowing");
+    try (final ResultSet resultSet = count.executeQuery()) {
+      assertEquals(1, pool.borrowedCount());
+      assertTrue(resultSet.next());
+      assertEquals(2, resultSet.getInt(1));
+    }
+    assertEquals(0, pool.borrowedCount());
+
+    owned.close();
+    assertTrue(owned.isClosed());
+    assertTrue(insert.isClosed());
+  }
+
+  @Test
+  public void testThatLeaksAreReportedOnceAsDetected() throws Exception {
+    final List<Throwable> leaks = new CopyOnWriteArrayList<>();
+    final ConnectionProvider unpooled = providerOf(ConnectionPoolPolicy.None);
+    pool = new ConnectionPool(ConnectionPoolPolicy.of(0, 1).withLeakDetection(10), unpooled::connection, leaks::add);
+
+    final Connection connection = pool.borrow();
+    final long deadline = System.currentTimeMillis() + 5_000L;
+    while (leaks.isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    Thread.sleep(50);
+
+    assertEquals(1, leaks.size());
+    connection.close();
+  }
+
+  @Test
+  public void testThatProviderBorrowsWhenPooled() throws Exception {
+    provider = providerOf(ConnectionPoolPolicy.of(0, 2));
+    assertTrue(provider.isPooled());
+
+    final Connection connection = provider.connection();
+    assertFalse(connection.getAutoCommit());
+    ConnectionPool.attachmentOf(connection, "key", physical -> physical);
+    connection.close();
+
+    final Connection owned = provider.ownedConnection();
+    assertFalse(owned.getAutoCommit());
+    owned.close();
+
+    assertTrue(provider.copyReplacing("other").isPooled());
+    assertFalse(providerOf(ConnectionPoolPolicy.None).isPooled());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatSizesAreValidated() {
+    ConnectionPoolPolicy.of(2, 1);
+  }
+
+  @After
+  public void tearDown() {
+    if (pool != null) {
+      pool.close();
+    }
+    if (provider != null) {
+      provider.close();
+    }
+  }
+
+  private ConnectionPool poolOf(final ConnectionPoolPolicy policy) {
+    final ConnectionProvider unpooled = providerOf(ConnectionPoolPolicy.None);
+    pool = new ConnectionPool(policy, unpooled::connection);
+    return pool;
+  }
+
+  private ConnectionProvider providerOf(final ConnectionPoolPolicy policy) {
+    return new ConnectionProvider("org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:", "pooltest", "SA", "", false, policy);
+  }
+}
@@ -0,0 +1,56 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class DispatchConfirmationPolicyTest {
+
+  @Test
+  public void testThatEachDispatchIsDueOnEachConfirmation() {
+    final DispatchConfirmationPolicy.Accumulator accumulator = DispatchConfirmationPolicy.EachDispatch.accumulator();
+
+    assertFalse(accumulator.isDue());
+    assertTrue(accumulator.confirmed("1"));
+    assertEquals(Arrays.asList("1"), accumulator.drain());
+    assertFalse(accumulator.hasPending());
+  }
+
+  @Test
+  public void testThatConfirmationsAreDueAtThreshold() {
+    final DispatchConfirmationPolicy.Accumulator accumulator = DispatchConfirmationPolicy.every(3, 0).accumulator();
+
+    assertFalse(accumulator.confirmed("1"));
+    assertFalse(accumulator.confirmed("2"));
+    assertTrue(accumulator.hasPending());
+    assertTrue(accumulator.confirmed("3"));
+    assertEquals(Arrays.asList("1", "2", "3"), accumulator.drain());
+    assertFalse(accumulator.confirmed("4"));
+  }
+
+  @Test
+  public void testThatConfirmationsAreDueAfterElapsed() throws Exception {
+    final DispatchConfirmationPolicy.Accumulator accumulator = DispatchConfirmationPolicy.every(100, 20).accumulator();
+
+    assertFalse(accumulator.confirmed("1"));
+    Thread.sleep(30);
+    assertTrue(accumulator.isDue());
+    assertTrue(accumulator.confirmed("2"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatConfirmationsMustBePositive() {
+    DispatchConfirmationPolicy.every(0, 0);
+  }
+}
@@ -0,0 +1,83 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.State;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables.Unconfirmed;
+
+public class DispatchablesTest {
+
+  @Test
+  public void testThatPaddingRepeatsTheLastValue() {
+    assertEquals(Arrays.asList(1L, 2L, 2L, 2L), Dispatchables.padded(Arrays.asList(1L, 2L), 4));
+    assertEquals(Arrays.asList(1L, 2L), Dispatchables.padded(Arrays.asList(1L, 2L), 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatPaddingRejectsNoValues() {
+    Dispatchables.padded(Collections.emptyList(), 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatPaddingRejectsTooManyValues() {
+    Dispatchables.padded(Arrays.asList(1L, 2L, 3L), 2);
+  }
+
+  @Test
+  public void testThatEntryIdsAreParsed() {
+    assertEquals(Arrays.asList(1L, 22L, 333L), Dispatchables.entryIdsOf("1|22|333", "|"));
+    assertTrue(Dispatchables.entryIdsOf("", "|").isEmpty());
+    assertTrue(Dispatchables.entryIdsOf(null, "|").isEmpty());
+  }
+
+  @Test
+  public void testThatEntriesAreReadOnceInPages() throws Exception {
+    final List<Long> entryIds = new ArrayList<>();
+    for (long id = 1; id <= Dispatchables.ENTRIES_LIMIT + 1; ++id) {
+      entryIds.add(id);
+    }
+    final List<Unconfirmed> unconfirmed = Arrays.asList(
+            new Unconfirmed("1", LocalDateTime.now(), null, null, entryIds),
+            new Unconfirmed("2", LocalDateTime.now(), null, null, entryIds));
+
+    final List<Integer> pageSizes = new ArrayList<>();
+    final Map<Long, Entry<?>> entries = Dispatchables.entriesOf(unconfirmed, (ids, read) -> pageSizes.add(ids.size()));
+
+    assertTrue(entries.isEmpty());
+    assertEquals(Arrays.asList(Dispatchables.ENTRIES_LIMIT, 1), pageSizes);
+  }
+
+  @Test
+  public void testThatReferencedStateIsFoundByItsKey() {
+    final State<?> copiedState = new State.TextState("1", Object.class, 1, "copied", 1);
+    final State<?> currentState = new State.TextState("2", Object.class, 1, "current", 2);
+    final Unconfirmed copied = new Unconfirmed("1", LocalDateTime.now(), copiedState, null, Collections.emptyList());
+    final Unconfirmed referenced = new Unconfirmed("2", LocalDateTime.now(), null, "stream", Collections.emptyList());
+    final Map<String, State<?>> referencedStates = Collections.singletonMap("stream", currentState);
+
+    assertFalse(copied.isReferenced());
+    assertTrue(referenced.isReferenced());
+    assertSame(copiedState, copied.with(Collections.emptyMap(), referencedStates).typedState());
+    assertSame(currentState, referenced.with(Collections.emptyMap(), referencedStates).typedState());
+  }
+}
@@ -0,0 +1,131 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vlingo.symbio.store.common.jdbc.IOExecutor.Lane;
+
+public class IOExecutorTest {
+  private IOExecutor executor;
+
+  @Test
+  public void testThatWorkIsRunInlineWithoutPolicy() {
+    final Lane lane = IOExecutor.None.lane(cause -> { });
+    final AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+    lane.execute(() -> ranOn.set(Thread.currentThread()));
+
+    assertTrue(lane.isInline());
+    assertSame(Thread.currentThread(), ranOn.get());
+  }
+
+  @Test
+  public void testThatLaneRunsWorkInOrder() throws Exception {
+    executor = new IOExecutor(IOExecutorPolicy.of(4).withPlatformThreads());
+    final Lane lane = executor.lane(cause -> { });
+    final List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch until = new CountDownLatch(1);
+    final AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+    for (int count = 0; count < 100; ++count) {
+      final int unit = count;
+      lane.execute(() -> ran.add(unit));
+    }
+    lane.execute(() -> {
+      ranOn.set(Thread.currentThread());
+      until.countDown();
+    });
+
+    assertTrue(until.await(5, TimeUnit.SECONDS));
+    assertFalse(lane.isInline());
+    assertFalse(executor.usesVirtualThreads());
+    assertNotSame(Thread.currentThread(), ranOn.get());
+    assertEquals(100, ran.size());
+    for (int count = 0; count < 100; ++count) {
+      assertEquals(count, (int) ran.get(count));
+    }
+  }
+
+  @Test
+  public void testThatConcurrencyIsBounded() throws Exception {
+    executor = new IOExecutor(IOExecutorPolicy.of(2));
+    final AtomicInteger running = new AtomicInteger(0);
+    final AtomicInteger maximum = new AtomicInteger(0);
+    final CountDownLatch until = new CountDownLatch(6);
+
+    for (int count = 0; count < 6; ++count) {
+      executor.lane(cause -> { }).execute(() -> {
+        maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          // ignore
+        }
+        running.decrementAndGet();
+        until.countDown();
+      });
+    }
+
+    assertTrue(until.await(5, TimeUnit.SECONDS));
+    assertTrue(maximum.get() <= 2);
+  }
+
+  @Test
+  public void testThatFailuresAreToldAndLaneContinues() throws Exception {
+    executor = new IOExecutor(IOExecutorPolicy.of(1));
+    final AtomicReference<Throwable> failed = new AtomicReference<>();
+    final CountDownLatch until = new CountDownLatch(1);
+    final Lane lane = executor.lane(failed::set);
+
+    lane.execute(() -> { throw new IllegalStateException("failed"); });
+    lane.execute(until::countDown);
+
+    assertTrue(until.await(5, TimeUnit.SECONDS));
+    assertEquals("failed", failed.get().getMessage());
+  }
+
+  @Test
+  public void testThatWorkAfterCloseIsRunBySubmitter() {
+    executor = new IOExecutor(IOExecutorPolicy.of(1));
+    final Lane lane = executor.lane(cause -> { });
+    final AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+    executor.close();
+    lane.execute(() -> ranOn.set(Thread.currentThread()));
+
+    assertSame(Thread.currentThread(), ranOn.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatConcurrencyIsValidated() {
+    IOExecutorPolicy.of(0);
+  }
+
+  @After
+  public void tearDown() {
+    if (executor != null) {
+      executor.close();
+    }
+  }
+}
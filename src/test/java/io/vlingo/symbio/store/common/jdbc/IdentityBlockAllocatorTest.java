@@ -0,0 +1,49 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class IdentityBlockAllocatorTest {
+
+  @Test
+  public void testThatReservesOneBlockPerBlockSize() throws Exception {
+    final AtomicInteger reservations = new AtomicInteger(0);
+    final AtomicLong sequence = new AtomicLong(1);
+    final IdentityBlockAllocator allocator = new IdentityBlockAllocator(3, blockSize -> {
+      reservations.incrementAndGet();
+      return sequence.getAndAdd(blockSize);
+    });
+
+    for (long expected = 1; expected <= 7; ++expected) {
+      assertEquals(expected, allocator.nextId());
+    }
+    assertEquals(3, reservations.get());
+  }
+
+  @Test
+  public void testThatFollowsReservedBlocksAcrossGaps() throws Exception {
+    final AtomicLong sequence = new AtomicLong(10);
+    final IdentityBlockAllocator allocator = new IdentityBlockAllocator(2, blockSize -> sequence.getAndAdd(blockSize * 5));
+
+    assertEquals(10, allocator.nextId());
+    assertEquals(11, allocator.nextId());
+    assertEquals(20, allocator.nextId());
+    assertEquals(21, allocator.nextId());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatBlockSizeMustBePositive() {
+    new IdentityBlockAllocator(0, blockSize -> 1L);
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class OffsetCommitPolicyTest {
+
+  @Test
+  public void testThatEveryReadCommitsEachRead() {
+    final OffsetCommitPolicy.Tracker tracker = OffsetCommitPolicy.EveryRead.tracker();
+
+    assertFalse(tracker.read(0));
+    assertTrue(tracker.read(1));
+    tracker.committed();
+    assertFalse(tracker.hasPending());
+  }
+
+  @Test
+  public void testThatEveryEntriesCommitsAtThreshold() {
+    final OffsetCommitPolicy.Tracker tracker = OffsetCommitPolicy.everyEntries(3).tracker();
+
+    assertFalse(tracker.read(1));
+    assertFalse(tracker.read(1));
+    assertTrue(tracker.hasPending());
+    assertTrue(tracker.read(1));
+    tracker.committed();
+    assertFalse(tracker.read(2));
+  }
+
+  @Test
+  public void testThatEveryMillisCommitsAfterElapsed() throws Exception {
+    final OffsetCommitPolicy.Tracker tracker = OffsetCommitPolicy.everyMillis(20).tracker();
+
+    assertFalse(tracker.read(5));
+    Thread.sleep(30);
+    assertTrue(tracker.read(1));
+  }
+
+  @Test
+  public void testThatEveryMillisSchedulesOneFlushOfPendingReads() throws Exception {
+    final OffsetCommitPolicy.Tracker tracker = OffsetCommitPolicy.everyMillis(20).tracker();
+
+    assertEquals(0L, tracker.flushAfter());
+    assertFalse(tracker.read(5));
+    final long flushAfter = tracker.flushAfter();
+    assertTrue(flushAfter > 0 && flushAfter <= 20);
+    assertEquals(0L, tracker.flushAfter());
+    Thread.sleep(30);
+    assertTrue(tracker.flushDue());
+    tracker.committed();
+    assertFalse(tracker.flushDue());
+    assertEquals(0L, tracker.flushAfter());
+  }
+
+  @Test
+  public void testThatOnlyTimeSchedulesFlushes() {
+    final OffsetCommitPolicy.Tracker entries = OffsetCommitPolicy.everyEntries(3).tracker();
+    assertFalse(entries.read(1));
+    assertEquals(0L, entries.flushAfter());
+
+    final OffsetCommitPolicy.Tracker explicit = OffsetCommitPolicy.Explicit.tracker();
+    assertFalse(explicit.read(1));
+    assertEquals(0L, explicit.flushAfter());
+  }
+
+  @Test
+  public void testThatExplicitNeverCommitsOnRead() {
+    final OffsetCommitPolicy.Tracker tracker = OffsetCommitPolicy.Explicit.tracker();
+
+    assertFalse(tracker.read(1000));
+    assertTrue(tracker.hasPending());
+  }
+
+  @Test
+  public void testThatDefaultIsTheReaderDefault() {
+    assertSame(OffsetCommitPolicy.Explicit, OffsetCommitPolicy.Default.defaultingTo(OffsetCommitPolicy.Explicit));
+    assertSame(OffsetCommitPolicy.EveryRead, OffsetCommitPolicy.Default.defaultingTo(OffsetCommitPolicy.EveryRead));
+    assertSame(OffsetCommitPolicy.EveryRead, OffsetCommitPolicy.EveryRead.defaultingTo(OffsetCommitPolicy.Explicit));
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PagedCollectionTest {
+
+  @Test
+  public void testThatIteratesAllPagesInOrder() {
+    final AtomicInteger pages = new AtomicInteger(0);
+    final PagedCollection<Integer> collection = new PagedCollection<>(3, () -> pagerOf(7, pages));
+
+    final List<Integer> elements = new ArrayList<>();
+    for (final Integer element : collection) {
+      elements.add(element);
+    }
+
+    assertEquals(7, elements.size());
+    for (int index = 0; index < 7; ++index) {
+      assertEquals(index, (int) elements.get(index));
+    }
+    assertEquals(3, pages.get());
+  }
+
+  @Test
+  public void testThatReadsOneMorePageWhenLastIsFull() {
+    final AtomicInteger pages = new AtomicInteger(0);
+    final PagedCollection<Integer> collection = new PagedCollection<>(3, () -> pagerOf(6, pages));
+
+    assertEquals(6, collection.size());
+    assertEquals(3, pages.get());
+  }
+
+  @Test
+  public void testThatEmptyReadsOnePage() {
+    final AtomicInteger pages = new AtomicInteger(0);
+    final PagedCollection<Integer> collection = new PagedCollection<>(3, () -> pagerOf(0, pages));
+
+    assertTrue(collection.isEmpty());
+    assertEquals(1, pages.get());
+  }
+
+  @Test
+  public void testThatSizeIsQueriedOnce() {
+    final AtomicInteger pages = new AtomicInteger(0);
+    final PagedCollection<Integer> collection = new PagedCollection<>(3, () -> pagerOf(7, pages));
+
+    assertEquals(7, collection.size());
+    assertEquals(7, collection.size());
+    assertFalse(collection.isEmpty());
+    assertEquals(3, pages.get());
+  }
+
+  @Test
+  public void testThatIterationCountsTheSize() {
+    final AtomicInteger pages = new AtomicInteger(0);
+    final PagedCollection<Integer> collection = new PagedCollection<>(3, () -> pagerOf(4, pages));
+
+    for (final Iterator<Integer> iterator = collection.iterator(); iterator.hasNext(); iterator.next()) { }
+
+    assertEquals(4, collection.size());
+    assertEquals(2, pages.get());
+  }
+
+  private PagedCollection.Pager<Integer> pagerOf(final int total, final AtomicInteger pages) {
+    return new PagedCollection.Pager<Integer>() {
+      private int after = -1;
+
+      @Override
+      public List<Integer> nextPage(final int limit) {
+        pages.incrementAndGet();
+        if (after + 1 >= total) return Collections.emptyList();
+        final List<Integer> page = new ArrayList<>(limit);
+        for (int element = after + 1; element < total && page.size() < limit; ++element) {
+          page.add(element);
+          after = element;
+        }
+        return page;
+      }
+    };
+  }
+}
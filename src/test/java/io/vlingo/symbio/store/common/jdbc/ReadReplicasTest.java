@@ -0,0 +1,92 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import io.vlingo.symbio.store.common.jdbc.ReadReplicaPolicy.Selection;
+import io.vlingo.symbio.store.common.jdbc.ReadReplicas.Replica;
+
+public class ReadReplicasTest {
+  private final ConnectionProvider primary =
+          new ConnectionProvider("org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:", "primary", "SA", "", false);
+
+  @Test
+  public void testThatPrimaryIsSelectedWithoutReplicas() {
+    final ReadReplicas readReplicas = new ReadReplicas(ReadReplicaPolicy.None, primary);
+
+    assertFalse(readReplicas.isEnabled());
+    assertSame(readReplicas.primary(), readReplicas.select());
+    readReplicas.wrote("stream", 10);
+    assertFalse(readReplicas.isRecentlyWritten("stream"));
+    assertFalse(readReplicas.isBehind(1));
+  }
+
+  @Test
+  public void testThatReplicasAreSelectedRoundRobin() {
+    final ReadReplicas readReplicas =
+            new ReadReplicas(ReadReplicaPolicy.of(Selection.RoundRobin, "jdbc:hsqldb:mem:r1_", "jdbc:hsqldb:mem:r2_"), primary);
+
+    final Replica first = readReplicas.select();
+    final Replica second = readReplicas.select();
+
+    assertFalse(first.isPrimary);
+    assertNotSame(first, second);
+    assertSame(first, readReplicas.select());
+    assertEquals("jdbc:hsqldb:mem:r1_", first.connectionProvider.url);
+    assertEquals(primary.databaseName, first.connectionProvider.databaseName);
+  }
+
+  @Test
+  public void testThatLeastLoadedReplicaIsSelected() {
+    final ReadReplicas readReplicas =
+            new ReadReplicas(ReadReplicaPolicy.of(Selection.LeastLoaded, "jdbc:hsqldb:mem:r1_", "jdbc:hsqldb:mem:r2_"), primary);
+
+    final Replica loaded = readReplicas.select();
+    final Connection connection = loaded.connection();
+    assertEquals(1, loaded.load());
+
+    final Replica least = readReplicas.select();
+    assertNotSame(loaded, least);
+
+    loaded.release(connection);
+    assertEquals(0, loaded.load());
+  }
+
+  @Test
+  public void testThatRecentWritesAreReadFromPrimary() throws Exception {
+    final ReadReplicas readReplicas =
+            new ReadReplicas(ReadReplicaPolicy.of(Selection.RoundRobin, "jdbc:hsqldb:mem:r1_").withReadYourWrites(50), primary);
+
+    readReplicas.wrote("stream-1", 7);
+
+    assertTrue(readReplicas.isRecentlyWritten("stream-1"));
+    assertTrue(readReplicas.isRecentlyWritten(Arrays.asList("stream-2", "stream-1")));
+    assertFalse(readReplicas.isRecentlyWritten("stream-2"));
+    assertTrue(readReplicas.isBehind(6));
+    assertFalse(readReplicas.isBehind(7));
+
+    Thread.sleep(100);
+
+    assertFalse(readReplicas.isRecentlyWritten("stream-1"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatReplicaUrlsAreRequired() {
+    ReadReplicaPolicy.of(Selection.RoundRobin);
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+public class TypeResolverTest {
+
+  @Test
+  public void testThatResolvesKnownTypes() throws Exception {
+    assertSame(String.class, TypeResolver.classFor(String.class.getName()));
+    assertSame(TypeResolverTest.class, TypeResolver.classFor(TypeResolverTest.class.getName()));
+    assertSame(TypeResolverTest.class, TypeResolver.classFor(TypeResolverTest.class.getName()));
+  }
+
+  @Test
+  public void testThatFailsFastForUnknownTypes() {
+    final String unknown = "io.vlingo.symbio.store.common.jdbc.UnknownType";
+    for (int attempt = 0; attempt < 2; ++attempt) {
+      try {
+        TypeResolver.classFor(unknown);
+        fail("Expected ClassNotFoundException");
+      } catch (final ClassNotFoundException e) {
+        assertEquals(unknown, e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testThatResolvesByClassLoader() throws Exception {
+    try (final URLClassLoader classLoader = new URLClassLoader(new URL[0], TypeResolverTest.class.getClassLoader())) {
+      assertSame(TypeResolverTest.class, TypeResolver.classFor(TypeResolverTest.class.getName(), classLoader));
+    }
+    try (final URLClassLoader isolated = new URLClassLoader(new URL[0], null)) {
+      try {
+        TypeResolver.classFor(TypeResolverTest.class.getName(), isolated);
+        fail("Expected ClassNotFoundException");
+      } catch (final ClassNotFoundException e) {
+        // the isolated class loader cannot see the test classes
+      }
+    }
+  }
+
+  @Test
+  public void testThatRetriesFailedTypesOnceRetentionPasses() throws Exception {
+    final String late = TypeResolverTest.class.getName();
+    final LateClassLoader classLoader = new LateClassLoader();
+
+    try {
+      for (int attempt = 0; attempt < 2; ++attempt) {
+        try {
+          TypeResolver.classFor(late, classLoader);
+          fail("Expected ClassNotFoundException");
+        } catch (final ClassNotFoundException e) {
+          // not yet available, and then remembered as failed
+        }
+      }
+      assertEquals(1, classLoader.attempts);
+
+      classLoader.available = true;
+      TypeResolver.retainFailuresFor(0);
+
+      assertSame(TypeResolverTest.class, TypeResolver.classFor(late, classLoader));
+      assertSame(TypeResolverTest.class, TypeResolver.classFor(late, classLoader));
+      assertEquals(2, classLoader.attempts);
+    } finally {
+      TypeResolver.retainFailuresFor(TypeResolver.FailureRetentionMillis);
+    }
+  }
+
+  // a class loader that can load the test classes only once they are made available
+  private static final class LateClassLoader extends ClassLoader {
+    private boolean available;
+    private int attempts;
+
+    LateClassLoader() {
+      super(null);
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith("io.vlingo.")) {
+        return super.loadClass(name, resolve);
+      }
+      ++attempts;
+      if (!available) {
+        throw new ClassNotFoundException(name);
+      }
+      return TypeResolverTest.class.getClassLoader().loadClass(name);
+    }
+  }
+}
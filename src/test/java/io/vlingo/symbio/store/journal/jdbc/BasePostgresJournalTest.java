@@ -81,6 +81,20 @@ public abstract class BasePostgresJournalTest {
         return queries.generatedKeyFrom(insert._1);
     }
 
+    protected final void insertRolledBackEvent(final int dataVersion) throws SQLException {
+        queries.prepareInsertEntryQuery(
+                aggregateRootId.toString(),
+                dataVersion,
+                gson.toJson(new TestEvent(aggregateRootId, dataVersion)),
+                TestEvent.class.getName(),
+                1,
+                gson.toJson(Metadata.nullMetadata()))
+                ._1
+                .executeUpdate();
+
+        configuration.connection.rollback();
+    }
+
     protected final void insertOffset(final long offset, final String readerName) throws SQLException {
         queries.prepareUpsertOffsetQuery(readerName, offset).executeUpdate();
         configuration.connection.commit();
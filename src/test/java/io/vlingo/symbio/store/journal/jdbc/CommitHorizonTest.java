@@ -0,0 +1,84 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+public class CommitHorizonTest {
+
+    @Test
+    public void testThatNoneHoldsBackNoEntries() {
+        final CommitHorizon.Writer writer = CommitHorizon.None.writer(0L);
+        writer.writing();
+
+        assertFalse(CommitHorizon.None.isEnabled());
+        assertEquals(Long.MAX_VALUE, CommitHorizon.None.through());
+    }
+
+    @Test
+    public void testThatIdleWritersAreThroughTheLastEntry() {
+        final CommitHorizon horizon = new CommitHorizon();
+        horizon.writer(10L);
+        horizon.writer(7L);
+
+        assertEquals(10L, horizon.through());
+    }
+
+    @Test
+    public void testThatWriterUnderWayHoldsBackTheCommitsOfOthers() {
+        final CommitHorizon horizon = new CommitHorizon();
+        final CommitHorizon.Writer slow = horizon.writer(10L);
+        final CommitHorizon.Writer fast = horizon.writer(10L);
+
+        slow.writing();               // assigns 11
+        fast.writing();               // assigns 12
+        fast.committed(12L, Long.MAX_VALUE);
+
+        assertEquals(10L, horizon.through());
+
+        slow.committed(11L, Long.MAX_VALUE);
+
+        assertEquals(12L, horizon.through());
+    }
+
+    @Test
+    public void testThatRolledBackWriterHoldsBackNoLonger() {
+        final CommitHorizon horizon = new CommitHorizon();
+        final CommitHorizon.Writer failing = horizon.writer(5L);
+        final CommitHorizon.Writer other = horizon.writer(5L);
+
+        failing.writing();
+        other.writing();
+        other.committed(7L, Long.MAX_VALUE);
+        failing.rolledBack(Long.MAX_VALUE);
+
+        assertEquals(7L, horizon.through());
+    }
+
+    @Test
+    public void testThatHeldBlockHoldsBackHigherEntries() {
+        final CommitHorizon horizon = new CommitHorizon();
+        final CommitHorizon.Writer lower = horizon.writer(0L);
+        final CommitHorizon.Writer higher = horizon.writer(0L);
+
+        lower.writing();              // assigns 1 of the block 1..100
+        lower.committed(1L, 2L);
+        higher.writing();             // assigns 101 of the block 101..200
+        higher.committed(101L, 102L);
+
+        assertEquals(1L, horizon.through());
+
+        lower.writing();              // assigns 2..100, using up its block
+        lower.committed(100L, Long.MAX_VALUE);
+
+        assertEquals(101L, horizon.through());
+    }
+}
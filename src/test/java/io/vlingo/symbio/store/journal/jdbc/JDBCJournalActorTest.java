@@ -8,13 +8,24 @@
 package io.vlingo.symbio.store.journal.jdbc;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import io.vlingo.symbio.store.journal.jdbc.BasePostgresJournalTest;
@@ -27,16 +38,24 @@ import org.junit.Test;
 import io.vlingo.actors.testkit.AccessSafely;
 import io.vlingo.common.Completes;
 import io.vlingo.common.serialization.JsonSerialization;
+import io.vlingo.symbio.BaseEntry.BinaryEntry;
 import io.vlingo.symbio.BaseEntry.TextEntry;
 import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.EntryAdapter;
 import io.vlingo.symbio.EntryAdapterProvider;
 import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.Source;
 import io.vlingo.symbio.State.TextState;
 import io.vlingo.symbio.StateAdapter;
 import io.vlingo.symbio.StateAdapterProvider;
+import io.vlingo.symbio.store.DataFormat;
 import io.vlingo.symbio.store.common.MockDispatcher;
+import io.vlingo.symbio.store.common.event.Event;
 import io.vlingo.symbio.store.common.event.TestEvent;
 import io.vlingo.symbio.store.common.event.TestEventAdapter;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.ConnectionProvider;
+import io.vlingo.symbio.store.common.jdbc.Dispatchables;
 import io.vlingo.symbio.store.dispatch.Dispatchable;
 import io.vlingo.symbio.store.journal.Journal;
 import io.vlingo.symbio.store.journal.JournalReader;
@@ -105,6 +124,58 @@ public abstract class JDBCJournalActorTest extends BasePostgresJournalTest {
         assertEquals(appendedEvent2, event2);
     }
 
+    @Test
+    public void testThatAppendsManySourcesWithAscendingIdsInSourceOrder() {
+        dispatcher.afterCompleting(1);
+        final AccessSafely access = interest.afterCompleting(1);
+
+        final List<Source<Event>> appendedEvents = new ArrayList<>();
+        for (int number = 1; number <= 100; ++number) {
+            appendedEvents.add(newEventForData(number));
+        }
+        journal.appendAll(streamName, 1, appendedEvents, interest, object);
+
+        assertEquals(1, (int) access.readFrom("successCount"));
+        final Collection<Dispatchable<Entry<String>, TextState>> dispatched = dispatcher.getDispatched().values();
+        assertEquals(1, dispatched.size());
+        final List<Entry<String>> appendedEntries = dispatched.iterator().next().entries();
+
+        // the reader reads in the order of the ids, and so in source order only if they ascend with it
+        final List<TextEntry> entries = journalReader.readNext(100).await();
+        assertEquals(100, entries.size());
+        long previousId = 0;
+        for (int index = 0; index < entries.size(); ++index) {
+            final TextEntry entry = entries.get(index);
+            assertEquals(appendedEvents.get(index), gson.fromJson(entry.entryData(), TestEvent.class));
+            assertEquals(appendedEntries.get(index).id(), entry.id());
+            final long id = Long.parseLong(entry.id());
+            assertTrue(id > previousId);
+            previousId = id;
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatBatchWithoutGeneratedKeysFailsTheAppend() throws Exception {
+        final ConnectionProvider keyless = new KeylessConnectionProvider(configuration.connectionProvider.copyReplacing(configuration.actualDatabaseName));
+        final Configuration keylessConfiguration =
+                new Configuration.Builder(configuration.databaseType, Configuration.interestOf(configuration.databaseType),
+                        DataFormat.Text, keyless, configuration.originatorId).build();
+        final MockDispatcher<Entry<String>, TextState> keylessDispatcher = new MockDispatcher<>();
+        final Journal<String> keylessJournal =
+                world.stage().actorFor(Journal.class, JDBCJournalActor.class, keylessDispatcher, keylessConfiguration);
+
+        System.out.println("========== BEGIN: EXPECTED EXCEPTIONS AHEAD");
+        final AccessSafely access = interest.afterCompleting(1);
+        keylessJournal.appendAll(streamName, 1, asList(newEventForData(1), newEventForData(2)), interest, object);
+
+        assertEquals(0, (int) access.readFrom("successCount"));
+        assertEquals(1, (int) access.readFrom("failureCount"));
+        assertEquals(0, (int) access.readFrom("concurrencyViolationCount"));
+        assertTrue(keylessDispatcher.getDispatched().isEmpty());
+        assertTrue(journalReader.readNext(2).await().isEmpty());
+    }
+
     @Test
     public void testThatInsertsANewEventWithASnapshot() {
         dispatcher.afterCompleting(3);
@@ -168,6 +239,344 @@ public abstract class JDBCJournalActorTest extends BasePostgresJournalTest {
         assertEquals(2, (int) access.readFrom("failureCount"));
     }
 
+    @Test
+    public void testThatDuplicateStreamVersionIsAConcurrencyViolation() {
+        final AccessSafely access = interest.afterCompleting(2);
+
+        journal.append(streamName, 1, newEventForData(1), interest, object);
+        journal.append(streamName, 1, newEventForData(2), interest, object);
+
+        assertEquals(1, (int) access.readFrom("successCount"));
+        assertEquals(1, (int) access.readFrom("failureCount"));
+        assertEquals(1, (int) access.readFrom("concurrencyViolationCount"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatGroupCommitsConcurrentAppends() {
+        final MockDispatcher<Entry<String>, TextState> groupDispatcher = new MockDispatcher<>();
+        final Journal<String> groupJournal =
+                world.stage().actorFor(Journal.class, JDBCJournalActor.class, groupDispatcher, configuration, GroupCommit.of(2, 50_000L));
+
+        groupDispatcher.afterCompleting(3);
+        final AccessSafely access = interest.afterCompleting(3);
+
+        groupJournal.append(streamName, 1, newEventForData(1), interest, object);
+        groupJournal.append(streamName, 2, newEventForData(2), interest, object);
+        groupJournal.appendAll(streamName, 3, Arrays.asList(newEventForData(3), newEventForData(4)), interest, object);
+
+        assertEquals(3, (int) access.readFrom("successCount"));
+        assertEquals(0, (int) access.readFrom("failureCount"));
+        assertEquals(3, groupDispatcher.getDispatched().size());
+
+        final List<TextEntry> entries = journalReader.readNext(4).await();
+        assertEquals(4, entries.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatGroupCommitTellsNoAppendUntilItsGroupCommits() {
+        final MockDispatcher<Entry<String>, TextState> groupDispatcher = new MockDispatcher<>();
+        final Journal<String> groupJournal =
+                world.stage().actorFor(Journal.class, JDBCJournalActor.class, groupDispatcher, configuration, GroupCommit.of(2, 60_000_000L));
+
+        final AccessSafely uncommitted = interest.afterCompleting(0);
+        groupJournal.append(streamName, 1, newEventForData(1), interest, object);
+        // answered only once the journal has written the first append
+        groupJournal.streamReader(streamName).await();
+
+        assertEquals(0, (int) uncommitted.readFrom("successCount"));
+        assertEquals(0, (int) uncommitted.readFrom("failureCount"));
+        assertTrue(groupDispatcher.getDispatched().isEmpty());
+        assertTrue(journalReader.readNext(2).await().isEmpty());
+
+        groupDispatcher.afterCompleting(2);
+        final AccessSafely committed = interest.afterCompleting(2);
+        groupJournal.append(streamName, 2, newEventForData(2), interest, object);
+
+        assertEquals(2, (int) committed.readFrom("successCount"));
+        assertEquals(0, (int) committed.readFrom("failureCount"));
+        assertEquals(2, groupDispatcher.getDispatched().size());
+        assertEquals(2, journalReader.readNext(2).await().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatGroupCommitFailsEveryAppendOfAFailedGroup() {
+        final MockDispatcher<Entry<String>, TextState> groupDispatcher = new MockDispatcher<>();
+        final Journal<String> groupJournal =
+                world.stage().actorFor(Journal.class, JDBCJournalActor.class, groupDispatcher, configuration, GroupCommit.of(2, 60_000_000L));
+
+        final AccessSafely access = interest.afterCompleting(2);
+        groupJournal.append(streamName, 1, newEventForData(1), interest, object);
+        groupJournal.append(streamName, 1, newEventForData(2), interest, object);
+
+        assertEquals(0, (int) access.readFrom("successCount"));
+        assertEquals(2, (int) access.readFrom("failureCount"));
+        // the first append is failed with its group, and only the duplicate is a violation
+        assertEquals(1, (int) access.readFrom("concurrencyViolationCount"));
+        assertTrue(groupDispatcher.getDispatched().isEmpty());
+        assertTrue(journalReader.readNext(2).await().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatShardedJournalAppendsEachStreamInOrder() {
+        final MockDispatcher<Entry<String>, TextState> shardedDispatcher = new MockDispatcher<>();
+        final Journal<String> shardedJournal =
+                world.stage().actorFor(Journal.class, JDBCShardedJournalActor.class, shardedDispatcher, configuration, 4);
+
+        final int streams = 8;
+        final int versions = 3;
+        shardedDispatcher.afterCompleting(streams * versions);
+        final AccessSafely access = interest.afterCompleting(streams * versions);
+
+        for (int version = 1; version <= versions; ++version) {
+            for (int stream = 0; stream < streams; ++stream) {
+                shardedJournal.append(streamName + stream, version, newEventForData(version), interest, object);
+            }
+        }
+
+        assertEquals(streams * versions, (int) access.readFrom("successCount"));
+        assertEquals(0, (int) access.readFrom("failureCount"));
+        assertEquals(streams * versions, shardedDispatcher.getDispatched().size());
+
+        final StreamReader<String> shardedStreamReader = shardedJournal.streamReader(streamName).await();
+        for (int stream = 0; stream < streams; ++stream) {
+            final Stream<String> read = shardedStreamReader.streamFor(streamName + stream).await();
+            assertEquals(versions, read.streamVersion);
+            for (int version = 1; version <= versions; ++version) {
+                assertEquals(version, gson.fromJson(read.entries.get(version - 1).entryData(), TestEvent.class).number);
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatShardedJournalReadsEveryEntryOfItsWriters() {
+        final Journal<String> shardedJournal =
+                world.stage().actorFor(Journal.class, JDBCShardedJournalActor.class, configuration, 4);
+
+        final int streams = 8;
+        final int versions = 3;
+        final AccessSafely access = interest.afterCompleting(streams * versions);
+
+        for (int version = 1; version <= versions; ++version) {
+            for (int stream = 0; stream < streams; ++stream) {
+                shardedJournal.append(streamName + stream, version, newEventForData(version), interest, object);
+            }
+        }
+
+        assertEquals(streams * versions, (int) access.readFrom("successCount"));
+
+        final JournalReader<TextEntry> shardedReader =
+                (JournalReader<TextEntry>) shardedJournal.journalReader(streamName + "-sharded").await();
+        final List<TextEntry> entries = shardedReader.readNext(streams * versions + 1).await();
+        assertEquals(streams * versions, entries.size());
+
+        long previousId = 0;
+        for (final TextEntry entry : entries) {
+            final long id = Long.parseLong(entry.id());
+            assertTrue(id > previousId);
+            previousId = id;
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatRecoversTheEntriesOfManyUnconfirmedDispatchables() throws Exception {
+        dispatcher.afterCompleting(1).writeUsing("processDispatch", false);
+        final Journal<String> undispatchedJournal = world.stage().actorFor(Journal.class, JDBCJournalActor.class, configuration);
+
+        final int appends = Dispatchables.ENTRIES_LIMIT;
+        final AccessSafely access = interest.afterCompleting(appends);
+
+        for (int version = 1; version < appends * 2; version += 2) {
+            undispatchedJournal.appendAll(streamName, version, Arrays.asList(newEventForData(version), newEventForData(version + 1)), interest, object);
+        }
+        assertEquals(appends, (int) access.readFrom("successCount"));
+
+        final JDBCDispatcherControlDelegate delegate = new JDBCDispatcherControlDelegate(configuration, world.defaultLogger());
+        final Collection<Dispatchable<Entry<String>, TextState>> unconfirmed = delegate.allUnconfirmedDispatchableStates();
+        assertEquals(appends, unconfirmed.size());
+
+        for (final Dispatchable<Entry<String>, TextState> dispatchable : unconfirmed) {
+            final List<Entry<String>> entries = new ArrayList<>(dispatchable.entries());
+            assertEquals(2, entries.size());
+            final TestEvent first = gson.fromJson(entries.get(0).entryData(), TestEvent.class);
+            final TestEvent second = gson.fromJson(entries.get(1).entryData(), TestEvent.class);
+            assertEquals(first.number + 1, second.number);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatPagesThroughUnconfirmedDispatchables() throws Exception {
+        dispatcher.afterCompleting(1).writeUsing("processDispatch", false);
+        final Journal<String> undispatchedJournal = world.stage().actorFor(Journal.class, JDBCJournalActor.class, configuration);
+
+        final int appends = Dispatchables.DISPATCHABLES_LIMIT * 2 + 1;
+        final AccessSafely access = interest.afterCompleting(appends);
+
+        for (int version = 1; version <= appends; ++version) {
+            undispatchedJournal.append(streamName, version, newEventForData(version), interest, object);
+        }
+        assertEquals(appends, (int) access.readFrom("successCount"));
+
+        final JDBCDispatcherControlDelegate delegate = new JDBCDispatcherControlDelegate(configuration, world.defaultLogger());
+        final Set<String> dispatchIds = new HashSet<>();
+        final Set<Long> numbers = new HashSet<>();
+
+        for (final Dispatchable<Entry<String>, TextState> dispatchable : delegate.allUnconfirmedDispatchableStates()) {
+            assertTrue(dispatchIds.add(dispatchable.id()));
+            for (final Entry<String> entry : dispatchable.entries()) {
+                numbers.add(gson.fromJson(entry.entryData(), TestEvent.class).number);
+            }
+        }
+
+        assertEquals(appends, dispatchIds.size());
+        assertEquals(appends, numbers.size());
+    }
+
+    @Test
+    public void testThatRecoversReferencedStateFromLatestSnapshot() throws Exception {
+        final TextState snapshot = entity1Adapter.toRawState(streamName, new Entity1(streamName, 123), 2, Metadata.nullMetadata());
+        queries.prepareInsertSnapshotQuery(streamName, 1, "{}", 1, snapshot.type, snapshot.typeVersion, gson.toJson(snapshot.metadata))._1.executeUpdate();
+        queries.prepareInsertSnapshotQuery(streamName, 2, snapshot.data, snapshot.dataVersion, snapshot.type, snapshot.typeVersion, gson.toJson(snapshot.metadata))._1.executeUpdate();
+        queries.prepareInsertDispatchableQuery(streamName + ":2", configuration.originatorId, streamName, null,
+                snapshot.dataVersion, snapshot.type, snapshot.typeVersion, gson.toJson(snapshot.metadata), "")._1.executeUpdate();
+        configuration.connection.commit();
+
+        final JDBCDispatcherControlDelegate delegate = new JDBCDispatcherControlDelegate(configuration, world.defaultLogger());
+        final Collection<Dispatchable<Entry<String>, TextState>> unconfirmed = delegate.allUnconfirmedDispatchableStates();
+        assertEquals(1, unconfirmed.size());
+
+        final TextState state = unconfirmed.iterator().next().typedState();
+        assertEquals(snapshot.dataVersion, state.dataVersion);
+        assertEquals(123, entity1Adapter.fromRawState(state).number);
+    }
+
+    @Test
+    public void testThatAssignsEntryIdsFromBlocks() throws Exception {
+        queries.useEntryIdBlocks(configuration.connectionProvider.copyReplacing(configuration.actualDatabaseName), 2);
+
+        final List<String> assignedIds = new ArrayList<>();
+        for (int version = 1; version <= 3; ++version) {
+            assignedIds.add(queries.prepareInsertEntryBatchQuery(streamName, version, "{}", TestEvent.class.getName(), 1,
+                    gson.toJson(Metadata.nullMetadata())).get());
+        }
+        assertTrue(queries.executeInsertEntryBatch().isEmpty());
+        configuration.connection.commit();
+
+        final List<String> storedIds = new ArrayList<>();
+        try (final ResultSet result = queries.prepareSelectStreamQuery(streamName, 1).executeQuery()) {
+            while (result.next()) {
+                storedIds.add(result.getString(1));
+            }
+        }
+        assertEquals(assignedIds, storedIds);
+        assertEquals(3, new HashSet<>(storedIds).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatExtendsCachedStreamsWithCommittedAppends() {
+        final StreamCache streamCache = StreamCache.of(100);
+        final MockDispatcher<Entry<String>, TextState> cachingDispatcher = new MockDispatcher<>();
+        final Journal<String> cachingJournal =
+                world.stage().actorFor(Journal.class, JDBCJournalActor.class, cachingDispatcher, configuration, 1000L, 1000L,
+                        GroupCommit.None, SnapshotRetention.All, ReadAhead.None, streamCache);
+
+        cachingDispatcher.afterCompleting(2);
+        final AccessSafely firstAccess = interest.afterCompleting(1);
+
+        cachingJournal.append(streamName, 1, newEventForData(1), interest, object);
+        assertEquals(1, (int) firstAccess.readFrom("successCount"));
+
+        final StreamReader<String> cachingStreamReader = cachingJournal.streamReader(streamName).await();
+        assertEquals(1, cachingStreamReader.streamFor(streamName).await().streamVersion);
+
+        final AccessSafely secondAccess = interest.afterCompleting(1);
+        cachingJournal.appendAll(streamName, 2, Arrays.asList(newEventForData(2), newEventForData(3)), interest, object);
+        assertEquals(2, (int) secondAccess.readFrom("successCount"));
+
+        assertEquals(3, streamCache.streamOf(streamName).streamVersion);
+        assertEquals(3, streamCache.entryCount());
+
+        final Stream<String> stream = cachingStreamReader.streamFor(streamName).await();
+        assertEquals(3, stream.streamVersion);
+        assertEquals(3, gson.fromJson(stream.entries.get(2).entryData(), TestEvent.class).number);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatRetainsOnlyTheNewestSnapshots() throws Exception {
+        final Journal<String> retainingJournal =
+                world.stage().actorFor(Journal.class, JDBCJournalActor.class, dispatcher, configuration, 1000L, 1000L,
+                        GroupCommit.None, SnapshotRetention.newest(2), ReadAhead.None, StreamCache.None);
+
+        dispatcher.afterCompleting(3);
+        final AccessSafely access = interest.afterCompleting(3);
+
+        retainingJournal.appendWith(streamName, 1, newEventForData(1), new Entity1(streamName, 1), interest, object);
+        retainingJournal.appendWith(streamName, 2, newEventForData(2), new Entity1(streamName, 2), interest, object);
+        retainingJournal.appendWith(streamName, 3, newEventForData(3), new Entity1(streamName, 3), interest, object);
+        assertEquals(3, (int) access.readFrom("successCount"));
+
+        final List<Integer> retainedVersions = new ArrayList<>();
+        try (final PreparedStatement select = configuration.connection.prepareStatement(
+                "SELECT S_STREAM_VERSION FROM vlingo_symbio_journal_snapshots WHERE S_STREAM_NAME = ? ORDER BY S_STREAM_VERSION")) {
+            select.setString(1, streamName);
+            try (final ResultSet result = select.executeQuery()) {
+                while (result.next()) {
+                    retainedVersions.add(result.getInt(1));
+                }
+            }
+        }
+        configuration.connection.commit();
+        assertEquals(Arrays.asList(2, 3), retainedVersions);
+
+        final Stream<String> stream = retainingJournal.streamReader(streamName).await().streamFor(streamName).await();
+        assertEquals(3, entity1Adapter.fromRawState((TextState) stream.snapshot).number);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThatAppendsAndReadsBinaryEntries() throws Exception {
+        final Configuration binaryConfiguration = testConfiguration(DataFormat.Binary);
+        EntryAdapterProvider.instance(world).registerAdapter(BinaryEvent.class, new BinaryEventAdapter());
+
+        final Journal<byte[]> binaryJournal = world.stage().actorFor(Journal.class, JDBCBinaryJournalActor.class, binaryConfiguration);
+
+        final AccessSafely access = interest.afterCompleting(2);
+        binaryJournal.append(streamName, 1, new BinaryEvent(new byte[] { 1, 2, 3 }), interest, object);
+        binaryJournal.appendAll(streamName, 2, Arrays.asList(new BinaryEvent(new byte[] { 4 }), new BinaryEvent(new byte[] { -1, 0 })), interest, object);
+        assertEquals(2, (int) access.readFrom("successCount"));
+
+        final Stream<byte[]> stream = binaryJournal.streamReader(streamName).await().streamFor(streamName).await();
+        assertEquals(3, stream.streamVersion);
+        assertTrue(stream.entries.get(0) instanceof BinaryEntry);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, stream.entries.get(0).entryData());
+        assertArrayEquals(new byte[] { -1, 0 }, stream.entries.get(2).entryData());
+
+        final Completes<JournalReader<BinaryEntry>> completesBinaryReader = binaryJournal.journalReader("binary-reader");
+        final List<BinaryEntry> entries = completesBinaryReader.await().readNext(3).await();
+        assertEquals(3, entries.size());
+        assertArrayEquals(new byte[] { 4 }, entries.get(1).entryData());
+
+        // the binary entries are held apart from the text entries of the same database
+        try (final PreparedStatement count = binaryConfiguration.connection.prepareStatement("SELECT COUNT(*) FROM vlingo_symbio_binary_journal");
+             final ResultSet result = count.executeQuery()) {
+            assertTrue(result.next());
+            assertEquals(3, result.getInt(1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatTextDispatcherControlRejectsBinaryConfiguration() throws Exception {
+        new JDBCDispatcherControlDelegate(testConfiguration(DataFormat.Binary), world.defaultLogger());
+    }
+
     @Test
     public void testThatReturnsSameReaderForSameName() {
         final String name = UUID.randomUUID().toString();
@@ -230,6 +639,36 @@ public abstract class JDBCJournalActorTest extends BasePostgresJournalTest {
           return event;
       }
 
+      public static final class BinaryEvent extends Source<BinaryEvent> {
+        public final byte[] data;
+
+        public BinaryEvent(final byte[] data) {
+          this.data = data;
+        }
+      }
+
+      public static final class BinaryEventAdapter implements EntryAdapter<BinaryEvent,BinaryEntry> {
+        @Override
+        public BinaryEvent fromEntry(final BinaryEntry entry) {
+          return new BinaryEvent(entry.entryData());
+        }
+
+        @Override
+        public BinaryEntry toEntry(final BinaryEvent source, final Metadata metadata) {
+          return new BinaryEntry(BinaryEvent.class, 1, source.data, metadata);
+        }
+
+        @Override
+        public BinaryEntry toEntry(final BinaryEvent source, final String id, final Metadata metadata) {
+          return new BinaryEntry(BinaryEvent.class, 1, source.data, metadata);
+        }
+
+        @Override
+        public BinaryEntry toEntry(final BinaryEvent source, final int version, final String id, final Metadata metadata) {
+          return new BinaryEntry(BinaryEvent.class, 1, source.data, version, metadata);
+        }
+      }
+
       public static final class Entity1 {
         public final String id;
         public final int number;
@@ -269,4 +708,62 @@ public abstract class JDBCJournalActorTest extends BasePostgresJournalTest {
           return new TextState(id, Entity1.class, typeVersion(), serialization, stateVersion, metadata);
         }
       }
+
+      // provides the connections of its provider, whose statements retrieve no generated keys
+      private static final class KeylessConnectionProvider extends ConnectionProvider {
+        private final ConnectionProvider provider;
+
+        KeylessConnectionProvider(final ConnectionProvider provider) {
+          super(provider.driverClassname, provider.url, provider.databaseName, provider.username, null, provider.useSSL);
+          this.provider = provider;
+        }
+
+        @Override
+        public Connection connection() {
+          return keyless(provider.connection());
+        }
+
+        @Override
+        public Connection ownedConnection() {
+          return keyless(provider.ownedConnection());
+        }
+
+        private static Connection keyless(final Connection connection) {
+          return proxy(Connection.class, (proxy, method, args) -> {
+            final Object answer = invoke(connection, method, args);
+            return answer instanceof PreparedStatement ? keyless((PreparedStatement) answer) : answer;
+          });
+        }
+
+        private static PreparedStatement keyless(final PreparedStatement statement) {
+          return proxy(PreparedStatement.class, (proxy, method, args) ->
+                  method.getName().equals("getGeneratedKeys") ? noKeys() : invoke(statement, method, args));
+        }
+
+        private static ResultSet noKeys() {
+          return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "next":
+              return false;
+            case "close":
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+            }
+          });
+        }
+
+        private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+          try {
+            return method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <P> P proxy(final Class<P> type, final InvocationHandler handler) {
+          return (P) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+        }
+      }
   }
\ No newline at end of file
@@ -11,7 +11,10 @@ import static io.vlingo.symbio.store.EntryReader.Beginning;
 import static io.vlingo.symbio.store.EntryReader.End;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +26,8 @@ import org.junit.Test;
 import io.vlingo.actors.Definition;
 import io.vlingo.actors.testkit.TestUntil;
 import io.vlingo.symbio.BaseEntry.TextEntry;
+import io.vlingo.symbio.store.common.jdbc.Configuration;
+import io.vlingo.symbio.store.common.jdbc.OffsetCommitPolicy;
 import io.vlingo.symbio.store.journal.JournalReader;
 
 public abstract class JDBCJournalReaderActorTest extends BasePostgresJournalTest {
@@ -65,6 +70,24 @@ public abstract class JDBCJournalReaderActorTest extends BasePostgresJournalTest
         assertNotEquals(offset, lastOffset);
     }
 
+    @Test
+    public void testThatRetrievesFullBatchesAcrossIdGaps() throws Exception {
+        JournalReader<TextEntry> journalReader = journalReader();
+
+        insertEvent(1);
+        insertRolledBackEvent(2);
+        insertEvent(3);
+        insertRolledBackEvent(4);
+        insertEvent(5);
+
+        List<TextEntry> events = journalReader.readNext(2).await();
+        assertEquals(2, events.size());
+        assertEquals(1, parse(events.get(0)).number);
+        assertEquals(3, parse(events.get(1)).number);
+
+        assertEquals(5, parse(journalReader.readNext().await()).number);
+    }
+
     @Test
     public void testThatRetrievesInBatches() throws Exception {
         insertEvent(1);
@@ -124,12 +147,106 @@ public abstract class JDBCJournalReaderActorTest extends BasePostgresJournalTest
         assertOffsetIs(readerName, lastOffset + 1);
     }
 
-    @SuppressWarnings("unchecked")
+    @Test
+    public void testThatPrefetchesAheadOfSingleReads() throws Exception {
+        JournalReader<TextEntry> journalReader = journalReader(ReadAhead.of(3, 1));
+
+        insertEvent(1);
+        insertEvent(2);
+        insertEvent(3);
+        insertEvent(4);
+        insertEvent(5);
+
+        for (int number = 1; number <= 5; ++number) {
+            assertEquals(number, parse(journalReader.readNext().await()).number);
+        }
+        assertNull(journalReader.readNext().await());
+
+        insertEvent(6);
+        assertEquals(6, parse(journalReader.readNext().await()).number);
+
+        journalReader.seekTo(Beginning).await();
+        assertEquals(1, parse(journalReader.readNext().await()).number);
+    }
+
+    @Test
+    public void testThatServesPrefetchedEntriesWithoutReadingThemAgain() throws Exception {
+        JournalReader<TextEntry> journalReader = journalReader(ReadAhead.of(3, 1));
+
+        insertEvent(1);
+        long second = insertEvent(2);
+        long third = insertEvent(3);
+
+        assertEquals(1, parse(journalReader.readNext().await()).number);
+
+        deleteEvents(second, third);
+
+        assertEquals(2, parse(journalReader.readNext().await()).number);
+        assertEquals(3, parse(journalReader.readNext().await()).number);
+        assertNull(journalReader.readNext().await());
+    }
+
+    @Test
+    public void testThatReadsBatchesFromTheFirstUnservedPrefetchedEntry() throws Exception {
+        JournalReader<TextEntry> journalReader = journalReader(ReadAhead.of(3, 1));
+
+        insertEvent(1);
+        insertEvent(2);
+        insertEvent(3);
+        insertEvent(4);
+        insertEvent(5);
+
+        assertEquals(1, parse(journalReader.readNext().await()).number);
+
+        List<TextEntry> events = journalReader.readNext(3).await();
+        assertEquals(3, events.size());
+        assertEquals(2, parse(events.get(0)).number);
+        assertEquals(3, parse(events.get(1)).number);
+        assertEquals(4, parse(events.get(2)).number);
+
+        assertEquals(5, parse(journalReader.readNext().await()).number);
+        assertNull(journalReader.readNext().await());
+    }
+
+    @Test
+    public void testThatPersistsATimedOffsetWithoutAnotherRead() throws Exception {
+        final Configuration everyMillis = configuration.builder().withOffsetCommitPolicy(OffsetCommitPolicy.everyMillis(50)).build();
+        final JournalReader<TextEntry> journalReader = journalReader(everyMillis, ReadAhead.None);
+
+        final long offset = insertEvent(1);
+        insertEvent(2);
+
+        assertEquals(1, parse(journalReader.readNext().await()).number);
+
+        Thread.sleep(500);
+        assertOffsetIs(readerName, offset + 1);
+    }
+
+    // the unquoted table name is folded to the case of the journal table by each database
+    private void deleteEvents(final long... ids) throws SQLException {
+        try (final PreparedStatement delete = configuration.connection.prepareStatement("DELETE FROM vlingo_symbio_journal WHERE E_ID = ?")) {
+            for (final long id : ids) {
+                delete.setLong(1, id);
+                delete.executeUpdate();
+            }
+        }
+        configuration.connection.commit();
+    }
+
     private JournalReader<TextEntry> journalReader() {
+        return journalReader(ReadAhead.None);
+    }
+
+    private JournalReader<TextEntry> journalReader(final ReadAhead readAhead) {
+        return journalReader(configuration, readAhead);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JournalReader<TextEntry> journalReader(final Configuration configuration, final ReadAhead readAhead) {
         return world.actorFor(
                 JournalReader.class,
                 Definition.has(JDBCJournalReaderActor.class,
-                        Definition.parameters(configuration, readerName))
+                        Definition.parameters(configuration, readerName, readAhead))
         );
     }
 }
\ No newline at end of file
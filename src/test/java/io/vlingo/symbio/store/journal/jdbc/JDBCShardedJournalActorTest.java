@@ -0,0 +1,24 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import org.junit.Test;
+
+public class JDBCShardedJournalActorTest {
+
+    @Test
+    public void testThatAcceptsWriters() {
+        JDBCShardedJournalActor.checkWriters(1);
+        JDBCShardedJournalActor.checkWriters(4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatRejectsNoWriters() {
+        JDBCShardedJournalActor.checkWriters(0);
+    }
+}
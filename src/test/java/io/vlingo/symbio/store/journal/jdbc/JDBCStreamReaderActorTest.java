@@ -1,26 +1,29 @@
 package io.vlingo.symbio.store.journal.jdbc;
 
 import io.vlingo.actors.Definition;
+import io.vlingo.symbio.Metadata;
 import io.vlingo.symbio.State.TextState;
 import io.vlingo.symbio.store.common.event.TestEvent;
 import io.vlingo.symbio.store.journal.Stream;
-import io.vlingo.symbio.store.journal.StreamReader;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
 public abstract class JDBCStreamReaderActorTest extends BasePostgresJournalTest {
-    private StreamReader<String> eventStreamReader;
+    private JDBCStreamReader<String> eventStreamReader;
 
     @Before
-    @SuppressWarnings("unchecked")
     public void setUp() throws Exception {
         eventStreamReader = world.actorFor(
-                StreamReader.class,
+                JDBCStreamReader.class,
                 Definition.has(JDBCStreamReaderActor.class,
                         Definition.parameters(configuration))
         );
@@ -73,5 +76,79 @@ public abstract class JDBCStreamReaderActorTest extends BasePostgresJournalTest
         Assert.assertEquals(1, stream.entries.size());
         Assert.assertEquals(4, parse(stream.entries.get(0)).number);
     }
-}
 
+    @Test
+    public void testThatReadsBoundedPartsOfStream() throws Exception {
+        final Stream<String> first = eventStreamReader.streamFor(streamName, 1, 3).await();
+        assertEquals(3, first.streamVersion);
+        Assert.assertEquals(3, first.entries.size());
+        Assert.assertEquals(1, parse(first.entries.get(0)).number);
+
+        final Stream<String> second = eventStreamReader.streamFor(streamName, first.streamVersion + 1, 3).await();
+        assertEquals(4, second.streamVersion);
+        Assert.assertEquals(1, second.entries.size());
+        Assert.assertEquals(4, parse(second.entries.get(0)).number);
+    }
+
+    @Test
+    public void testThatReadsManyStreamsAtOnce() throws Exception {
+        insertSnapshot(2, new TestEvent(streamName, 2));
+        final String otherStreamName = UUID.randomUUID().toString();
+        queries.prepareInsertEntryQuery(otherStreamName, 1, gson.toJson(new TestEvent(otherStreamName, 10)),
+                TestEvent.class.getName(), 1, gson.toJson(Metadata.nullMetadata()))._1.executeUpdate();
+        configuration.connection.commit();
+        final String missingStreamName = UUID.randomUUID().toString();
+
+        final Map<String, Stream<String>> streams =
+                eventStreamReader.streamsFor(Arrays.asList(streamName, otherStreamName, missingStreamName)).await();
+        assertEquals(Arrays.asList(streamName, otherStreamName, missingStreamName), new ArrayList<>(streams.keySet()));
+
+        final Stream<String> stream = streams.get(streamName);
+        assertEquals(2, stream.snapshot.dataVersion);
+        assertEquals(4, stream.streamVersion);
+        Assert.assertEquals(3, stream.entries.size());
+        Assert.assertEquals(2, parse(stream.entries.get(0)).number);
+
+        final Stream<String> otherStream = streams.get(otherStreamName);
+        assertEquals(TextState.Null, otherStream.snapshot);
+        assertEquals(1, otherStream.streamVersion);
+        Assert.assertEquals(10, parse(otherStream.entries.get(0)).number);
+
+        Assert.assertTrue(streams.get(missingStreamName).entries.isEmpty());
+    }
+
+    @Test
+    public void testThatReadsOnlyTheTailOfCachedStreams() throws Exception {
+        final StreamCache streamCache = StreamCache.of(100);
+        final JDBCStreamReader<String> cachingStreamReader = world.actorFor(
+                JDBCStreamReader.class,
+                Definition.has(JDBCStreamReaderActor.class,
+                        Definition.parameters(configuration, streamCache))
+        );
+
+        final Stream<String> first = cachingStreamReader.streamFor(streamName).await();
+        assertEquals(4, first.streamVersion);
+        assertEquals(4, streamCache.entryCount());
+
+        insertEvent(5);
+
+        final Stream<String> second = cachingStreamReader.streamFor(streamName).await();
+        assertEquals(5, second.streamVersion);
+        Assert.assertEquals(5, second.entries.size());
+        Assert.assertEquals(5, parse(second.entries.get(4)).number);
+        assertEquals(5, streamCache.entryCount());
+        Assert.assertEquals(4, first.entries.size());
+    }
+
+    @Test
+    public void testThatReturnsTheLatestOfManySnapshots() throws Exception {
+        insertSnapshot(1, new TestEvent(streamName, 1));
+        insertSnapshot(3, new TestEvent(streamName, 3));
+        insertSnapshot(2, new TestEvent(streamName, 2));
+
+        Stream<String> stream = eventStreamReader.streamFor(streamName, 1).await();
+        assertEquals(3, stream.snapshot.dataVersion);
+        Assert.assertEquals(2, stream.entries.size());
+        Assert.assertEquals(3, parse(stream.entries.get(0)).number);
+    }
+}
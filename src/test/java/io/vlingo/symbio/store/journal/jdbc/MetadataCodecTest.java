@@ -0,0 +1,55 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import io.vlingo.symbio.Metadata;
+
+public class MetadataCodecTest {
+    private final Gson gson = new Gson();
+
+    @Test
+    public void testThatEncodesEmptyMetadataAsConstant() {
+        assertSame(MetadataCodec.EmptyMetadata, MetadataCodec.encoded(Metadata.nullMetadata()));
+        assertSame(MetadataCodec.EmptyMetadata, MetadataCodec.encoded(null));
+        assertSame(MetadataCodec.decoded(MetadataCodec.EmptyMetadata), MetadataCodec.decoded(gson.toJson(Metadata.nullMetadata())));
+    }
+
+    @Test
+    public void testThatEncodesAsGsonDoes() {
+        final Metadata metadata = Metadata.with(Collections.singletonMap("key", "value"), "value \"1\"", "op");
+        assertEquals(gson.toJson(metadata), MetadataCodec.encoded(metadata));
+        assertEquals(gson.toJson(Metadata.with("value", "op")), MetadataCodec.encoded(Metadata.with("value", "op")));
+    }
+
+    @Test
+    public void testThatDecodesWhatGsonEncodes() {
+        final Metadata metadata = MetadataCodec.decoded(gson.toJson(Metadata.with(Collections.singletonMap("key", "value"), "value", "op")));
+        assertEquals("value", metadata.value);
+        assertEquals("op", metadata.operation);
+        assertEquals("value", ((Map<?, ?>) metadata.object).get("key"));
+
+        final Metadata unknownFields = MetadataCodec.decoded("{\"value\":\"v\",\"operation\":null,\"other\":[1,2]}");
+        assertEquals("v", unknownFields.value);
+        assertEquals("", unknownFields.operation);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatRejectsMalformedMetadata() {
+        MetadataCodec.decoded("[\"value\"]");
+    }
+}
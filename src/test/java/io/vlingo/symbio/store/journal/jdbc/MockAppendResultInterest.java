@@ -21,6 +21,7 @@ import io.vlingo.symbio.store.journal.Journal.AppendResultInterest;
 
 public class MockAppendResultInterest implements AppendResultInterest {
   private AccessSafely access = afterCompleting(0);
+  private AtomicInteger concurrencyViolationCount = new AtomicInteger(0);
   private AtomicInteger failureCount = new AtomicInteger(0);
   private AtomicInteger successCount = new AtomicInteger(0);
 
@@ -33,6 +34,9 @@ public class MockAppendResultInterest implements AppendResultInterest {
               return result;
             })
             .otherwise(failure -> {
+              if (failure.result == Result.ConcurrencyViolation) {
+                concurrencyViolationCount.incrementAndGet();
+              }
               access.writeUsing("failureCount", 1);
               return failure.result;
             });
@@ -47,6 +51,9 @@ public class MockAppendResultInterest implements AppendResultInterest {
               return result;
             })
             .otherwise(failure -> {
+              if (failure.result == Result.ConcurrencyViolation) {
+                concurrencyViolationCount.incrementAndGet();
+              }
               access.writeUsing("failureCount", 1);
               return failure.result;
             });
@@ -61,6 +68,9 @@ public class MockAppendResultInterest implements AppendResultInterest {
               return result;
             })
             .otherwise(failure -> {
+              if (failure.result == Result.ConcurrencyViolation) {
+                concurrencyViolationCount.incrementAndGet();
+              }
               access.writeUsing("failureCount", 1);
               return failure.result;
             });
@@ -75,6 +85,9 @@ public class MockAppendResultInterest implements AppendResultInterest {
               return result;
             })
             .otherwise(failure -> {
+              if (failure.result == Result.ConcurrencyViolation) {
+                concurrencyViolationCount.incrementAndGet();
+              }
               access.writeUsing("failureCount", 1);
               return failure.result;
             });
@@ -84,6 +97,7 @@ public class MockAppendResultInterest implements AppendResultInterest {
     access = AccessSafely.afterCompleting(times);
 
     access
+      .readingWith("concurrencyViolationCount", () -> concurrencyViolationCount.get())
       .writingWith("failureCount", (Integer increment) -> failureCount.addAndGet(increment))
       .readingWith("failureCount", () -> failureCount.get())
       .writingWith("successCount", (Integer increment) -> successCount.addAndGet(increment))
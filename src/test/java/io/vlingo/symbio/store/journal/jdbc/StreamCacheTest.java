@@ -0,0 +1,95 @@
+// Copyright © 2012-2018 Vaughn Vernon. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.symbio.store.journal.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.vlingo.symbio.BaseEntry;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.State.TextState;
+import io.vlingo.symbio.store.journal.Stream;
+
+public class StreamCacheTest {
+
+    @Test
+    public void testThatExtendsCachedStreamWithFollowingEntries() {
+        final StreamCache cache = StreamCache.of(10);
+        cache.cache(streamOf("a", 1, 2));
+
+        cache.appended("a", 3, entries(3, 2));
+
+        final Stream<String> stream = cache.streamOf("a");
+        assertEquals(4, stream.streamVersion);
+        assertEquals(4, stream.entries.size());
+        assertEquals("4", stream.entries.get(3).id());
+        assertEquals(4, cache.entryCount());
+    }
+
+    @Test
+    public void testThatEvictsStreamMissingAppendedEntries() {
+        final StreamCache cache = StreamCache.of(10);
+        cache.cache(streamOf("a", 1, 2));
+
+        cache.appended("a", 2, entries(2, 1));
+        assertEquals(2, cache.streamOf("a").streamVersion);
+
+        cache.appended("a", 4, entries(4, 1));
+        assertNull(cache.streamOf("a"));
+        assertEquals(0, cache.entryCount());
+    }
+
+    @Test
+    public void testThatEvictsLeastRecentlyUsedStreams() {
+        final StreamCache cache = StreamCache.of(5);
+        cache.cache(streamOf("a", 1, 2));
+        cache.cache(streamOf("b", 1, 2));
+        cache.streamOf("a");
+
+        cache.cache(streamOf("c", 1, 2));
+
+        assertNull(cache.streamOf("b"));
+        assertEquals(2, cache.streamOf("a").streamVersion);
+        assertEquals(2, cache.streamOf("c").streamVersion);
+        assertEquals(4, cache.entryCount());
+    }
+
+    @Test
+    public void testThatDoesNotCacheStreamsBeyondMaxEntries() {
+        final StreamCache cache = StreamCache.of(2);
+        cache.cache(streamOf("a", 1, 3));
+        assertNull(cache.streamOf("a"));
+
+        cache.cache(streamOf("b", 1, 2));
+        cache.appended("b", 3, entries(3, 1));
+        assertNull(cache.streamOf("b"));
+        assertEquals(0, cache.entryCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatMaxEntriesMustBePositive() {
+        StreamCache.of(0);
+    }
+
+    private Stream<String> streamOf(final String streamName, final int fromStreamVersion, final int count) {
+        return new Stream<>(streamName, fromStreamVersion + count - 1, entries(fromStreamVersion, count), TextState.Null);
+    }
+
+    private List<BaseEntry<String>> entries(final int fromStreamVersion, final int count) {
+        final List<BaseEntry<String>> entries = new ArrayList<>(count);
+        for (int version = fromStreamVersion; version < fromStreamVersion + count; ++version) {
+            entries.add(new BaseEntry.TextEntry(String.valueOf(version), Object.class, 1, "{}", Metadata.nullMetadata()));
+        }
+        return entries;
+    }
+}
@@ -80,6 +80,40 @@ public abstract class JDBCTextStateStoreEntryTest {
         assertEquals(new TestEvents.Event3(), entryAdapterProvider.asSource(readEntries.get(2)));
     }
 
+    @Test
+    public void testThatSourcesOfOneWriteAppendWithAscendingIds() {
+        final AccessSafely accessInterest1 = interest.afterCompleting(1);
+        dispatcher.afterCompleting(0);
+
+        final Entity1 entity1 = new Entity1("123", 1);
+        store.write(entity1.id, entity1, 1, Arrays.asList(new TestEvents.Event1(), new TestEvents.Event2(), new TestEvents.Event3()), interest);
+
+        assertEquals(3, (int) accessInterest1.readFrom("textWriteAccumulatedSourcesCount"));
+
+        final List<BaseEntry.TextEntry> readEntries = new ArrayList<>();
+        final AccessSafely accessReadEntries = AccessSafely.afterCompleting(1);
+        accessReadEntries
+                .writingWith("all", (List<BaseEntry.TextEntry> all) -> readEntries.addAll(all))
+                .readingWith("all", () -> readEntries)
+                .readingWith("allCount", () -> readEntries.size());
+
+        store.entryReader("test")
+                .andThenTo(reader -> reader.readNext(3))
+                .andThenConsume((List<Entry<?>> all) -> {
+                    accessReadEntries.writeUsing("all", all);
+                });
+
+        assertEquals(3, (int) accessReadEntries.readFrom("allCount"));
+
+        assertEquals(new TestEvents.Event1(), entryAdapterProvider.asSource(readEntries.get(0)));
+        assertEquals(new TestEvents.Event2(), entryAdapterProvider.asSource(readEntries.get(1)));
+        assertEquals(new TestEvents.Event3(), entryAdapterProvider.asSource(readEntries.get(2)));
+
+        final long firstId = Long.parseLong(readEntries.get(0).id());
+        assertEquals(firstId + 1, Long.parseLong(readEntries.get(1).id()));
+        assertEquals(firstId + 2, Long.parseLong(readEntries.get(2).id()));
+    }
+
     @Before
     public void setUp() throws Exception {
         world = World.startWithDefaults("test-store");
@@ -14,17 +14,24 @@ import static org.junit.Assert.assertNotNull;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import io.vlingo.actors.World;
+import io.vlingo.symbio.Entry;
 import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.State;
 import io.vlingo.symbio.State.BinaryState;
 import io.vlingo.symbio.State.TextState;
 import io.vlingo.symbio.store.DataFormat;
 import io.vlingo.symbio.store.common.jdbc.Configuration.TestConfiguration;
+import io.vlingo.symbio.store.dispatch.Dispatchable;
 import io.vlingo.symbio.store.state.Entity1;
 import io.vlingo.symbio.store.state.StateTypeStateStoreMap;
 
@@ -128,6 +135,52 @@ public class HSQLDBStorageDelegateTest {
     assertEquals(writeState, readState);
   }
 
+  @Test
+  public void testThatReferencedDispatchableStateIsReadFromItsStore() throws Exception {
+    configuration = new TestConfiguration(testConfiguration(DataFormat.Binary).builder().withReferencedDispatchableStates(true));
+    delegate = new HSQLDBStorageDelegate(configuration, world.defaultLogger());
+
+    final BinaryState writeState1 = new BinaryState("123", Entity1.class, 1, "data1".getBytes(), 1, Metadata.with("metadata1", "op1"));
+    final Dispatchable<Entry<?>, State<byte[]>> dispatchable = new Dispatchable<>("dispatch-1", LocalDateTime.now(), writeState1, Collections.emptyList());
+
+    delegate.beginWrite();
+    delegate.writeExpressionFor(entity1StoreName, writeState1).executeUpdate();
+    final PreparedStatement dispatchableStatement = delegate.dispatchableWriteExpressionFor(dispatchable);
+    dispatchableStatement.executeUpdate();
+    delegate.complete();
+
+    final BinaryState writeState2 = new BinaryState("123", Entity1.class, 1, "data2".getBytes(), 2, Metadata.with("metadata2", "op2"));
+
+    delegate.beginWrite();
+    delegate.writeExpressionFor(entity1StoreName, writeState2).executeUpdate();
+    delegate.complete();
+
+    final List<Dispatchable<Entry<?>, State<?>>> unconfirmed = new ArrayList<>(delegate.allUnconfirmedDispatchableStates());
+
+    assertEquals(1, unconfirmed.size());
+    assertEquals(writeState2, unconfirmed.get(0).typedState());
+  }
+
+  @Test
+  public void testThatCopiedDispatchableStateIsNeverTakenAsReferenced() throws Exception {
+    configuration = testConfiguration(DataFormat.Text);
+    delegate = new HSQLDBStorageDelegate(configuration, world.defaultLogger());
+
+    // the data once used to mark a referenced state is an ordinary copy unless states are referenced
+    final TextState writeState = new TextState("123", Entity1.class, 1, "null", 1, Metadata.with("metadata", "op"));
+    final Dispatchable<Entry<?>, State<String>> dispatchable = new Dispatchable<>("dispatch-1", LocalDateTime.now(), writeState, Collections.emptyList());
+
+    delegate.beginWrite();
+    final PreparedStatement dispatchableStatement = delegate.dispatchableWriteExpressionFor(dispatchable);
+    dispatchableStatement.executeUpdate();
+    delegate.complete();
+
+    final List<Dispatchable<Entry<?>, State<?>>> unconfirmed = new ArrayList<>(delegate.allUnconfirmedDispatchableStates());
+
+    assertEquals(1, unconfirmed.size());
+    assertEquals(writeState, unconfirmed.get(0).typedState());
+  }
+
   @Before
   public void setUp() {
     world = World.startWithDefaults("test-store");